@@ -18,8 +18,7 @@ x * Licensed to the Apache Software Foundation (ASF) under one
  */
 package de.crowdcode.kissmda.cartridges.simplejava;
 
-import java.util.ArrayList;
-import java.util.Date;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -88,15 +87,6 @@ public class EnumGenerator {
 	@Inject
 	private JdtHelper jdtHelper;
 
-	private String sourceDirectoryPackageName;
-
-	private ArrayList<String> constructorParameterNames = new ArrayList<String>();
-
-	public void setConstructorParameterNames(
-			ArrayList<String> constructorParameterNames) {
-		this.constructorParameterNames = constructorParameterNames;
-	}
-
 	/**
 	 * Generate the Class Interface. This is the main generation part for this
 	 * SimpleJavaTransformer.
@@ -107,17 +97,17 @@ public class EnumGenerator {
 	 */
 	public CompilationUnit generateEnum(Classifier clazz,
 			String sourceDirectoryPackageName) {
-		this.sourceDirectoryPackageName = sourceDirectoryPackageName;
-
+		GeneratorContext generatorContext = new GeneratorContext(
+				sourceDirectoryPackageName);
 		AST ast = AST.newAST(AST.JLS3);
 		CompilationUnit cu = ast.newCompilationUnit();
 
-		generatePackage(clazz, ast, cu);
+		generatePackage(clazz, ast, cu, generatorContext);
 		EnumDeclaration ed = generateEnum(clazz, ast, cu);
-		generateAttributes(clazz, ast, ed);
-		generateConstructor(clazz, ast, ed);
-		generateConstants(clazz, ast, ed);
-		generateGetterMethod(clazz, ast, ed);
+		generateAttributes(clazz, ast, ed, generatorContext);
+		generateConstructor(clazz, ast, ed, generatorContext);
+		generateConstants(clazz, ast, ed, generatorContext);
+		generateGetterMethod(clazz, ast, ed, generatorContext);
 
 		logger.log(Level.INFO, "Compilation unit: \n\n" + cu.toString());
 		return cu;
@@ -132,12 +122,16 @@ public class EnumGenerator {
 	 *            JDT AST
 	 * @param ed
 	 *            EnumerationDeclaration
+	 * @param generatorContext
+	 *            state of this generation
 	 */
 	@SuppressWarnings("unchecked")
-	public void generateAttributes(Classifier clazz, AST ast, EnumDeclaration ed) {
+	public void generateAttributes(Classifier clazz, AST ast,
+			EnumDeclaration ed, GeneratorContext generatorContext) {
 		EList<Property> properties = clazz.getAttributes();
 		for (Property property : properties) {
-			ed.bodyDeclarations().add(generateAttribute(clazz, ast, property));
+			ed.bodyDeclarations().add(
+					generateAttribute(clazz, ast, property, generatorContext));
 		}
 	}
 
@@ -150,10 +144,12 @@ public class EnumGenerator {
 	 *            JDT AST
 	 * @param property
 	 *            UML2 property
+	 * @param generatorContext
+	 *            state of this generation
 	 * @return FieldDeclaration
 	 */
 	public FieldDeclaration generateAttribute(Classifier clazz, AST ast,
-			Property property) {
+			Property property, GeneratorContext generatorContext) {
 		Type type = property.getType();
 		logger.log(Level.FINE, "Class: " + clazz.getName() + " - "
 				+ "Property: " + property.getName() + " - "
@@ -164,7 +160,8 @@ public class EnumGenerator {
 
 		// Check whether primitive or array type or simple type?
 		org.eclipse.jdt.core.dom.Type chosenType = jdtHelper.getChosenType(ast,
-				umlTypeName, umlQualifiedTypeName, sourceDirectoryPackageName);
+				umlTypeName, umlQualifiedTypeName,
+				generatorContext.getSourceDirectoryPackageName());
 
 		VariableDeclarationFragment fragment = ast
 				.newVariableDeclarationFragment();
@@ -207,10 +204,12 @@ public class EnumGenerator {
 	 *            JDT AST tree
 	 * @param ed
 	 *            EnumDeclaration JDT
+	 * @param generatorContext
+	 *            state of this generation
 	 */
 	@SuppressWarnings("unchecked")
 	public void generateGetterMethod(Classifier clazz, AST ast,
-			EnumDeclaration ed) {
+			EnumDeclaration ed, GeneratorContext generatorContext) {
 		EList<Property> properties = clazz.getAttributes();
 		for (Property property : properties) {
 			Type type = property.getType();
@@ -222,7 +221,7 @@ public class EnumGenerator {
 			String umlQualifiedTypeName = type.getQualifiedName();
 			MethodDeclaration methodDeclaration = interfaceGenerator
 					.generateGetterMethod(ast, ed, property, umlTypeName,
-							umlQualifiedTypeName, sourceDirectoryPackageName);
+							umlQualifiedTypeName, generatorContext);
 
 			// Public
 			methodDeclaration.modifiers().add(
@@ -253,8 +252,8 @@ public class EnumGenerator {
 	 */
 	public void generateGetterMethod(Classifier clazz, AST ast,
 			EnumDeclaration ed, String sourceDirectoryPackageName) {
-		this.sourceDirectoryPackageName = sourceDirectoryPackageName;
-		generateGetterMethod(clazz, ast, ed);
+		generateGetterMethod(clazz, ast, ed, new GeneratorContext(
+				sourceDirectoryPackageName));
 	}
 
 	/**
@@ -266,10 +265,12 @@ public class EnumGenerator {
 	 *            JDT AST
 	 * @param ed
 	 *            EnumDeclaration JDT
+	 * @param generatorContext
+	 *            state of this generation
 	 */
 	@SuppressWarnings("unchecked")
 	public void generateConstructor(Classifier clazz, AST ast,
-			EnumDeclaration ed) {
+			EnumDeclaration ed, GeneratorContext generatorContext) {
 		// Constructor
 		MethodDeclaration md = ast.newMethodDeclaration();
 		md.setConstructor(true);
@@ -279,7 +280,7 @@ public class EnumGenerator {
 		ed.bodyDeclarations().add(md);
 
 		// We need to build contructor parameters for each properties
-		generateContructorParameters(clazz, ast, md);
+		generateContructorParameters(clazz, ast, md, generatorContext);
 
 		// Content of constructor
 		Block block = ast.newBlock();
@@ -320,7 +321,9 @@ public class EnumGenerator {
 
 	@SuppressWarnings("unchecked")
 	void generateContructorParameters(Classifier clazz, AST ast,
-			MethodDeclaration md) {
+			MethodDeclaration md, GeneratorContext generatorContext) {
+		List<String> constructorParameterNames = generatorContext
+				.getConstructorParameterNames();
 		// Empty the list first
 		constructorParameterNames.clear();
 
@@ -348,7 +351,7 @@ public class EnumGenerator {
 			org.eclipse.jdt.core.dom.Type constructorChosenType = jdtHelper
 					.getChosenType(ast, contructorUmlTypeName,
 							constructorUmlQualifiedTypeName,
-							sourceDirectoryPackageName);
+							generatorContext.getSourceDirectoryPackageName());
 
 			SingleVariableDeclaration variableDeclaration = ast
 					.newSingleVariableDeclaration();
@@ -416,19 +419,19 @@ public class EnumGenerator {
 	 *            the JDT Java AST
 	 * @param cu
 	 *            the generated Java compilation unit
+	 * @param generatorContext
+	 *            state of this generation
 	 */
-	public void generatePackage(Classifier clazz, AST ast, CompilationUnit cu) {
+	public void generatePackage(Classifier clazz, AST ast, CompilationUnit cu,
+			GeneratorContext generatorContext) {
 		PackageDeclaration pd = ast.newPackageDeclaration();
-		String fullPackageName = getFullPackageName(clazz);
+		String fullPackageName = getFullPackageName(clazz, generatorContext);
 		pd.setName(ast.newName(fullPackageName));
 
-		Date now = new Date();
-		String commentDate = "Generation date: " + now.toString() + ".";
-
 		interfaceGenerator.generatePackageJavadoc(ast, pd,
 				PackageComment.CONTENT_1.getValue(),
 				PackageComment.CONTENT_2.getValue(), " ",
-				PackageComment.CONTENT_3.getValue(), " ", commentDate);
+				PackageComment.CONTENT_3.getValue());
 
 		cu.setPackage(pd);
 	}
@@ -442,9 +445,14 @@ public class EnumGenerator {
 	 *            the JDT Java AST
 	 * @param ed
 	 *            Enumeration declaration for Java JDT
+	 * @param generatorContext
+	 *            state of this generation
 	 */
 	@SuppressWarnings("unchecked")
-	public void generateConstants(Classifier clazz, AST ast, EnumDeclaration ed) {
+	public void generateConstants(Classifier clazz, AST ast,
+			EnumDeclaration ed, GeneratorContext generatorContext) {
+		List<String> constructorParameterNames = generatorContext
+				.getConstructorParameterNames();
 		// Get all properties for this enumeration
 		Enumeration enumeration = (Enumeration) clazz;
 		EList<EnumerationLiteral> enumerationLiterals = enumeration
@@ -552,9 +560,10 @@ public class EnumGenerator {
 		return className;
 	}
 
-	private String getFullPackageName(Classifier clazz) {
+	private String getFullPackageName(Classifier clazz,
+			GeneratorContext generatorContext) {
 		String fullPackageName = packageHelper.getFullPackageName(clazz,
-				sourceDirectoryPackageName);
+				generatorContext.getSourceDirectoryPackageName());
 		return fullPackageName;
 	}
 }
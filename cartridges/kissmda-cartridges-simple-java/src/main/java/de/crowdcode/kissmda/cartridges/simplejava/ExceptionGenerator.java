@@ -18,7 +18,6 @@
  */
 package de.crowdcode.kissmda.cartridges.simplejava;
 
-import java.util.Date;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -74,20 +73,6 @@ public class ExceptionGenerator {
 	@Inject
 	private JdtHelper jdtHelper;
 
-	private String sourceDirectoryPackageName;
-
-	private boolean isCheckedException = true;
-
-	/**
-	 * Set this exception as checked exception.
-	 * 
-	 * @param isCheckedException
-	 *            boolean
-	 */
-	public void setCheckedException(boolean isCheckedException) {
-		this.isCheckedException = isCheckedException;
-	}
-
 	/**
 	 * Generate the Class Exception.
 	 * 
@@ -98,9 +83,8 @@ public class ExceptionGenerator {
 	 */
 	public CompilationUnit generateCheckedException(Classifier clazz,
 			String sourceDirectoryPackageName) {
-		this.sourceDirectoryPackageName = sourceDirectoryPackageName;
-		this.isCheckedException = true;
-		CompilationUnit cu = generateException(clazz);
+		CompilationUnit cu = generateException(clazz, new GeneratorContext(
+				sourceDirectoryPackageName, true));
 		return cu;
 	}
 
@@ -113,9 +97,8 @@ public class ExceptionGenerator {
 	 */
 	public CompilationUnit generateUncheckedException(Classifier clazz,
 			String sourceDirectoryPackageName) {
-		this.sourceDirectoryPackageName = sourceDirectoryPackageName;
-		this.isCheckedException = false;
-		CompilationUnit cu = generateException(clazz);
+		CompilationUnit cu = generateException(clazz, new GeneratorContext(
+				sourceDirectoryPackageName, false));
 		return cu;
 	}
 
@@ -125,16 +108,19 @@ public class ExceptionGenerator {
 	 * 
 	 * @param clazz
 	 *            UML class
+	 * @param generatorContext
+	 *            state of this generation
 	 * @return JDT compilation unit
 	 */
-	private CompilationUnit generateException(Classifier clazz) {
+	private CompilationUnit generateException(Classifier clazz,
+			GeneratorContext generatorContext) {
 		AST ast = AST.newAST(AST.JLS3);
 		CompilationUnit cu = ast.newCompilationUnit();
 
-		generatePackage(clazz, ast, cu);
-		TypeDeclaration td = generateClass(clazz, ast, cu);
+		generatePackage(clazz, ast, cu, generatorContext);
+		TypeDeclaration td = generateClass(clazz, ast, cu, generatorContext);
 		generateSerialVersionUID(clazz, ast, td);
-		generateMethods(clazz, ast, td);
+		generateMethods(clazz, ast, td, generatorContext);
 		generateConstructors(clazz, ast, td);
 
 		logger.log(Level.INFO, "Compilation unit: \n\n" + cu.toString());
@@ -183,11 +169,13 @@ public class ExceptionGenerator {
 	 *            the JDT Java AST
 	 * @param cu
 	 *            the generated Java compilation unit
+	 * @param generatorContext
+	 *            state of this generation
 	 * @return TypeDeclaration JDT
 	 */
 	@SuppressWarnings("unchecked")
 	public TypeDeclaration generateClass(Classifier clazz, AST ast,
-			CompilationUnit cu) {
+			CompilationUnit cu, GeneratorContext generatorContext) {
 		String className = getClassName(clazz);
 		TypeDeclaration td = ast.newTypeDeclaration();
 		td.setInterface(false);
@@ -196,7 +184,7 @@ public class ExceptionGenerator {
 		td.setName(ast.newSimpleName(className));
 
 		// Add inheritance
-		generateClassInheritance(clazz, ast, td);
+		generateClassInheritance(clazz, ast, td, generatorContext);
 		// Add template params
 		generateClassTemplateParams(clazz, ast, td);
 
@@ -223,9 +211,11 @@ public class ExceptionGenerator {
 	 *            the JDT Java AST
 	 * @param td
 	 *            TypeDeclaration JDT
+	 * @param generatorContext
+	 *            state of this generation
 	 */
 	private void generateClassInheritance(Classifier clazz, AST ast,
-			TypeDeclaration td) {
+			TypeDeclaration td, GeneratorContext generatorContext) {
 		EList<Generalization> generalizations = clazz.getGeneralizations();
 		if (generalizations != null) {
 			if (!generalizations.isEmpty()) {
@@ -238,7 +228,8 @@ public class ExceptionGenerator {
 								.getQualifiedName();
 						Name name = jdtHelper.createFullQualifiedTypeAsName(
 								ast, fullQualifiedInterfaceName,
-								sourceDirectoryPackageName);
+								generatorContext
+										.getSourceDirectoryPackageName());
 						SimpleType simpleType = ast.newSimpleType(name);
 						td.setSuperclassType(simpleType);
 					}
@@ -251,7 +242,7 @@ public class ExceptionGenerator {
 				// Empty, we extend from java.lang.Exception or
 				// java.lang.RuntimeException
 				String exceptionToBeInherited = "Exception";
-				if (!isCheckedException) {
+				if (!generatorContext.isCheckedException()) {
 					exceptionToBeInherited = "RuntimeException";
 				}
 				SimpleType simpleType = ast.newSimpleType(ast
@@ -270,28 +261,29 @@ public class ExceptionGenerator {
 	 *            the JDT Java AST
 	 * @param cu
 	 *            the generated Java compilation unit
+	 * @param generatorContext
+	 *            state of this generation
 	 */
-	private void generatePackage(Classifier clazz, AST ast, CompilationUnit cu) {
+	private void generatePackage(Classifier clazz, AST ast,
+			CompilationUnit cu, GeneratorContext generatorContext) {
 		PackageDeclaration pd = ast.newPackageDeclaration();
-		String fullPackageName = getFullPackageName(clazz);
+		String fullPackageName = getFullPackageName(clazz, generatorContext);
 		pd.setName(ast.newName(fullPackageName));
 
-		Date now = new Date();
-		String commentDate = "Generation date: " + now.toString() + ".";
-
 		interfaceGenerator.generatePackageJavadoc(ast, pd,
 				PackageComment.CONTENT_1.getValue(),
 				PackageComment.CONTENT_2.getValue(), " ",
-				PackageComment.CONTENT_3.getValue(), " ", commentDate);
+				PackageComment.CONTENT_3.getValue());
 
 		cu.setPackage(pd);
 	}
 
 	/**
-	 * {@link InterfaceGenerator #generateMethods(Classifier, AST, TypeDeclaration)}
+	 * {@link InterfaceGenerator #generateMethods(Classifier, AST, TypeDeclaration, GeneratorContext)}
 	 */
-	private void generateMethods(Classifier clazz, AST ast, TypeDeclaration td) {
-		interfaceGenerator.generateMethods(clazz, ast, td);
+	private void generateMethods(Classifier clazz, AST ast,
+			TypeDeclaration td, GeneratorContext generatorContext) {
+		interfaceGenerator.generateMethods(clazz, ast, td, generatorContext);
 	}
 
 	/**
@@ -370,9 +362,10 @@ public class ExceptionGenerator {
 		return className;
 	}
 
-	private String getFullPackageName(Classifier clazz) {
+	private String getFullPackageName(Classifier clazz,
+			GeneratorContext generatorContext) {
 		String fullPackageName = packageHelper.getFullPackageName(clazz,
-				sourceDirectoryPackageName);
+				generatorContext.getSourceDirectoryPackageName());
 		return fullPackageName;
 	}
 }
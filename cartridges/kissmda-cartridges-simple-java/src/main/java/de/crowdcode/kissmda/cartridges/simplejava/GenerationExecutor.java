@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.cartridges.simplejava;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.crowdcode.kissmda.core.TransformerException;
+
+/**
+ * Executor for the generation of the files. The tasks only format and write
+ * the code, the UML model is never touched outside of the thread of the
+ * transformer, because the UML2 model is not thread safe.
+ * 
+ * With one thread and no writer threads the tasks run at once in the calling
+ * thread. Otherwise the generation is a pipeline: the transformer walks the
+ * model and builds the ASTs, the formatting threads format the code and the
+ * writer threads write the files. Each stage has a bounded queue, a stage
+ * waits if the queue of the next stage is full. Without writer threads the
+ * formatting threads write the files themselves.
+ * 
+ * Tasks for the same file run in the order they are given, so the result is
+ * the same as the sequential one.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class GenerationExecutor {
+
+	private static final Logger logger = Logger
+			.getLogger(GenerationExecutor.class.getName());
+
+	private static final int QUEUE_SIZE_PER_THREAD = 4;
+
+	private final Map<String, Future<Future<Void>>> futures = new LinkedHashMap<String, Future<Future<Void>>>();
+
+	private ThreadPoolExecutor formatExecutor;
+
+	private ThreadPoolExecutor writeExecutor;
+
+	/**
+	 * Task of the writing stage.
+	 */
+	public interface WriteTask {
+
+		/**
+		 * Write the formatted code.
+		 * 
+		 * @param formattedCode
+		 *            the code from the formatting stage
+		 * @throws IOException
+		 *             input or output error on file system
+		 */
+		void write(String formattedCode) throws IOException;
+	}
+
+	/**
+	 * Start the executor without writer threads.
+	 * 
+	 * @param threads
+	 *            number of threads, 1 or less for a sequential generation
+	 */
+	public void start(int threads) {
+		start(threads, 0);
+	}
+
+	/**
+	 * Start the executor.
+	 * 
+	 * @param threads
+	 *            number of formatting threads
+	 * @param writerThreads
+	 *            number of writer threads, 0 or less to write the files in
+	 *            the formatting threads
+	 */
+	public void start(int threads, int writerThreads) {
+		futures.clear();
+		if (writerThreads > 0) {
+			int formatThreads = Math.max(threads, 1);
+			logger.log(Level.INFO, "Generate the files with " + formatThreads
+					+ " formatting and " + writerThreads + " writer threads");
+			formatExecutor = createExecutor("format", formatThreads);
+			writeExecutor = createExecutor("write", writerThreads);
+		} else if (threads > 1) {
+			logger.log(Level.INFO, "Generate the files with " + threads
+					+ " threads");
+			formatExecutor = createExecutor("format", threads);
+		}
+	}
+
+	/**
+	 * Execute the formatting and the writing of the given file. The write
+	 * task runs in a writer thread if there are any.
+	 * 
+	 * @param fileName
+	 *            name of the file the tasks generate
+	 * @param formatTask
+	 *            task to format the code
+	 * @param writeTask
+	 *            task to write the formatted code
+	 * @throws IOException
+	 *             input or output error of the tasks
+	 */
+	public void execute(String fileName, final Callable<String> formatTask,
+			final WriteTask writeTask) throws IOException {
+		if (formatExecutor == null) {
+			writeTask.write(call(formatTask));
+			return;
+		}
+		submit(fileName, new Callable<Future<Void>>() {
+			@Override
+			public Future<Void> call() throws Exception {
+				final String formattedCode = formatTask.call();
+				if (writeExecutor == null) {
+					writeTask.write(formattedCode);
+					return null;
+				}
+				return writeExecutor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws IOException {
+						writeTask.write(formattedCode);
+						return null;
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Wait for all tasks and stop the executor. The first error in the order
+	 * of the tasks is thrown.
+	 * 
+	 * @throws IOException
+	 *             input or output error of a task
+	 */
+	public void finish() throws IOException {
+		if (formatExecutor == null) {
+			return;
+		}
+		try {
+			IOException ioException = null;
+			RuntimeException runtimeException = null;
+			for (Future<Future<Void>> future : futures.values()) {
+				try {
+					get(future);
+				} catch (IOException e) {
+					if (ioException == null && runtimeException == null) {
+						ioException = e;
+					}
+				} catch (RuntimeException e) {
+					if (ioException == null && runtimeException == null) {
+						runtimeException = e;
+					}
+				}
+			}
+			if (ioException != null) {
+				throw ioException;
+			}
+			if (runtimeException != null) {
+				throw runtimeException;
+			}
+		} finally {
+			futures.clear();
+			formatExecutor.shutdown();
+			formatExecutor = null;
+			if (writeExecutor != null) {
+				writeExecutor.shutdown();
+				writeExecutor = null;
+			}
+		}
+	}
+
+	private void submit(String fileName, Callable<Future<Void>> task)
+			throws IOException {
+		Future<Future<Void>> previousFuture = futures.remove(fileName);
+		if (previousFuture != null) {
+			// The last task for a file wins, as in the sequential generation
+			get(previousFuture);
+		}
+		futures.put(fileName, formatExecutor.submit(task));
+	}
+
+	private ThreadPoolExecutor createExecutor(String stageName, int threads) {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads,
+				threads, 1, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(
+						threads * QUEUE_SIZE_PER_THREAD),
+				new GenerationThreadFactory(stageName), new WaitPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private <T> T call(Callable<T> task) throws IOException {
+		try {
+			return task.call();
+		} catch (IOException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new TransformerException(e);
+		}
+	}
+
+	private void get(Future<Future<Void>> future) throws IOException {
+		Future<Void> writeFuture = getResult(future);
+		if (writeFuture != null) {
+			getResult(writeFuture);
+		}
+	}
+
+	private <T> T getResult(Future<T> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TransformerException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new TransformerException(cause);
+		}
+	}
+
+	/**
+	 * Backpressure of a stage: the submitting thread waits until the queue of
+	 * the stage has room for the task.
+	 */
+	private static class WaitPolicy implements RejectedExecutionHandler {
+
+		@Override
+		public void rejectedExecution(Runnable runnable,
+				ThreadPoolExecutor executor) {
+			if (executor.isShutdown()) {
+				throw new RejectedExecutionException(
+						"Generation executor is shut down");
+			}
+			try {
+				executor.getQueue().put(runnable);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RejectedExecutionException(e);
+			}
+		}
+	}
+
+	private static class GenerationThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		private final String stageName;
+
+		GenerationThreadFactory(String stageName) {
+			this.stageName = stageName;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "kissmda-" + stageName + "-"
+					+ threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.cartridges.simplejava;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * State of one generation of a compilation unit. The generators keep no
+ * state of their own, so one instance of each generator can be used from
+ * several threads. A generator context belongs to one generation and must not
+ * be shared between threads.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class GeneratorContext {
+
+	private final String sourceDirectoryPackageName;
+
+	private final boolean checkedException;
+
+	private final List<String> constructorParameterNames = new ArrayList<String>();
+
+	/**
+	 * Create a generator context.
+	 * 
+	 * @param sourceDirectoryPackageName
+	 *            root package name of the UML model
+	 */
+	public GeneratorContext(String sourceDirectoryPackageName) {
+		this(sourceDirectoryPackageName, true);
+	}
+
+	/**
+	 * Create a generator context for an exception.
+	 * 
+	 * @param sourceDirectoryPackageName
+	 *            root package name of the UML model
+	 * @param checkedException
+	 *            true for a checked exception, false for a runtime exception
+	 */
+	public GeneratorContext(String sourceDirectoryPackageName,
+			boolean checkedException) {
+		this.sourceDirectoryPackageName = sourceDirectoryPackageName;
+		this.checkedException = checkedException;
+	}
+
+	public String getSourceDirectoryPackageName() {
+		return sourceDirectoryPackageName;
+	}
+
+	public boolean isCheckedException() {
+		return checkedException;
+	}
+
+	/**
+	 * Names of the constructor parameters of an enumeration in the order of
+	 * the constructor. The constants use the same order for their arguments.
+	 * 
+	 * @return modifiable list of the parameter names
+	 */
+	public List<String> getConstructorParameterNames() {
+		return constructorParameterNames;
+	}
+}
@@ -18,7 +18,6 @@
  */
 package de.crowdcode.kissmda.cartridges.simplejava;
 
-import java.util.Date;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -89,8 +88,6 @@ public class InterfaceGenerator {
 	@Inject
 	private DataTypeUtils dataTypeUtils;
 
-	private String sourceDirectoryPackageName;
-
 	/**
 	 * Generate the Class Interface. This is the main generation part for this
 	 * SimpleJavaTransformer.
@@ -101,17 +98,18 @@ public class InterfaceGenerator {
 	 */
 	public CompilationUnit generateInterface(Classifier clazz,
 			String sourceDirectoryPackageName) {
-		this.sourceDirectoryPackageName = sourceDirectoryPackageName;
 		logger.log(Level.FINE, "Start generateInterface: " + clazz.getName()
 				+ " -----------------------------");
 
+		GeneratorContext generatorContext = new GeneratorContext(
+				sourceDirectoryPackageName);
 		AST ast = AST.newAST(AST.JLS3);
 		CompilationUnit cu = ast.newCompilationUnit();
 
-		generatePackage(clazz, ast, cu);
-		TypeDeclaration td = generateClass(clazz, ast, cu);
-		generateMethods(clazz, ast, td);
-		generateGettersSetters(clazz, ast, td);
+		generatePackage(clazz, ast, cu, generatorContext);
+		TypeDeclaration td = generateClass(clazz, ast, cu, generatorContext);
+		generateMethods(clazz, ast, td, generatorContext);
+		generateGettersSetters(clazz, ast, td, generatorContext);
 
 		logger.log(Level.INFO, "Compilation unit: \n\n" + cu.toString());
 		logger.log(Level.FINE, "End generateInterface: " + clazz.getName()
@@ -152,9 +150,11 @@ public class InterfaceGenerator {
 	 *            the JDT Java AST
 	 * @param td
 	 *            TypeDeclaration Java JDT
+	 * @param generatorContext
+	 *            state of this generation
 	 */
 	public void generateGettersSetters(Classifier clazz, AST ast,
-			TypeDeclaration td) {
+			TypeDeclaration td, GeneratorContext generatorContext) {
 		// Create getter and setter for all attributes
 		// Without inheritance
 		EList<Property> properties = clazz.getAttributes();
@@ -195,12 +195,12 @@ public class InterfaceGenerator {
 
 			// Create getter for each property
 			generateGetterMethod(ast, td, property, umlTypeName,
-					umlQualifiedTypeName);
+					umlQualifiedTypeName, generatorContext);
 
 			if (!property.isReadOnly()) {
 				// Create setter method for each property
 				generateSetterMethod(ast, td, property, umlTypeName,
-						umlQualifiedTypeName);
+						umlQualifiedTypeName, generatorContext);
 			}
 		}
 	}
@@ -218,10 +218,12 @@ public class InterfaceGenerator {
 	 *            UML2 type name
 	 * @param umlQualifiedTypeName
 	 *            UML2 qualified type name
+	 * @param generatorContext
+	 *            state of this generation
 	 */
 	public MethodDeclaration generateGetterMethod(AST ast,
 			AbstractTypeDeclaration td, Property property, String umlTypeName,
-			String umlQualifiedTypeName) {
+			String umlQualifiedTypeName, GeneratorContext generatorContext) {
 		MethodDeclaration mdGetter = ast.newMethodDeclaration();
 
 		String getterName = methodHelper.getGetterName(property.getName());
@@ -235,11 +237,13 @@ public class InterfaceGenerator {
 		if (property.getUpper() >= 0) {
 			// Upper Cardinality 0..1
 			jdtHelper.createReturnType(ast, td, mdGetter, umlTypeName,
-					umlQualifiedTypeName, sourceDirectoryPackageName);
+					umlQualifiedTypeName,
+					generatorContext.getSourceDirectoryPackageName());
 		} else {
 			// Upper Cardinality 0..*
 			generateAssociationEndUpperCardinalityMultiples(ast, td, property,
-					mdGetter, umlTypeName, umlQualifiedTypeName);
+					mdGetter, umlTypeName, umlQualifiedTypeName,
+					generatorContext);
 		}
 
 		// Getter Javadoc
@@ -269,9 +273,9 @@ public class InterfaceGenerator {
 	public MethodDeclaration generateGetterMethod(AST ast,
 			AbstractTypeDeclaration td, Property property, String umlTypeName,
 			String umlQualifiedTypeName, String sourceDirectoryPackageName) {
-		this.sourceDirectoryPackageName = sourceDirectoryPackageName;
 		return generateGetterMethod(ast, td, property, umlTypeName,
-				umlQualifiedTypeName);
+				umlQualifiedTypeName, new GeneratorContext(
+						sourceDirectoryPackageName));
 	}
 
 	/**
@@ -287,10 +291,13 @@ public class InterfaceGenerator {
 	 *            UML2 type name
 	 * @param umlQualifiedTypeName
 	 *            UML2 qualified type name
+	 * @param generatorContext
+	 *            state of this generation
 	 */
 	@SuppressWarnings("unchecked")
 	public void generateSetterMethod(AST ast, AbstractTypeDeclaration td,
-			Property property, String umlTypeName, String umlQualifiedTypeName) {
+			Property property, String umlTypeName,
+			String umlQualifiedTypeName, GeneratorContext generatorContext) {
 		MethodDeclaration mdSetter = ast.newMethodDeclaration();
 		// Return type void
 		PrimitiveType primitiveType = jdtHelper
@@ -305,7 +312,7 @@ public class InterfaceGenerator {
 			mdSetter.setName(ast.newSimpleName(setterName));
 			jdtHelper.createParameterTypes(ast, td, mdSetter, umlTypeName,
 					umlQualifiedTypeName, umlPropertyName,
-					sourceDirectoryPackageName);
+					generatorContext.getSourceDirectoryPackageName());
 		} else {
 			// Upper Cardinality 0..* params
 			// We need to use addXxx instead of setXxx
@@ -316,7 +323,7 @@ public class InterfaceGenerator {
 			mdSetter.setName(ast.newSimpleName(adderName));
 			jdtHelper.createParameterTypes(ast, td, mdSetter, umlTypeName,
 					umlQualifiedTypeName, umlPropertyName,
-					sourceDirectoryPackageName);
+					generatorContext.getSourceDirectoryPackageName());
 		}
 		// Setter Javadoc
 		generateGetterSetterJavadoc(ast, property, mdSetter);
@@ -337,32 +344,38 @@ public class InterfaceGenerator {
 	 *            UML2 type name as String
 	 * @param umlQualifiedTypeName
 	 *            UML2 qualified type name as String
+	 * @param generatorContext
+	 *            state of this generation
 	 */
 	public void generateAssociationEndUpperCardinalityMultiples(AST ast,
 			AbstractTypeDeclaration td, Property property,
 			MethodDeclaration mdGetter, String umlTypeName,
-			String umlQualifiedTypeName) {
+			String umlQualifiedTypeName, GeneratorContext generatorContext) {
 		// Check for isOrdered and isUnique
 		if (property.isOrdered() && !property.isUnique()) {
 			// We need to add List<Type> as returnType
 			jdtHelper.createReturnTypeAsCollection(ast, td, mdGetter,
 					umlTypeName, umlQualifiedTypeName,
-					sourceDirectoryPackageName, JdtHelper.JAVA_UTIL_LIST);
+					generatorContext.getSourceDirectoryPackageName(),
+					JdtHelper.JAVA_UTIL_LIST);
 		} else if (property.isUnique() && !property.isOrdered()) {
 			// We need to add Set<Type> as returnType
 			jdtHelper.createReturnTypeAsCollection(ast, td, mdGetter,
 					umlTypeName, umlQualifiedTypeName,
-					sourceDirectoryPackageName, JdtHelper.JAVA_UTIL_SET);
+					generatorContext.getSourceDirectoryPackageName(),
+					JdtHelper.JAVA_UTIL_SET);
 		} else if (property.isUnique() && property.isOrdered()) {
 			// We need to add SortedSet<Type> as returnType
 			jdtHelper.createReturnTypeAsCollection(ast, td, mdGetter,
 					umlTypeName, umlQualifiedTypeName,
-					sourceDirectoryPackageName, JdtHelper.JAVA_UTIL_SORTEDSET);
+					generatorContext.getSourceDirectoryPackageName(),
+					JdtHelper.JAVA_UTIL_SORTEDSET);
 		} else {
 			// We need to add Collection<Type> as returnType
 			jdtHelper.createReturnTypeAsCollection(ast, td, mdGetter,
 					umlTypeName, umlQualifiedTypeName,
-					sourceDirectoryPackageName, JdtHelper.JAVA_UTIL_COLLECTION);
+					generatorContext.getSourceDirectoryPackageName(),
+					JdtHelper.JAVA_UTIL_COLLECTION);
 		}
 	}
 
@@ -381,32 +394,38 @@ public class InterfaceGenerator {
 	 *            UML2 type name as String
 	 * @param umlQualifiedTypeName
 	 *            UML2 qualified type name as String
+	 * @param generatorContext
+	 *            state of this generation
 	 */
 	public void generateAssociationEndUpperCardinalityMultiples(AST ast,
 			AbstractTypeDeclaration td, Operation operation,
 			MethodDeclaration mdGetter, String umlTypeName,
-			String umlQualifiedTypeName) {
+			String umlQualifiedTypeName, GeneratorContext generatorContext) {
 		// Check for isOrdered and isUnique
 		if (operation.isOrdered() && !operation.isUnique()) {
 			// We need to add List<Type> as returnType
 			jdtHelper.createReturnTypeAsCollection(ast, td, mdGetter,
 					umlTypeName, umlQualifiedTypeName,
-					sourceDirectoryPackageName, JdtHelper.JAVA_UTIL_LIST);
+					generatorContext.getSourceDirectoryPackageName(),
+					JdtHelper.JAVA_UTIL_LIST);
 		} else if (operation.isUnique() && !operation.isOrdered()) {
 			// We need to add Set<Type> as returnType
 			jdtHelper.createReturnTypeAsCollection(ast, td, mdGetter,
 					umlTypeName, umlQualifiedTypeName,
-					sourceDirectoryPackageName, JdtHelper.JAVA_UTIL_SET);
+					generatorContext.getSourceDirectoryPackageName(),
+					JdtHelper.JAVA_UTIL_SET);
 		} else if (operation.isUnique() && operation.isOrdered()) {
 			// We need to add SortedSet<Type> as returnType
 			jdtHelper.createReturnTypeAsCollection(ast, td, mdGetter,
 					umlTypeName, umlQualifiedTypeName,
-					sourceDirectoryPackageName, JdtHelper.JAVA_UTIL_SORTEDSET);
+					generatorContext.getSourceDirectoryPackageName(),
+					JdtHelper.JAVA_UTIL_SORTEDSET);
 		} else {
 			// We need to add Collection<Type> as returnType
 			jdtHelper.createReturnTypeAsCollection(ast, td, mdGetter,
 					umlTypeName, umlQualifiedTypeName,
-					sourceDirectoryPackageName, JdtHelper.JAVA_UTIL_COLLECTION);
+					generatorContext.getSourceDirectoryPackageName(),
+					JdtHelper.JAVA_UTIL_COLLECTION);
 		}
 	}
 
@@ -425,32 +444,41 @@ public class InterfaceGenerator {
 	 *            UML2 type name as String
 	 * @param umlQualifiedTypeName
 	 *            UML2 qualified type name as String
+	 * @param umlPropertyName
+	 *            name of the parameter
+	 * @param generatorContext
+	 *            state of this generation
 	 */
 	public void generateAssociationEndUpperCardinalityMultiples(AST ast,
 			AbstractTypeDeclaration td, Parameter parameter,
 			MethodDeclaration md, String umlTypeName,
-			String umlQualifiedTypeName, String umlPropertyName) {
+			String umlQualifiedTypeName, String umlPropertyName,
+			GeneratorContext generatorContext) {
 		// Check for isOrdered and isUnique
 		if (parameter.isOrdered() && !parameter.isUnique()) {
 			// We need to add List<Type> as parameter
 			jdtHelper.createParameterTypesAsCollection(ast, td, md,
 					umlTypeName, umlQualifiedTypeName, umlPropertyName,
-					sourceDirectoryPackageName, JdtHelper.JAVA_UTIL_LIST);
+					generatorContext.getSourceDirectoryPackageName(),
+					JdtHelper.JAVA_UTIL_LIST);
 		} else if (parameter.isUnique() && !parameter.isOrdered()) {
 			// We need to add Set<Type> as parameter
 			jdtHelper.createParameterTypesAsCollection(ast, td, md,
 					umlTypeName, umlQualifiedTypeName, umlPropertyName,
-					sourceDirectoryPackageName, JdtHelper.JAVA_UTIL_SET);
+					generatorContext.getSourceDirectoryPackageName(),
+					JdtHelper.JAVA_UTIL_SET);
 		} else if (parameter.isUnique() && parameter.isOrdered()) {
 			// We need to add SortedSet<Type> as parameter
 			jdtHelper.createParameterTypesAsCollection(ast, td, md,
 					umlTypeName, umlQualifiedTypeName, umlPropertyName,
-					sourceDirectoryPackageName, JdtHelper.JAVA_UTIL_SORTEDSET);
+					generatorContext.getSourceDirectoryPackageName(),
+					JdtHelper.JAVA_UTIL_SORTEDSET);
 		} else {
 			// We need to add Collection<Type> as parameter
 			jdtHelper.createParameterTypesAsCollection(ast, td, md,
 					umlTypeName, umlQualifiedTypeName, umlPropertyName,
-					sourceDirectoryPackageName, JdtHelper.JAVA_UTIL_COLLECTION);
+					generatorContext.getSourceDirectoryPackageName(),
+					JdtHelper.JAVA_UTIL_COLLECTION);
 		}
 	}
 
@@ -483,11 +511,13 @@ public class InterfaceGenerator {
 	 *            the JDT Java AST
 	 * @param cu
 	 *            the generated Java compilation unit
+	 * @param generatorContext
+	 *            state of this generation
 	 * @return TypeDeclaration JDT
 	 */
 	@SuppressWarnings("unchecked")
 	public TypeDeclaration generateClass(Classifier clazz, AST ast,
-			CompilationUnit cu) {
+			CompilationUnit cu, GeneratorContext generatorContext) {
 		String className = getClassName(clazz);
 		TypeDeclaration td = ast.newTypeDeclaration();
 		td.setInterface(true);
@@ -496,7 +526,7 @@ public class InterfaceGenerator {
 		td.setName(ast.newSimpleName(className));
 
 		// Add inheritance
-		generateClassInheritance(clazz, ast, td);
+		generateClassInheritance(clazz, ast, td, generatorContext);
 		// Add template params
 		generateClassTemplateParams(clazz, ast, td);
 		// Add Javadoc
@@ -564,10 +594,12 @@ public class InterfaceGenerator {
 	 *            the JDT Java AST
 	 * @param td
 	 *            TypeDeclaration JDT
+	 * @param generatorContext
+	 *            state of this generation
 	 */
 	@SuppressWarnings("unchecked")
 	private void generateClassInheritance(Classifier clazz, AST ast,
-			TypeDeclaration td) {
+			TypeDeclaration td, GeneratorContext generatorContext) {
 		EList<Generalization> generalizations = clazz.getGeneralizations();
 		if (generalizations != null) {
 			for (Generalization generalization : generalizations) {
@@ -575,7 +607,8 @@ public class InterfaceGenerator {
 				String fullQualifiedInterfaceName = interfaceClassifier
 						.getQualifiedName();
 				Name name = jdtHelper.createFullQualifiedTypeAsName(ast,
-						fullQualifiedInterfaceName, sourceDirectoryPackageName);
+						fullQualifiedInterfaceName,
+						generatorContext.getSourceDirectoryPackageName());
 				SimpleType simpleType = ast.newSimpleType(name);
 				td.superInterfaceTypes().add(simpleType);
 			}
@@ -591,18 +624,19 @@ public class InterfaceGenerator {
 	 *            the JDT Java AST
 	 * @param cu
 	 *            the generated Java compilation unit
+	 * @param generatorContext
+	 *            state of this generation
 	 */
-	public void generatePackage(Classifier clazz, AST ast, CompilationUnit cu) {
+	public void generatePackage(Classifier clazz, AST ast, CompilationUnit cu,
+			GeneratorContext generatorContext) {
 		PackageDeclaration pd = ast.newPackageDeclaration();
-		String fullPackageName = getFullPackageName(clazz);
+		String fullPackageName = getFullPackageName(clazz, generatorContext);
 		pd.setName(ast.newName(fullPackageName));
 
-		Date now = new Date();
-		String commentDate = "Generation date: " + now.toString() + ".";
-
+		// No generation date, so a file of an unchanged element stays the same
 		generatePackageJavadoc(ast, pd, PackageComment.CONTENT_1.getValue(),
 				PackageComment.CONTENT_2.getValue(), " ",
-				PackageComment.CONTENT_3.getValue(), " ", commentDate);
+				PackageComment.CONTENT_3.getValue());
 
 		cu.setPackage(pd);
 	}
@@ -616,8 +650,11 @@ public class InterfaceGenerator {
 	 *            the JDT Java AST
 	 * @param td
 	 *            TypeDeclaration JDT
+	 * @param generatorContext
+	 *            state of this generation
 	 */
-	public void generateMethods(Classifier clazz, AST ast, TypeDeclaration td) {
+	public void generateMethods(Classifier clazz, AST ast, TypeDeclaration td,
+			GeneratorContext generatorContext) {
 		// Get all methods for this clazz
 		// Only for this class without inheritance
 		EList<Operation> operations = clazz.getOperations();
@@ -627,11 +664,11 @@ public class InterfaceGenerator {
 			md.setName(ast.newSimpleName(operation.getName()));
 
 			// Parameters, exclude the return parameter
-			generateMethodParams(ast, td, operation, md);
+			generateMethodParams(ast, td, operation, md, generatorContext);
 			// Return type
-			generateMethodReturnType(ast, td, operation, md);
+			generateMethodReturnType(ast, td, operation, md, generatorContext);
 			// Throws Exception
-			generateMethodThrowException(ast, operation, md);
+			generateMethodThrowException(ast, operation, md, generatorContext);
 			// Generate Javadoc
 			generateMethodJavadoc(ast, operation, md);
 			// Generate Method template params
@@ -705,20 +742,22 @@ public class InterfaceGenerator {
 
 	@SuppressWarnings("unchecked")
 	private void generateMethodThrowException(AST ast, Operation operation,
-			MethodDeclaration md) {
+			MethodDeclaration md, GeneratorContext generatorContext) {
 		EList<Type> raisedExceptions = operation.getRaisedExceptions();
 		for (Type raisedExceptionType : raisedExceptions) {
 			String umlExceptionQualifiedTypeName = raisedExceptionType
 					.getQualifiedName();
 			String name = jdtHelper.createFullQualifiedTypeAsString(ast,
-					umlExceptionQualifiedTypeName, sourceDirectoryPackageName);
+					umlExceptionQualifiedTypeName,
+					generatorContext.getSourceDirectoryPackageName());
 			Name typeName = ast.newName(name);
 			md.thrownExceptions().add(typeName);
 		}
 	}
 
 	private void generateMethodReturnType(AST ast, TypeDeclaration td,
-			Operation operation, MethodDeclaration md) {
+			Operation operation, MethodDeclaration md,
+			GeneratorContext generatorContext) {
 		Type type = operation.getType();
 		String umlTypeName = type.getName();
 		String umlQualifiedTypeName = type.getQualifiedName();
@@ -736,11 +775,12 @@ public class InterfaceGenerator {
 			}
 
 			jdtHelper.createReturnType(ast, td, md, umlTypeName,
-					umlQualifiedTypeName, sourceDirectoryPackageName);
+					umlQualifiedTypeName,
+					generatorContext.getSourceDirectoryPackageName());
 		} else {
 			// Upper Cardinality 0..*
 			generateAssociationEndUpperCardinalityMultiples(ast, td, operation,
-					md, umlTypeName, umlQualifiedTypeName);
+					md, umlTypeName, umlQualifiedTypeName, generatorContext);
 		}
 	}
 
@@ -755,9 +795,12 @@ public class InterfaceGenerator {
 	 *            UML2 operation
 	 * @param md
 	 *            JDT method declaration
+	 * @param generatorContext
+	 *            state of this generation
 	 */
 	public void generateMethodParams(AST ast, TypeDeclaration td,
-			Operation operation, MethodDeclaration md) {
+			Operation operation, MethodDeclaration md,
+			GeneratorContext generatorContext) {
 		EList<Parameter> parameters = operation.getOwnedParameters();
 		for (Parameter parameter : parameters) {
 			if (parameter.getDirection().getValue() != ParameterDirectionKind.RETURN) {
@@ -782,12 +825,12 @@ public class InterfaceGenerator {
 
 					jdtHelper.createParameterTypes(ast, td, md, umlTypeName,
 							umlQualifiedTypeName, umlPropertyName,
-							sourceDirectoryPackageName);
+							generatorContext.getSourceDirectoryPackageName());
 				} else {
 					// Upper Cardinality 0..*
 					generateAssociationEndUpperCardinalityMultiples(ast, td,
 							parameter, md, umlTypeName, umlQualifiedTypeName,
-							umlPropertyName);
+							umlPropertyName, generatorContext);
 				}
 			}
 		}
@@ -798,9 +841,10 @@ public class InterfaceGenerator {
 		return className;
 	}
 
-	private String getFullPackageName(Classifier clazz) {
+	private String getFullPackageName(Classifier clazz,
+			GeneratorContext generatorContext) {
 		String fullPackageName = packageHelper.getFullPackageName(clazz,
-				sourceDirectoryPackageName);
+				generatorContext.getSourceDirectoryPackageName());
 		return fullPackageName;
 	}
 }
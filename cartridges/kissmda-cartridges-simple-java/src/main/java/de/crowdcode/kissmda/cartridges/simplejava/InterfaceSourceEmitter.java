@@ -0,0 +1,411 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.cartridges.simplejava;
+
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.uml2.uml.Classifier;
+import org.eclipse.uml2.uml.Comment;
+import org.eclipse.uml2.uml.Generalization;
+import org.eclipse.uml2.uml.Operation;
+import org.eclipse.uml2.uml.Parameter;
+import org.eclipse.uml2.uml.ParameterDirectionKind;
+import org.eclipse.uml2.uml.Property;
+import org.eclipse.uml2.uml.TemplateParameter;
+import org.eclipse.uml2.uml.TemplateSignature;
+import org.eclipse.uml2.uml.Type;
+
+import de.crowdcode.kissmda.core.jdt.DataTypeUtils;
+import de.crowdcode.kissmda.core.jdt.JdtHelper;
+import de.crowdcode.kissmda.core.jdt.MethodHelper;
+import de.crowdcode.kissmda.core.uml.PackageHelper;
+import de.crowdcode.kissmda.core.uml.UmlHelper;
+
+/**
+ * Emit the Java source of an Interface from a UML class directly, without
+ * creating a JDT AST and without formatting it. The source is the same as the
+ * compilation unit of the {@link InterfaceGenerator} printed by the
+ * {@link JavaSourcePrinter}, so it has the layout of the direct formatting.
+ * 
+ * <p>
+ * The source is written into one buffer per thread, the emitter keeps no
+ * other state, so it can be called from several threads.
+ * </p>
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class InterfaceSourceEmitter {
+
+	private static final Logger logger = Logger
+			.getLogger(InterfaceSourceEmitter.class.getName());
+
+	private static final String INDENTATION = "\t";
+
+	@Inject
+	private MethodHelper methodHelper;
+
+	@Inject
+	private JdtHelper jdtHelper;
+
+	@Inject
+	private PackageHelper packageHelper;
+
+	@Inject
+	private UmlHelper umlHelper;
+
+	@Inject
+	private DataTypeUtils dataTypeUtils;
+
+	private final StringBuilderPool bufferPool = new StringBuilderPool();
+
+	/**
+	 * Emit the source of the Interface.
+	 * 
+	 * @param clazz
+	 *            the UML class
+	 * @param sourceDirectoryPackageName
+	 *            root package name of the UML model
+	 * @param lineSeparator
+	 *            line separator of the code
+	 * @return formatted code
+	 */
+	public String emitInterface(Classifier clazz,
+			String sourceDirectoryPackageName, String lineSeparator) {
+		logger.log(Level.FINE, "Start emitInterface: " + clazz.getName()
+				+ " -----------------------------");
+
+		StringBuilder buffer = bufferPool.acquire();
+		try {
+			Emitter emitter = new Emitter(buffer, lineSeparator,
+					new GeneratorContext(sourceDirectoryPackageName));
+			emitter.emitPackage(clazz);
+			emitter.emitClass(clazz);
+			return buffer.toString();
+		} finally {
+			bufferPool.release(buffer);
+		}
+	}
+
+	/**
+	 * Emitter of one Interface. The members are emitted in the order of the
+	 * {@link InterfaceGenerator}: the methods of the operations, then the
+	 * getters and setters of the attributes.
+	 */
+	private class Emitter {
+
+		private final StringBuilder buffer;
+
+		private final String lineSeparator;
+
+		private final GeneratorContext generatorContext;
+
+		private boolean firstMember = true;
+
+		Emitter(StringBuilder buffer, String lineSeparator,
+				GeneratorContext generatorContext) {
+			this.buffer = buffer;
+			this.lineSeparator = lineSeparator;
+			this.generatorContext = generatorContext;
+		}
+
+		void emitPackage(Classifier clazz) {
+			String fullPackageName = packageHelper.getFullPackageName(clazz,
+					generatorContext.getSourceDirectoryPackageName());
+
+			emitJavadoc("", PackageComment.CONTENT_1.getValue(),
+					PackageComment.CONTENT_2.getValue(), " ",
+					PackageComment.CONTENT_3.getValue());
+			buffer.append("package ").append(fullPackageName).append(';');
+			newLine();
+			newLine();
+		}
+
+		void emitClass(Classifier clazz) {
+			emitJavadoc("", clazz.getOwnedComments());
+			buffer.append("public interface ").append(clazz.getName());
+			emitTemplateParams(clazz.getOwnedTemplateSignature());
+
+			EList<Generalization> generalizations = clazz.getGeneralizations();
+			if (generalizations != null) {
+				String separator = " extends ";
+				for (Generalization generalization : generalizations) {
+					buffer.append(separator).append(
+							packageHelper.getFullPackageName(generalization
+									.getGeneral().getQualifiedName(),
+									generatorContext
+											.getSourceDirectoryPackageName()));
+					separator = ", ";
+				}
+			}
+			buffer.append(" {");
+			newLine();
+
+			for (Operation operation : clazz.getOperations()) {
+				emitMethod(operation);
+			}
+			for (Property property : clazz.getAttributes()) {
+				emitGetterSetter(clazz, property);
+			}
+
+			buffer.append('}');
+			newLine();
+		}
+
+		private void emitMethod(Operation operation) {
+			logger.log(Level.FINE, "Operation: " + operation.getName());
+			startMember(operation.getOwnedComments());
+			if (emitTemplateParams(operation.getOwnedTemplateSignature())) {
+				buffer.append(' ');
+			}
+
+			// Return type
+			Type type = operation.getType();
+			String umlTypeName = type.getName();
+			String umlQualifiedTypeName = type.getQualifiedName();
+			if (operation.getUpper() >= 0) {
+				// Upper Cardinality 0..1
+				// Only for parameterized type
+				if (dataTypeUtils.isParameterizedType(umlTypeName)) {
+					Map<String, String> types = umlHelper
+							.checkParameterizedTypeForTemplateParameterSubstitution(type);
+					umlQualifiedTypeName = types.get("umlQualifiedTypeName");
+				}
+				emitType(umlQualifiedTypeName);
+			} else {
+				// Upper Cardinality 0..*
+				emitCollectionType(operation.isOrdered(),
+						operation.isUnique(), umlQualifiedTypeName);
+			}
+			buffer.append(' ').append(operation.getName()).append('(');
+
+			// Parameters, exclude the return parameter
+			String separator = "";
+			for (Parameter parameter : operation.getOwnedParameters()) {
+				if (parameter.getDirection().getValue() != ParameterDirectionKind.RETURN) {
+					buffer.append(separator);
+					emitParameter(parameter);
+					separator = ", ";
+				}
+			}
+			buffer.append(')');
+
+			// Throws Exception
+			separator = " throws ";
+			for (Type raisedExceptionType : operation.getRaisedExceptions()) {
+				buffer.append(separator).append(
+						packageHelper.getFullPackageName(raisedExceptionType
+								.getQualifiedName(), generatorContext
+								.getSourceDirectoryPackageName()));
+				separator = ", ";
+			}
+			buffer.append(';');
+			newLine();
+		}
+
+		private void emitParameter(Parameter parameter) {
+			Type type = parameter.getType();
+			String umlTypeName = type.getName();
+			String umlQualifiedTypeName = type.getQualifiedName();
+			if (parameter.getUpper() >= 0) {
+				// Upper Cardinality 0..1
+				// Only for parameterized type
+				if (dataTypeUtils.isParameterizedType(umlTypeName)) {
+					Map<String, String> types = umlHelper
+							.checkParameterizedTypeForTemplateParameterSubstitution(type);
+					umlQualifiedTypeName = types.get("umlQualifiedTypeName");
+				}
+				emitType(umlQualifiedTypeName);
+			} else {
+				// Upper Cardinality 0..*
+				emitCollectionType(parameter.isOrdered(),
+						parameter.isUnique(), umlQualifiedTypeName);
+			}
+			buffer.append(' ').append(
+					StringUtils.uncapitalize(parameter.getName()));
+		}
+
+		private void emitGetterSetter(Classifier clazz, Property property) {
+			Type type = property.getType();
+			logger.log(Level.FINE, "Class: " + clazz.getName() + " - "
+					+ "Property: " + property.getName() + " - "
+					+ "Property Upper: " + property.getUpper() + " - "
+					+ "Property Lower: " + property.getLower());
+			String umlTypeName = type.getName();
+			String umlQualifiedTypeName = type.getQualifiedName();
+
+			// Only for parameterized type
+			if (dataTypeUtils.isParameterizedType(umlTypeName)) {
+				Map<String, String> types = umlHelper
+						.checkParameterizedTypeForTemplateParameterSubstitution(type);
+				umlTypeName = types.get("umlTypeName");
+				umlQualifiedTypeName = types.get("umlQualifiedTypeName");
+			}
+
+			// Check the property name, no content means we have to get the
+			// "type" and use it as the name, like the InterfaceGenerator
+			if (property.getName().equals("")) {
+				String newPropertyName = "";
+				if (property.getUpper() >= 0) {
+					// Upper Cardinality 0..1
+					newPropertyName = type.getName();
+				} else {
+					// Upper Cardinality 0..*
+					newPropertyName = methodHelper.getPluralName(type
+							.getName());
+				}
+				property.setName(StringUtils.uncapitalize(newPropertyName));
+			}
+
+			// Getter
+			String getterName = methodHelper.getGetterName(property.getName());
+			// Check for boolean or Boolean, we need to make
+			// isXxx instead of getXxx
+			if (umlTypeName.equalsIgnoreCase("boolean")) {
+				getterName = methodHelper.getIsName(property.getName());
+			}
+			startMember(property.getOwnedComments());
+			if (property.getUpper() >= 0) {
+				// Upper Cardinality 0..1
+				emitType(umlQualifiedTypeName);
+			} else {
+				// Upper Cardinality 0..*
+				emitCollectionType(property.isOrdered(),
+						property.isUnique(), umlQualifiedTypeName);
+			}
+			buffer.append(' ').append(getterName).append("();");
+			newLine();
+
+			if (property.isReadOnly()) {
+				return;
+			}
+
+			// Setter
+			String setterName;
+			String umlPropertyName = property.getName();
+			if (property.getUpper() >= 0) {
+				// Upper Cardinality 0..1 params
+				setterName = methodHelper.getSetterName(umlPropertyName);
+			} else {
+				// Upper Cardinality 0..* params
+				// We need to use addXxx instead of setXxx
+				umlPropertyName = methodHelper.getSingularName(umlPropertyName);
+				setterName = methodHelper.getAdderName(umlPropertyName);
+			}
+			startMember(property.getOwnedComments());
+			buffer.append("void ").append(setterName).append('(');
+			emitType(umlQualifiedTypeName);
+			buffer.append(' ').append(umlPropertyName).append(");");
+			newLine();
+		}
+
+		private void startMember(EList<Comment> comments) {
+			if (!firstMember) {
+				newLine();
+			}
+			firstMember = false;
+			emitJavadoc(INDENTATION, comments);
+			buffer.append(INDENTATION);
+		}
+
+		private boolean emitTemplateParams(TemplateSignature templateSignature) {
+			if (templateSignature == null) {
+				return false;
+			}
+			String separator = "<";
+			for (TemplateParameter templateParameter : templateSignature
+					.getParameters()) {
+				Classifier classifier = (Classifier) templateParameter
+						.getOwnedParameteredElement();
+				buffer.append(separator).append(classifier.getLabel());
+				separator = ", ";
+			}
+			if (separator.equals("<")) {
+				return false;
+			}
+			buffer.append('>');
+			return true;
+		}
+
+		private void emitType(String umlQualifiedTypeName) {
+			jdtHelper.getChosenTypeDescriptor(umlQualifiedTypeName,
+					generatorContext.getSourceDirectoryPackageName()).appendTo(
+					buffer);
+		}
+
+		private void emitCollectionType(boolean ordered, boolean unique,
+				String umlQualifiedTypeName) {
+			// Check for isOrdered and isUnique
+			if (ordered && !unique) {
+				buffer.append(JdtHelper.JAVA_UTIL_LIST);
+			} else if (unique && !ordered) {
+				buffer.append(JdtHelper.JAVA_UTIL_SET);
+			} else if (unique && ordered) {
+				buffer.append(JdtHelper.JAVA_UTIL_SORTEDSET);
+			} else {
+				buffer.append(JdtHelper.JAVA_UTIL_COLLECTION);
+			}
+			buffer.append('<');
+			emitType(umlQualifiedTypeName);
+			buffer.append('>');
+		}
+
+		private void emitJavadoc(String indentation, EList<Comment> comments) {
+			// Like in the generator the last comment is the Javadoc
+			Comment lastComment = null;
+			for (Comment comment : comments) {
+				lastComment = comment;
+			}
+			if (lastComment != null) {
+				emitJavadoc(indentation,
+						lastComment.getBody().split("\\r?\\n"));
+			}
+		}
+
+		private void emitJavadoc(String indentation, String... lines) {
+			buffer.append(indentation).append("/**");
+			newLine();
+			for (String line : lines) {
+				buffer.append(indentation).append(" *");
+				int start = buffer.length();
+				buffer.append(' ').append(line);
+				// Remove the trailing white space of the line
+				int end = buffer.length();
+				while (end > start && buffer.charAt(end - 1) <= ' ') {
+					end--;
+				}
+				buffer.setLength(end);
+				newLine();
+			}
+			buffer.append(indentation).append(" */");
+			newLine();
+		}
+
+		private void newLine() {
+			buffer.append(lineSeparator);
+		}
+	}
+}
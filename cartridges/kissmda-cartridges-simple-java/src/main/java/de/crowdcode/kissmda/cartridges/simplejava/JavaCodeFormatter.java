@@ -18,14 +18,17 @@
  */
 package de.crowdcode.kissmda.cartridges.simplejava;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.ToolFactory;
+import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.formatter.CodeFormatter;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
@@ -33,22 +36,32 @@ import org.eclipse.jface.text.IDocument;
 import org.eclipse.text.edits.MalformedTreeException;
 import org.eclipse.text.edits.TextEdit;
 
+import de.crowdcode.kissmda.core.Context;
+
 /**
  * Java Code Formatter. Part of this code is taken from Maven Java Formatter
  * Plugin: https://code.google.com/p/maven-java-formatter-plugin.
  * 
+ * The JDT code formatters are created once per thread and reused for all
+ * files, so the formatting options are only initialized once per thread and
+ * configuration.
+ * 
+ * With direct formatting a compilation unit is printed by the
+ * {@link JavaSourcePrinter} in the formatted layout, without the JDT code
+ * formatter.
+ * 
  * @author Lofi Dewanto
  * @version 1.1.0
  * @since 1.1.0
  */
 public class JavaCodeFormatter {
 
-	private static final String JAVA_VERSION = "1.5";
+	public static final String DEFAULT_JAVA_VERSION = "1.5";
 
 	private static final Logger logger = Logger
 			.getLogger(JavaCodeFormatter.class.getName());
 
-	private static final String LINE_ENDING_AUTO = "AUTO";
+	public static final String LINE_ENDING_AUTO = "AUTO";
 	private static final String LINE_ENDING_KEEP = "KEEP";
 	private static final String LINE_ENDING_LF = "LF";
 	private static final String LINE_ENDING_CRLF = "CRLF";
@@ -58,32 +71,83 @@ public class JavaCodeFormatter {
 	private static final String LINE_ENDING_CRLF_CHARS = "\r\n";
 	private static final String LINE_ENDING_CR_CHAR = "\r";
 
-	private final String lineEnding = LINE_ENDING_AUTO;
+	private volatile String lineEnding = LINE_ENDING_AUTO;
+
+	private volatile ThreadLocal<CodeFormatter> codeFormatters = createCodeFormatters(DEFAULT_JAVA_VERSION);
 
-	private CodeFormatter codeFormatter;
+	private volatile boolean directFormattingEnabled;
+
+	private final JavaSourcePrinter javaSourcePrinter = new JavaSourcePrinter();
+
+	/**
+	 * Configure the formatter with the Java version and the line ending of
+	 * the context. The code formatters of the former configuration are not
+	 * used any more. Call this method before the formatting starts.
+	 * 
+	 * @param context
+	 *            context with the formatter options
+	 */
+	public void configure(Context context) {
+		String javaVersion = StringUtils.defaultIfBlank(
+				context.getFormatterJavaVersion(), DEFAULT_JAVA_VERSION);
+		lineEnding = StringUtils.defaultIfBlank(
+				context.getFormatterLineEnding(), LINE_ENDING_AUTO)
+				.toUpperCase();
+		codeFormatters = createCodeFormatters(javaVersion);
+		directFormattingEnabled = context.isDirectFormattingEnabled();
+	}
 
-	private void createCodeFormatter() {
-		Map<String, String> options = getFormattingOptions();
-		codeFormatter = ToolFactory.createCodeFormatter(options);
+	private ThreadLocal<CodeFormatter> createCodeFormatters(String javaVersion) {
+		final Map<String, String> options = getFormattingOptions(javaVersion);
+		return new ThreadLocal<CodeFormatter>() {
+			@Override
+			protected CodeFormatter initialValue() {
+				return ToolFactory.createCodeFormatter(options);
+			}
+		};
 	}
 
-	private Map<String, String> getFormattingOptions() {
+	private Map<String, String> getFormattingOptions(String javaVersion) {
 		Map<String, String> options = new HashMap<String, String>();
-		options.put(JavaCore.COMPILER_SOURCE, JAVA_VERSION);
-		options.put(JavaCore.COMPILER_COMPLIANCE, JAVA_VERSION);
-		options.put(JavaCore.COMPILER_CODEGEN_TARGET_PLATFORM, JAVA_VERSION);
-		return options;
+		options.put(JavaCore.COMPILER_SOURCE, javaVersion);
+		options.put(JavaCore.COMPILER_COMPLIANCE, javaVersion);
+		options.put(JavaCore.COMPILER_CODEGEN_TARGET_PLATFORM, javaVersion);
+		return Collections.unmodifiableMap(options);
 	}
 
 	/**
-	 * Format the given code.
+	 * Format the given compilation unit. With direct formatting the
+	 * compilation unit is printed in the formatted layout. If it contains
+	 * nodes the printer does not support, or without direct formatting, the
+	 * code of the compilation unit is formatted with the JDT code formatter.
+	 * 
+	 * @param compilationUnit
+	 *            JDT compilation unit
+	 * @return formatted code
+	 */
+	public String format(CompilationUnit compilationUnit) {
+		if (directFormattingEnabled) {
+			try {
+				return javaSourcePrinter.print(compilationUnit,
+						getDirectLineEnding());
+			} catch (JavaSourcePrinter.UnsupportedNodeException e) {
+				logger.log(Level.INFO, "Use the JDT code formatter: "
+						+ e.getMessage());
+			}
+		}
+		return format(compilationUnit.toString());
+	}
+
+	/**
+	 * Format the given code. Every thread uses its own JDT code formatter, so
+	 * the method can be called from several threads.
 	 * 
 	 * @param compilationUnit
 	 *            Compilation Unit as unformatted code
 	 * @return formatted code
 	 */
 	public String format(String compilationUnit) {
-		createCodeFormatter();
+		CodeFormatter codeFormatter = codeFormatters.get();
 		String lineSeparator = getLineEnding(compilationUnit);
 
 		TextEdit te = codeFormatter.format(CodeFormatter.K_COMPILATION_UNIT
@@ -122,6 +186,25 @@ public class JavaCodeFormatter {
 		return lineEnd;
 	}
 
+	/**
+	 * Returns the lineEnding parameter as characters for the direct
+	 * formatting. AUTO uses the line separator of the platform like the JDT
+	 * code formatter, KEEP uses LF like the unformatted code of a compilation
+	 * unit. Code which is emitted directly uses the same line ending.
+	 * 
+	 * @return String
+	 */
+	String getDirectLineEnding() {
+		if (LINE_ENDING_KEEP.equals(lineEnding)) {
+			return LINE_ENDING_LF_CHAR;
+		}
+		String lineEnd = getLineEnding("");
+		if (lineEnd == null) {
+			lineEnd = System.getProperty("line.separator");
+		}
+		return lineEnd;
+	}
+
 	/**
 	 * Returns the most occurring line-ending characters in the file text or
 	 * null if no line-ending occurs the most.
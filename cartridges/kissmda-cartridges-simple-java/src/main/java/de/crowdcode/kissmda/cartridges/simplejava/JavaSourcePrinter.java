@@ -0,0 +1,614 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.cartridges.simplejava;
+
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.ArrayType;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.BodyDeclaration;
+import org.eclipse.jdt.core.dom.BooleanLiteral;
+import org.eclipse.jdt.core.dom.CharacterLiteral;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.ConstructorInvocation;
+import org.eclipse.jdt.core.dom.EnumConstantDeclaration;
+import org.eclipse.jdt.core.dom.EnumDeclaration;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.ExpressionStatement;
+import org.eclipse.jdt.core.dom.FieldAccess;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.ImportDeclaration;
+import org.eclipse.jdt.core.dom.Javadoc;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.Modifier;
+import org.eclipse.jdt.core.dom.Name;
+import org.eclipse.jdt.core.dom.NullLiteral;
+import org.eclipse.jdt.core.dom.NumberLiteral;
+import org.eclipse.jdt.core.dom.PackageDeclaration;
+import org.eclipse.jdt.core.dom.ParameterizedType;
+import org.eclipse.jdt.core.dom.PrimitiveType;
+import org.eclipse.jdt.core.dom.QualifiedType;
+import org.eclipse.jdt.core.dom.ReturnStatement;
+import org.eclipse.jdt.core.dom.SimpleType;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.StringLiteral;
+import org.eclipse.jdt.core.dom.SuperConstructorInvocation;
+import org.eclipse.jdt.core.dom.TagElement;
+import org.eclipse.jdt.core.dom.TextElement;
+import org.eclipse.jdt.core.dom.ThisExpression;
+import org.eclipse.jdt.core.dom.Type;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.core.dom.TypeParameter;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.eclipse.jdt.core.dom.WildcardType;
+
+/**
+ * Print a JDT compilation unit directly in the formatted layout: tabs for
+ * indentation, braces at the end of the line, one member per line with a
+ * blank line between the members and each Javadoc tag on its own line. The
+ * code is not flattened, scanned and edited again like with the JDT code
+ * formatter. Long lines are not wrapped.
+ * 
+ * Only the nodes the generators of this cartridge create are supported. For
+ * other nodes an {@link UnsupportedNodeException} is thrown, so the caller can
+ * use the JDT code formatter instead.
+ * 
+ * The printer uses one buffer per thread, so it can be called from several
+ * threads.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class JavaSourcePrinter {
+
+	private final StringBuilderPool bufferPool = new StringBuilderPool();
+
+	/**
+	 * Print the compilation unit.
+	 * 
+	 * @param compilationUnit
+	 *            JDT compilation unit
+	 * @param lineSeparator
+	 *            line separator of the code
+	 * @return formatted code
+	 * @throws UnsupportedNodeException
+	 *             if the compilation unit contains a node which cannot be
+	 *             printed
+	 */
+	public String print(CompilationUnit compilationUnit, String lineSeparator) {
+		StringBuilder buffer = bufferPool.acquire();
+		try {
+			new Printer(buffer, lineSeparator)
+					.printCompilationUnit(compilationUnit);
+			return buffer.toString();
+		} finally {
+			bufferPool.release(buffer);
+		}
+	}
+
+	/**
+	 * Thrown for a node the printer does not support. Other errors are not
+	 * mistaken for it, so they are not hidden by the fallback of the caller.
+	 */
+	static class UnsupportedNodeException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		UnsupportedNodeException(ASTNode node) {
+			super("Cannot print " + node.getClass().getSimpleName());
+		}
+	}
+
+	/**
+	 * Printer of one compilation unit.
+	 */
+	private static class Printer {
+
+		private final StringBuilder buffer;
+
+		private final String lineSeparator;
+
+		private int indentation;
+
+		Printer(StringBuilder buffer, String lineSeparator) {
+			this.buffer = buffer;
+			this.lineSeparator = lineSeparator;
+		}
+
+		void printCompilationUnit(CompilationUnit compilationUnit) {
+			boolean first = true;
+			PackageDeclaration packageDeclaration = compilationUnit
+					.getPackage();
+			if (packageDeclaration != null) {
+				if (!packageDeclaration.annotations().isEmpty()) {
+					throw unsupported((ASTNode) packageDeclaration
+							.annotations().get(0));
+				}
+				printJavadoc(packageDeclaration.getJavadoc());
+				buffer.append("package ");
+				printName(packageDeclaration.getName());
+				buffer.append(';');
+				newLine();
+				first = false;
+			}
+
+			List<?> imports = compilationUnit.imports();
+			if (!imports.isEmpty()) {
+				if (!first) {
+					newLine();
+				}
+				for (Object node : imports) {
+					printImport((ImportDeclaration) node);
+				}
+				first = false;
+			}
+
+			for (Object node : compilationUnit.types()) {
+				if (!first) {
+					newLine();
+				}
+				printTypeDeclaration((AbstractTypeDeclaration) node);
+				first = false;
+			}
+		}
+
+		private void printImport(ImportDeclaration importDeclaration) {
+			buffer.append("import ");
+			if (importDeclaration.isStatic()) {
+				buffer.append("static ");
+			}
+			printName(importDeclaration.getName());
+			if (importDeclaration.isOnDemand()) {
+				buffer.append(".*");
+			}
+			buffer.append(';');
+			newLine();
+		}
+
+		private void printTypeDeclaration(
+				AbstractTypeDeclaration typeDeclaration) {
+			printJavadoc(typeDeclaration.getJavadoc());
+			indent();
+			printModifiers(typeDeclaration.modifiers());
+			if (typeDeclaration instanceof TypeDeclaration) {
+				TypeDeclaration classDeclaration = (TypeDeclaration) typeDeclaration;
+				buffer.append(classDeclaration.isInterface() ? "interface "
+						: "class ");
+				printName(classDeclaration.getName());
+				printTypeParameters(classDeclaration.typeParameters());
+				if (classDeclaration.getSuperclassType() != null) {
+					buffer.append(" extends ");
+					printType(classDeclaration.getSuperclassType());
+				}
+				printTypes(classDeclaration.isInterface() ? " extends "
+						: " implements ",
+						classDeclaration.superInterfaceTypes());
+			} else if (typeDeclaration instanceof EnumDeclaration) {
+				EnumDeclaration enumDeclaration = (EnumDeclaration) typeDeclaration;
+				buffer.append("enum ");
+				printName(enumDeclaration.getName());
+				printTypes(" implements ",
+						enumDeclaration.superInterfaceTypes());
+			} else {
+				throw unsupported(typeDeclaration);
+			}
+			buffer.append(" {");
+			newLine();
+			indentation++;
+
+			boolean first = true;
+			if (typeDeclaration instanceof EnumDeclaration) {
+				List<?> enumConstants = ((EnumDeclaration) typeDeclaration)
+						.enumConstants();
+				for (int index = 0; index < enumConstants.size(); index++) {
+					printEnumConstant(
+							(EnumConstantDeclaration) enumConstants.get(index),
+							index == enumConstants.size() - 1 ? ";" : ",");
+					first = false;
+				}
+				// Without constants the body declarations still need the
+				// semicolon, like the formatter puts it on its own line
+				if (enumConstants.isEmpty()
+						&& !typeDeclaration.bodyDeclarations().isEmpty()) {
+					indent();
+					buffer.append(';');
+					newLine();
+					first = false;
+				}
+			}
+			for (Object node : typeDeclaration.bodyDeclarations()) {
+				if (!first) {
+					newLine();
+				}
+				printBodyDeclaration((BodyDeclaration) node);
+				first = false;
+			}
+
+			indentation--;
+			indent();
+			buffer.append('}');
+			newLine();
+		}
+
+		private void printEnumConstant(EnumConstantDeclaration enumConstant,
+				String end) {
+			if (enumConstant.getAnonymousClassDeclaration() != null) {
+				throw unsupported(enumConstant);
+			}
+			printJavadoc(enumConstant.getJavadoc());
+			indent();
+			printModifiers(enumConstant.modifiers());
+			printName(enumConstant.getName());
+			if (!enumConstant.arguments().isEmpty()) {
+				printArguments(enumConstant.arguments());
+			}
+			buffer.append(end);
+			newLine();
+		}
+
+		private void printBodyDeclaration(BodyDeclaration bodyDeclaration) {
+			if (bodyDeclaration instanceof MethodDeclaration) {
+				printMethod((MethodDeclaration) bodyDeclaration);
+			} else if (bodyDeclaration instanceof FieldDeclaration) {
+				printField((FieldDeclaration) bodyDeclaration);
+			} else if (bodyDeclaration instanceof AbstractTypeDeclaration) {
+				printTypeDeclaration((AbstractTypeDeclaration) bodyDeclaration);
+			} else {
+				throw unsupported(bodyDeclaration);
+			}
+		}
+
+		private void printMethod(MethodDeclaration methodDeclaration) {
+			if (methodDeclaration.getExtraDimensions() > 0) {
+				throw unsupported(methodDeclaration);
+			}
+			printJavadoc(methodDeclaration.getJavadoc());
+			indent();
+			printModifiers(methodDeclaration.modifiers());
+			if (!methodDeclaration.typeParameters().isEmpty()) {
+				printTypeParameters(methodDeclaration.typeParameters());
+				buffer.append(' ');
+			}
+			if (!methodDeclaration.isConstructor()) {
+				if (methodDeclaration.getReturnType2() == null) {
+					buffer.append("void");
+				} else {
+					printType(methodDeclaration.getReturnType2());
+				}
+				buffer.append(' ');
+			}
+			printName(methodDeclaration.getName());
+			buffer.append('(');
+			List<?> parameters = methodDeclaration.parameters();
+			for (int index = 0; index < parameters.size(); index++) {
+				if (index > 0) {
+					buffer.append(", ");
+				}
+				printParameter((SingleVariableDeclaration) parameters
+						.get(index));
+			}
+			buffer.append(')');
+			List<?> thrownExceptions = methodDeclaration.thrownExceptions();
+			for (int index = 0; index < thrownExceptions.size(); index++) {
+				buffer.append(index == 0 ? " throws " : ", ");
+				printName((Name) thrownExceptions.get(index));
+			}
+			if (methodDeclaration.getBody() == null) {
+				buffer.append(';');
+				newLine();
+			} else {
+				buffer.append(' ');
+				printBlock(methodDeclaration.getBody());
+			}
+		}
+
+		private void printParameter(SingleVariableDeclaration parameter) {
+			if (parameter.getInitializer() != null
+					|| parameter.getExtraDimensions() > 0) {
+				throw unsupported(parameter);
+			}
+			printModifiers(parameter.modifiers());
+			printType(parameter.getType());
+			if (parameter.isVarargs()) {
+				buffer.append("...");
+			}
+			buffer.append(' ');
+			printName(parameter.getName());
+		}
+
+		private void printField(FieldDeclaration fieldDeclaration) {
+			printJavadoc(fieldDeclaration.getJavadoc());
+			indent();
+			printModifiers(fieldDeclaration.modifiers());
+			printType(fieldDeclaration.getType());
+			buffer.append(' ');
+			List<?> fragments = fieldDeclaration.fragments();
+			for (int index = 0; index < fragments.size(); index++) {
+				VariableDeclarationFragment fragment = (VariableDeclarationFragment) fragments
+						.get(index);
+				if (fragment.getExtraDimensions() > 0) {
+					throw unsupported(fragment);
+				}
+				if (index > 0) {
+					buffer.append(", ");
+				}
+				printName(fragment.getName());
+				if (fragment.getInitializer() != null) {
+					buffer.append(" = ");
+					printExpression(fragment.getInitializer());
+				}
+			}
+			buffer.append(';');
+			newLine();
+		}
+
+		private void printBlock(Block block) {
+			buffer.append('{');
+			newLine();
+			indentation++;
+			for (Object node : block.statements()) {
+				printStatement((Statement) node);
+			}
+			indentation--;
+			indent();
+			buffer.append('}');
+			newLine();
+		}
+
+		private void printStatement(Statement statement) {
+			indent();
+			if (statement instanceof ReturnStatement) {
+				Expression expression = ((ReturnStatement) statement)
+						.getExpression();
+				buffer.append("return");
+				if (expression != null) {
+					buffer.append(' ');
+					printExpression(expression);
+				}
+			} else if (statement instanceof ExpressionStatement) {
+				printExpression(((ExpressionStatement) statement)
+						.getExpression());
+			} else if (statement instanceof SuperConstructorInvocation) {
+				SuperConstructorInvocation invocation = (SuperConstructorInvocation) statement;
+				if (invocation.getExpression() != null
+						|| !invocation.typeArguments().isEmpty()) {
+					throw unsupported(invocation);
+				}
+				buffer.append("super");
+				printArguments(invocation.arguments());
+			} else if (statement instanceof ConstructorInvocation) {
+				ConstructorInvocation invocation = (ConstructorInvocation) statement;
+				if (!invocation.typeArguments().isEmpty()) {
+					throw unsupported(invocation);
+				}
+				buffer.append("this");
+				printArguments(invocation.arguments());
+			} else {
+				throw unsupported(statement);
+			}
+			buffer.append(';');
+			newLine();
+		}
+
+		private void printExpression(Expression expression) {
+			if (expression instanceof Name) {
+				printName((Name) expression);
+			} else if (expression instanceof NumberLiteral) {
+				buffer.append(((NumberLiteral) expression).getToken());
+			} else if (expression instanceof StringLiteral) {
+				buffer.append(((StringLiteral) expression).getEscapedValue());
+			} else if (expression instanceof CharacterLiteral) {
+				buffer.append(((CharacterLiteral) expression)
+						.getEscapedValue());
+			} else if (expression instanceof BooleanLiteral) {
+				buffer.append(((BooleanLiteral) expression).booleanValue());
+			} else if (expression instanceof NullLiteral) {
+				buffer.append("null");
+			} else if (expression instanceof ThisExpression) {
+				Name qualifier = ((ThisExpression) expression).getQualifier();
+				if (qualifier != null) {
+					printName(qualifier);
+					buffer.append('.');
+				}
+				buffer.append("this");
+			} else if (expression instanceof FieldAccess) {
+				FieldAccess fieldAccess = (FieldAccess) expression;
+				printExpression(fieldAccess.getExpression());
+				buffer.append('.');
+				printName(fieldAccess.getName());
+			} else if (expression instanceof Assignment) {
+				Assignment assignment = (Assignment) expression;
+				printExpression(assignment.getLeftHandSide());
+				buffer.append(' ').append(assignment.getOperator().toString())
+						.append(' ');
+				printExpression(assignment.getRightHandSide());
+			} else if (expression instanceof MethodInvocation) {
+				MethodInvocation invocation = (MethodInvocation) expression;
+				if (!invocation.typeArguments().isEmpty()) {
+					throw unsupported(invocation);
+				}
+				if (invocation.getExpression() != null) {
+					printExpression(invocation.getExpression());
+					buffer.append('.');
+				}
+				printName(invocation.getName());
+				printArguments(invocation.arguments());
+			} else {
+				throw unsupported(expression);
+			}
+		}
+
+		private void printArguments(List<?> arguments) {
+			buffer.append('(');
+			for (int index = 0; index < arguments.size(); index++) {
+				if (index > 0) {
+					buffer.append(", ");
+				}
+				printExpression((Expression) arguments.get(index));
+			}
+			buffer.append(')');
+		}
+
+		private void printType(Type type) {
+			if (type instanceof PrimitiveType) {
+				buffer.append(((PrimitiveType) type).getPrimitiveTypeCode()
+						.toString());
+			} else if (type instanceof SimpleType) {
+				printName(((SimpleType) type).getName());
+			} else if (type instanceof QualifiedType) {
+				QualifiedType qualifiedType = (QualifiedType) type;
+				printType(qualifiedType.getQualifier());
+				buffer.append('.');
+				printName(qualifiedType.getName());
+			} else if (type instanceof ArrayType) {
+				ArrayType arrayType = (ArrayType) type;
+				printType(arrayType.getElementType());
+				for (int index = 0; index < arrayType.getDimensions(); index++) {
+					buffer.append("[]");
+				}
+			} else if (type instanceof ParameterizedType) {
+				ParameterizedType parameterizedType = (ParameterizedType) type;
+				printType(parameterizedType.getType());
+				buffer.append('<');
+				List<?> typeArguments = parameterizedType.typeArguments();
+				for (int index = 0; index < typeArguments.size(); index++) {
+					if (index > 0) {
+						buffer.append(", ");
+					}
+					printType((Type) typeArguments.get(index));
+				}
+				buffer.append('>');
+			} else if (type instanceof WildcardType) {
+				WildcardType wildcardType = (WildcardType) type;
+				buffer.append('?');
+				if (wildcardType.getBound() != null) {
+					buffer.append(wildcardType.isUpperBound() ? " extends "
+							: " super ");
+					printType(wildcardType.getBound());
+				}
+			} else {
+				throw unsupported(type);
+			}
+		}
+
+		private void printTypes(String keyword, List<?> types) {
+			for (int index = 0; index < types.size(); index++) {
+				buffer.append(index == 0 ? keyword : ", ");
+				printType((Type) types.get(index));
+			}
+		}
+
+		private void printTypeParameters(List<?> typeParameters) {
+			if (typeParameters.isEmpty()) {
+				return;
+			}
+			buffer.append('<');
+			for (int index = 0; index < typeParameters.size(); index++) {
+				if (index > 0) {
+					buffer.append(", ");
+				}
+				TypeParameter typeParameter = (TypeParameter) typeParameters
+						.get(index);
+				printName(typeParameter.getName());
+				List<?> typeBounds = typeParameter.typeBounds();
+				for (int bound = 0; bound < typeBounds.size(); bound++) {
+					buffer.append(bound == 0 ? " extends " : " & ");
+					printType((Type) typeBounds.get(bound));
+				}
+			}
+			buffer.append('>');
+		}
+
+		private void printModifiers(List<?> modifiers) {
+			for (Object node : modifiers) {
+				if (!(node instanceof Modifier)) {
+					throw unsupported((ASTNode) node);
+				}
+				buffer.append(((Modifier) node).getKeyword().toString())
+						.append(' ');
+			}
+		}
+
+		private void printName(Name name) {
+			buffer.append(name.getFullyQualifiedName());
+		}
+
+		private void printJavadoc(Javadoc javadoc) {
+			if (javadoc == null) {
+				return;
+			}
+			indent();
+			buffer.append("/**");
+			newLine();
+			for (Object node : javadoc.tags()) {
+				indent();
+				buffer.append(" *");
+				int start = buffer.length();
+				buffer.append(' ');
+				printTag((TagElement) node);
+				// Remove the trailing white space of the line
+				int end = buffer.length();
+				while (end > start && buffer.charAt(end - 1) <= ' ') {
+					end--;
+				}
+				buffer.setLength(end);
+				newLine();
+			}
+			indent();
+			buffer.append(" */");
+			newLine();
+		}
+
+		private void printTag(TagElement tagElement) {
+			if (tagElement.getTagName() != null) {
+				buffer.append(tagElement.getTagName());
+			}
+			for (Object fragment : tagElement.fragments()) {
+				if (fragment instanceof TextElement) {
+					buffer.append(((TextElement) fragment).getText());
+				} else if (fragment instanceof Name) {
+					buffer.append(' ');
+					printName((Name) fragment);
+				} else {
+					throw unsupported((ASTNode) fragment);
+				}
+			}
+		}
+
+		private void indent() {
+			for (int index = 0; index < indentation; index++) {
+				buffer.append('\t');
+			}
+		}
+
+		private void newLine() {
+			buffer.append(lineSeparator);
+		}
+
+		private UnsupportedNodeException unsupported(ASTNode node) {
+			return new UnsupportedNodeException(node);
+		}
+	}
+}
@@ -19,28 +19,45 @@
 package de.crowdcode.kissmda.cartridges.simplejava;
 
 import java.io.IOException;
-import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.inject.Inject;
 
-import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EClass;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.uml2.uml.Class;
 import org.eclipse.uml2.uml.Classifier;
 import org.eclipse.uml2.uml.Element;
 import org.eclipse.uml2.uml.Enumeration;
 import org.eclipse.uml2.uml.Stereotype;
+import org.eclipse.uml2.uml.UMLPackage;
 
+import com.google.common.base.Function;
+import com.google.common.eventbus.DeadEvent;
 import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
 
 import de.crowdcode.kissmda.cartridges.simplejava.event.BeforeClassFileGeneratedEvent;
 import de.crowdcode.kissmda.core.Context;
 import de.crowdcode.kissmda.core.Transformer;
 import de.crowdcode.kissmda.core.TransformerException;
 import de.crowdcode.kissmda.core.file.JavaFileWriter;
+import de.crowdcode.kissmda.core.jdt.DataTypeUtils;
+import de.crowdcode.kissmda.core.uml.ElementFingerprint;
+import de.crowdcode.kissmda.core.uml.ModelIndex;
 import de.crowdcode.kissmda.core.uml.PackageHelper;
+import de.crowdcode.kissmda.core.uml.TypeDependencyGraph;
+import de.crowdcode.kissmda.core.visitor.ElementVisitor;
+import de.crowdcode.kissmda.core.visitor.ModelTraversal;
 
 /**
  * Simple Java Transformer. This generates Interfaces for all the classes from
@@ -51,11 +68,16 @@ import de.crowdcode.kissmda.core.uml.PackageHelper;
  * Transformer: PackageHelper, JavaFileWriter.
  * </p>
  * 
+ * <p>
+ * The Transformer is an ElementVisitor, so it can share one traversal of the
+ * model with other visitors.
+ * </p>
+ * 
  * @author Lofi Dewanto
  * @version 1.0.0
  * @since 1.0.0
  */
-public class SimpleJavaTransformer implements Transformer {
+public class SimpleJavaTransformer implements Transformer, ElementVisitor {
 
 	private static final Logger logger = Logger
 			.getLogger(SimpleJavaTransformer.class.getName());
@@ -70,10 +92,15 @@ public class SimpleJavaTransformer implements Transformer {
 
 	private static final String STEREOTYPE_UNEXPECTEDEXCEPTION = "UnexpectedException";
 
-	private static final String TYPE_ENUM = "Enumeration";
-
 	private static final String STEREOTYPE_SOURCEDIRECTORY = "SourceDirectory";
 
+	private static final Set<String> STEREOTYPE_NAMES = Collections
+			.unmodifiableSet(new HashSet<String>(Arrays.asList(
+					STEREOTYPE_SOURCEDIRECTORY, STEREOTYPE_ENTITY,
+					STEREOTYPE_SERVICE, STEREOTYPE_EXCEPTION,
+					STEREOTYPE_APPLICATIONEXCEPTION,
+					STEREOTYPE_UNEXPECTEDEXCEPTION)));
+
 	private String sourceDirectoryPackageName;
 
 	@Inject
@@ -85,6 +112,9 @@ public class SimpleJavaTransformer implements Transformer {
 	@Inject
 	private InterfaceGenerator interfaceGenerator;
 
+	@Inject
+	private InterfaceSourceEmitter interfaceSourceEmitter;
+
 	@Inject
 	private ExceptionGenerator exceptionGenerator;
 
@@ -97,8 +127,35 @@ public class SimpleJavaTransformer implements Transformer {
 	@Inject
 	private EventBus eventBus;
 
+	@Inject
+	private ModelTraversal modelTraversal;
+
+	@Inject
+	private GenerationExecutor generationExecutor;
+
+	@Inject
+	private ElementFingerprint elementFingerprint;
+
+	@Inject
+	private DataTypeUtils dataTypeUtils;
+
 	private Context context;
 
+	private ModelIndex modelIndex;
+
+	private TypeDependencyGraph typeDependencyGraph;
+
+	private List<String> generationInputs;
+
+	private DeadEventHandler deadEventHandler;
+
+	private final Function<Classifier, String> typeFingerprint = new Function<Classifier, String>() {
+		@Override
+		public String apply(Classifier classifier) {
+			return elementFingerprint.compute(classifier);
+		}
+	};
+
 	/**
 	 * Start the transformation and generation.
 	 * 
@@ -110,125 +167,294 @@ public class SimpleJavaTransformer implements Transformer {
 	 */
 	@Override
 	public void transform(Context context) throws TransformerException {
+		// Walk the model once for this transformer only
+		modelTraversal.traverse(context, Collections.singletonList(this));
+	}
+
+	@Override
+	public Set<String> getStereotypeNames() {
+		// Only the profiles of these stereotypes are needed
+		return STEREOTYPE_NAMES;
+	}
+
+	@Override
+	public Set<EClass> getMetaclasses() {
+		return Collections.singleton(UMLPackage.Literals.ENUMERATION);
+	}
+
+	@Override
+	public void startVisit(Context context, ModelIndex modelIndex)
+			throws TransformerException {
 		this.context = context;
+		this.modelIndex = modelIndex;
+		generationExecutor.start(context.getGenerationThreads(),
+				context.getWriterThreads());
+		javaCodeFormatter.configure(context);
+		if (context.isDirectEmitterEnabled()) {
+			startDirectEmitter(context);
+		}
+		if (context.isIncrementalEnabled()) {
+			typeDependencyGraph = new TypeDependencyGraph(modelIndex);
+			generationInputs = getGenerationInputs(context);
+		}
+	}
+
+	@Override
+	public void visit(Element element, List<Stereotype> stereotypes)
+			throws TransformerException {
 		try {
-			// Get the root package
-			org.eclipse.uml2.uml.Package outPackage = getRootPackage(context);
-			sourceDirectoryPackageName = "";
-
-			// Check the stereotype of the root package
-			checkStereotypeRootPackage(outPackage);
-
-			// Get all elements with defined stereotypes and enums
-			EList<Element> elements = outPackage.allOwnedElements();
-			for (Element element : elements) {
-				// Stereotypes
-				EList<Stereotype> stereotypes = element.getAppliedStereotypes();
-				for (Stereotype stereotype : stereotypes) {
-					if (stereotype.getName().equals(STEREOTYPE_SOURCEDIRECTORY)) {
-						// From this SourceDirectory we can work...
-						org.eclipse.uml2.uml.Package packagez = (org.eclipse.uml2.uml.Package) element;
-						sourceDirectoryPackageName = packagez.getName();
-						logger.log(Level.FINE, "SourceDirectory package name: "
-								+ sourceDirectoryPackageName);
-					}
-					if (stereotype.getName().equals(STEREOTYPE_ENTITY)
-							|| stereotype.getName().equals(STEREOTYPE_SERVICE)) {
-						generateInterfaceForEntityAndService(element,
-								stereotype);
-					}
-					if (stereotype.getName().equals(STEREOTYPE_EXCEPTION)
-							|| stereotype.getName().equals(
-									STEREOTYPE_APPLICATIONEXCEPTION)) {
-						generateCheckedException(element, stereotype);
-					}
-					if (stereotype.getName().equals(
-							STEREOTYPE_UNEXPECTEDEXCEPTION)) {
-						generateUncheckedException(element, stereotype);
-					}
+			for (Stereotype stereotype : stereotypes) {
+				String stereotypeName = stereotype.getName();
+				if (STEREOTYPE_ENTITY.equals(stereotypeName)
+						|| STEREOTYPE_SERVICE.equals(stereotypeName)) {
+					generateInterfaceForEntityAndService(modelIndex, element,
+							stereotypeName);
+				} else if (STEREOTYPE_EXCEPTION.equals(stereotypeName)
+						|| STEREOTYPE_APPLICATIONEXCEPTION
+								.equals(stereotypeName)) {
+					generateCheckedException(modelIndex, element,
+							stereotypeName);
+				} else if (STEREOTYPE_UNEXPECTEDEXCEPTION
+						.equals(stereotypeName)) {
+					generateUncheckedException(modelIndex, element,
+							stereotypeName);
 				}
+			}
 
-				// Enums
-				if (element.eClass().getName().equals(TYPE_ENUM)) {
-					generateEnum(element);
-				}
+			// Enums
+			if (element instanceof Enumeration) {
+				generateEnum(modelIndex, element);
 			}
-		} catch (URISyntaxException e) {
+		} catch (IOException e) {
 			throw new TransformerException(e);
+		}
+	}
+
+	@Override
+	public void endVisit(Context context) throws TransformerException {
+		modelIndex = null;
+		typeDependencyGraph = null;
+		generationInputs = null;
+		if (deadEventHandler != null) {
+			eventBus.unregister(deadEventHandler);
+			deadEventHandler = null;
+		}
+		try {
+			generationExecutor.finish();
 		} catch (IOException e) {
 			throw new TransformerException(e);
 		}
 	}
 
-	private void generateEnum(Element element) throws IOException {
+	private void generateEnum(ModelIndex modelIndex, Element element)
+			throws IOException {
 		Enumeration clazz = (Enumeration) element;
 		logger.log(Level.FINE, "Enum: " + clazz.getName());
+		sourceDirectoryPackageName = getSourceDirectoryPackageName(modelIndex,
+				element);
+		if (isUnchanged(clazz)) {
+			return;
+		}
 		// Generate the enumeration for this class
 		CompilationUnit compilationUnit = enumGenerator.generateEnum(clazz,
 				sourceDirectoryPackageName);
 		generateClassFile(clazz, compilationUnit);
 	}
 
-	private void generateInterfaceForEntityAndService(Element element,
-			Stereotype stereotype) throws IOException {
+	private void generateInterfaceForEntityAndService(ModelIndex modelIndex,
+			Element element, String stereotypeName) throws IOException {
 		// Stereotype Interface
 		Class clazz = (Class) element;
 		logger.log(Level.FINE, "Class: " + clazz.getName() + " - "
-				+ "Stereotype: " + stereotype.getName());
+				+ "Stereotype: " + stereotypeName);
+		sourceDirectoryPackageName = getSourceDirectoryPackageName(modelIndex,
+				element);
+		if (isUnchanged(clazz)) {
+			return;
+		}
+		if (isDirectEmitterUsable()) {
+			// Emit the source without a compilation unit
+			String code = interfaceSourceEmitter.emitInterface(clazz,
+					sourceDirectoryPackageName,
+					javaCodeFormatter.getDirectLineEnding());
+			generateClassFile(clazz, code);
+			return;
+		}
 		// Generate the interface for this class
 		CompilationUnit compilationUnit = interfaceGenerator.generateInterface(
 				clazz, sourceDirectoryPackageName);
 		generateClassFile(clazz, compilationUnit);
 	}
 
-	private void generateCheckedException(Element element, Stereotype stereotype)
-			throws IOException {
+	private void generateCheckedException(ModelIndex modelIndex,
+			Element element, String stereotypeName) throws IOException {
 		// Stereotype Interface
 		Class clazz = (Class) element;
 		logger.log(Level.FINE, "Class: " + clazz.getName() + " - "
-				+ "Stereotype: " + stereotype.getName());
+				+ "Stereotype: " + stereotypeName);
+		sourceDirectoryPackageName = getSourceDirectoryPackageName(modelIndex,
+				element);
+		if (isUnchanged(clazz)) {
+			return;
+		}
 		// Generate the exception for this class
 		CompilationUnit compilationUnit = exceptionGenerator
 				.generateCheckedException(clazz, sourceDirectoryPackageName);
 		generateClassFile(clazz, compilationUnit);
 	}
 
-	private void generateUncheckedException(Element element,
-			Stereotype stereotype) throws IOException {
+	private void generateUncheckedException(ModelIndex modelIndex,
+			Element element, String stereotypeName) throws IOException {
 		// Stereotype Interface
 		Class clazz = (Class) element;
 		logger.log(Level.FINE, "Class: " + clazz.getName() + " - "
-				+ "Stereotype: " + stereotype.getName());
+				+ "Stereotype: " + stereotypeName);
+		sourceDirectoryPackageName = getSourceDirectoryPackageName(modelIndex,
+				element);
+		if (isUnchanged(clazz)) {
+			return;
+		}
 		// Generate the exception for this class
 		CompilationUnit compilationUnit = exceptionGenerator
 				.generateUncheckedException(clazz, sourceDirectoryPackageName);
 		generateClassFile(clazz, compilationUnit);
 	}
 
-	private void checkStereotypeRootPackage(
-			org.eclipse.uml2.uml.Package outPackage) {
-		EList<Stereotype> rootStereotypes = outPackage.getAppliedStereotypes();
-		for (Stereotype stereotype : rootStereotypes) {
-			if (stereotype.getName().equals(STEREOTYPE_SOURCEDIRECTORY)) {
-				// From this SourceDirectory we can work...
-				org.eclipse.uml2.uml.Package packagez = outPackage;
-				sourceDirectoryPackageName = packagez.getName();
-				logger.log(Level.FINE, "SourceDirectory package name: "
-						+ sourceDirectoryPackageName);
-			}
+	/**
+	 * Prepare the direct emitter. The emitted code has the layout of the
+	 * direct formatting, so without it the interfaces would look different
+	 * from the other files. The emitter does not create compilation units, so
+	 * it is only used as long as no one subscribes to the
+	 * BeforeClassFileGeneratedEvent. This is known after the first event was
+	 * published, so the files up to this event are always generated with a
+	 * compilation unit.
+	 * 
+	 * @param context
+	 *            context object from Maven plugin
+	 */
+	private void startDirectEmitter(Context context) {
+		if (!context.isDirectFormattingEnabled()) {
+			logger.log(Level.WARNING,
+					"The direct emitter needs the direct formatting, "
+							+ "the interfaces are generated with "
+							+ "compilation units");
+			return;
 		}
+		deadEventHandler = new DeadEventHandler();
+		eventBus.register(deadEventHandler);
+	}
+
+	private boolean isDirectEmitterUsable() {
+		return deadEventHandler != null
+				&& deadEventHandler.isClassFileEventDead();
 	}
 
-	private org.eclipse.uml2.uml.Package getRootPackage(Context context)
-			throws URISyntaxException {
-		org.eclipse.uml2.uml.Package outPackage = packageHelper
-				.getRootPackage(context);
-		return outPackage;
+	/**
+	 * Check whether the classifier did not change since the last run, so its
+	 * file does not need to be generated again. The classifier is changed if
+	 * the classifier itself or any type it depends on directly or indirectly
+	 * changed, e.g. a renamed enumeration of an attribute, or any option of
+	 * the generation changed. The file is recorded in the generation manifest
+	 * of the writer. Always false without the incremental generation.
+	 * 
+	 * @param clazz
+	 *            UML2 classifier
+	 * @return true if the file of the classifier is up to date
+	 */
+	private boolean isUnchanged(Classifier clazz) {
+		if (!context.isIncrementalEnabled()) {
+			return false;
+		}
+		String fullPackageName = packageHelper.getFullPackageName(clazz,
+				sourceDirectoryPackageName);
+		List<String> inputs = new ArrayList<String>(generationInputs);
+		inputs.add(fullPackageName);
+		inputs.add(getDependencyFingerprints(clazz));
+		String fingerprint = elementFingerprint.compute(clazz,
+				inputs.toArray(new String[inputs.size()]));
+		if (javaFileWriter.isUnchanged(context, fullPackageName,
+				clazz.getName(), fingerprint)) {
+			logger.log(Level.FINE, "Unchanged: " + fullPackageName + "."
+					+ clazz.getName());
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Get all inputs of the generation besides the model which change the
+	 * generated files: the versions, the options of the formatting, the
+	 * writing and the emitter, the mapping of the data types, which can be
+	 * changed by the application.properties and by extensions, and the
+	 * scheduled extensions, whose handlers of BeforeClassFileGeneratedEvent
+	 * rewrite the compilation units.
+	 * 
+	 * @param context
+	 *            context object from Maven plugin
+	 * @return inputs as String
+	 */
+	private List<String> getGenerationInputs(Context context) {
+		List<String> inputs = new ArrayList<String>();
+		inputs.add(getClass().getPackage().getImplementationVersion());
+		inputs.add(context.getGeneratorVersion());
+		inputs.add(context.getFormatterJavaVersion());
+		inputs.add(context.getFormatterLineEnding());
+		inputs.add(javaCodeFormatter.getDirectLineEnding());
+		inputs.add(String.valueOf(context.isDirectFormattingEnabled()));
+		inputs.add(String.valueOf(context.isDirectEmitterEnabled()));
+		inputs.add(context.getTargetEncoding());
+		inputs.add(new TreeMap<String, Object>(dataTypeUtils
+				.getPrimitiveTypeCodes()).toString());
+		inputs.add(new TreeMap<String, String>(dataTypeUtils.getJavaTypes())
+				.toString());
+		inputs.add(String.valueOf(context.getExtensionNames()));
+		return inputs;
+	}
+
+	/**
+	 * Get the fingerprint of all types the classifier depends on. A change of
+	 * any of these types changes the fingerprint of the classifier. The graph
+	 * computes it once for each cycle of types.
+	 * 
+	 * @param clazz
+	 *            UML2 classifier
+	 * @return fingerprint of the types as String
+	 */
+	private String getDependencyFingerprints(Classifier clazz) {
+		return typeDependencyGraph.getClosureFingerprint(clazz,
+				typeFingerprint);
+	}
+
+	/**
+	 * Get the name of the nearest package with the stereotype SourceDirectory
+	 * which contains the element. From this SourceDirectory we can work...
+	 * 
+	 * @param modelIndex
+	 *            index of the model
+	 * @param element
+	 *            UML2 element
+	 * @return package name or empty String if there is no SourceDirectory
+	 */
+	private String getSourceDirectoryPackageName(ModelIndex modelIndex,
+			Element element) {
+		for (Element owner = element.getOwner(); owner != null; owner = owner
+				.getOwner()) {
+			if (owner instanceof org.eclipse.uml2.uml.Package
+					&& modelIndex.hasStereotype(owner, STEREOTYPE_SOURCEDIRECTORY)) {
+				String packageName = ((org.eclipse.uml2.uml.Package) owner)
+						.getName();
+				logger.log(Level.FINE, "SourceDirectory package name: "
+						+ packageName);
+				return packageName;
+			}
+		}
+		return "";
 	}
 
 	/**
 	 * Create the output file on the directory. We also format the code before
-	 * we save it.
+	 * we save it. The UML model is only read in this method, formatting and
+	 * writing may run in other threads.
 	 * 
 	 * @param clazz
 	 *            UML2 class of Eclipse
@@ -238,17 +464,85 @@ public class SimpleJavaTransformer implements Transformer {
 	 *             input or output error on file system
 	 */
 	private void generateClassFile(Classifier clazz,
-			CompilationUnit compilationUnit) throws IOException {
+			final CompilationUnit compilationUnit) throws IOException {
 		// Publish an event to the bus before we generate the class file
 		eventBus.post(new BeforeClassFileGeneratedEvent(compilationUnit));
+		if (deadEventHandler != null
+				&& !deadEventHandler.isClassFileEventDead()) {
+			// A subscriber needs the compilation units of all files
+			logger.log(Level.INFO, "BeforeClassFileGeneratedEvent has "
+					+ "subscribers, the interfaces are generated with "
+					+ "compilation units");
+			eventBus.unregister(deadEventHandler);
+			deadEventHandler = null;
+		}
 
-		String fullPackageName = packageHelper.getFullPackageName(clazz,
+		generateClassFile(clazz, new Callable<String>() {
+			@Override
+			public String call() {
+				// Format before we generate the class file
+				return javaCodeFormatter.format(compilationUnit);
+			}
+		});
+	}
+
+	/**
+	 * Create the output file of the emitted code on the directory. There is
+	 * no compilation unit, so no BeforeClassFileGeneratedEvent is published,
+	 * see {@link #startDirectEmitter(Context)}.
+	 * 
+	 * @param clazz
+	 *            UML2 class of Eclipse
+	 * @param code
+	 *            formatted code
+	 * @throws IOException
+	 *             input or output error on file system
+	 */
+	private void generateClassFile(Classifier clazz, final String code)
+			throws IOException {
+		generateClassFile(clazz, new Callable<String>() {
+			@Override
+			public String call() {
+				return code;
+			}
+		});
+	}
+
+	private void generateClassFile(Classifier clazz,
+			Callable<String> formatTask) throws IOException {
+		final String fullPackageName = packageHelper.getFullPackageName(clazz,
 				sourceDirectoryPackageName);
+		final String className = clazz.getName();
+		final Context context = this.context;
+
+		generationExecutor.execute(fullPackageName + "." + className,
+				formatTask, new GenerationExecutor.WriteTask() {
+					@Override
+					public void write(String formattedCode) throws IOException {
+						javaFileWriter.createJavaFile(context,
+								fullPackageName, className, formattedCode);
+					}
+				});
+	}
 
-		// Format before we generate the class file
-		String formattedCode = javaCodeFormatter.format(compilationUnit
-				.toString());
-		javaFileWriter.createJavaFile(context, fullPackageName,
-				clazz.getName(), formattedCode);
+	/**
+	 * Handler of the events without subscribers. The event bus publishes a
+	 * DeadEvent for a BeforeClassFileGeneratedEvent which no one subscribes
+	 * to.
+	 */
+	private static class DeadEventHandler {
+
+		private boolean classFileEventDead;
+
+		@Subscribe
+		public void onDeadEvent(DeadEvent deadEvent) {
+			if (deadEvent.getEvent() instanceof BeforeClassFileGeneratedEvent) {
+				classFileEventDead = true;
+			}
+		}
+
+		boolean isClassFileEventDead() {
+			return classFileEventDead;
+		}
 	}
 }
\ No newline at end of file
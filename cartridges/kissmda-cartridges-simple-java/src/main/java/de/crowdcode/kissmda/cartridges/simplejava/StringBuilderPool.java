@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.cartridges.simplejava;
+
+/**
+ * Pool of one StringBuilder per thread for the code of a generated file. A
+ * buffer which grew beyond the maximum pooled size is dropped after use, so
+ * the memory of a very large file is not kept.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+class StringBuilderPool {
+
+	private static final int BUFFER_SIZE = 8 * 1024;
+
+	private static final int MAXIMUM_POOLED_BUFFER_SIZE = 256 * 1024;
+
+	private final ThreadLocal<StringBuilder> buffers = new ThreadLocal<StringBuilder>() {
+		@Override
+		protected StringBuilder initialValue() {
+			return new StringBuilder(BUFFER_SIZE);
+		}
+	};
+
+	/**
+	 * Get the empty buffer of the current thread.
+	 * 
+	 * @return buffer
+	 */
+	StringBuilder acquire() {
+		return buffers.get();
+	}
+
+	/**
+	 * Give the buffer of the current thread back after use.
+	 * 
+	 * @param buffer
+	 *            buffer from {@link #acquire()}
+	 */
+	void release(StringBuilder buffer) {
+		if (buffer.capacity() > MAXIMUM_POOLED_BUFFER_SIZE) {
+			// Do not keep the memory of a very large file
+			buffers.remove();
+		} else {
+			buffer.setLength(0);
+		}
+	}
+}
@@ -32,6 +32,8 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({ SimpleJavaModuleTest.class, InterfaceGeneratorTest.class,
 		InterfaceGeneratorMethodParamsTest.class, EnumGeneratorTest.class,
-		ExceptionGeneratorTest.class, JavaCodeFormatterTest.class })
+		ExceptionGeneratorTest.class, JavaCodeFormatterTest.class,
+		GenerationExecutorTest.class, JavaSourcePrinterTest.class,
+		InterfaceSourceEmitterTest.class })
 public class AllTests {
 }
@@ -23,8 +23,8 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
-import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import javax.inject.Inject;
 
@@ -64,10 +64,13 @@ public class EnumGeneratorTest {
 	@Inject
 	private EnumGenerator enumGenerator;
 
+	private GeneratorContext generatorContext;
+
 	private Class clazz;
 
 	@Before
 	public void setUp() throws Exception {
+		generatorContext = new GeneratorContext(null);
 		setUpMocks();
 	}
 
@@ -87,7 +90,7 @@ public class EnumGeneratorTest {
 		AST ast = AST.newAST(AST.JLS3);
 		CompilationUnit cu = ast.newCompilationUnit();
 
-		enumGenerator.generatePackage(clazz, ast, cu);
+		enumGenerator.generatePackage(clazz, ast, cu, generatorContext);
 
 		String onlyPackage = cu.toString();
 		String expectedResult = "package de.crowdcode.kissmda.testapp.components;\n";
@@ -152,7 +155,8 @@ public class EnumGeneratorTest {
 		when(valueSpecificationIter.next()).thenReturn(valueSpecification);
 		when(valueSpecification.integerValue()).thenReturn(0);
 
-		enumGenerator.generateConstants(enumeration, ast, ed);
+		enumGenerator.generateConstants(enumeration, ast, ed,
+				generatorContext);
 
 		assertEquals("public enum Company {HOME(0)}\n", ed.toString());
 	}
@@ -202,7 +206,8 @@ public class EnumGeneratorTest {
 		when(valueSpecificationIter.next()).thenReturn(valueSpecification);
 		when(valueSpecification.stringValue()).thenReturn("Home");
 
-		enumGenerator.generateConstants(enumeration, ast, ed);
+		enumGenerator.generateConstants(enumeration, ast, ed,
+				generatorContext);
 
 		assertEquals("public enum Company {HOME(\"Home\")}\n", ed.toString());
 	}
@@ -252,7 +257,8 @@ public class EnumGeneratorTest {
 		when(valueSpecificationIter.next()).thenReturn(valueSpecification);
 		when(valueSpecification.integerValue()).thenReturn(1);
 
-		enumGenerator.generateConstants(enumeration, ast, ed);
+		enumGenerator.generateConstants(enumeration, ast, ed,
+				generatorContext);
 
 		assertEquals("public enum Company {HOME(1L)}\n", ed.toString());
 	}
@@ -302,7 +308,8 @@ public class EnumGeneratorTest {
 		when(valueSpecificationIter.next()).thenReturn(valueSpecification);
 		when(valueSpecification.booleanValue()).thenReturn(true);
 
-		enumGenerator.generateConstants(enumeration, ast, ed);
+		enumGenerator.generateConstants(enumeration, ast, ed,
+				generatorContext);
 
 		assertEquals("public enum Company {HOME(true)}\n", ed.toString());
 	}
@@ -335,7 +342,7 @@ public class EnumGeneratorTest {
 		when(type.getName()).thenReturn("String");
 		when(type.getQualifiedName()).thenReturn("String");
 
-		enumGenerator.generateGetterMethod(clazz, ast, ed);
+		enumGenerator.generateGetterMethod(clazz, ast, ed, generatorContext);
 
 		assertEquals(
 				"public enum Company {; public String getType(){\n  return type;\n}\n}\n",
@@ -370,7 +377,7 @@ public class EnumGeneratorTest {
 		when(type.getName()).thenReturn("Data::String");
 		when(type.getQualifiedName()).thenReturn("Data::String");
 
-		enumGenerator.generateGetterMethod(clazz, ast, ed);
+		enumGenerator.generateGetterMethod(clazz, ast, ed, generatorContext);
 
 		assertEquals(
 				"public enum Company {; public Data.String getType(){\n  return type;\n}\n}\n",
@@ -440,7 +447,7 @@ public class EnumGeneratorTest {
 		when(type.getName()).thenReturn("String");
 		when(type.getQualifiedName()).thenReturn("String");
 
-		enumGenerator.generateAttributes(clazz, ast, ed);
+		enumGenerator.generateAttributes(clazz, ast, ed, generatorContext);
 
 		assertEquals("public enum Company {; String type;\n}\n", cu.toString());
 	}
@@ -483,7 +490,7 @@ public class EnumGeneratorTest {
 		when(type.getName()).thenReturn("String");
 		when(type.getQualifiedName()).thenReturn("String");
 
-		enumGenerator.generateConstructor(clazz, ast, ed);
+		enumGenerator.generateConstructor(clazz, ast, ed, generatorContext);
 
 		assertEquals(
 				"public enum Company {; private Company(String type){\n  this.type=type;\n}\n}\n",
@@ -544,7 +551,7 @@ public class EnumGeneratorTest {
 		when(secondType.getName()).thenReturn("Integer");
 		when(secondType.getQualifiedName()).thenReturn("Integer");
 
-		enumGenerator.generateConstructor(clazz, ast, ed);
+		enumGenerator.generateConstructor(clazz, ast, ed, generatorContext);
 
 		assertEquals(
 				"public enum Company {; private Company(String type,Integer count){\n  this.type=type;\n  this.count=count;\n}\n}\n",
@@ -598,7 +605,8 @@ public class EnumGeneratorTest {
 		when(typeCount.getName()).thenReturn("Integer");
 		when(typeCount.getQualifiedName()).thenReturn("Integer");
 
-		enumGenerator.generateContructorParameters(clazz, ast, md);
+		enumGenerator.generateContructorParameters(clazz, ast, md,
+				generatorContext);
 
 		ed.bodyDeclarations().add(md);
 
@@ -724,12 +732,13 @@ public class EnumGeneratorTest {
 		when(valueSpecification1.booleanValue()).thenReturn(true);
 		when(valueSpecification2.stringValue()).thenReturn("Lofi");
 
-		ArrayList<String> constructorParameterNames = new ArrayList<String>();
+		List<String> constructorParameterNames = generatorContext
+				.getConstructorParameterNames();
 		constructorParameterNames.add("type");
 		constructorParameterNames.add("name");
-		enumGenerator.setConstructorParameterNames(constructorParameterNames);
 
-		enumGenerator.generateConstants(enumeration, ast, ed);
+		enumGenerator.generateConstants(enumeration, ast, ed,
+				generatorContext);
 
 		assertEquals("public enum Company {HOME(true,\"Lofi\")}\n",
 				ed.toString());
@@ -808,12 +817,13 @@ public class EnumGeneratorTest {
 		when(valueSpecification2.stringValue()).thenReturn("Lofi");
 
 		// Cannot find the parameter name of the constructor!
-		ArrayList<String> constructorParameterNames = new ArrayList<String>();
+		List<String> constructorParameterNames = generatorContext
+				.getConstructorParameterNames();
 		constructorParameterNames.add("typeX");
 		constructorParameterNames.add("nameY");
-		enumGenerator.setConstructorParameterNames(constructorParameterNames);
 
-		enumGenerator.generateConstants(enumeration, ast, ed);
+		enumGenerator.generateConstants(enumeration, ast, ed,
+				generatorContext);
 
 		assertEquals("public enum Company {HOME(true,\"Lofi\")}\n",
 				ed.toString());
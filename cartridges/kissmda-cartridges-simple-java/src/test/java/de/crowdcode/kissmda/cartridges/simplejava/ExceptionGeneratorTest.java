@@ -62,10 +62,13 @@ public class ExceptionGeneratorTest {
 	@Inject
 	private ExceptionGenerator exceptionGenerator;
 
+	private GeneratorContext generatorContext;
+
 	private Class clazz;
 
 	@Before
 	public void setUp() throws Exception {
+		generatorContext = new GeneratorContext(null);
 		setUpMocks();
 	}
 
@@ -88,7 +91,7 @@ public class ExceptionGeneratorTest {
 		CompilationUnit cu = ast.newCompilationUnit();
 
 		TypeDeclaration typeDeclaration = exceptionGenerator.generateClass(
-				clazz, ast, cu);
+				clazz, ast, cu, generatorContext);
 
 		assertEquals(typeDeclaration.toString(),
 				"public class CompanyException extends Exception {\n}\n");
@@ -109,7 +112,7 @@ public class ExceptionGeneratorTest {
 		CompilationUnit cu = ast.newCompilationUnit();
 
 		TypeDeclaration typeDeclaration = exceptionGenerator.generateClass(
-				clazz, ast, cu);
+				clazz, ast, cu, generatorContext);
 
 		assertEquals(typeDeclaration.toString(),
 				"public class CompanyException extends de.test.SuperCompanyException {\n}\n");
@@ -128,7 +131,7 @@ public class ExceptionGeneratorTest {
 		CompilationUnit cu = ast.newCompilationUnit();
 
 		TypeDeclaration typeDeclaration = exceptionGenerator.generateClass(
-				clazz, ast, cu);
+				clazz, ast, cu, generatorContext);
 
 		assertEquals(typeDeclaration.toString(),
 				"public class CompanyException extends Exception {\n}\n");
@@ -139,9 +142,9 @@ public class ExceptionGeneratorTest {
 		AST ast = AST.newAST(AST.JLS3);
 		CompilationUnit cu = ast.newCompilationUnit();
 
-		exceptionGenerator.setCheckedException(false);
+		generatorContext = new GeneratorContext(null, false);
 		TypeDeclaration typeDeclaration = exceptionGenerator.generateClass(
-				clazz, ast, cu);
+				clazz, ast, cu, generatorContext);
 
 		assertEquals(typeDeclaration.toString(),
 				"public class CompanyException extends RuntimeException {\n}\n");
@@ -167,9 +170,9 @@ public class ExceptionGeneratorTest {
 		AST ast = AST.newAST(AST.JLS3);
 		CompilationUnit cu = ast.newCompilationUnit();
 
-		exceptionGenerator.setCheckedException(false);
+		generatorContext = new GeneratorContext(null, false);
 		try {
-			exceptionGenerator.generateClass(clazz, ast, cu);
+			exceptionGenerator.generateClass(clazz, ast, cu, generatorContext);
 			assertTrue(false);
 		} catch (TransformerException e) {
 			logger.info("Error: " + e.getMessage());
@@ -191,9 +194,9 @@ public class ExceptionGeneratorTest {
 		AST ast = AST.newAST(AST.JLS3);
 		CompilationUnit cu = ast.newCompilationUnit();
 
-		exceptionGenerator.setCheckedException(false);
+		generatorContext = new GeneratorContext(null, false);
 		TypeDeclaration typeDeclaration = exceptionGenerator.generateClass(
-				clazz, ast, cu);
+				clazz, ast, cu, generatorContext);
 
 		assertEquals(typeDeclaration.toString(),
 				"public class CompanyException extends de.test.SuperCompanyException {\n}\n");
@@ -211,9 +214,9 @@ public class ExceptionGeneratorTest {
 		AST ast = AST.newAST(AST.JLS3);
 		CompilationUnit cu = ast.newCompilationUnit();
 
-		exceptionGenerator.setCheckedException(false);
+		generatorContext = new GeneratorContext(null, false);
 		TypeDeclaration typeDeclaration = exceptionGenerator.generateClass(
-				clazz, ast, cu);
+				clazz, ast, cu, generatorContext);
 
 		assertEquals(typeDeclaration.toString(),
 				"public class CompanyException extends RuntimeException {\n}\n");
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.cartridges.simplejava;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Generation Executor test.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class GenerationExecutorTest {
+
+	GenerationExecutor generationExecutor;
+
+	@Before
+	public void setUp() throws Exception {
+		generationExecutor = new GenerationExecutor();
+	}
+
+	@Test
+	public void testExecuteSequentialInCallingThread() throws IOException {
+		final List<Thread> threads = new ArrayList<Thread>();
+		generationExecutor.start(1);
+		generationExecutor.execute("de.test.Company", new Callable<String>() {
+			@Override
+			public String call() {
+				threads.add(Thread.currentThread());
+				return "code";
+			}
+		}, new GenerationExecutor.WriteTask() {
+			@Override
+			public void write(String formattedCode) {
+				threads.add(Thread.currentThread());
+			}
+		});
+
+		assertEquals(2, threads.size());
+		assertSame(Thread.currentThread(), threads.get(0));
+		assertSame(Thread.currentThread(), threads.get(1));
+		generationExecutor.finish();
+	}
+
+	@Test
+	public void testExecuteParallelKeepsOrderOfSameFile() throws IOException {
+		final List<String> calls = Collections
+				.synchronizedList(new ArrayList<String>());
+		final List<Thread> threads = Collections
+				.synchronizedList(new ArrayList<Thread>());
+		generationExecutor.start(4);
+		for (int index = 0; index < 100; index++) {
+			final String call = "call" + index;
+			generationExecutor.execute("de.test.Company", new Callable<String>() {
+				@Override
+				public String call() {
+					return call;
+				}
+			}, new GenerationExecutor.WriteTask() {
+				@Override
+				public void write(String formattedCode) {
+					calls.add(formattedCode);
+					threads.add(Thread.currentThread());
+				}
+			});
+		}
+		generationExecutor.finish();
+
+		assertEquals(100, calls.size());
+		for (int index = 0; index < 100; index++) {
+			assertEquals("call" + index, calls.get(index));
+		}
+		assertNotSame(Thread.currentThread(), threads.get(0));
+	}
+
+	@Test
+	public void testExecutePipelineWritesInWriterThreads() throws IOException {
+		final List<String> writes = Collections
+				.synchronizedList(new ArrayList<String>());
+		final List<String> threadNames = Collections
+				.synchronizedList(new ArrayList<String>());
+		generationExecutor.start(2, 2);
+		for (int index = 0; index < 100; index++) {
+			final String code = "code" + index;
+			generationExecutor.execute("de.test.Company", new Callable<String>() {
+				@Override
+				public String call() {
+					return code;
+				}
+			}, new GenerationExecutor.WriteTask() {
+				@Override
+				public void write(String formattedCode) {
+					writes.add(formattedCode);
+					threadNames.add(Thread.currentThread().getName());
+				}
+			});
+		}
+		generationExecutor.finish();
+
+		assertEquals(100, writes.size());
+		for (int index = 0; index < 100; index++) {
+			assertEquals("code" + index, writes.get(index));
+			assertTrue(threadNames.get(index).startsWith("kissmda-write-"));
+		}
+	}
+
+	@Test
+	public void testFinishThrowsErrorOfWriterThread() {
+		generationExecutor.start(1, 1);
+		try {
+			generationExecutor.execute("de.test.Company", new Callable<String>() {
+				@Override
+				public String call() {
+					return "code";
+				}
+			}, new GenerationExecutor.WriteTask() {
+				@Override
+				public void write(String formattedCode) throws IOException {
+					throw new IOException("write error");
+				}
+			});
+			generationExecutor.finish();
+			fail("IOException expected");
+		} catch (IOException e) {
+			assertEquals("write error", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testFinishThrowsFirstError() {
+		generationExecutor.start(4);
+		try {
+			for (int index = 0; index < 10; index++) {
+				final String message = "error" + index;
+				generationExecutor.execute("de.test.Class" + index,
+						new Callable<String>() {
+							@Override
+							public String call() throws IOException {
+								throw new IOException(message);
+							}
+						}, new GenerationExecutor.WriteTask() {
+							@Override
+							public void write(String formattedCode) {
+								fail("Write task must not run");
+							}
+						});
+			}
+			generationExecutor.finish();
+			fail("IOException expected");
+		} catch (IOException e) {
+			assertEquals("error0", e.getMessage());
+		}
+	}
+}
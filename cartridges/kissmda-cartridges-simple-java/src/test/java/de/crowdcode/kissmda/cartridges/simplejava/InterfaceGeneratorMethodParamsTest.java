@@ -63,6 +63,8 @@ public class InterfaceGeneratorMethodParamsTest {
 	@InjectMocks
 	private final InterfaceGenerator interfaceGenerator = new InterfaceGenerator();
 
+	private final GeneratorContext generatorContext = new GeneratorContext(null);
+
 	@Mock(answer = Answers.RETURNS_DEEP_STUBS)
 	private UmlHelper umlHelper;
 
@@ -126,7 +128,8 @@ public class InterfaceGeneratorMethodParamsTest {
 				"Data::datatype::Collection<de::test::Company>", "companies",
 				null);
 
-		interfaceGenerator.generateMethodParams(ast, td, operation, md);
+		interfaceGenerator.generateMethodParams(ast, td, operation, md,
+				generatorContext);
 
 		verify(jdtHelper, times(1)).createParameterTypes(ast, td, md,
 				"Collection<de::test::Company>",
@@ -68,10 +68,13 @@ public class InterfaceGeneratorTest {
 	@Inject
 	private InterfaceGenerator interfaceGenerator;
 
+	private GeneratorContext generatorContext;
+
 	private Class clazz;
 
 	@Before
 	public void setUp() throws Exception {
+		generatorContext = new GeneratorContext(null);
 		setUpMocks();
 	}
 
@@ -94,7 +97,8 @@ public class InterfaceGeneratorTest {
 		AST ast = AST.newAST(AST.JLS3);
 		CompilationUnit cu = ast.newCompilationUnit();
 
-		interfaceGenerator.generatePackage(clazz, ast, cu);
+		interfaceGenerator.generatePackage(clazz, ast, cu,
+				generatorContext);
 
 		String onlyPackage = cu.toString();
 		String expectedResult = "package de.crowdcode.kissmda.testapp.components;\n";
@@ -118,7 +122,7 @@ public class InterfaceGeneratorTest {
 		td.setName(ast.newSimpleName("Company"));
 
 		TypeDeclaration typeDeclaration = interfaceGenerator.generateClass(
-				clazz, ast, cu);
+				clazz, ast, cu, generatorContext);
 
 		assertEquals(typeDeclaration.toString(), td.toString());
 	}
@@ -149,7 +153,7 @@ public class InterfaceGeneratorTest {
 		td.superInterfaceTypes().add(simpleType);
 
 		TypeDeclaration typeDeclaration = interfaceGenerator.generateClass(
-				clazz, ast, cu);
+				clazz, ast, cu, generatorContext);
 
 		assertEquals(typeDeclaration.toString(), td.toString());
 	}
@@ -174,7 +178,7 @@ public class InterfaceGeneratorTest {
 		td.setName(ast.newSimpleName("Company"));
 
 		TypeDeclaration typeDeclaration = interfaceGenerator.generateClass(
-				clazz, ast, cu);
+				clazz, ast, cu, generatorContext);
 
 		assertEquals(typeDeclaration.toString(), td.toString());
 	}
@@ -220,7 +224,7 @@ public class InterfaceGeneratorTest {
 				"de::test::Calculator");
 		when(operationType.getName()).thenReturn("Calculator");
 
-		interfaceGenerator.generateMethods(clazz, ast, td);
+		interfaceGenerator.generateMethods(clazz, ast, td, generatorContext);
 
 		assertEquals(
 				"public interface Company {\n  de.test.Calculator calculateMe() throws de.test.CalculatorException ;\n}\n",
@@ -393,7 +397,8 @@ public class InterfaceGeneratorTest {
 		when(property.isUnique()).thenReturn(false);
 
 		interfaceGenerator.generateAssociationEndUpperCardinalityMultiples(ast,
-				td, property, mdGetter, umlTypeName, umlQualifiedTypeName);
+				td, property, mdGetter, umlTypeName, umlQualifiedTypeName,
+				generatorContext);
 
 		assertEquals("java.util.List<test.de.Company>", mdGetter
 				.getReturnType2().toString());
@@ -423,7 +428,8 @@ public class InterfaceGeneratorTest {
 		when(property.isUnique()).thenReturn(true);
 
 		interfaceGenerator.generateAssociationEndUpperCardinalityMultiples(ast,
-				td, property, mdGetter, umlTypeName, umlQualifiedTypeName);
+				td, property, mdGetter, umlTypeName, umlQualifiedTypeName,
+				generatorContext);
 
 		assertEquals("java.util.Set<test.de.Company>", mdGetter
 				.getReturnType2().toString());
@@ -453,7 +459,8 @@ public class InterfaceGeneratorTest {
 		when(property.isUnique()).thenReturn(false);
 
 		interfaceGenerator.generateAssociationEndUpperCardinalityMultiples(ast,
-				td, property, mdGetter, umlTypeName, umlQualifiedTypeName);
+				td, property, mdGetter, umlTypeName, umlQualifiedTypeName,
+				generatorContext);
 
 		assertEquals("java.util.Collection<test.de.Company>", mdGetter
 				.getReturnType2().toString());
@@ -483,7 +490,8 @@ public class InterfaceGeneratorTest {
 		when(property.isUnique()).thenReturn(true);
 
 		interfaceGenerator.generateAssociationEndUpperCardinalityMultiples(ast,
-				td, property, mdGetter, umlTypeName, umlQualifiedTypeName);
+				td, property, mdGetter, umlTypeName, umlQualifiedTypeName,
+				generatorContext);
 
 		assertEquals("java.util.SortedSet<test.de.Company>", mdGetter
 				.getReturnType2().toString());
@@ -514,7 +522,7 @@ public class InterfaceGeneratorTest {
 		when(property.getOwnedComments()).thenReturn(comments);
 
 		interfaceGenerator.generateGetterMethod(ast, td, property, umlTypeName,
-				umlQualifiedTypeName);
+				umlQualifiedTypeName, generatorContext);
 
 		MethodDeclaration[] methods = td.getMethods();
 		for (MethodDeclaration method : methods) {
@@ -548,7 +556,7 @@ public class InterfaceGeneratorTest {
 		when(property.getOwnedComments()).thenReturn(comments);
 
 		interfaceGenerator.generateGetterMethod(ast, td, property, umlTypeName,
-				umlQualifiedTypeName);
+				umlQualifiedTypeName, generatorContext);
 
 		MethodDeclaration[] methods = td.getMethods();
 		for (MethodDeclaration method : methods) {
@@ -584,7 +592,7 @@ public class InterfaceGeneratorTest {
 		when(property.getOwnedComments()).thenReturn(comments);
 
 		interfaceGenerator.generateGetterMethod(ast, td, property, umlTypeName,
-				umlQualifiedTypeName);
+				umlQualifiedTypeName, generatorContext);
 
 		MethodDeclaration[] methods = td.getMethods();
 		for (MethodDeclaration method : methods) {
@@ -619,7 +627,7 @@ public class InterfaceGeneratorTest {
 		when(property.getOwnedComments()).thenReturn(comments);
 
 		interfaceGenerator.generateGetterMethod(ast, td, property, umlTypeName,
-				umlQualifiedTypeName);
+				umlQualifiedTypeName, generatorContext);
 
 		MethodDeclaration[] methods = td.getMethods();
 		for (MethodDeclaration method : methods) {
@@ -662,7 +670,8 @@ public class InterfaceGeneratorTest {
 		when(templateParameter.getOwnedParameteredElement()).thenReturn(
 				classifier);
 
-		interfaceGenerator.generateMethodParams(ast, td, operation, md);
+		interfaceGenerator.generateMethodParams(ast, td, operation, md,
+				generatorContext);
 
 		assertEquals("void calculateAge();\n", md.toString());
 	}
@@ -702,7 +711,8 @@ public class InterfaceGeneratorTest {
 		when(type.getName()).thenReturn("Person");
 		when(type.getQualifiedName()).thenReturn("de.component.Person");
 
-		interfaceGenerator.generateMethodParams(ast, td, operation, md);
+		interfaceGenerator.generateMethodParams(ast, td, operation, md,
+				generatorContext);
 
 		assertEquals("void calculateAge(de.component.Person person);\n",
 				md.toString());
@@ -744,7 +754,8 @@ public class InterfaceGeneratorTest {
 		when(type.getQualifiedName())
 				.thenReturn("de.component.Person<Integer>");
 
-		interfaceGenerator.generateMethodParams(ast, td, operation, md);
+		interfaceGenerator.generateMethodParams(ast, td, operation, md,
+				generatorContext);
 
 		assertEquals(
 				"void calculateAge(de.component.Person<Integer> person);\n",
@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.cartridges.simplejava;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import javax.inject.Inject;
+
+import org.eclipse.emf.common.util.BasicEList;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.uml2.uml.Class;
+import org.eclipse.uml2.uml.Classifier;
+import org.eclipse.uml2.uml.Comment;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.Generalization;
+import org.eclipse.uml2.uml.Operation;
+import org.eclipse.uml2.uml.Parameter;
+import org.eclipse.uml2.uml.ParameterDirectionKind;
+import org.eclipse.uml2.uml.Property;
+import org.eclipse.uml2.uml.TemplateParameter;
+import org.eclipse.uml2.uml.TemplateSignature;
+import org.eclipse.uml2.uml.Type;
+import org.jukito.JukitoRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Test Interface Source Emitter.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+@RunWith(JukitoRunner.class)
+public class InterfaceSourceEmitterTest {
+
+	@Inject
+	private InterfaceSourceEmitter interfaceSourceEmitter;
+
+	@Inject
+	private InterfaceGenerator interfaceGenerator;
+
+	private final JavaSourcePrinter javaSourcePrinter = new JavaSourcePrinter();
+
+	private Class clazz;
+
+	@Before
+	public void setUp() throws Exception {
+		clazz = mock(Class.class);
+		when(clazz.getQualifiedName()).thenReturn(
+				"de::crowdcode::kissmda::testapp::components::Company");
+		when(clazz.getName()).thenReturn("Company");
+		// Mocks must not be created inside of when()
+		EList<Comment> comments = createComments(
+				"Company of the persons.\nSecond line ");
+		when(clazz.getOwnedComments()).thenReturn(comments);
+		TemplateSignature templateSignature = createTemplateSignature("T");
+		when(clazz.getOwnedTemplateSignature()).thenReturn(templateSignature);
+
+		EList<Generalization> generalizations = new BasicEList<Generalization>();
+		Generalization generalization = mock(Generalization.class);
+		Class superClazz = mock(Class.class);
+		when(generalization.getGeneral()).thenReturn(superClazz);
+		when(superClazz.getQualifiedName()).thenReturn(
+				"de::test::SuperCompany");
+		generalizations.add(generalization);
+		when(clazz.getGeneralizations()).thenReturn(generalizations);
+
+		EList<Operation> operations = new BasicEList<Operation>();
+		operations.add(createOperation());
+		operations.add(createTemplateOperation());
+		when(clazz.getOperations()).thenReturn(operations);
+
+		EList<Property> properties = new BasicEList<Property>();
+		properties.add(createProperty("name", createType("String", "String"),
+				1, false));
+		Property persons = createProperty("persons",
+				createType("Person", "de::test::Person"), -1, false);
+		when(persons.isOrdered()).thenReturn(true);
+		when(persons.isUnique()).thenReturn(false);
+		properties.add(persons);
+		properties.add(createProperty("active",
+				createType("boolean", "boolean"), 1, true));
+		when(clazz.getAttributes()).thenReturn(properties);
+	}
+
+	@Test
+	public void testEmitInterfaceSameAsGeneratedInterface() {
+		CompilationUnit compilationUnit = interfaceGenerator
+				.generateInterface(clazz, null);
+		String printedCode = javaSourcePrinter.print(compilationUnit, "\n");
+
+		String emittedCode = interfaceSourceEmitter.emitInterface(clazz,
+				null, "\n");
+
+		assertEquals(printedCode, emittedCode);
+		assertTrue(emittedCode
+				.contains("public interface Company<T> extends de.test.SuperCompany {\n"
+						+ "\t/**\n" + "\t * Calculate the age.\n" + "\t */\n"
+						+ "\tInteger calculateAge(java.util.Date birthday)"
+						+ " throws de.test.CalculatorException;\n"));
+		assertTrue(emittedCode
+				.contains("\t<E> java.util.Map<String, de.test.Person>"
+						+ " findPersons(byte[] data);\n"));
+		assertTrue(emittedCode
+				.contains("\tjava.util.List<de.test.Person> getPersons();\n"
+						+ "\n" + "\tvoid addPerson(de.test.Person person);\n"
+						+ "\n" + "\tboolean isActive();\n" + "}\n"));
+	}
+
+	@Test
+	public void testEmitInterfaceWithLineSeparator() {
+		String emittedCode = interfaceSourceEmitter.emitInterface(clazz,
+				null, "\r\n");
+
+		assertTrue(emittedCode.endsWith("}\r\n"));
+		assertFalse(emittedCode.replace("\r\n", "").contains("\n"));
+		assertEquals(interfaceSourceEmitter.emitInterface(clazz, null, "\n"),
+				emittedCode.replace("\r\n", "\n"));
+	}
+
+	private Operation createOperation() {
+		Operation operation = mock(Operation.class);
+		when(operation.getName()).thenReturn("calculateAge");
+		when(operation.getUpper()).thenReturn(1);
+		Type returnType = createType("Integer", "Integer");
+		when(operation.getType()).thenReturn(returnType);
+		EList<Comment> comments = createComments("Calculate the age.");
+		when(operation.getOwnedComments()).thenReturn(comments);
+
+		EList<Parameter> parameters = new BasicEList<Parameter>();
+		Parameter parameter = mock(Parameter.class);
+		when(parameter.getDirection()).thenReturn(
+				ParameterDirectionKind.get(ParameterDirectionKind.IN));
+		Type parameterType = createType("Date", "Date");
+		when(parameter.getType()).thenReturn(parameterType);
+		when(parameter.getName()).thenReturn("Birthday");
+		when(parameter.getUpper()).thenReturn(1);
+		parameters.add(parameter);
+		when(operation.getOwnedParameters()).thenReturn(parameters);
+
+		EList<Type> raisedExceptions = new BasicEList<Type>();
+		raisedExceptions.add(createType("CalculatorException",
+				"de::test::CalculatorException"));
+		when(operation.getRaisedExceptions()).thenReturn(raisedExceptions);
+		return operation;
+	}
+
+	private Operation createTemplateOperation() {
+		Operation operation = mock(Operation.class);
+		when(operation.getName()).thenReturn("findPersons");
+		when(operation.getUpper()).thenReturn(1);
+		TemplateSignature templateSignature = createTemplateSignature("E");
+		when(operation.getOwnedTemplateSignature())
+				.thenReturn(templateSignature);
+		Type returnType = createType("Map<String, Person>",
+				"datatype-bindings::Map<String, de::test::Person>");
+		EList<Element> ownedElements = new BasicEList<Element>();
+		when(returnType.allOwnedElements()).thenReturn(ownedElements);
+		when(operation.getType()).thenReturn(returnType);
+		EList<Comment> comments = new BasicEList<Comment>();
+		when(operation.getOwnedComments()).thenReturn(comments);
+
+		EList<Parameter> parameters = new BasicEList<Parameter>();
+		Parameter parameter = mock(Parameter.class);
+		when(parameter.getDirection()).thenReturn(
+				ParameterDirectionKind.get(ParameterDirectionKind.IN));
+		Type parameterType = createType("byte[]", "byte[]");
+		when(parameter.getType()).thenReturn(parameterType);
+		when(parameter.getName()).thenReturn("data");
+		when(parameter.getUpper()).thenReturn(1);
+		parameters.add(parameter);
+		when(operation.getOwnedParameters()).thenReturn(parameters);
+
+		EList<Type> raisedExceptions = new BasicEList<Type>();
+		when(operation.getRaisedExceptions()).thenReturn(raisedExceptions);
+		return operation;
+	}
+
+	private TemplateSignature createTemplateSignature(String name) {
+		Classifier classifier = mock(Classifier.class);
+		when(classifier.getLabel()).thenReturn(name);
+		TemplateParameter templateParameter = mock(TemplateParameter.class);
+		when(templateParameter.getOwnedParameteredElement()).thenReturn(
+				classifier);
+		EList<TemplateParameter> templateParameters = new BasicEList<TemplateParameter>();
+		templateParameters.add(templateParameter);
+		TemplateSignature templateSignature = mock(TemplateSignature.class);
+		when(templateSignature.getParameters()).thenReturn(templateParameters);
+		return templateSignature;
+	}
+
+	private Property createProperty(String name, Type type, int upper,
+			boolean readOnly) {
+		Property property = mock(Property.class);
+		when(property.getName()).thenReturn(name);
+		when(property.getType()).thenReturn(type);
+		when(property.getUpper()).thenReturn(upper);
+		when(property.isReadOnly()).thenReturn(readOnly);
+		EList<Comment> comments = new BasicEList<Comment>();
+		when(property.getOwnedComments()).thenReturn(comments);
+		return property;
+	}
+
+	private Type createType(String name, String qualifiedName) {
+		Type type = mock(Type.class);
+		when(type.getName()).thenReturn(name);
+		when(type.getQualifiedName()).thenReturn(qualifiedName);
+		return type;
+	}
+
+	private EList<Comment> createComments(String body) {
+		EList<Comment> comments = new BasicEList<Comment>();
+		Comment comment = mock(Comment.class);
+		when(comment.getBody()).thenReturn(body);
+		comments.add(comment);
+		return comments;
+	}
+}
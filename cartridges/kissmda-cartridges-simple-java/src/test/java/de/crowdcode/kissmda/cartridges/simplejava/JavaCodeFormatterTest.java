@@ -18,11 +18,21 @@
  */
 package de.crowdcode.kissmda.cartridges.simplejava;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
 
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.AnnotationTypeDeclaration;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Modifier.ModifierKeyword;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.junit.Before;
 import org.junit.Test;
 
+import de.crowdcode.kissmda.core.StandardContext;
+
 /**
  * Code Formatter test.
  * 
@@ -47,4 +57,69 @@ public class JavaCodeFormatterTest {
 
 		assertNotSame(unformattedCode, formattedCode);
 	}
+
+	@Test
+	public void testFormatTwiceWithSameFormatter() {
+		String unformattedCode = "public interface Company {\nde.test.Calculator calculateMe() throws de.test.CalculatorException ;\n}\n";
+
+		String formattedCode = javaCodeFormatter.format(unformattedCode);
+
+		assertEquals(formattedCode, javaCodeFormatter.format(unformattedCode));
+	}
+
+	@Test
+	public void testFormatWithConfiguredLineEnding() {
+		StandardContext context = new StandardContext();
+		context.setFormatterJavaVersion("1.8");
+		context.setFormatterLineEnding("CRLF");
+		javaCodeFormatter.configure(context);
+		String unformattedCode = "public interface Company {\nde.test.Calculator calculateMe() throws de.test.CalculatorException ;\n}\n";
+
+		String formattedCode = javaCodeFormatter.format(unformattedCode);
+
+		assertTrue(formattedCode.contains("\r\n"));
+		assertFalse(formattedCode.replace("\r\n", "").contains("\n"));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testFormatCompilationUnitDirectly() {
+		StandardContext context = new StandardContext();
+		context.setFormatterLineEnding("LF");
+		context.setDirectFormattingEnabled(true);
+		javaCodeFormatter.configure(context);
+		AST ast = AST.newAST(AST.JLS3);
+		CompilationUnit compilationUnit = ast.newCompilationUnit();
+		TypeDeclaration typeDeclaration = ast.newTypeDeclaration();
+		typeDeclaration.setInterface(true);
+		typeDeclaration.modifiers().add(
+				ast.newModifier(ModifierKeyword.PUBLIC_KEYWORD));
+		typeDeclaration.setName(ast.newSimpleName("Company"));
+		compilationUnit.types().add(typeDeclaration);
+
+		String formattedCode = javaCodeFormatter.format(compilationUnit);
+
+		assertEquals("public interface Company {\n}\n", formattedCode);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testFormatUnsupportedCompilationUnitWithJdtFormatter() {
+		StandardContext context = new StandardContext();
+		context.setFormatterLineEnding("LF");
+		context.setDirectFormattingEnabled(true);
+		javaCodeFormatter.configure(context);
+		AST ast = AST.newAST(AST.JLS3);
+		CompilationUnit compilationUnit = ast.newCompilationUnit();
+		AnnotationTypeDeclaration annotationTypeDeclaration = ast
+				.newAnnotationTypeDeclaration();
+		annotationTypeDeclaration.modifiers().add(
+				ast.newModifier(ModifierKeyword.PUBLIC_KEYWORD));
+		annotationTypeDeclaration.setName(ast.newSimpleName("Marker"));
+		compilationUnit.types().add(annotationTypeDeclaration);
+
+		String formattedCode = javaCodeFormatter.format(compilationUnit);
+
+		assertTrue(formattedCode.contains("public @interface Marker {"));
+	}
 }
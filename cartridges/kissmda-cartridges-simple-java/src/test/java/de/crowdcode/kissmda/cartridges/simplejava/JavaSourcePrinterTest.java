@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.cartridges.simplejava;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.EnumConstantDeclaration;
+import org.eclipse.jdt.core.dom.EnumDeclaration;
+import org.eclipse.jdt.core.dom.FieldAccess;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.Javadoc;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Modifier.ModifierKeyword;
+import org.eclipse.jdt.core.dom.PackageDeclaration;
+import org.eclipse.jdt.core.dom.ParameterizedType;
+import org.eclipse.jdt.core.dom.PrimitiveType;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.StringLiteral;
+import org.eclipse.jdt.core.dom.TagElement;
+import org.eclipse.jdt.core.dom.TextElement;
+import org.eclipse.jdt.core.dom.Type;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test Java Source Printer.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class JavaSourcePrinterTest {
+
+	private JavaSourcePrinter javaSourcePrinter;
+
+	private AST ast;
+
+	@Before
+	public void setUp() throws Exception {
+		javaSourcePrinter = new JavaSourcePrinter();
+		ast = AST.newAST(AST.JLS3);
+	}
+
+	@Test
+	public void testPrintInterface() {
+		CompilationUnit compilationUnit = createInterface();
+
+		String code = javaSourcePrinter.print(compilationUnit, "\n");
+
+		assertEquals("package de.test;\n" + "\n" + "/**\n"
+				+ " * Company of the persons.\n" + " */\n"
+				+ "public interface Company {\n"
+				+ "\tjava.util.List<de.test.Person> getPersons(int count)"
+				+ " throws de.test.CompanyException;\n" + "\n"
+				+ "\tvoid clear();\n" + "}\n", code);
+	}
+
+	@Test
+	public void testPrintWithLineSeparator() {
+		CompilationUnit compilationUnit = createInterface();
+
+		String code = javaSourcePrinter.print(compilationUnit, "\r\n");
+
+		assertEquals(javaSourcePrinter.print(compilationUnit, "\n"),
+				code.replace("\r\n", "\n"));
+		assertTrue(code.endsWith("}\r\n"));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testPrintEnum() {
+		CompilationUnit compilationUnit = ast.newCompilationUnit();
+		EnumDeclaration enumDeclaration = ast.newEnumDeclaration();
+		enumDeclaration.modifiers().add(
+				ast.newModifier(ModifierKeyword.PUBLIC_KEYWORD));
+		enumDeclaration.setName(ast.newSimpleName("Status"));
+		enumDeclaration.enumConstants().add(
+				createEnumConstant("ACTIVE", "active"));
+		enumDeclaration.enumConstants().add(
+				createEnumConstant("INACTIVE", "inactive"));
+		compilationUnit.types().add(enumDeclaration);
+
+		VariableDeclarationFragment fragment = ast
+				.newVariableDeclarationFragment();
+		fragment.setName(ast.newSimpleName("value"));
+		FieldDeclaration fieldDeclaration = ast.newFieldDeclaration(fragment);
+		fieldDeclaration.modifiers().add(
+				ast.newModifier(ModifierKeyword.PRIVATE_KEYWORD));
+		fieldDeclaration.modifiers().add(
+				ast.newModifier(ModifierKeyword.FINAL_KEYWORD));
+		fieldDeclaration.setType(ast.newSimpleType(ast.newName("String")));
+		enumDeclaration.bodyDeclarations().add(fieldDeclaration);
+
+		MethodDeclaration constructor = ast.newMethodDeclaration();
+		constructor.setConstructor(true);
+		constructor.modifiers().add(
+				ast.newModifier(ModifierKeyword.PRIVATE_KEYWORD));
+		constructor.setName(ast.newSimpleName("Status"));
+		constructor.parameters().add(
+				createParameter(ast.newSimpleType(ast.newName("String")),
+						"value"));
+		FieldAccess fieldAccess = ast.newFieldAccess();
+		fieldAccess.setExpression(ast.newThisExpression());
+		fieldAccess.setName(ast.newSimpleName("value"));
+		Assignment assignment = ast.newAssignment();
+		assignment.setLeftHandSide(fieldAccess);
+		assignment.setRightHandSide(ast.newSimpleName("value"));
+		Block block = ast.newBlock();
+		block.statements().add(ast.newExpressionStatement(assignment));
+		constructor.setBody(block);
+		enumDeclaration.bodyDeclarations().add(constructor);
+
+		String code = javaSourcePrinter.print(compilationUnit, "\n");
+
+		assertEquals("public enum Status {\n" + "\tACTIVE(\"active\"),\n"
+				+ "\tINACTIVE(\"inactive\");\n" + "\n"
+				+ "\tprivate final String value;\n" + "\n"
+				+ "\tprivate Status(String value) {\n"
+				+ "\t\tthis.value = value;\n" + "\t}\n" + "}\n", code);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testPrintEnumWithoutConstants() {
+		CompilationUnit compilationUnit = ast.newCompilationUnit();
+		EnumDeclaration enumDeclaration = ast.newEnumDeclaration();
+		enumDeclaration.modifiers().add(
+				ast.newModifier(ModifierKeyword.PUBLIC_KEYWORD));
+		enumDeclaration.setName(ast.newSimpleName("Status"));
+		compilationUnit.types().add(enumDeclaration);
+
+		MethodDeclaration constructor = ast.newMethodDeclaration();
+		constructor.setConstructor(true);
+		constructor.modifiers().add(
+				ast.newModifier(ModifierKeyword.PRIVATE_KEYWORD));
+		constructor.setName(ast.newSimpleName("Status"));
+		constructor.setBody(ast.newBlock());
+		enumDeclaration.bodyDeclarations().add(constructor);
+
+		String code = javaSourcePrinter.print(compilationUnit, "\n");
+
+		assertEquals("public enum Status {\n" + "\t;\n" + "\n"
+				+ "\tprivate Status() {\n" + "\t}\n" + "}\n", code);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test(expected = JavaSourcePrinter.UnsupportedNodeException.class)
+	public void testPrintUnsupportedStatement() {
+		CompilationUnit compilationUnit = createInterface();
+		MethodDeclaration methodDeclaration = ast.newMethodDeclaration();
+		methodDeclaration.setName(ast.newSimpleName("check"));
+		Block block = ast.newBlock();
+		block.statements().add(ast.newIfStatement());
+		methodDeclaration.setBody(block);
+		((TypeDeclaration) compilationUnit.types().get(0)).bodyDeclarations()
+				.add(methodDeclaration);
+
+		javaSourcePrinter.print(compilationUnit, "\n");
+	}
+
+	@SuppressWarnings("unchecked")
+	private CompilationUnit createInterface() {
+		CompilationUnit compilationUnit = ast.newCompilationUnit();
+		PackageDeclaration packageDeclaration = ast.newPackageDeclaration();
+		packageDeclaration.setName(ast.newName("de.test"));
+		compilationUnit.setPackage(packageDeclaration);
+
+		TypeDeclaration typeDeclaration = ast.newTypeDeclaration();
+		typeDeclaration.setInterface(true);
+		typeDeclaration.modifiers().add(
+				ast.newModifier(ModifierKeyword.PUBLIC_KEYWORD));
+		typeDeclaration.setName(ast.newSimpleName("Company"));
+		TextElement textElement = ast.newTextElement();
+		textElement.setText("Company of the persons.");
+		TagElement tagElement = ast.newTagElement();
+		tagElement.fragments().add(textElement);
+		Javadoc javadoc = ast.newJavadoc();
+		javadoc.tags().add(tagElement);
+		typeDeclaration.setJavadoc(javadoc);
+		compilationUnit.types().add(typeDeclaration);
+
+		MethodDeclaration getPersons = ast.newMethodDeclaration();
+		ParameterizedType returnType = ast.newParameterizedType(ast
+				.newSimpleType(ast.newName("java.util.List")));
+		returnType.typeArguments().add(
+				ast.newSimpleType(ast.newName("de.test.Person")));
+		getPersons.setReturnType2(returnType);
+		getPersons.setName(ast.newSimpleName("getPersons"));
+		getPersons.parameters().add(
+				createParameter(ast.newPrimitiveType(PrimitiveType.INT),
+						"count"));
+		getPersons.thrownExceptions().add(
+				ast.newName("de.test.CompanyException"));
+		typeDeclaration.bodyDeclarations().add(getPersons);
+
+		MethodDeclaration clear = ast.newMethodDeclaration();
+		clear.setName(ast.newSimpleName("clear"));
+		typeDeclaration.bodyDeclarations().add(clear);
+		return compilationUnit;
+	}
+
+	private SingleVariableDeclaration createParameter(Type type, String name) {
+		SingleVariableDeclaration parameter = ast
+				.newSingleVariableDeclaration();
+		parameter.setType(type);
+		parameter.setName(ast.newSimpleName(name));
+		return parameter;
+	}
+
+	@SuppressWarnings("unchecked")
+	private EnumConstantDeclaration createEnumConstant(String name,
+			String value) {
+		EnumConstantDeclaration enumConstant = ast
+				.newEnumConstantDeclaration();
+		enumConstant.setName(ast.newSimpleName(name));
+		StringLiteral stringLiteral = ast.newStringLiteral();
+		stringLiteral.setLiteralValue(value);
+		enumConstant.arguments().add(stringLiteral);
+		return enumConstant;
+	}
+}
@@ -18,6 +18,7 @@
  */
 package de.crowdcode.kissmda.cartridges.simplejava;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -25,7 +26,9 @@ import java.util.logging.Logger;
 
 import javax.inject.Inject;
 
+import org.jukito.JukitoModule;
 import org.jukito.JukitoRunner;
+import org.jukito.TestSingleton;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -33,6 +36,7 @@ import org.junit.runner.RunWith;
 import de.crowdcode.kissmda.core.Context;
 import de.crowdcode.kissmda.core.StandardContext;
 import de.crowdcode.kissmda.core.TransformerException;
+import de.crowdcode.kissmda.core.file.FileWriter;
 
 /**
  * Test Guice Java Module.
@@ -44,12 +48,23 @@ import de.crowdcode.kissmda.core.TransformerException;
 @RunWith(JukitoRunner.class)
 public class SimpleJavaModuleTest {
 
+	public static class Module extends JukitoModule {
+		@Override
+		protected void configureTest() {
+			// One writer for all files, so the counters cover the whole run
+			bind(FileWriter.class).in(TestSingleton.class);
+		}
+	}
+
 	private static final Logger logger = Logger
 			.getLogger(SimpleJavaModuleTest.class.getName());
 
 	@Inject
 	private SimpleJavaTransformer simpleJavaTransformer;
 
+	@Inject
+	private FileWriter fileWriter;
+
 	private Context context;
 
 	@Before
@@ -72,4 +87,24 @@ public class SimpleJavaModuleTest {
 		assertTrue(true);
 	}
 
+	@Test
+	public void testTransformTwiceLeavesFilesUnchanged()
+			throws TransformerException {
+		String thisPath = this.getClass().getProtectionDomain()
+				.getCodeSource().getLocation().getPath();
+		context.setSourceModel(thisPath + "model/emf/test-uml.uml");
+		context.setTargetModel("target/generated-sources/java-module-twice");
+		simpleJavaTransformer.transform(context);
+		int writtenFiles = fileWriter.getWrittenFiles();
+		int unchangedFiles = fileWriter.getUnchangedFiles();
+		assertTrue(writtenFiles + unchangedFiles > 0);
+
+		simpleJavaTransformer.transform(context);
+
+		// The second run generates the same content for every file
+		assertEquals(writtenFiles, fileWriter.getWrittenFiles());
+		assertEquals(2 * unchangedFiles + writtenFiles,
+				fileWriter.getUnchangedFiles());
+	}
+
 }
@@ -18,6 +18,8 @@
  */
 package de.crowdcode.kissmda.core;
 
+import java.util.List;
+
 /**
  * Interface for Context.
  * 
@@ -54,6 +56,141 @@ public interface Context {
 	 */
 	String getPropertyFile();
 
+	/**
+	 * Is the persistent model cache enabled?
+	 * 
+	 * @return true if the model cache should be used
+	 */
+	boolean isModelCacheEnabled();
+
+	/**
+	 * Get the directory of the persistent model cache.
+	 * 
+	 * @return modelCacheDirectory as String
+	 */
+	String getModelCacheDirectory();
+
+	/**
+	 * Get the maximum size of the model cache in bytes, 0 for no limit.
+	 * 
+	 * @return modelCacheMaxSize in bytes
+	 */
+	long getModelCacheMaxSize();
+
+	/**
+	 * Get the maximum age of the model cache entries in milliseconds, 0 for no
+	 * limit.
+	 * 
+	 * @return modelCacheMaxAge in milliseconds
+	 */
+	long getModelCacheMaxAge();
+
+	/**
+	 * Get the version of the generator, e.g. the version of the Maven plugin.
+	 * 
+	 * @return generatorVersion as String
+	 */
+	String getGeneratorVersion();
+
+	/**
+	 * Should the model be loaded with the fast load options of the
+	 * ReaderWriter?
+	 * 
+	 * @return true if fast load is enabled
+	 */
+	boolean isFastLoadEnabled();
+
+	/**
+	 * Should the profiles be loaded only when a transformer asks for their
+	 * stereotypes?
+	 * 
+	 * @return true if lazy profiles are enabled
+	 */
+	boolean isLazyProfilesEnabled();
+
+	/**
+	 * Number of threads the transformers may use to generate the files, 1 for
+	 * a sequential generation.
+	 * 
+	 * @return number of threads
+	 */
+	int getGenerationThreads();
+
+	/**
+	 * Number of threads the transformers may use to write the files, 0 to
+	 * write the files in the generation threads.
+	 * 
+	 * @return number of writer threads
+	 */
+	int getWriterThreads();
+
+	/**
+	 * Is the incremental generation enabled? Elements which did not change
+	 * since the last run are not generated again.
+	 * 
+	 * @return true if enabled
+	 */
+	boolean isIncrementalEnabled();
+
+	/**
+	 * Is the orphan deletion enabled? Generated files of the last run which
+	 * are not generated again, e.g. of removed or renamed elements, are
+	 * deleted. Independent of the incremental generation.
+	 * 
+	 * @return true if enabled
+	 */
+	boolean isOrphanDeletionEnabled();
+
+	/**
+	 * Get the directory of the generation manifests. The manifests hold the
+	 * generated files of the transformers for each source model and target
+	 * directory, so the files of removed elements can be deleted and
+	 * unchanged elements can be skipped.
+	 * 
+	 * @return incrementalDirectory as String
+	 */
+	String getIncrementalDirectory();
+
+	/**
+	 * Get the Java version of the source code for the code formatter, e.g.
+	 * 1.8.
+	 * 
+	 * @return formatterJavaVersion as String
+	 */
+	String getFormatterJavaVersion();
+
+	/**
+	 * Get the line ending of the formatted code: AUTO, KEEP, LF, CRLF or CR.
+	 * 
+	 * @return formatterLineEnding as String
+	 */
+	String getFormatterLineEnding();
+
+	/**
+	 * Should the generated compilation units be printed directly in the
+	 * formatted layout instead of being formatted by the JDT code formatter?
+	 * 
+	 * @return true if direct formatting is enabled
+	 */
+	boolean isDirectFormattingEnabled();
+
+	/**
+	 * Should the generated code be emitted directly as source instead of
+	 * creating a JDT compilation unit for it? Only used with the direct
+	 * formatting and as long as no extension needs the compilation units.
+	 * 
+	 * @return true if the direct emitter is enabled
+	 */
+	boolean isDirectEmitterEnabled();
+
+	/**
+	 * Get the class names of the transformers and Guice modules which were
+	 * scheduled so far. Their event handlers can change the generated files.
+	 * 
+	 * @return class names in the order of scheduling
+	 */
+	List<String> getExtensionNames();
+
 	/**
 	 * Set source model.
 	 * 
@@ -81,4 +218,123 @@ public interface Context {
 	 * @param propertyFile
 	 */
 	void setPropertyFile(String propertyFile);
+
+	/**
+	 * Set the persistent model cache enabled or disabled.
+	 * 
+	 * @param modelCacheEnabled
+	 */
+	void setModelCacheEnabled(boolean modelCacheEnabled);
+
+	/**
+	 * Set the directory of the persistent model cache.
+	 * 
+	 * @param modelCacheDirectory
+	 */
+	void setModelCacheDirectory(String modelCacheDirectory);
+
+	/**
+	 * Set the maximum size of the model cache in bytes.
+	 * 
+	 * @param modelCacheMaxSize
+	 */
+	void setModelCacheMaxSize(long modelCacheMaxSize);
+
+	/**
+	 * Set the maximum age of the model cache entries in milliseconds.
+	 * 
+	 * @param modelCacheMaxAge
+	 */
+	void setModelCacheMaxAge(long modelCacheMaxAge);
+
+	/**
+	 * Set the version of the generator.
+	 * 
+	 * @param generatorVersion
+	 */
+	void setGeneratorVersion(String generatorVersion);
+
+	/**
+	 * Enable or disable the fast load options of the ReaderWriter.
+	 * 
+	 * @param fastLoadEnabled
+	 */
+	void setFastLoadEnabled(boolean fastLoadEnabled);
+
+	/**
+	 * Enable or disable the lazy loading of profiles.
+	 * 
+	 * @param lazyProfilesEnabled
+	 */
+	void setLazyProfilesEnabled(boolean lazyProfilesEnabled);
+
+	/**
+	 * Set the number of threads for the generation of the files.
+	 * 
+	 * @param generationThreads
+	 */
+	void setGenerationThreads(int generationThreads);
+
+	/**
+	 * Set the number of threads for the writing of the files.
+	 * 
+	 * @param writerThreads
+	 */
+	void setWriterThreads(int writerThreads);
+
+	/**
+	 * Enable or disable the incremental generation.
+	 * 
+	 * @param incrementalEnabled
+	 */
+	void setIncrementalEnabled(boolean incrementalEnabled);
+
+	/**
+	 * Enable or disable the orphan deletion.
+	 * 
+	 * @param orphanDeletionEnabled
+	 */
+	void setOrphanDeletionEnabled(boolean orphanDeletionEnabled);
+
+	/**
+	 * Set the directory of the generation manifests.
+	 * 
+	 * @param incrementalDirectory
+	 */
+	void setIncrementalDirectory(String incrementalDirectory);
+
+	/**
+	 * Set the Java version for the code formatter.
+	 * 
+	 * @param formatterJavaVersion
+	 */
+	void setFormatterJavaVersion(String formatterJavaVersion);
+
+	/**
+	 * Set the line ending of the formatted code.
+	 * 
+	 * @param formatterLineEnding
+	 */
+	void setFormatterLineEnding(String formatterLineEnding);
+
+	/**
+	 * Enable or disable the direct formatting.
+	 * 
+	 * @param directFormattingEnabled
+	 */
+	void setDirectFormattingEnabled(boolean directFormattingEnabled);
+
+	/**
+	 * Enable or disable the direct emitter.
+	 * 
+	 * @param directEmitterEnabled
+	 */
+	void setDirectEmitterEnabled(boolean directEmitterEnabled);
+
+	/**
+	 * Set the class names of the scheduled transformers and Guice modules.
+	 * 
+	 * @param extensionNames
+	 */
+	void setExtensionNames(List<String> extensionNames);
 }
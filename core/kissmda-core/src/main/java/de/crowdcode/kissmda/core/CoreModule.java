@@ -22,6 +22,12 @@ import com.google.common.eventbus.EventBus;
 import com.google.inject.AbstractModule;
 import com.google.inject.Scopes;
 
+import de.crowdcode.kissmda.core.file.FileWriter;
+import de.crowdcode.kissmda.core.jdt.TypeExpressionParsers;
+import de.crowdcode.kissmda.core.uml.ModelRepository;
+import de.crowdcode.kissmda.core.uml.PackageNameResolver;
+import de.crowdcode.kissmda.core.visitor.ModelTraversal;
+
 /**
  * Guice Module for the core.
  * 
@@ -45,6 +51,27 @@ public class CoreModule extends AbstractModule {
 		// Bind EventBus as singleton
 		bind(EventBus.class).in(Scopes.SINGLETON);
 
+		// Bind ModelRepository as singleton, so the model is only loaded once
+		// for all transformers
+		bind(ModelRepository.class).in(Scopes.SINGLETON);
+
+		// Bind ModelTraversal as singleton, so the visitors of all
+		// transformers share one traversal of the model
+		bind(ModelTraversal.class).in(Scopes.SINGLETON);
+
+		// Bind FileWriter as singleton, so the written, unchanged and deleted
+		// files of all transformers are counted together and recorded in the
+		// manifest of their generation
+		bind(FileWriter.class).in(Scopes.SINGLETON);
+
+		// Bind TypeExpressionParsers as singleton, so all JdtHelpers share
+		// the parsed types
+		bind(TypeExpressionParsers.class).in(Scopes.SINGLETON);
+
+		// Bind PackageNameResolver as singleton, so all PackageHelpers share
+		// its caches of the package names
+		bind(PackageNameResolver.class).in(Scopes.SINGLETON);
+
 		// Bind created standardContext
 		bind(StandardContext.class).toInstance(context);
 	}
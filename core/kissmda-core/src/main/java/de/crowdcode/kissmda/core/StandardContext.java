@@ -18,6 +18,9 @@
  */
 package de.crowdcode.kissmda.core;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Standard context implementation.
  * 
@@ -29,6 +32,24 @@ public class StandardContext implements Context {
 	private String targetModel;
 	private String targetEncoding;
     private String propertyFile;
+	private boolean modelCacheEnabled = false;
+	private String modelCacheDirectory;
+	private long modelCacheMaxSize;
+	private long modelCacheMaxAge;
+	private String generatorVersion;
+	private boolean fastLoadEnabled = false;
+	private boolean lazyProfilesEnabled = false;
+	private int generationThreads = 1;
+	private int writerThreads = 0;
+	private boolean incrementalEnabled = false;
+	private boolean orphanDeletionEnabled = true;
+	private String incrementalDirectory;
+	private String formatterJavaVersion = "1.5";
+	private String formatterLineEnding = "AUTO";
+	private boolean directFormattingEnabled = false;
+
+	private boolean directEmitterEnabled = false;
+	private List<String> extensionNames = new ArrayList<String>();
 
     /**
 	 * {@link Context #setSourceModel(String)}
@@ -62,6 +83,142 @@ public class StandardContext implements Context {
         return propertyFile;
     }
 
+	/**
+	 * {@link Context #isModelCacheEnabled()}
+	 */
+	@Override
+	public boolean isModelCacheEnabled() {
+		return modelCacheEnabled;
+	}
+
+	/**
+	 * {@link Context #getModelCacheDirectory()}
+	 */
+	@Override
+	public String getModelCacheDirectory() {
+		return modelCacheDirectory;
+	}
+
+	/**
+	 * {@link Context #getModelCacheMaxSize()}
+	 */
+	@Override
+	public long getModelCacheMaxSize() {
+		return modelCacheMaxSize;
+	}
+
+	/**
+	 * {@link Context #getModelCacheMaxAge()}
+	 */
+	@Override
+	public long getModelCacheMaxAge() {
+		return modelCacheMaxAge;
+	}
+
+	/**
+	 * {@link Context #getGeneratorVersion()}
+	 */
+	@Override
+	public String getGeneratorVersion() {
+		return generatorVersion;
+	}
+
+	/**
+	 * {@link Context #isFastLoadEnabled()}
+	 */
+	@Override
+	public boolean isFastLoadEnabled() {
+		return fastLoadEnabled;
+	}
+
+	/**
+	 * {@link Context #isLazyProfilesEnabled()}
+	 */
+	@Override
+	public boolean isLazyProfilesEnabled() {
+		return lazyProfilesEnabled;
+	}
+
+	/**
+	 * {@link Context #getGenerationThreads()}
+	 */
+	@Override
+	public int getGenerationThreads() {
+		return generationThreads;
+	}
+
+	/**
+	 * {@link Context #getWriterThreads()}
+	 */
+	@Override
+	public int getWriterThreads() {
+		return writerThreads;
+	}
+
+	/**
+	 * {@link Context #isIncrementalEnabled()}
+	 */
+	@Override
+	public boolean isIncrementalEnabled() {
+		return incrementalEnabled;
+	}
+
+	/**
+	 * {@link Context #isOrphanDeletionEnabled()}
+	 */
+	@Override
+	public boolean isOrphanDeletionEnabled() {
+		return orphanDeletionEnabled;
+	}
+
+	/**
+	 * {@link Context #getIncrementalDirectory()}
+	 */
+	@Override
+	public String getIncrementalDirectory() {
+		return incrementalDirectory;
+	}
+
+	/**
+	 * {@link Context #getFormatterJavaVersion()}
+	 */
+	@Override
+	public String getFormatterJavaVersion() {
+		return formatterJavaVersion;
+	}
+
+	/**
+	 * {@link Context #getFormatterLineEnding()}
+	 */
+	@Override
+	public String getFormatterLineEnding() {
+		return formatterLineEnding;
+	}
+
+	/**
+	 * {@link Context #isDirectFormattingEnabled()}
+	 */
+	@Override
+	public boolean isDirectFormattingEnabled() {
+		return directFormattingEnabled;
+	}
+
+	/**
+	 * {@link Context #isDirectEmitterEnabled()}
+	 */
+	@Override
+	public boolean isDirectEmitterEnabled() {
+		return directEmitterEnabled;
+	}
+
+	/**
+	 * {@link Context #getExtensionNames()}
+	 */
+	@Override
+	public List<String> getExtensionNames() {
+		return extensionNames;
+	}
+
     /**
 	 * {@link Context #setSourceModel(String)}
 	 */
@@ -93,4 +250,140 @@ public class StandardContext implements Context {
     public void setPropertyFile(String propertyFile) {
         this.propertyFile = propertyFile;
     }
+
+	/**
+	 * {@link Context #setModelCacheEnabled(boolean)}
+	 */
+	@Override
+	public void setModelCacheEnabled(boolean modelCacheEnabled) {
+		this.modelCacheEnabled = modelCacheEnabled;
+	}
+
+	/**
+	 * {@link Context #setModelCacheDirectory(String)}
+	 */
+	@Override
+	public void setModelCacheDirectory(String modelCacheDirectory) {
+		this.modelCacheDirectory = modelCacheDirectory;
+	}
+
+	/**
+	 * {@link Context #setModelCacheMaxSize(long)}
+	 */
+	@Override
+	public void setModelCacheMaxSize(long modelCacheMaxSize) {
+		this.modelCacheMaxSize = modelCacheMaxSize;
+	}
+
+	/**
+	 * {@link Context #setModelCacheMaxAge(long)}
+	 */
+	@Override
+	public void setModelCacheMaxAge(long modelCacheMaxAge) {
+		this.modelCacheMaxAge = modelCacheMaxAge;
+	}
+
+	/**
+	 * {@link Context #setGeneratorVersion(String)}
+	 */
+	@Override
+	public void setGeneratorVersion(String generatorVersion) {
+		this.generatorVersion = generatorVersion;
+	}
+
+	/**
+	 * {@link Context #setFastLoadEnabled(boolean)}
+	 */
+	@Override
+	public void setFastLoadEnabled(boolean fastLoadEnabled) {
+		this.fastLoadEnabled = fastLoadEnabled;
+	}
+
+	/**
+	 * {@link Context #setLazyProfilesEnabled(boolean)}
+	 */
+	@Override
+	public void setLazyProfilesEnabled(boolean lazyProfilesEnabled) {
+		this.lazyProfilesEnabled = lazyProfilesEnabled;
+	}
+
+	/**
+	 * {@link Context #setGenerationThreads(int)}
+	 */
+	@Override
+	public void setGenerationThreads(int generationThreads) {
+		this.generationThreads = generationThreads;
+	}
+
+	/**
+	 * {@link Context #setWriterThreads(int)}
+	 */
+	@Override
+	public void setWriterThreads(int writerThreads) {
+		this.writerThreads = writerThreads;
+	}
+
+	/**
+	 * {@link Context #setIncrementalEnabled(boolean)}
+	 */
+	@Override
+	public void setIncrementalEnabled(boolean incrementalEnabled) {
+		this.incrementalEnabled = incrementalEnabled;
+	}
+
+	/**
+	 * {@link Context #setOrphanDeletionEnabled(boolean)}
+	 */
+	@Override
+	public void setOrphanDeletionEnabled(boolean orphanDeletionEnabled) {
+		this.orphanDeletionEnabled = orphanDeletionEnabled;
+	}
+
+	/**
+	 * {@link Context #setIncrementalDirectory(String)}
+	 */
+	@Override
+	public void setIncrementalDirectory(String incrementalDirectory) {
+		this.incrementalDirectory = incrementalDirectory;
+	}
+
+	/**
+	 * {@link Context #setFormatterJavaVersion(String)}
+	 */
+	@Override
+	public void setFormatterJavaVersion(String formatterJavaVersion) {
+		this.formatterJavaVersion = formatterJavaVersion;
+	}
+
+	/**
+	 * {@link Context #setFormatterLineEnding(String)}
+	 */
+	@Override
+	public void setFormatterLineEnding(String formatterLineEnding) {
+		this.formatterLineEnding = formatterLineEnding;
+	}
+
+	/**
+	 * {@link Context #setDirectFormattingEnabled(boolean)}
+	 */
+	@Override
+	public void setDirectFormattingEnabled(boolean directFormattingEnabled) {
+		this.directFormattingEnabled = directFormattingEnabled;
+	}
+
+	/**
+	 * {@link Context #setDirectEmitterEnabled(boolean)}
+	 */
+	@Override
+	public void setDirectEmitterEnabled(boolean directEmitterEnabled) {
+		this.directEmitterEnabled = directEmitterEnabled;
+	}
+
+	/**
+	 * {@link Context #setExtensionNames(List)}
+	 */
+	@Override
+	public void setExtensionNames(List<String> extensionNames) {
+		this.extensionNames = extensionNames;
+	}
 }
@@ -18,24 +18,164 @@
  */
 package de.crowdcode.kissmda.core.file;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 
 import de.crowdcode.kissmda.core.Context;
 
 /**
  * File writer for UML class.
  * 
+ * <p>
+ * A file with the same content as the new one is not written again, so its
+ * modification time stays the same and the compiler does not need to compile
+ * it again. The writer counts the written, unchanged and deleted files.
+ * </p>
+ * 
+ * <p>
+ * The content is encoded with one encoder and buffer per thread. A file is
+ * written to a temporary file in the same directory first, which is renamed
+ * to the file, so a file is never left half written. The directories which
+ * were created once are remembered and not created again. Without a target
+ * encoding the content is encoded with UTF-8.
+ * </p>
+ * 
+ * <p>
+ * The files of a generation are recorded in a {@link GenerationManifest} of
+ * the transformers, the source model and the target directory. With the
+ * orphan deletion the files of the last run with the same manifest which are
+ * not generated again are deleted at the end of the generation. The
+ * incremental generation uses the fingerprints of the manifest to skip the
+ * unchanged elements. Both options are independent of each other.
+ * </p>
+ * 
  * @author Lofi Dewanto
  * @since 1.0.0
  * @version 1.0.0
  */
 public class FileWriter {
 
+	private static final Logger logger = Logger.getLogger(FileWriter.class.getName());
+
+	private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+	private final AtomicInteger writtenFiles = new AtomicInteger();
+
+	private final AtomicInteger unchangedFiles = new AtomicInteger();
+
+	private final AtomicInteger deletedFiles = new AtomicInteger();
+
+	private final AtomicLong temporaryFiles = new AtomicLong();
+
+	private final Set<Path> createdDirectories = Collections.newSetFromMap(new ConcurrentHashMap<Path, Boolean>());
+
+	private volatile GenerationManifest generationManifest;
+
+	private final ThreadLocal<ContentEncoder> contentEncoders = new ThreadLocal<ContentEncoder>() {
+		@Override
+		protected ContentEncoder initialValue() {
+			return new ContentEncoder();
+		}
+	};
+
+	/**
+	 * Start a generation. With the orphan deletion or the incremental
+	 * generation the manifest of the last run of the same transformers, source
+	 * model and target directory is read.
+	 * 
+	 * @param context
+	 *            Context of the Transformer
+	 * @param transformerNames
+	 *            class names of the transformers of the generation
+	 */
+	public void startGeneration(final Context context, final String... transformerNames) {
+		generationManifest = null;
+		if ((context.isOrphanDeletionEnabled() || context.isIncrementalEnabled())
+				&& context.getIncrementalDirectory() != null) {
+			generationManifest = new GenerationManifest(new File(context.getIncrementalDirectory()),
+					getManifestName(context, transformerNames), new File(context.getTargetModel()));
+		}
+	}
+
+	/**
+	 * Finish a generation. With the orphan deletion the files of the last run
+	 * which were not generated again are deleted. The manifest is stored.
+	 * Only a successful generation may be finished, because it is the base of
+	 * the next run.
+	 * 
+	 * @param context
+	 *            Context of the Transformer
+	 */
+	public void finishGeneration(final Context context) {
+		GenerationManifest manifest = generationManifest;
+		if (manifest == null) {
+			return;
+		}
+		generationManifest = null;
+		if (context.isOrphanDeletionEnabled()) {
+			for (String fileName : manifest.getOrphanFiles()) {
+				// The element was removed or renamed in the model
+				if (deleteFile(context, "", fileName)) {
+					logger.log(Level.INFO, "Deleted: " + fileName);
+				}
+			}
+		}
+		manifest.store();
+	}
+
+	/**
+	 * Check whether the file does not need to be generated again, because the
+	 * fingerprint of its element is the same as in the last run. The file is
+	 * recorded in the manifest of the generation. Always false without the
+	 * incremental generation.
+	 * 
+	 * @param context
+	 *            Context of the Transformer
+	 * @param directory
+	 *            target directory
+	 * @param fileName
+	 *            the target filename
+	 * @param fingerprint
+	 *            fingerprint of the element the file is generated from
+	 * @return true if the file is up to date
+	 */
+	public boolean isUnchanged(final Context context, final String directory, final String fileName,
+			final String fingerprint) {
+		GenerationManifest manifest = generationManifest;
+		if (manifest == null || !context.isIncrementalEnabled()) {
+			return false;
+		}
+		return manifest.isUnchanged(getManifestFileName(directory, fileName), fingerprint);
+	}
+
 	/**
 	 * Create a file.
 	 * 
@@ -52,23 +192,223 @@ public class FileWriter {
 	public void createFile(final Context context, final String directory, final String fileName,
 			final String fileContent) throws IOException {
 
-		String directoryToBeCreated = context.getTargetModel() + File.separator + directory;
-		new File(directoryToBeCreated).mkdirs();
+		Path directoryToBeCreated = Paths.get(context.getTargetModel(), directory);
+		Path file = directoryToBeCreated.resolve(fileName);
+
+		Charset charset = StandardCharsets.UTF_8;
+		if (context.getTargetEncoding() != null) {
+			charset = Charset.forName(context.getTargetEncoding());
+		}
 
-		// Create the class file
-		Writer writer = null;
+		ContentEncoder contentEncoder = contentEncoders.get();
 		try {
-			File file = new File(directoryToBeCreated + File.separator + fileName);
-			if (context.getTargetEncoding() != null) {
-				writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
-						context.getTargetEncoding()));
-			} else {
-				writer = new BufferedWriter(new java.io.FileWriter(file));
+			ByteBuffer content = contentEncoder.encode(charset, fileContent);
+
+			GenerationManifest manifest = generationManifest;
+			if (manifest != null) {
+				manifest.addFile(getManifestFileName(directory, fileName));
+			}
+
+			if (isSameContent(file, content)) {
+				unchangedFiles.incrementAndGet();
+				return;
 			}
-			writer.write(fileContent);
+
+			// Create the class file
+			Path temporaryFile = createTemporaryFile(directoryToBeCreated, fileName);
+			boolean moved = false;
+			try {
+				FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE);
+				try {
+					while (content.hasRemaining()) {
+						channel.write(content);
+					}
+				} finally {
+					channel.close();
+				}
+				move(temporaryFile, file);
+				moved = true;
+			} finally {
+				if (!moved) {
+					Files.deleteIfExists(temporaryFile);
+				}
+			}
+			writtenFiles.incrementAndGet();
 		} finally {
-			if (writer != null) {
-				writer.close();
+			contentEncoder.release();
+		}
+	}
+
+	/**
+	 * Delete a file.
+	 * 
+	 * @param context
+	 *            Context of the Transformer
+	 * @param directory
+	 *            target directory
+	 * @param fileName
+	 *            the target filename
+	 * @return true if the file was deleted
+	 */
+	public boolean deleteFile(final Context context, final String directory, final String fileName) {
+		Path file = Paths.get(context.getTargetModel(), directory, fileName);
+		try {
+			if (Files.isRegularFile(file) && Files.deleteIfExists(file)) {
+				deletedFiles.incrementAndGet();
+				return true;
+			}
+		} catch (IOException e) {
+			// Like a file which cannot be deleted
+		}
+		return false;
+	}
+
+	public int getWrittenFiles() {
+		return writtenFiles.get();
+	}
+
+	public int getUnchangedFiles() {
+		return unchangedFiles.get();
+	}
+
+	public int getDeletedFiles() {
+		return deletedFiles.get();
+	}
+
+	private String getManifestName(Context context, String... transformerNames) {
+		// Readable names and a hash of everything which identifies the
+		// generation, so two executions do not share a manifest
+		StringBuilder manifestName = new StringBuilder();
+		Hasher hasher = Hashing.sha1().newHasher();
+		for (String transformerName : transformerNames) {
+			if (manifestName.length() > 0) {
+				manifestName.append('+');
+			}
+			manifestName.append(transformerName.substring(transformerName.lastIndexOf('.') + 1));
+			hasher.putString(transformerName, Charsets.UTF_8).putChar('\n');
+		}
+		hasher.putString(new File(String.valueOf(context.getSourceModel())).getAbsolutePath(), Charsets.UTF_8)
+				.putChar('\n');
+		hasher.putString(new File(context.getTargetModel()).getAbsolutePath(), Charsets.UTF_8);
+		return manifestName.append('-').append(hasher.hash()).toString();
+	}
+
+	private String getManifestFileName(String directory, String fileName) {
+		// Independent of the platform, so the manifest can be used anywhere
+		String manifestDirectory = directory.replace(File.separatorChar, '/');
+		if (manifestDirectory.isEmpty()) {
+			return fileName;
+		}
+		return manifestDirectory + "/" + fileName;
+	}
+
+	private boolean isSameContent(Path file, ByteBuffer content) throws IOException {
+		// Compare the length first, so most changed files are not read
+		if (!Files.isRegularFile(file) || Files.size(file) != content.remaining()) {
+			return false;
+		}
+		return ByteBuffer.wrap(Files.readAllBytes(file)).equals(content);
+	}
+
+	private Path createTemporaryFile(Path directory, String fileName) throws IOException {
+		createDirectories(directory);
+		while (true) {
+			// Not Files.createTempFile, which would restrict the permissions
+			Path temporaryFile = directory.resolve("." + fileName + "." + temporaryFiles.incrementAndGet()
+					+ TEMPORARY_FILE_SUFFIX);
+			try {
+				return Files.createFile(temporaryFile);
+			} catch (FileAlreadyExistsException e) {
+				// Left over from another run, try the next name
+			} catch (NoSuchFileException e) {
+				// The directory was removed since it was created
+				createdDirectories.remove(directory);
+				createDirectories(directory);
+				return Files.createFile(temporaryFile);
+			}
+		}
+	}
+
+	private void createDirectories(Path directory) throws IOException {
+		if (!createdDirectories.contains(directory)) {
+			Files.createDirectories(directory);
+			createdDirectories.add(directory);
+		}
+	}
+
+	private void move(Path temporaryFile, Path file) throws IOException {
+		try {
+			Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Encoder of the file contents of one thread. The encoder and the buffer
+	 * are used again for the next file.
+	 */
+	private static class ContentEncoder {
+
+		private static final int BUFFER_SIZE = 16 * 1024;
+
+		private static final int MAXIMUM_POOLED_BUFFER_SIZE = 1024 * 1024;
+
+		private CharsetEncoder encoder;
+
+		private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+		/**
+		 * Encode the content. The buffer is valid until the next call.
+		 * 
+		 * @param charset
+		 *            the target encoding
+		 * @param content
+		 *            the content
+		 * @return buffer with the encoded content
+		 * @throws CharacterCodingException
+		 */
+		ByteBuffer encode(Charset charset, String content) throws CharacterCodingException {
+			if (encoder == null || !encoder.charset().equals(charset)) {
+				// Replace like String.getBytes
+				encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+						.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			}
+			encoder.reset();
+			buffer.clear();
+			CharBuffer input = CharBuffer.wrap(content);
+			CoderResult result = encoder.encode(input, buffer, true);
+			while (!result.isUnderflow()) {
+				handleOverflow(result);
+				result = encoder.encode(input, buffer, true);
+			}
+			// The encoder must not encode again after the flush was started
+			result = encoder.flush(buffer);
+			while (!result.isUnderflow()) {
+				handleOverflow(result);
+				result = encoder.flush(buffer);
+			}
+			buffer.flip();
+			return buffer;
+		}
+
+		private void handleOverflow(CoderResult result) throws CharacterCodingException {
+			if (!result.isOverflow()) {
+				result.throwException();
+			}
+			ByteBuffer largerBuffer = ByteBuffer.allocate(buffer.capacity() * 2);
+			buffer.flip();
+			largerBuffer.put(buffer);
+			buffer = largerBuffer;
+		}
+
+		/**
+		 * Release the buffer after the content is written.
+		 */
+		void release() {
+			if (buffer.capacity() > MAXIMUM_POOLED_BUFFER_SIZE) {
+				// Do not keep the memory of a very large file
+				buffer = ByteBuffer.allocate(BUFFER_SIZE);
 			}
 		}
 	}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.file;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Manifest of the generated files of a generation. For each generated file
+ * the manifest holds the fingerprint of the element it was generated from. A
+ * file whose fingerprint did not change since the last run and which still
+ * exists does not need to be generated again.
+ * 
+ * The manifest of the last run is read on creation. Only the files which are
+ * given to {@link #isUnchanged(String, String)} or {@link #addFile(String)}
+ * in this run are stored again. The files of the last run which are not
+ * generated any more, e.g. because the element was removed or renamed, are
+ * the orphan files.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class GenerationManifest {
+
+	private static final Logger logger = Logger
+			.getLogger(GenerationManifest.class.getName());
+
+	static final String MANIFEST_FILE_SUFFIX = ".manifest";
+
+	private static final String NO_FINGERPRINT = "";
+
+	private final File manifestFile;
+
+	private final File targetDirectory;
+
+	private final Map<String, String> lastFingerprints = new TreeMap<String, String>();
+
+	private final Map<String, String> fingerprints = new TreeMap<String, String>();
+
+	/**
+	 * Create the manifest and read the manifest of the last run.
+	 * 
+	 * @param directory
+	 *            directory of the manifests
+	 * @param name
+	 *            name of the manifest, e.g. the names of the transformers
+	 * @param targetDirectory
+	 *            target directory of the generated files
+	 */
+	public GenerationManifest(File directory, String name, File targetDirectory) {
+		this.manifestFile = new File(directory, name + MANIFEST_FILE_SUFFIX);
+		this.targetDirectory = targetDirectory;
+		load();
+	}
+
+	/**
+	 * Check whether the file is unchanged since the last run. The fingerprint
+	 * is remembered for the next run.
+	 * 
+	 * @param fileName
+	 *            name of the file relative to the target directory
+	 * @param fingerprint
+	 *            fingerprint of the element the file is generated from
+	 * @return true if the fingerprint is the same as in the last run and the
+	 *         file exists
+	 */
+	public synchronized boolean isUnchanged(String fileName, String fingerprint) {
+		fingerprints.put(fileName, fingerprint);
+		String lastFingerprint = lastFingerprints.get(fileName);
+		return !NO_FINGERPRINT.equals(lastFingerprint)
+				&& fingerprint.equals(lastFingerprint)
+				&& new File(targetDirectory, fileName).isFile();
+	}
+
+	/**
+	 * Add a file which is generated in this run without a fingerprint. The
+	 * file is not an orphan file, but it is always generated again.
+	 * 
+	 * @param fileName
+	 *            name of the file relative to the target directory
+	 */
+	public synchronized void addFile(String fileName) {
+		if (!fingerprints.containsKey(fileName)) {
+			fingerprints.put(fileName, NO_FINGERPRINT);
+		}
+	}
+
+	/**
+	 * Get the files of the last run which are not generated in this run.
+	 * 
+	 * @return names of the files relative to the target directory
+	 */
+	public synchronized List<String> getOrphanFiles() {
+		List<String> orphanFiles = new ArrayList<String>();
+		for (String fileName : lastFingerprints.keySet()) {
+			if (!fingerprints.containsKey(fileName)) {
+				orphanFiles.add(fileName);
+			}
+		}
+		return orphanFiles;
+	}
+
+	/**
+	 * Store the fingerprints of this run.
+	 */
+	public synchronized void store() {
+		Properties properties = new Properties();
+		properties.putAll(fingerprints);
+
+		manifestFile.getParentFile().mkdirs();
+		try {
+			OutputStream outputStream = new FileOutputStream(manifestFile);
+			try {
+				properties.store(outputStream, "KissMDA generation manifest");
+			} finally {
+				outputStream.close();
+			}
+		} catch (IOException e) {
+			logger.log(Level.WARNING,
+					"Cannot write the generation manifest: " + e.getMessage());
+		}
+	}
+
+	private void load() {
+		if (!manifestFile.isFile()) {
+			return;
+		}
+
+		Properties properties = new Properties();
+		try {
+			InputStream inputStream = new FileInputStream(manifestFile);
+			try {
+				properties.load(inputStream);
+			} finally {
+				inputStream.close();
+			}
+		} catch (IOException e) {
+			// Without the manifest everything is generated again
+			logger.log(Level.WARNING,
+					"Cannot read the generation manifest: " + e.getMessage());
+			return;
+		}
+
+		for (String fileName : properties.stringPropertyNames()) {
+			lastFingerprints.put(fileName, properties.getProperty(fileName));
+		}
+	}
+}
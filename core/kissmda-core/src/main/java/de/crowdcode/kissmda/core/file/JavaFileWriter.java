@@ -41,4 +41,27 @@ public class JavaFileWriter {
 		fileWriter.createFile(context, directoryToBeCreated, className
 				+ ".java", classContent);
 	}
+
+	/**
+	 * Check whether the Java file does not need to be generated again with
+	 * the incremental generation, see
+	 * {@link FileWriter#isUnchanged(Context, String, String, String)}.
+	 * 
+	 * @param context
+	 *            Context of the Transformer
+	 * @param packageName
+	 *            Java package name
+	 * @param className
+	 *            Java class name
+	 * @param fingerprint
+	 *            fingerprint of the element the class is generated from
+	 * @return true if the file is up to date
+	 */
+	public boolean isUnchanged(final Context context, final String packageName,
+			final String className, final String fingerprint) {
+		String directory = packageName.replace(".", File.separator);
+
+		return fileWriter.isUnchanged(context, directory, className + ".java",
+				fingerprint);
+	}
 }
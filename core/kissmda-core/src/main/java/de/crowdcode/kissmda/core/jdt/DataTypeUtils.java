@@ -18,6 +18,7 @@
  */
 package de.crowdcode.kissmda.core.jdt;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.eventbus.EventBus;
 import de.crowdcode.kissmda.core.StandardContext;
 import de.crowdcode.kissmda.core.jdt.event.JavaTypeCodesCreatedEvent;
@@ -28,6 +29,7 @@ import org.eclipse.jdt.core.dom.PrimitiveType.Code;
 import javax.inject.Inject;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
@@ -38,6 +40,12 @@ import java.util.logging.Logger;
 /**
  * Data Type Helper class for Java language with JDT.
  * 
+ * The primitive types and the Java types are built once on first use. While
+ * they are built, the subscribers of the {@link PrimitiveTypeCodesCreatedEvent}
+ * and the {@link JavaTypeCodesCreatedEvent} can extend them. Afterwards they
+ * are frozen into immutable maps, which can be read from many threads without
+ * locks.
+ * 
  * @author Lofi Dewanto
  * @since 1.0.0
  * @version 1.0.0
@@ -51,9 +59,9 @@ public class DataTypeUtils {
 
     private static final String STANDARD_PROPERTY_FILE = "src/main/resources/application.properties";
 
-    private Map<String, Code> primitiveTypeCodes = null;
+	private volatile Registry registry;
 
-	private Map<String, String> javaTypes = null;
+	private Registry buildingRegistry;
 
 	@Inject
 	private EventBus eventBus;
@@ -67,15 +75,52 @@ public class DataTypeUtils {
 	 * @return Map of key and code
 	 */
 	public Map<String, Code> getPrimitiveTypeCodes() {
-		if (primitiveTypeCodes == null) {
-			createPrimitiveTypeCodes();
+		return getRegistry().primitiveTypeCodes;
+	}
+
+	/**
+	 * Get the Java types.
+	 * 
+	 * @return Map of type key and Java type
+	 */
+	public Map<String, String> getJavaTypes() {
+		return getRegistry().javaTypes;
+	}
+
+	private Registry getRegistry() {
+		Registry result = registry;
+		if (result == null) {
+			result = buildRegistry();
 		}
+		return result;
+	}
 
-		return primitiveTypeCodes;
+	private synchronized Registry buildRegistry() {
+		if (registry != null) {
+			return registry;
+		}
+		if (buildingRegistry != null) {
+			// Called by a subscriber of the events while building
+			return buildingRegistry;
+		}
+
+		Map<String, Code> primitiveTypeCodes = new HashMap<String, Code>();
+		Map<String, String> javaTypes = new HashMap<String, String>();
+		buildingRegistry = new Registry(
+				Collections.unmodifiableMap(primitiveTypeCodes),
+				Collections.unmodifiableMap(javaTypes));
+		try {
+			createPrimitiveTypeCodes(primitiveTypeCodes);
+			createJavaTypes(javaTypes);
+			registry = new Registry(ImmutableMap.copyOf(primitiveTypeCodes),
+					ImmutableMap.copyOf(javaTypes));
+		} finally {
+			buildingRegistry = null;
+		}
+		return registry;
 	}
 
-	private void createPrimitiveTypeCodes() {
-		primitiveTypeCodes = new HashMap<String, Code>();
+	private void createPrimitiveTypeCodes(Map<String, Code> primitiveTypeCodes) {
 		primitiveTypeCodes.put("integer", PrimitiveType.INT);
 		primitiveTypeCodes.put("int", PrimitiveType.INT);
 		primitiveTypeCodes.put("short", PrimitiveType.SHORT);
@@ -92,21 +137,7 @@ public class DataTypeUtils {
 		eventBus.post(new PrimitiveTypeCodesCreatedEvent(primitiveTypeCodes));
 	}
 
-	/**
-	 * Get the Java types.
-	 * 
-	 * @return Map of type key and Java type
-	 */
-	public Map<String, String> getJavaTypes() {
-		if (javaTypes == null) {
-			createJavaTypes();
-		}
-
-		return javaTypes;
-	}
-
-	private void createJavaTypes() {
-		javaTypes = new HashMap<String, String>();
+	private void createJavaTypes(Map<String, String> javaTypes) {
 		javaTypes.put("Object", "Object");
 		javaTypes.put("Integer", "Integer");
 		javaTypes.put("Short", "Short");
@@ -143,13 +174,13 @@ public class DataTypeUtils {
 
 		// Check if we can find a properties file
         // Default: src/main/resources/application.properties
-        overwriteJavaTypes();
+        overwriteJavaTypes(javaTypes);
 
 		// Publish an event to the bus
 		eventBus.post(new JavaTypeCodesCreatedEvent(javaTypes));
 	}
 
-    void overwriteJavaTypes() {
+    void overwriteJavaTypes(Map<String, String> javaTypes) {
         // Check if we can find a properties file in the classpath
         // Default: application.properties
         // If yes, we overwrite the content of javaTypes
@@ -204,13 +235,7 @@ public class DataTypeUtils {
 	 * @return true or false
 	 */
 	public boolean isPrimitiveType(String typeName) {
-		Map<String, Code> primitiveTypeCodes = getPrimitiveTypeCodes();
-		Code primitiveTypeCode = primitiveTypeCodes.get(typeName);
-		if (primitiveTypeCode != null) {
-			return true;
-		} else {
-			return false;
-		}
+		return getPrimitiveTypeCodes().containsKey(typeName);
 	}
 
 	/**
@@ -221,13 +246,7 @@ public class DataTypeUtils {
 	 * @return true or false
 	 */
 	public boolean isJavaType(String typeName) {
-		Map<String, String> javaTypes = getJavaTypes();
-		String javaTypeCodes = javaTypes.get(typeName);
-		if (javaTypeCodes != null) {
-			return true;
-		} else {
-			return false;
-		}
+		return getJavaTypes().containsKey(typeName);
 	}
 
 	/**
@@ -259,4 +278,21 @@ public class DataTypeUtils {
 			return false;
 		}
 	}
+
+	/**
+	 * Primitive types and Java types. The maps are never changed after the
+	 * registry is published.
+	 */
+	private static final class Registry {
+
+		private final Map<String, Code> primitiveTypeCodes;
+
+		private final Map<String, String> javaTypes;
+
+		Registry(Map<String, Code> primitiveTypeCodes,
+				Map<String, String> javaTypes) {
+			this.primitiveTypeCodes = primitiveTypeCodes;
+			this.javaTypes = javaTypes;
+		}
+	}
 }
@@ -22,29 +22,57 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 /**
  * This class is taken from http://goo.gl/I3eW3Y. Copyright 2009-2010.
  * 
  * Lofi's change: remove all static and use normal class to be injected.
  * 
+ * The rules are compiled once when they are added and the results of
+ * pluralize and singularize are cached by word in bounded caches, which drop
+ * the least recently used words first. The inflector is thread safe.
+ * 
  * @author Igor Polevoy
  * @author lofi
  */
 public class Inflector {
 
-	private final List<String[]> singulars, plurals, irregulars;
+	public static final int DEFAULT_CACHE_SIZE = 1000;
+
+	private final List<Rule> singulars, plurals;
+	private final List<String[]> irregulars;
 	private List<String> uncountables;
 
+	private final Cache<String, String> pluralCache;
+	private final Cache<String, String> singularCache;
+
 	public Inflector() {
+		this(DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Create an inflector.
+	 * 
+	 * @param cacheSize
+	 *            maximum number of cached words for pluralize and singularize
+	 *            each, 0 for no caching
+	 */
+	public Inflector(int cacheSize) {
 		super();
 
-		singulars = new ArrayList<String[]>();
-		plurals = new ArrayList<String[]>();
-		irregulars = new ArrayList<String[]>();
+		singulars = new CopyOnWriteArrayList<Rule>();
+		plurals = new CopyOnWriteArrayList<Rule>();
+		irregulars = new CopyOnWriteArrayList<String[]>();
 		uncountables = new ArrayList<String>();
+		pluralCache = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+		singularCache = CacheBuilder.newBuilder().maximumSize(cacheSize)
+				.build();
 
 		addPlural("$", "s");
 		addPlural("s$", "s");
@@ -102,15 +130,19 @@ public class Inflector {
 	}
 
 	public void addPlural(String rule, String replacement) {
-		plurals.add(0, new String[] { rule, replacement });
+		plurals.add(0, new Rule(rule, replacement));
+		pluralCache.invalidateAll();
 	}
 
 	public void addSingular(String rule, String replacement) {
-		singulars.add(0, new String[] { rule, replacement });
+		singulars.add(0, new Rule(rule, replacement));
+		singularCache.invalidateAll();
 	}
 
 	public void addIrregular(String rule, String replacement) {
 		irregulars.add(new String[] { rule, replacement });
+		pluralCache.invalidateAll();
+		singularCache.invalidateAll();
 	}
 
 	/**
@@ -128,7 +160,21 @@ public class Inflector {
 		return matcher.find() ? matcher.replaceFirst(replacement) : null;
 	}
 
+	private String gsub(String word, Rule rule) {
+		Matcher matcher = rule.pattern.matcher(word);
+		return matcher.find() ? matcher.replaceFirst(rule.replacement) : null;
+	}
+
 	public String pluralize(String word) {
+		String plural = pluralCache.getIfPresent(word);
+		if (plural == null) {
+			plural = computePlural(word);
+			pluralCache.put(word, plural);
+		}
+		return plural;
+	}
+
+	private String computePlural(String word) {
 
 		if (uncountables.contains(word))
 			return word;
@@ -139,8 +185,8 @@ public class Inflector {
 			}
 		}
 
-		for (String[] pair : plurals) {
-			String plural = gsub(word, pair[0], pair[1]);
+		for (Rule rule : plurals) {
+			String plural = gsub(word, rule);
 			if (plural != null)
 				return plural;
 		}
@@ -149,6 +195,15 @@ public class Inflector {
 	}
 
 	public String singularize(String word) {
+		String singular = singularCache.getIfPresent(word);
+		if (singular == null) {
+			singular = computeSingular(word);
+			singularCache.put(word, singular);
+		}
+		return singular;
+	}
+
+	private String computeSingular(String word) {
 
 		if (uncountables.contains(word))
 			return word;
@@ -159,8 +214,8 @@ public class Inflector {
 			}
 		}
 
-		for (String[] pair : singulars) {
-			String singular = gsub(word, pair[0], pair[1]);
+		for (Rule rule : singulars) {
+			String singular = gsub(word, rule);
 			if (singular != null)
 				return singular;
 		}
@@ -287,4 +342,18 @@ public class Inflector {
 		}
 		return other.trim();
 	}
+
+	/**
+	 * A rule with its compiled pattern.
+	 */
+	private static final class Rule {
+
+		private final Pattern pattern;
+		private final String replacement;
+
+		Rule(String rule, String replacement) {
+			this.pattern = Pattern.compile(rule, Pattern.CASE_INSENSITIVE);
+			this.replacement = replacement;
+		}
+	}
 }
@@ -20,7 +20,6 @@ package de.crowdcode.kissmda.core.jdt;
 
 import javax.inject.Inject;
 
-import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.ArrayType;
@@ -58,6 +57,11 @@ public class JdtHelper {
 	@Inject
 	private DataTypeUtils dataTypeUtils;
 
+	@Inject
+	private TypeExpressionParsers typeExpressionParsers;
+
+	private TypeExpressionParser typeExpressionParser;
+
 	/**
 	 * Create a fully qualified type as JDT Name.
 	 * 
@@ -140,22 +144,40 @@ public class JdtHelper {
 	 */
 	public Type getChosenType(AST ast, String umlTypeName,
 			String umlQualifiedTypeName, String sourceDirectoryPackageName) {
+		// The parsed type is cached, only the JDT nodes are created again
+		return getChosenTypeDescriptor(umlQualifiedTypeName,
+				sourceDirectoryPackageName).toType(ast);
+	}
+
+	/**
+	 * Calculate the type we can choose as descriptor, without creating JDT
+	 * nodes.
+	 * 
+	 * @param umlQualifiedTypeName
+	 *            UML2 Qualified Type Name
+	 * @param sourceDirectoryPackageName
+	 *            source directory
+	 * @return type descriptor
+	 */
+	public TypeDescriptor getChosenTypeDescriptor(String umlQualifiedTypeName,
+			String sourceDirectoryPackageName) {
 		String typeName = packageHelper.getFullPackageName(
 				umlQualifiedTypeName, sourceDirectoryPackageName);
+		return getTypeExpressionParser().parse(typeName);
+	}
 
-		// Check whether primitive or array type or parameterized type
-		// or simple type?
-		Type chosenType = null;
-		if (dataTypeUtils.isPrimitiveType(typeName)) {
-			chosenType = getAstPrimitiveType(ast, typeName);
-		} else if (dataTypeUtils.isArrayType(typeName)) {
-			chosenType = getAstArrayType(ast, typeName);
-		} else if (dataTypeUtils.isParameterizedType(typeName)) {
-			chosenType = getAstParameterizedType(ast, typeName);
-		} else {
-			chosenType = getAstSimpleType(ast, typeName);
+	/**
+	 * Get the parser of the type names. The parser and its cached types are
+	 * shared by all helpers with the same mapping of the data types.
+	 * 
+	 * @return parser
+	 */
+	public synchronized TypeExpressionParser getTypeExpressionParser() {
+		if (typeExpressionParser == null) {
+			typeExpressionParser = typeExpressionParsers
+					.getParser(dataTypeUtils);
 		}
-		return chosenType;
+		return typeExpressionParser;
 	}
 
 	/**
@@ -238,17 +260,11 @@ public class JdtHelper {
 	 * @return JDT ArrayType
 	 */
 	public ArrayType getAstArrayType(AST ast, String typeName) {
-		Type componentType = null;
-		// Remove [] for componentType
-		typeName = StringUtils.remove(typeName, "[]");
-		if (dataTypeUtils.isPrimitiveType(typeName)) {
-			componentType = getAstPrimitiveType(ast, typeName);
-		} else {
-			componentType = getAstSimpleType(ast, typeName);
+		Type type = getTypeExpressionParser().parse(typeName).toType(ast);
+		if (type instanceof ArrayType) {
+			return (ArrayType) type;
 		}
-
-		ArrayType arrayType = ast.newArrayType(componentType);
-		return arrayType;
+		return ast.newArrayType(type);
 	}
 
 	/**
@@ -260,32 +276,14 @@ public class JdtHelper {
 	 *            input type name
 	 * @return JDT ParameterizedType
 	 */
-	@SuppressWarnings("unchecked")
 	public ParameterizedType getAstParameterizedType(AST ast, String typeName) {
-		// Get the component type and parameters <Type, Type, ...>
-		String componentTypeName = StringUtils.substringBefore(typeName, "<");
-		Type componentType = getAstSimpleType(ast, componentTypeName);
-		ParameterizedType parameterizedType = ast
-				.newParameterizedType(componentType);
-
-		String paramTypeNames = StringUtils.substringAfter(typeName, "<");
-		paramTypeNames = StringUtils.removeEnd(paramTypeNames, ">");
-		// Result: String, Integer, List<Boolean>, de.test.Company
-		String[] parametersAsString = StringUtils.split(paramTypeNames, ",");
-		for (int index = 0; index < parametersAsString.length; index++) {
-			String paramTypeName = parametersAsString[index];
-
-			paramTypeName = StringUtils.remove(paramTypeName, ",");
-			paramTypeName = StringUtils.trim(paramTypeName);
-
-			Type paramType = getChosenType(ast, paramTypeName, paramTypeName,
-					"");
-
-			// Add the type arguments
-			parameterizedType.typeArguments().add(paramType);
+		// Nested type arguments like Map<String, List<Company>> are parsed
+		// recursively
+		Type type = getTypeExpressionParser().parse(typeName).toType(ast);
+		if (type instanceof ParameterizedType) {
+			return (ParameterizedType) type;
 		}
-
-		return parameterizedType;
+		return ast.newParameterizedType(type);
 	}
 
 	/**
@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.jdt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ParameterizedType;
+import org.eclipse.jdt.core.dom.PrimitiveType.Code;
+import org.eclipse.jdt.core.dom.Type;
+
+/**
+ * Immutable description of a Java type, parsed once from a type name by the
+ * {@link TypeExpressionParser}. A descriptor creates new JDT type nodes for
+ * any AST, so the type name does not need to be parsed again.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public final class TypeDescriptor {
+
+	/**
+	 * Kind of the type.
+	 */
+	public enum Kind {
+		PRIMITIVE, SIMPLE, ARRAY, PARAMETERIZED
+	}
+
+	private final Kind kind;
+
+	private final String name;
+
+	private final Code primitiveTypeCode;
+
+	private final TypeDescriptor componentType;
+
+	private final int dimensions;
+
+	private final List<TypeDescriptor> typeArguments;
+
+	private final int hashCode;
+
+	private TypeDescriptor(Kind kind, String name, Code primitiveTypeCode,
+			TypeDescriptor componentType, int dimensions,
+			List<TypeDescriptor> typeArguments) {
+		this.kind = kind;
+		this.name = name;
+		this.primitiveTypeCode = primitiveTypeCode;
+		this.componentType = componentType;
+		this.dimensions = dimensions;
+		this.typeArguments = typeArguments;
+		this.hashCode = Objects.hash(kind, name, primitiveTypeCode,
+				componentType, dimensions, typeArguments);
+	}
+
+	/**
+	 * Create a primitive type.
+	 * 
+	 * @param name
+	 *            type name
+	 * @param primitiveTypeCode
+	 *            JDT code of the primitive type
+	 * @return descriptor
+	 */
+	public static TypeDescriptor primitiveType(String name,
+			Code primitiveTypeCode) {
+		return new TypeDescriptor(Kind.PRIMITIVE, name, primitiveTypeCode,
+				null, 0, Collections.<TypeDescriptor> emptyList());
+	}
+
+	/**
+	 * Create a simple type.
+	 * 
+	 * @param name
+	 *            Java type name
+	 * @return descriptor
+	 */
+	public static TypeDescriptor simpleType(String name) {
+		return new TypeDescriptor(Kind.SIMPLE, name, null, null, 0,
+				Collections.<TypeDescriptor> emptyList());
+	}
+
+	/**
+	 * Create an array type.
+	 * 
+	 * @param componentType
+	 *            type of the elements, no array type
+	 * @param dimensions
+	 *            number of dimensions
+	 * @return descriptor
+	 */
+	public static TypeDescriptor arrayType(TypeDescriptor componentType,
+			int dimensions) {
+		return new TypeDescriptor(Kind.ARRAY, null, null, componentType,
+				dimensions, Collections.<TypeDescriptor> emptyList());
+	}
+
+	/**
+	 * Create a parameterized type.
+	 * 
+	 * @param rawType
+	 *            the type without arguments
+	 * @param typeArguments
+	 *            the type arguments
+	 * @return descriptor
+	 */
+	public static TypeDescriptor parameterizedType(TypeDescriptor rawType,
+			List<TypeDescriptor> typeArguments) {
+		return new TypeDescriptor(Kind.PARAMETERIZED, null, null, rawType, 0,
+				Collections.unmodifiableList(new ArrayList<TypeDescriptor>(
+						typeArguments)));
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * Get the name of a primitive or simple type.
+	 * 
+	 * @return name, null for array and parameterized types
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get the component type of an array type or the raw type of a
+	 * parameterized type.
+	 * 
+	 * @return descriptor, null for primitive and simple types
+	 */
+	public TypeDescriptor getComponentType() {
+		return componentType;
+	}
+
+	public int getDimensions() {
+		return dimensions;
+	}
+
+	public List<TypeDescriptor> getTypeArguments() {
+		return typeArguments;
+	}
+
+	/**
+	 * Create the JDT type node.
+	 * 
+	 * @param ast
+	 *            JDT AST tree
+	 * @return new JDT type
+	 */
+	@SuppressWarnings("unchecked")
+	public Type toType(AST ast) {
+		switch (kind) {
+		case PRIMITIVE:
+			return ast.newPrimitiveType(primitiveTypeCode);
+		case ARRAY:
+			return ast.newArrayType(componentType.toType(ast), dimensions);
+		case PARAMETERIZED:
+			ParameterizedType parameterizedType = ast
+					.newParameterizedType(componentType.toType(ast));
+			for (TypeDescriptor typeArgument : typeArguments) {
+				parameterizedType.typeArguments().add(typeArgument.toType(ast));
+			}
+			return parameterizedType;
+		default:
+			return ast.newSimpleType(ast.newName(name));
+		}
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (this == object) {
+			return true;
+		}
+		if (!(object instanceof TypeDescriptor)) {
+			return false;
+		}
+		TypeDescriptor other = (TypeDescriptor) object;
+		return hashCode == other.hashCode && kind == other.kind
+				&& dimensions == other.dimensions
+				&& Objects.equals(name, other.name)
+				&& Objects.equals(primitiveTypeCode, other.primitiveTypeCode)
+				&& Objects.equals(componentType, other.componentType)
+				&& typeArguments.equals(other.typeArguments);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	/**
+	 * Append the Java source of the type, the same as the source of the JDT
+	 * type node, so the type can be written without creating the node.
+	 * 
+	 * @param buffer
+	 *            buffer of the source
+	 * @return the buffer
+	 */
+	public StringBuilder appendTo(StringBuilder buffer) {
+		switch (kind) {
+		case PRIMITIVE:
+			return buffer.append(primitiveTypeCode.toString());
+		case ARRAY:
+			componentType.appendTo(buffer);
+			for (int index = 0; index < dimensions; index++) {
+				buffer.append("[]");
+			}
+			return buffer;
+		case PARAMETERIZED:
+			componentType.appendTo(buffer).append('<');
+			for (int index = 0; index < typeArguments.size(); index++) {
+				if (index > 0) {
+					buffer.append(", ");
+				}
+				typeArguments.get(index).appendTo(buffer);
+			}
+			return buffer.append('>');
+		default:
+			return buffer.append(name);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return appendTo(new StringBuilder()).toString();
+	}
+}
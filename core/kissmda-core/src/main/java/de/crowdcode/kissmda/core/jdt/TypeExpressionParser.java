@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.jdt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Recursive descent parser for Java type names like
+ * <code>Map&lt;String, List&lt;de.test.Company&gt;&gt;</code> or
+ * <code>byte[]</code>. Primitive types and Java types are resolved with the
+ * {@link DataTypeUtils}.
+ * 
+ * The descriptors are cached by type name and interned, so equal types share
+ * one descriptor. The parser is thread safe.
+ * 
+ * <pre>
+ * type      := name typeArguments? dimensions
+ * typeArgs  := '&lt;' type (',' type)* '&gt;'
+ * dimensions:= ('[' ']')*
+ * </pre>
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class TypeExpressionParser {
+
+	private static final String DELIMITERS = "<>,[]";
+
+	private final DataTypeUtils dataTypeUtils;
+
+	private final ConcurrentMap<String, TypeDescriptor> typeDescriptors = new ConcurrentHashMap<String, TypeDescriptor>();
+
+	private final ConcurrentMap<TypeDescriptor, TypeDescriptor> internedTypeDescriptors = new ConcurrentHashMap<TypeDescriptor, TypeDescriptor>();
+
+	/**
+	 * Create a parser.
+	 * 
+	 * @param dataTypeUtils
+	 *            primitive and Java types
+	 */
+	public TypeExpressionParser(DataTypeUtils dataTypeUtils) {
+		this.dataTypeUtils = dataTypeUtils;
+	}
+
+	/**
+	 * Parse the type name.
+	 * 
+	 * @param typeName
+	 *            Java type name, packages separated by dots
+	 * @return the interned descriptor
+	 * @throws IllegalArgumentException
+	 *             if the type name is no valid type expression
+	 */
+	public TypeDescriptor parse(String typeName) {
+		TypeDescriptor typeDescriptor = typeDescriptors.get(typeName);
+		if (typeDescriptor == null) {
+			Parser parser = new Parser(typeName);
+			typeDescriptor = parser.parseType();
+			parser.skipWhitespace();
+			if (!parser.isAtEnd()) {
+				throw parser.error();
+			}
+			typeDescriptors.putIfAbsent(typeName, typeDescriptor);
+		}
+		return typeDescriptor;
+	}
+
+	private TypeDescriptor intern(TypeDescriptor typeDescriptor) {
+		TypeDescriptor internedTypeDescriptor = internedTypeDescriptors
+				.putIfAbsent(typeDescriptor, typeDescriptor);
+		return internedTypeDescriptor == null ? typeDescriptor
+				: internedTypeDescriptor;
+	}
+
+	private TypeDescriptor createNamedType(String name) {
+		if (dataTypeUtils.isPrimitiveType(name)) {
+			return intern(TypeDescriptor.primitiveType(name, dataTypeUtils
+					.getPrimitiveTypeCodes().get(name.toLowerCase())));
+		}
+		String javaType = dataTypeUtils.getJavaTypes().get(name);
+		return intern(TypeDescriptor.simpleType(javaType != null ? javaType
+				: name));
+	}
+
+	/**
+	 * State of the parsing of one type name.
+	 */
+	private class Parser {
+
+		private final String typeName;
+
+		private int position;
+
+		Parser(String typeName) {
+			this.typeName = typeName;
+		}
+
+		TypeDescriptor parseType() {
+			String name = parseName();
+			TypeDescriptor typeDescriptor;
+			skipWhitespace();
+			if (peek() == '<') {
+				position++;
+				typeDescriptor = intern(TypeDescriptor.parameterizedType(
+						createNamedType(name), parseTypeArguments()));
+			} else {
+				typeDescriptor = createNamedType(name);
+			}
+
+			int dimensions = parseDimensions();
+			if (dimensions > 0) {
+				typeDescriptor = intern(TypeDescriptor.arrayType(
+						typeDescriptor, dimensions));
+			}
+			return typeDescriptor;
+		}
+
+		private String parseName() {
+			int start = position;
+			while (!isAtEnd() && DELIMITERS.indexOf(peek()) < 0) {
+				position++;
+			}
+			String name = typeName.substring(start, position).trim();
+			if (name.isEmpty()) {
+				throw error();
+			}
+			return name;
+		}
+
+		private List<TypeDescriptor> parseTypeArguments() {
+			List<TypeDescriptor> typeArguments = new ArrayList<TypeDescriptor>();
+			while (true) {
+				typeArguments.add(parseType());
+				skipWhitespace();
+				char next = peek();
+				position++;
+				if (next == '>') {
+					return typeArguments;
+				}
+				if (next != ',') {
+					throw error();
+				}
+			}
+		}
+
+		private int parseDimensions() {
+			int dimensions = 0;
+			skipWhitespace();
+			while (peek() == '[') {
+				position++;
+				skipWhitespace();
+				if (peek() != ']') {
+					throw error();
+				}
+				position++;
+				dimensions++;
+				skipWhitespace();
+			}
+			return dimensions;
+		}
+
+		void skipWhitespace() {
+			while (!isAtEnd() && Character.isWhitespace(peek())) {
+				position++;
+			}
+		}
+
+		boolean isAtEnd() {
+			return position >= typeName.length();
+		}
+
+		private char peek() {
+			return isAtEnd() ? 0 : typeName.charAt(position);
+		}
+
+		IllegalArgumentException error() {
+			return new IllegalArgumentException("Invalid type name at "
+					+ position + ": " + typeName);
+		}
+	}
+}
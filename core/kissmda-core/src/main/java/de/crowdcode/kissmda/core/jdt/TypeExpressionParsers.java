@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.jdt;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The {@link TypeExpressionParser}s of one execution, one for each mapping of
+ * the data types. The helpers are not scoped, so they get their parser from
+ * here and share its cached descriptors.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class TypeExpressionParsers {
+
+	private final ConcurrentMap<List<Object>, TypeExpressionParser> parsers = new ConcurrentHashMap<List<Object>, TypeExpressionParser>();
+
+	/**
+	 * Get the parser for the mapping of the data types.
+	 * 
+	 * @param dataTypeUtils
+	 *            primitive and Java types
+	 * @return parser shared by all data types with the same mapping
+	 */
+	public TypeExpressionParser getParser(DataTypeUtils dataTypeUtils) {
+		List<Object> mapping = Arrays.<Object> asList(
+				dataTypeUtils.getPrimitiveTypeCodes(),
+				dataTypeUtils.getJavaTypes());
+		TypeExpressionParser parser = parsers.get(mapping);
+		if (parser == null) {
+			parser = new TypeExpressionParser(dataTypeUtils);
+			TypeExpressionParser existingParser = parsers.putIfAbsent(mapping,
+					parser);
+			if (existingParser != null) {
+				parser = existingParser;
+			}
+		}
+		return parser;
+	}
+}
@@ -21,7 +21,9 @@ package de.crowdcode.kissmda.core.jdt.event;
 import java.util.Map;
 
 /**
- * An event which is fired as the Java type codes are created.
+ * An event which is fired as the Java type codes are created. The subscribers
+ * can add or change Java types in the map while handling the event, after
+ * that the Java types are frozen.
  * 
  * @author Lofi Dewanto
  * @since 1.4.0
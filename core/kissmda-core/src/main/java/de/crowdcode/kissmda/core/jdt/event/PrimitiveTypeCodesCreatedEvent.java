@@ -23,7 +23,9 @@ import java.util.Map;
 import org.eclipse.jdt.core.dom.PrimitiveType.Code;
 
 /**
- * An event which is fired as the primitive type codes are created.
+ * An event which is fired as the primitive type codes are created. The
+ * subscribers can add or change primitive types in the map while handling the
+ * event, after that the primitive types are frozen.
  * 
  * @author Lofi Dewanto
  * @since 1.4.0
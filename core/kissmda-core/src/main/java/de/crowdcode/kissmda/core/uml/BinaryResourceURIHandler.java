@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.impl.URIHandlerImpl;
+
+/**
+ * URI handler which serves the content of resources from their binary form.
+ * The resources keep their original URIs, so all references between them stay
+ * valid. Only the input stream is read from the binary location.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class BinaryResourceURIHandler extends URIHandlerImpl {
+
+	private final Map<URI, URL> binaryLocations = new HashMap<URI, URL>();
+
+	/**
+	 * Add binary locations for the resources.
+	 * 
+	 * @param binaryLocations
+	 *            map of resource URI to the location of the binary form
+	 */
+	public void putAll(Map<URI, URL> binaryLocations) {
+		this.binaryLocations.putAll(binaryLocations);
+	}
+
+	/**
+	 * Remove the binary locations of the resources.
+	 * 
+	 * @param resourceUris
+	 *            URIs of the resources
+	 */
+	public void removeAll(Collection<URI> resourceUris) {
+		binaryLocations.keySet().removeAll(resourceUris);
+	}
+
+	@Override
+	public boolean canHandle(URI uri) {
+		return binaryLocations.containsKey(uri);
+	}
+
+	@Override
+	public InputStream createInputStream(URI uri, Map<?, ?> options)
+			throws IOException {
+		return new BufferedInputStream(binaryLocations.get(uri).openStream());
+	}
+
+	@Override
+	public boolean exists(URI uri, Map<?, ?> options) {
+		return true;
+	}
+}
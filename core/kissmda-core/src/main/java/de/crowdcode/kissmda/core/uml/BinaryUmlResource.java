@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.emf.ecore.xmi.XMLHelper;
+import org.eclipse.emf.ecore.xmi.XMLLoad;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.uml2.uml.internal.resource.UMLHandler;
+import org.eclipse.uml2.uml.internal.resource.UMLLoadImpl;
+import org.eclipse.uml2.uml.internal.resource.UMLResourceImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * UML resource which can be loaded from XMI and from the EMF binary resource
+ * format. The format is detected from the signature of the input stream, so
+ * the same resource works for XMI files and for binary files from the model
+ * cache.
+ * 
+ * The XMI ids are written together with each object, since references from
+ * other resources (profiles, stereotype applications) use the ids as URI
+ * fragments.
+ * 
+ * With the load option {@link #OPTION_DEFER_PROFILES} the profile definitions
+ * of the stereotype applications are not loaded. The stereotype applications
+ * are kept as untyped placeholders until the {@link DeferredProfileResolver}
+ * resolves their profiles.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+@SuppressWarnings("restriction")
+public class BinaryUmlResource extends UMLResourceImpl {
+
+	/**
+	 * Signature of the EMF binary resource format: "\211emf".
+	 */
+	private static final int[] BINARY_SIGNATURE = { 0x89, 'e', 'm', 'f' };
+
+	/**
+	 * Load option to defer the loading of profile definitions, value is
+	 * Boolean.
+	 */
+	public static final String OPTION_DEFER_PROFILES = "DEFER_PROFILES";
+
+	private boolean loadingBinary = false;
+
+	private final Map<String, URI> deferredProfileLocations = new LinkedHashMap<String, URI>();
+
+	public BinaryUmlResource(URI uri) {
+		super(uri);
+	}
+
+	/**
+	 * Load the resource from XMI or from the EMF binary format.
+	 * 
+	 * @param inputStream
+	 *            input stream of the resource
+	 * @param options
+	 *            load options
+	 * @throws IOException
+	 *             input error
+	 */
+	@Override
+	public void doLoad(InputStream inputStream, Map<?, ?> options)
+			throws IOException {
+		InputStream markableInputStream = inputStream.markSupported() ? inputStream
+				: new BufferedInputStream(inputStream);
+		if (isBinary(markableInputStream)) {
+			loadingBinary = true;
+			try {
+				new IdEObjectInputStream(markableInputStream, options)
+						.loadResource(this);
+			} finally {
+				loadingBinary = false;
+			}
+		} else {
+			super.doLoad(markableInputStream, options);
+		}
+	}
+
+	/**
+	 * Save the resource in the EMF binary format.
+	 * 
+	 * @param outputStream
+	 *            output stream
+	 * @throws IOException
+	 *             output error
+	 */
+	public void saveBinary(OutputStream outputStream) throws IOException {
+		new IdEObjectOutputStream(outputStream, null).saveResource(this);
+	}
+
+	/**
+	 * Get the locations of the profile definitions which were not loaded.
+	 * 
+	 * @return map of namespace URI to the location of the profile definition
+	 */
+	public Map<String, URI> getDeferredProfileLocations() {
+		return deferredProfileLocations;
+	}
+
+	@Override
+	protected XMLLoad createXMLLoad() {
+		return new UMLLoadImpl(createXMLHelper()) {
+			@Override
+			protected DefaultHandler makeDefaultHandler() {
+				return new DeferringUmlHandler(resource, helper, options);
+			}
+		};
+	}
+
+	/**
+	 * The ids are restored from the binary stream, no need to create new UUIDs
+	 * for them.
+	 */
+	@Override
+	protected boolean assignIDsWhileLoading() {
+		return !loadingBinary && super.assignIDsWhileLoading();
+	}
+
+	private boolean isBinary(InputStream inputStream) throws IOException {
+		inputStream.mark(BINARY_SIGNATURE.length);
+		try {
+			for (int signature : BINARY_SIGNATURE) {
+				if (inputStream.read() != signature) {
+					return false;
+				}
+			}
+			return true;
+		} finally {
+			inputStream.reset();
+		}
+	}
+
+	/**
+	 * UML handler which does not load the packages of profile definitions if
+	 * deferring profiles is enabled. The objects of these packages are
+	 * recorded as AnyType instances of demanded classes.
+	 */
+	private static class DeferringUmlHandler extends UMLHandler {
+
+		private final boolean deferProfiles;
+
+		DeferringUmlHandler(XMLResource xmlResource, XMLHelper helper,
+				Map<?, ?> options) {
+			super(xmlResource, helper, options);
+			deferProfiles = Boolean.TRUE.equals(options
+					.get(OPTION_DEFER_PROFILES));
+		}
+
+		@Override
+		protected EPackage getPackageForURI(String uriString) {
+			if (deferProfiles && uriString != null
+					&& urisToLocations != null
+					&& urisToLocations.containsKey(uriString)) {
+				EPackage ePackage = extendedMetaData == null ? packageRegistry
+						.getEPackage(uriString) : extendedMetaData
+						.getPackage(uriString);
+				if (ePackage == null) {
+					((BinaryUmlResource) xmlResource)
+							.getDeferredProfileLocations().put(uriString,
+									urisToLocations.get(uriString));
+					return handleMissingPackage(uriString);
+				}
+			}
+			return super.getPackageForURI(uriString);
+		}
+
+		/**
+		 * Tell the precompiled profiles which namespace URIs the model
+		 * declares for its profile locations, so a profile can be served
+		 * without an XMI copy.
+		 */
+		@Override
+		protected void handleXSISchemaLocation(String schemaLocations) {
+			super.handleXSISchemaLocation(schemaLocations);
+			PrecompiledProfileURIHandler precompiledProfileURIHandler = getPrecompiledProfileURIHandler();
+			if (precompiledProfileURIHandler == null
+					|| urisToLocations == null) {
+				return;
+			}
+			for (Map.Entry<String, URI> entry : urisToLocations.entrySet()) {
+				URI location = entry.getValue();
+				if (location.isRelative() && resourceURI != null
+						&& !resourceURI.isRelative()) {
+					location = location.resolve(resourceURI);
+				}
+				precompiledProfileURIHandler.expectProfile(entry.getKey(),
+						location);
+			}
+		}
+
+		private PrecompiledProfileURIHandler getPrecompiledProfileURIHandler() {
+			if (resourceSet == null) {
+				return null;
+			}
+			for (Object uriHandler : resourceSet.getURIConverter()
+					.getURIHandlers()) {
+				if (uriHandler instanceof PrecompiledProfileURIHandler) {
+					return (PrecompiledProfileURIHandler) uriHandler;
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Binary output which writes the XMI id after each new object.
+	 */
+	private static class IdEObjectOutputStream extends
+			BinaryResourceImpl.EObjectOutputStream {
+
+		IdEObjectOutputStream(OutputStream outputStream, Map<?, ?> options)
+				throws IOException {
+			super(outputStream, options);
+		}
+
+		@Override
+		public void saveEObject(InternalEObject internalEObject, Check check)
+				throws IOException {
+			boolean newEObject = !eObjectIDMap.containsKey(internalEObject);
+			super.saveEObject(internalEObject, check);
+			if (newEObject) {
+				if (internalEObject.eResource() == resource
+						&& !internalEObject.eIsProxy()) {
+					writeString(((BinaryUmlResource) resource)
+							.getID(internalEObject));
+				} else {
+					writeString(null);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Binary input which reads the XMI id after each new object.
+	 */
+	private static class IdEObjectInputStream extends
+			BinaryResourceImpl.EObjectInputStream {
+
+		IdEObjectInputStream(InputStream inputStream, Map<?, ?> options)
+				throws IOException {
+			super(inputStream, options);
+		}
+
+		@Override
+		public InternalEObject loadEObject() throws IOException {
+			int index = eObjectList.size();
+			InternalEObject internalEObject = super.loadEObject();
+			if (internalEObject != null && index < eObjectList.size()
+					&& eObjectList.get(index) == internalEObject) {
+				String id = readString();
+				if (id != null) {
+					((BinaryUmlResource) resource).setID(internalEObject, id);
+				}
+			}
+			return internalEObject;
+		}
+	}
+}
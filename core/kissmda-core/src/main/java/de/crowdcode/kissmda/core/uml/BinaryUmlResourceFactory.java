@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import java.util.HashMap;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.uml2.uml.internal.resource.UMLResourceFactoryImpl;
+
+/**
+ * Resource factory for UML resources which can also be loaded from the EMF
+ * binary format. All the standard UML load and save options are kept.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+@SuppressWarnings("restriction")
+public class BinaryUmlResourceFactory extends UMLResourceFactoryImpl {
+
+	private static final String ENCODING = "UTF-8";
+
+	private final boolean intrinsicIdMapEnabled;
+
+	public BinaryUmlResourceFactory() {
+		this(false);
+	}
+
+	/**
+	 * Create the factory.
+	 * 
+	 * @param intrinsicIdMapEnabled
+	 *            true if the created resources should cache the lookup of
+	 *            objects by their intrinsic id
+	 */
+	public BinaryUmlResourceFactory(boolean intrinsicIdMapEnabled) {
+		this.intrinsicIdMapEnabled = intrinsicIdMapEnabled;
+	}
+
+	@Override
+	public Resource createResourceGen(URI uri) {
+		BinaryUmlResource resource = new BinaryUmlResource(uri);
+		resource.setEncoding(ENCODING);
+		if (intrinsicIdMapEnabled) {
+			resource.setIntrinsicIDToEObjectMap(new HashMap<String, EObject>());
+		}
+		return resource;
+	}
+}
@@ -0,0 +1,306 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.FeatureMap;
+import org.eclipse.emf.ecore.xml.type.AnyType;
+import org.eclipse.emf.ecore.xml.type.XMLTypePackage;
+import org.eclipse.uml2.uml.ProfileApplication;
+import org.eclipse.uml2.uml.UMLPackage;
+
+/**
+ * Resolve the profiles which were deferred while loading the model with the
+ * load option {@link BinaryUmlResource#OPTION_DEFER_PROFILES}. A profile is
+ * loaded only if a transformer asks for one of its stereotypes. All
+ * placeholders of the stereotype applications of this profile are then
+ * replaced with real stereotype applications.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class DeferredProfileResolver {
+
+	private static final Logger logger = Logger
+			.getLogger(DeferredProfileResolver.class.getName());
+
+	private static final String HREF = "href";
+
+	private final ResourceSet resourceSet;
+
+	private final Set<String> resolvedNamespaces = new HashSet<String>();
+
+	public DeferredProfileResolver(ResourceSet resourceSet) {
+		this.resourceSet = resourceSet;
+	}
+
+	/**
+	 * Resolve the profiles of the given stereotypes.
+	 * 
+	 * @param stereotypeNames
+	 *            names of the stereotypes
+	 */
+	public void resolve(String... stereotypeNames) {
+		resolve(Arrays.asList(stereotypeNames));
+	}
+
+	/**
+	 * Resolve the profiles of the given stereotypes.
+	 * 
+	 * @param stereotypeNames
+	 *            names of the stereotypes
+	 */
+	public void resolve(Collection<String> stereotypeNames) {
+		Set<String> namespaces = new TreeSet<String>();
+		for (BinaryUmlResource resource : getResources()) {
+			for (EObject eObject : resource.getContents()) {
+				if (isPlaceholder(resource, eObject)) {
+					String namespace = eObject.eClass().getEPackage()
+							.getNsURI();
+					if (resolvedNamespaces.contains(namespace)
+							|| stereotypeNames.contains(eObject.eClass()
+									.getName())) {
+						namespaces.add(namespace);
+					}
+				}
+			}
+		}
+
+		for (String namespace : namespaces) {
+			resolveNamespace(namespace);
+		}
+	}
+
+	/**
+	 * Get the profiles which have never been loaded.
+	 * 
+	 * @return names of the profile resources
+	 */
+	public Set<String> getUntouchedProfiles() {
+		Set<URI> profileUris = new HashSet<URI>();
+		for (BinaryUmlResource resource : getResources()) {
+			for (URI location : resource.getDeferredProfileLocations()
+					.values()) {
+				profileUris.add(location.trimFragment());
+			}
+			for (EObject eObject : resource.getContents()) {
+				if (eObject instanceof org.eclipse.uml2.uml.Package) {
+					collectAppliedProfileUris(
+							(org.eclipse.uml2.uml.Package) eObject, profileUris);
+				}
+			}
+		}
+
+		Set<String> untouchedProfiles = new TreeSet<String>();
+		for (URI profileUri : profileUris) {
+			Resource resource = resourceSet.getResource(profileUri, false);
+			if (resource == null || !resource.isLoaded()) {
+				untouchedProfiles.add(profileUri.lastSegment());
+			}
+		}
+		return untouchedProfiles;
+	}
+
+	private void collectAppliedProfileUris(
+			org.eclipse.uml2.uml.Package umlPackage, Set<URI> profileUris) {
+		for (ProfileApplication profileApplication : umlPackage
+				.getProfileApplications()) {
+			// Do not resolve the applied profile
+			Object appliedProfile = profileApplication.eGet(
+					UMLPackage.Literals.PROFILE_APPLICATION__APPLIED_PROFILE,
+					false);
+			if (appliedProfile instanceof InternalEObject
+					&& ((InternalEObject) appliedProfile).eIsProxy()) {
+				profileUris.add(((InternalEObject) appliedProfile)
+						.eProxyURI().trimFragment());
+			}
+		}
+		for (org.eclipse.uml2.uml.Package nestedPackage : umlPackage
+				.getNestedPackages()) {
+			collectAppliedProfileUris(nestedPackage, profileUris);
+		}
+	}
+
+	private void resolveNamespace(String namespace) {
+		EPackage ePackage = null;
+		for (BinaryUmlResource resource : getResources()) {
+			URI location = resource.getDeferredProfileLocations().get(
+					namespace);
+			if (location != null) {
+				EObject definition = resourceSet.getEObject(location, true);
+				if (definition instanceof EPackage) {
+					ePackage = (EPackage) definition;
+					break;
+				}
+			}
+		}
+		if (ePackage == null) {
+			logger.log(Level.WARNING, "Cannot find the profile definition: "
+					+ namespace);
+			return;
+		}
+
+		if (resolvedNamespaces.add(namespace)) {
+			logger.log(Level.INFO, "Resolve deferred profile: " + namespace);
+		}
+		// Loading the profile may add new resources
+		for (BinaryUmlResource resource : getResources()) {
+			List<EObject> contents = resource.getContents();
+			for (int index = 0; index < contents.size(); index++) {
+				EObject placeholder = contents.get(index);
+				if (isPlaceholder(resource, placeholder)
+						&& namespace.equals(placeholder.eClass().getEPackage()
+								.getNsURI())) {
+					EObject stereotypeApplication = createStereotypeApplication(
+							resource, (AnyType) placeholder, ePackage);
+					if (stereotypeApplication != null) {
+						String id = resource.getID(placeholder);
+						resource.setID(placeholder, null);
+						contents.set(index, stereotypeApplication);
+						resource.setID(stereotypeApplication, id);
+					}
+				}
+			}
+		}
+	}
+
+	private EObject createStereotypeApplication(BinaryUmlResource resource,
+			AnyType placeholder, EPackage ePackage) {
+		EClassifier eClassifier = ePackage.getEClassifier(placeholder.eClass()
+				.getName());
+		if (!(eClassifier instanceof EClass)) {
+			logger.log(Level.WARNING, "Unknown stereotype: "
+					+ placeholder.eClass().getName());
+			return null;
+		}
+
+		EObject stereotypeApplication = EcoreUtil.create((EClass) eClassifier);
+		for (FeatureMap.Entry entry : placeholder.getAnyAttribute()) {
+			setValue(resource, stereotypeApplication, entry
+					.getEStructuralFeature().getName(),
+					String.valueOf(entry.getValue()), false);
+		}
+		for (FeatureMap.Entry entry : placeholder.getAny()) {
+			AnyType element = (AnyType) entry.getValue();
+			String href = getHref(element);
+			if (href != null) {
+				setValue(resource, stereotypeApplication, entry
+						.getEStructuralFeature().getName(), href, true);
+			} else {
+				setValue(resource, stereotypeApplication, entry
+						.getEStructuralFeature().getName(), getText(element),
+						false);
+			}
+		}
+		return stereotypeApplication;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void setValue(BinaryUmlResource resource,
+			EObject stereotypeApplication, String featureName,
+			String literal, boolean href) {
+		EStructuralFeature feature = stereotypeApplication.eClass()
+				.getEStructuralFeature(featureName);
+		if (feature == null) {
+			logger.log(Level.FINE, "Unknown feature: " + featureName);
+			return;
+		}
+
+		List<Object> values = new ArrayList<Object>();
+		if (feature instanceof EReference) {
+			// References are ids in this resource or hrefs to other resources
+			for (String token : href ? new String[] { literal } : literal
+					.split(" ")) {
+				EObject value = token.indexOf('#') >= 0 ? resourceSet
+						.getEObject(URI.createURI(token).resolve(
+								resource.getURI()), true) : resource
+						.getEObject(token);
+				if (value != null) {
+					values.add(value);
+				}
+			}
+		} else {
+			values.add(EcoreUtil.createFromString(
+					((EAttribute) feature).getEAttributeType(), literal));
+		}
+
+		if (feature.isMany()) {
+			((List<Object>) stereotypeApplication.eGet(feature)).addAll(values);
+		} else if (!values.isEmpty()) {
+			stereotypeApplication.eSet(feature, values.get(0));
+		}
+	}
+
+	private String getHref(AnyType element) {
+		for (FeatureMap.Entry entry : element.getAnyAttribute()) {
+			if (HREF.equals(entry.getEStructuralFeature().getName())) {
+				return String.valueOf(entry.getValue());
+			}
+		}
+		return null;
+	}
+
+	private String getText(AnyType element) {
+		StringBuilder text = new StringBuilder();
+		for (FeatureMap.Entry entry : element.getMixed()) {
+			if (entry.getEStructuralFeature() == XMLTypePackage.Literals.XML_TYPE_DOCUMENT_ROOT__TEXT) {
+				text.append(entry.getValue());
+			}
+		}
+		return text.toString();
+	}
+
+	private boolean isPlaceholder(BinaryUmlResource resource, EObject eObject) {
+		return eObject instanceof AnyType
+				&& resource.getDeferredProfileLocations().containsKey(
+						eObject.eClass().getEPackage().getNsURI());
+	}
+
+	private List<BinaryUmlResource> getResources() {
+		List<BinaryUmlResource> resources = new ArrayList<BinaryUmlResource>();
+		for (Resource resource : resourceSet.getResources()) {
+			if (resource instanceof BinaryUmlResource && resource.isLoaded()) {
+				resources.add((BinaryUmlResource) resource);
+			}
+		}
+		return resources;
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import java.util.List;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.NamedElement;
+import org.eclipse.uml2.uml.Stereotype;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Fingerprint of an element for the incremental generation. The fingerprint
+ * covers the element and its owned elements with all their attributes, the
+ * elements they reference (by metaclass and qualified name) and the applied
+ * stereotypes with their values. Two runs over an unchanged element give the
+ * same fingerprint, so the generation of the element can be skipped.
+ * 
+ * Only the names of the referenced elements are part of the fingerprint, not
+ * their content. The {@link TypeDependencyGraph} gives the referenced types
+ * whose fingerprints must be added as inputs.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class ElementFingerprint {
+
+	private static final String BASE_PREFIX = "base_";
+
+	/**
+	 * Compute the fingerprint of the element.
+	 * 
+	 * @param element
+	 *            UML2 element, e.g. a classifier
+	 * @param inputs
+	 *            further inputs of the generation, e.g. the cartridge
+	 *            version and the target package name
+	 * @return fingerprint as hex String
+	 */
+	public String compute(Element element, String... inputs) {
+		Hasher hasher = Hashing.sha1().newHasher();
+		for (String input : inputs) {
+			putString(hasher, input);
+		}
+
+		putObject(hasher, element);
+		for (TreeIterator<EObject> iterator = element.eAllContents(); iterator
+				.hasNext();) {
+			putObject(hasher, iterator.next());
+		}
+		return hasher.hash().toString();
+	}
+
+	private void putObject(Hasher hasher, EObject eObject) {
+		putString(hasher, eObject.eClass().getName());
+		putFeatures(hasher, eObject);
+
+		if (eObject instanceof Element) {
+			Element element = (Element) eObject;
+			for (Stereotype stereotype : element.getAppliedStereotypes()) {
+				putString(hasher, stereotype.getQualifiedName());
+				EObject stereotypeApplication = element
+						.getStereotypeApplication(stereotype);
+				if (stereotypeApplication != null) {
+					putFeatures(hasher, stereotypeApplication);
+				}
+			}
+		}
+	}
+
+	private void putFeatures(Hasher hasher, EObject eObject) {
+		for (EStructuralFeature feature : eObject.eClass()
+				.getEAllStructuralFeatures()) {
+			if (feature.isDerived() || feature.isTransient()
+					|| feature.getName().startsWith(BASE_PREFIX)
+					|| !eObject.eIsSet(feature)) {
+				continue;
+			}
+			if (feature instanceof EReference
+					&& ((EReference) feature).isContainment()) {
+				// Owned objects are part of the tree walk
+				continue;
+			}
+
+			putString(hasher, feature.getName());
+			Object value = eObject.eGet(feature);
+			if (feature.isMany()) {
+				List<?> values = (List<?>) value;
+				hasher.putInt(values.size());
+				for (Object singleValue : values) {
+					putValue(hasher, feature, singleValue);
+				}
+			} else {
+				putValue(hasher, feature, value);
+			}
+		}
+	}
+
+	private void putValue(Hasher hasher, EStructuralFeature feature,
+			Object value) {
+		if (feature instanceof EAttribute || !(value instanceof EObject)) {
+			putString(hasher, String.valueOf(value));
+			return;
+		}
+
+		EObject reference = (EObject) value;
+		putString(hasher, reference.eClass().getName());
+		String qualifiedName = null;
+		if (reference instanceof NamedElement) {
+			qualifiedName = ((NamedElement) reference).getQualifiedName();
+		}
+		if (qualifiedName != null) {
+			putString(hasher, qualifiedName);
+		} else {
+			putString(hasher, EcoreUtil.getURI(reference).fragment());
+		}
+	}
+
+	private void putString(Hasher hasher, String value) {
+		// Length prefix, so "ab" + "c" differs from "a" + "bc"
+		String string = String.valueOf(value);
+		hasher.putInt(string.length());
+		hasher.putString(string, Charsets.UTF_8);
+	}
+}
@@ -0,0 +1,385 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+import de.crowdcode.kissmda.core.Context;
+
+/**
+ * Persistent cache for loaded UML models. All file resources of a loaded
+ * resource set (the model and its profiles) are stored in the EMF binary
+ * format. Each cache entry is a directory named by the hash of the content of
+ * every input resource and the generator version, so a changed model or
+ * profile is never read from the cache.
+ * 
+ * For each model an index file lists the input resources of the last load, so
+ * the key can be computed before the model is loaded. Entries are evicted by
+ * age and afterwards by size, the least recently used entries first.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class ModelCache {
+
+	private static final Logger logger = Logger.getLogger(ModelCache.class
+			.getName());
+
+	/**
+	 * Version of the cache layout, part of every key.
+	 */
+	static final String CACHE_FORMAT_VERSION = "1";
+
+	static final String INDEX_FILE_SUFFIX = ".index";
+
+	static final String BINARY_FILE_SUFFIX = ".bin";
+
+	static final String RESOURCE_PROPERTY_PREFIX = "resource.";
+
+	private static final String FILE_SCHEME = "file";
+
+	private static final String ARCHIVE_SCHEME = "archive";
+
+	private final File directory;
+
+	private final String version;
+
+	private final long maxSize;
+
+	private final long maxAge;
+
+	/**
+	 * Create the model cache with the settings of the context.
+	 * 
+	 * @param context
+	 *            context with the model cache settings
+	 */
+	public ModelCache(Context context) {
+		this(new File(context.getModelCacheDirectory()), context
+				.getGeneratorVersion(), context.getModelCacheMaxSize(), context
+				.getModelCacheMaxAge());
+	}
+
+	/**
+	 * Create the model cache.
+	 * 
+	 * @param directory
+	 *            directory of the cache
+	 * @param version
+	 *            generator version, part of the key
+	 * @param maxSize
+	 *            maximum size in bytes, 0 for no limit
+	 * @param maxAge
+	 *            maximum age in milliseconds, 0 for no limit
+	 */
+	public ModelCache(File directory, String version, long maxSize, long maxAge) {
+		this.directory = directory;
+		this.version = version;
+		this.maxSize = maxSize;
+		this.maxAge = maxAge;
+	}
+
+	/**
+	 * Look up the binary forms of the model and its profiles.
+	 * 
+	 * @param modelUri
+	 *            URI of the model
+	 * @return map of resource URI to binary location or null if the cache
+	 *         does not contain the current content of the model
+	 */
+	public Map<URI, URL> lookup(URI modelUri) {
+		File indexFile = getIndexFile(modelUri);
+		if (!indexFile.isFile()) {
+			return null;
+		}
+
+		try {
+			List<URI> resourceUris = readResourceUris(indexFile);
+			String key = computeKey(resourceUris);
+			if (key == null) {
+				return null;
+			}
+
+			File entryDirectory = new File(directory, key);
+			Map<URI, URL> binaryLocations = new LinkedHashMap<URI, URL>();
+			for (int index = 0; index < resourceUris.size(); index++) {
+				File binaryFile = new File(entryDirectory, index
+						+ BINARY_FILE_SUFFIX);
+				if (!binaryFile.isFile()) {
+					return null;
+				}
+				binaryLocations.put(resourceUris.get(index), binaryFile.toURI()
+						.toURL());
+			}
+
+			// Mark the entry as recently used
+			entryDirectory.setLastModified(System.currentTimeMillis());
+			logger.log(Level.INFO, "Model cache hit: " + key);
+			return binaryLocations;
+		} catch (IOException e) {
+			logger.log(Level.WARNING,
+					"Cannot read the model cache: " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Store all loaded file resources of the resource set.
+	 * 
+	 * @param modelUri
+	 *            URI of the model
+	 * @param resourceSet
+	 *            resource set with the loaded model
+	 */
+	public void store(URI modelUri, ResourceSet resourceSet) {
+		List<BinaryUmlResource> resources = new ArrayList<BinaryUmlResource>();
+		List<URI> resourceUris = new ArrayList<URI>();
+		for (Resource resource : resourceSet.getResources()) {
+			// Profiles served from the classpath have no file to be hashed
+			File file = getFile(resource.getURI());
+			if (resource instanceof BinaryUmlResource && resource.isLoaded()
+					&& file != null && file.isFile()) {
+				resources.add((BinaryUmlResource) resource);
+				resourceUris.add(resource.getURI());
+			}
+		}
+
+		try {
+			String key = computeKey(resourceUris);
+			if (key == null) {
+				return;
+			}
+
+			File entryDirectory = new File(directory, key);
+			entryDirectory.mkdirs();
+			for (int index = 0; index < resources.size(); index++) {
+				File binaryFile = new File(entryDirectory, index
+						+ BINARY_FILE_SUFFIX);
+				OutputStream outputStream = new BufferedOutputStream(
+						new FileOutputStream(binaryFile));
+				try {
+					resources.get(index).saveBinary(outputStream);
+				} finally {
+					outputStream.close();
+				}
+			}
+			writeResourceUris(getIndexFile(modelUri), resourceUris);
+			logger.log(Level.INFO, "Model cache stored: " + key);
+
+			evict(entryDirectory);
+		} catch (IOException e) {
+			logger.log(Level.WARNING,
+					"Cannot write the model cache: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Evict old entries and afterwards the least recently used entries until
+	 * the cache fits in the maximum size.
+	 * 
+	 * @param currentEntryDirectory
+	 *            entry which should be kept
+	 */
+	void evict(File currentEntryDirectory) {
+		File[] entryDirectories = directory.listFiles();
+		if (entryDirectories == null) {
+			return;
+		}
+
+		Arrays.sort(entryDirectories, new Comparator<File>() {
+			@Override
+			public int compare(File first, File second) {
+				return Long.valueOf(first.lastModified()).compareTo(
+						second.lastModified());
+			}
+		});
+
+		long now = System.currentTimeMillis();
+		long totalSize = 0;
+		List<File> entries = new ArrayList<File>();
+		for (File entryDirectory : entryDirectories) {
+			if (!entryDirectory.isDirectory()
+					|| entryDirectory.equals(currentEntryDirectory)) {
+				continue;
+			}
+			if (maxAge > 0 && now - entryDirectory.lastModified() > maxAge) {
+				delete(entryDirectory);
+			} else {
+				entries.add(entryDirectory);
+				totalSize += getSize(entryDirectory);
+			}
+		}
+
+		if (maxSize > 0) {
+			totalSize += getSize(currentEntryDirectory);
+			for (File entryDirectory : entries) {
+				if (totalSize <= maxSize) {
+					break;
+				}
+				totalSize -= getSize(entryDirectory);
+				delete(entryDirectory);
+			}
+		}
+	}
+
+	/**
+	 * Compute the key of the given resources.
+	 * 
+	 * @param resourceUris
+	 *            URIs of the input resources
+	 * @return key as hex String or null if a resource does not exist
+	 * @throws IOException
+	 *             error reading the resources
+	 */
+	String computeKey(List<URI> resourceUris) throws IOException {
+		Hasher hasher = Hashing.sha1().newHasher();
+		hasher.putString(CACHE_FORMAT_VERSION, Charsets.UTF_8);
+		hasher.putString(String.valueOf(version), Charsets.UTF_8);
+		// All entries of an archive share the hash of the archive file
+		Map<File, HashCode> fileHashes = new HashMap<File, HashCode>();
+		for (URI resourceUri : resourceUris) {
+			File file = getFile(resourceUri);
+			if (file == null || !file.isFile()) {
+				return null;
+			}
+			HashCode fileHash = fileHashes.get(file);
+			if (fileHash == null) {
+				fileHash = Files.hash(file, Hashing.sha1());
+				fileHashes.put(file, fileHash);
+			}
+			hasher.putString(resourceUri.toString(), Charsets.UTF_8);
+			hasher.putBytes(fileHash.asBytes());
+		}
+		return hasher.hash().toString();
+	}
+
+	/**
+	 * Get the file which holds the content of the resource. Resources in zip
+	 * archives are held by the archive file.
+	 * 
+	 * @param resourceUri
+	 *            URI of the resource
+	 * @return file or null if the resource is not stored in a file
+	 */
+	File getFile(URI resourceUri) {
+		if (ARCHIVE_SCHEME.equals(resourceUri.scheme())) {
+			// archive:file:/model.mdzip!/entry.uml
+			String authority = resourceUri.authority();
+			resourceUri = URI.createURI(authority.substring(0,
+					authority.length() - 1));
+		}
+		if (FILE_SCHEME.equals(resourceUri.scheme())) {
+			return new File(resourceUri.toFileString());
+		}
+		return null;
+	}
+
+	File getIndexFile(URI modelUri) {
+		String name = Hashing.sha1()
+				.hashString(modelUri.toString(), Charsets.UTF_8).toString();
+		return new File(directory, name + INDEX_FILE_SUFFIX);
+	}
+
+	private List<URI> readResourceUris(File indexFile) throws IOException {
+		Properties properties = new Properties();
+		InputStream inputStream = new FileInputStream(indexFile);
+		try {
+			properties.load(inputStream);
+		} finally {
+			inputStream.close();
+		}
+
+		List<URI> resourceUris = new ArrayList<URI>();
+		for (int index = 0;; index++) {
+			String resourceUri = properties.getProperty(RESOURCE_PROPERTY_PREFIX
+					+ index);
+			if (resourceUri == null) {
+				break;
+			}
+			resourceUris.add(URI.createURI(resourceUri));
+		}
+		return resourceUris;
+	}
+
+	private void writeResourceUris(File indexFile, List<URI> resourceUris)
+			throws IOException {
+		Properties properties = new Properties();
+		for (int index = 0; index < resourceUris.size(); index++) {
+			properties.setProperty(RESOURCE_PROPERTY_PREFIX + index,
+					resourceUris.get(index).toString());
+		}
+
+		OutputStream outputStream = new FileOutputStream(indexFile);
+		try {
+			properties.store(outputStream, "KissMDA model cache index");
+		} finally {
+			outputStream.close();
+		}
+	}
+
+	private long getSize(File entryDirectory) {
+		long size = 0;
+		File[] files = entryDirectory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				size += file.length();
+			}
+		}
+		return size;
+	}
+
+	private void delete(File entryDirectory) {
+		logger.log(Level.INFO, "Model cache evict: " + entryDirectory.getName());
+		File[] files = entryDirectory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		entryDirectory.delete();
+	}
+}
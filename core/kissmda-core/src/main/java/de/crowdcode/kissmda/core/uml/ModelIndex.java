@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.Stereotype;
+import org.eclipse.uml2.uml.util.UMLUtil;
+
+/**
+ * Index of the elements of a model by stereotype name and by UML metaclass.
+ * The index is built in one traversal of the model, so the transformers do
+ * not need to walk the model and ask every element for its stereotypes.
+ * 
+ * The element lists are in the order of the containment tree, starting with
+ * the root package.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class ModelIndex {
+
+	private final org.eclipse.uml2.uml.Package rootPackage;
+
+	private final List<Element> elements = new ArrayList<Element>();
+
+	private final Map<String, List<Element>> elementsByStereotype = new HashMap<String, List<Element>>();
+
+	private final Map<EClass, List<Element>> elementsByMetaclass = new HashMap<EClass, List<Element>>();
+
+	private final Map<Element, List<Stereotype>> stereotypesByElement = new IdentityHashMap<Element, List<Stereotype>>();
+
+	/**
+	 * Build the index of the given root package.
+	 * 
+	 * @param rootPackage
+	 *            root package of the model
+	 */
+	public ModelIndex(org.eclipse.uml2.uml.Package rootPackage) {
+		this.rootPackage = rootPackage;
+		collectStereotypeApplications();
+
+		add(rootPackage);
+		for (TreeIterator<EObject> iterator = rootPackage.eAllContents(); iterator
+				.hasNext();) {
+			EObject eObject = iterator.next();
+			if (eObject instanceof Element) {
+				add((Element) eObject);
+			} else {
+				// Annotations are not owned elements
+				iterator.prune();
+			}
+		}
+	}
+
+	/**
+	 * Get the root package of the index.
+	 * 
+	 * @return root package
+	 */
+	public org.eclipse.uml2.uml.Package getRootPackage() {
+		return rootPackage;
+	}
+
+	/**
+	 * Get all elements of the model in the order of the containment tree.
+	 * 
+	 * @return elements, starting with the root package
+	 */
+	public List<Element> getAllElements() {
+		return Collections.unmodifiableList(elements);
+	}
+
+	/**
+	 * Get all elements with the given stereotype.
+	 * 
+	 * @param stereotypeName
+	 *            name of the stereotype
+	 * @return elements, empty if no element has the stereotype
+	 */
+	public List<Element> getElements(String stereotypeName) {
+		return unmodifiable(elementsByStereotype.get(stereotypeName));
+	}
+
+	/**
+	 * Get all elements of the given UML metaclass. Elements of subclasses of
+	 * the metaclass are not included.
+	 * 
+	 * @param metaclass
+	 *            UML metaclass, e.g. UMLPackage.Literals.ENUMERATION
+	 * @return elements, empty if there is no element of the metaclass
+	 */
+	public List<Element> getElements(EClass metaclass) {
+		return unmodifiable(elementsByMetaclass.get(metaclass));
+	}
+
+	/**
+	 * Get the applied stereotypes of the element.
+	 * 
+	 * @param element
+	 *            UML element
+	 * @return stereotypes, empty if the element has no stereotype
+	 */
+	public List<Stereotype> getAppliedStereotypes(Element element) {
+		return unmodifiable(stereotypesByElement.get(element));
+	}
+
+	/**
+	 * Check whether the element has the given stereotype.
+	 * 
+	 * @param element
+	 *            UML element
+	 * @param stereotypeName
+	 *            name of the stereotype
+	 * @return true if the stereotype is applied to the element
+	 */
+	public boolean hasStereotype(Element element, String stereotypeName) {
+		for (Stereotype stereotype : getAppliedStereotypes(element)) {
+			if (stereotypeName.equals(stereotype.getName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Get the names of all applied stereotypes.
+	 * 
+	 * @return names of the stereotypes
+	 */
+	public Set<String> getStereotypeNames() {
+		return Collections.unmodifiableSet(elementsByStereotype.keySet());
+	}
+
+	/**
+	 * The stereotype applications are root objects of the resources, so they
+	 * can be collected without asking every element for its stereotypes.
+	 */
+	private void collectStereotypeApplications() {
+		Resource modelResource = rootPackage.eResource();
+		ResourceSet resourceSet = modelResource == null ? null : modelResource
+				.getResourceSet();
+		List<Resource> resources = resourceSet == null ? Collections
+				.singletonList(modelResource) : resourceSet.getResources();
+		for (Resource resource : new ArrayList<Resource>(resources)) {
+			if (resource == null) {
+				continue;
+			}
+			for (EObject eObject : resource.getContents()) {
+				if (eObject instanceof Element) {
+					continue;
+				}
+				Stereotype stereotype = UMLUtil.getStereotype(eObject);
+				Element baseElement = UMLUtil.getBaseElement(eObject);
+				if (stereotype != null && baseElement != null) {
+					List<Stereotype> stereotypes = stereotypesByElement
+							.get(baseElement);
+					if (stereotypes == null) {
+						stereotypes = new ArrayList<Stereotype>(1);
+						stereotypesByElement.put(baseElement, stereotypes);
+					}
+					stereotypes.add(stereotype);
+				}
+			}
+		}
+	}
+
+	private void add(Element element) {
+		elements.add(element);
+		put(elementsByMetaclass, element.eClass(), element);
+		List<Stereotype> stereotypes = stereotypesByElement.get(element);
+		if (stereotypes != null) {
+			for (Stereotype stereotype : stereotypes) {
+				put(elementsByStereotype, stereotype.getName(), element);
+			}
+		}
+	}
+
+	private <K> void put(Map<K, List<Element>> map, K key, Element element) {
+		List<Element> elements = map.get(key);
+		if (elements == null) {
+			elements = new ArrayList<Element>();
+			map.put(key, elements);
+		}
+		elements.add(element);
+	}
+
+	private <T> List<T> unmodifiable(List<T> list) {
+		if (list == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(list);
+	}
+}
@@ -0,0 +1,340 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.inject.Inject;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+
+import de.crowdcode.kissmda.core.Context;
+
+/**
+ * Repository for the loaded UML models. The repository is bound as singleton
+ * in the core module, so the model and all of its referenced profiles are
+ * parsed only once per execution and the same root package is handed to every
+ * transformer.
+ * 
+ * If the model cache is enabled in the context, the binary forms of the model
+ * and its profiles are read from the {@link ModelCache} instead of parsing the
+ * XMI files.
+ * 
+ * The source model may also be a zip archive (.mdzip or .zip) which contains
+ * the model and its profiles as UML XMI entries. The model entry is read
+ * directly from the archive and the profile references are resolved inside
+ * the same archive. A certain entry can be chosen with
+ * <code>model.mdzip!/entry.uml</code>.
+ * 
+ * If lazy profiles are enabled in the context, the profiles are loaded only
+ * for the stereotypes given to {@link #resolveStereotypes(String...)}. The
+ * model cache is not used in this case.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class ModelRepository {
+
+	private static final String FILE_PROTOCOL = "file:/";
+
+	private static final String ARCHIVE_PROTOCOL = "archive:";
+
+	private static final String ARCHIVE_SEPARATOR = "!/";
+
+	private static final String[] ARCHIVE_EXTENSIONS = { ".mdzip", ".zip" };
+
+	private static final String MODEL_EXTENSION = ".uml";
+
+	private static final String PROFILE_EXTENSION = ".profile.uml";
+
+	private static final Logger logger = Logger.getLogger(ModelRepository.class
+			.getName());
+
+	@Inject
+	private ReaderWriter readerWriter;
+
+	private final Map<String, org.eclipse.uml2.uml.Package> rootPackages = new HashMap<String, org.eclipse.uml2.uml.Package>();
+
+	private boolean registered = false;
+
+	private final Map<String, ModelIndex> modelIndexes = new HashMap<String, ModelIndex>();
+
+	private DeferredProfileResolver deferredProfileResolver;
+
+	/**
+	 * Get the root package of the source model from the context. The model is
+	 * loaded at the first call, all further calls get the same package.
+	 * 
+	 * @param context
+	 *            context of the transformer
+	 * @return UML2 package
+	 * @throws URISyntaxException
+	 */
+	public synchronized org.eclipse.uml2.uml.Package getRootPackage(
+			Context context) throws URISyntaxException {
+		String sourceModel = context.getSourceModel();
+		org.eclipse.uml2.uml.Package outPackage = rootPackages.get(sourceModel);
+		if (outPackage == null) {
+			outPackage = load(context);
+			if (outPackage != null) {
+				rootPackages.put(sourceModel, outPackage);
+			}
+		} else {
+			logger.log(Level.INFO, "Reuse already loaded sourceModel: "
+					+ sourceModel);
+		}
+
+		return outPackage;
+	}
+
+	/**
+	 * Get the index of the source model from the context. The index is built
+	 * at the first call, all further calls get the same index.
+	 * 
+	 * @param context
+	 *            context of the transformer
+	 * @return index of the model
+	 * @throws URISyntaxException
+	 */
+	public synchronized ModelIndex getModelIndex(Context context)
+			throws URISyntaxException {
+		String sourceModel = context.getSourceModel();
+		ModelIndex modelIndex = modelIndexes.get(sourceModel);
+		if (modelIndex == null) {
+			org.eclipse.uml2.uml.Package rootPackage = getRootPackage(context);
+			if (rootPackage != null) {
+				modelIndex = new ModelIndex(rootPackage);
+				modelIndexes.put(sourceModel, modelIndex);
+			}
+		}
+		return modelIndex;
+	}
+
+	/**
+	 * Resolve the profiles of the given stereotypes if the profiles are loaded
+	 * lazily.
+	 * 
+	 * @param stereotypeNames
+	 *            names of the stereotypes
+	 */
+	public synchronized void resolveStereotypes(String... stereotypeNames) {
+		if (deferredProfileResolver != null) {
+			deferredProfileResolver.resolve(stereotypeNames);
+			// The indexes do not know the new stereotype applications
+			modelIndexes.clear();
+		}
+	}
+
+	/**
+	 * Get the profiles which have never been loaded.
+	 * 
+	 * @return names of the profile resources, empty if the profiles are not
+	 *         loaded lazily
+	 */
+	public synchronized Set<String> getUntouchedProfiles() {
+		if (deferredProfileResolver == null) {
+			return Collections.emptySet();
+		}
+		return deferredProfileResolver.getUntouchedProfiles();
+	}
+
+	/**
+	 * Check whether the source model has already been loaded.
+	 * 
+	 * @param sourceModel
+	 *            source model from the context
+	 * @return true if the model is already loaded
+	 */
+	public synchronized boolean isLoaded(String sourceModel) {
+		return rootPackages.containsKey(sourceModel);
+	}
+
+	/**
+	 * Create the URI of the source model. Models in zip archives get an
+	 * archive URI which points to the model entry.
+	 * 
+	 * @param sourceModel
+	 *            source model from the context
+	 * @return URI of the model
+	 * @throws URISyntaxException
+	 *             the archive cannot be read or contains no UML model
+	 */
+	URI createUri(String sourceModel) throws URISyntaxException {
+		String archiveName = sourceModel;
+		String entryName = null;
+		int separatorIndex = sourceModel.indexOf(ARCHIVE_SEPARATOR);
+		if (separatorIndex >= 0) {
+			archiveName = sourceModel.substring(0, separatorIndex);
+			entryName = sourceModel.substring(separatorIndex
+					+ ARCHIVE_SEPARATOR.length());
+		} else if (!isArchive(sourceModel)) {
+			return URI.createURI(FILE_PROTOCOL + sourceModel);
+		}
+
+		File archiveFile = new File(archiveName);
+		if (entryName == null) {
+			entryName = findModelEntry(archiveFile);
+		}
+
+		URI archiveUri = URI.createFileURI(archiveFile.getAbsolutePath());
+		StringBuilder uriString = new StringBuilder(ARCHIVE_PROTOCOL)
+				.append(archiveUri).append('!');
+		for (String segment : entryName.split("/")) {
+			uriString.append('/').append(URI.encodeSegment(segment, false));
+		}
+		return URI.createURI(uriString.toString());
+	}
+
+	private boolean isArchive(String sourceModel) {
+		String lowerCaseSourceModel = sourceModel.toLowerCase();
+		for (String archiveExtension : ARCHIVE_EXTENSIONS) {
+			if (lowerCaseSourceModel.endsWith(archiveExtension)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Find the UML model entry in the archive: the entry with the name of the
+	 * archive or else the first model entry by name. Only the central
+	 * directory of the archive is read, the entries are not extracted.
+	 */
+	private String findModelEntry(File archiveFile) throws URISyntaxException {
+		String archiveName = archiveFile.getName();
+		String preferredEntry = archiveName.substring(0,
+				archiveName.lastIndexOf('.'))
+				+ MODEL_EXTENSION;
+		try {
+			ZipFile zipFile = new ZipFile(archiveFile);
+			try {
+				String modelEntry = null;
+				for (Enumeration<? extends ZipEntry> entries = zipFile
+						.entries(); entries.hasMoreElements();) {
+					String name = entries.nextElement().getName();
+					if (name.equals(preferredEntry)) {
+						return name;
+					}
+					if (name.endsWith(MODEL_EXTENSION)
+							&& !name.endsWith(PROFILE_EXTENSION)
+							&& (modelEntry == null || name
+									.compareTo(modelEntry) < 0)) {
+						modelEntry = name;
+					}
+				}
+				if (modelEntry == null) {
+					// Native MagicDraw projects contain no UML XMI entries
+					throw new URISyntaxException(archiveFile.getPath(),
+							"The archive contains no UML model entry, "
+									+ "export the model as Eclipse UML2 XMI");
+				}
+				return modelEntry;
+			} finally {
+				zipFile.close();
+			}
+		} catch (IOException e) {
+			throw new URISyntaxException(archiveFile.getPath(),
+					"Cannot read the archive: " + e.getMessage());
+		}
+	}
+
+	private org.eclipse.uml2.uml.Package load(Context context)
+			throws URISyntaxException {
+		String sourceModel = context.getSourceModel();
+		logger.log(Level.INFO, "Get from following sourceModel: " + sourceModel);
+		URI uri = createUri(sourceModel);
+		logger.log(Level.INFO, "Get from following URI: " + uri);
+		if (!registered) {
+			readerWriter.registerSchema();
+			readerWriter.registerResourceFactories();
+			readerWriter.registerPathmaps();
+			if (context.isModelCacheEnabled()) {
+				// The cache stores the binary forms of the loaded resources
+				readerWriter.registerBinaryResourceFactory();
+			}
+			if (context.isFastLoadEnabled()) {
+				readerWriter.registerFastLoadOptions();
+			}
+			if (context.isLazyProfilesEnabled()) {
+				readerWriter.registerDeferredProfiles();
+				deferredProfileResolver = new DeferredProfileResolver(
+						readerWriter.getResourceSet());
+			}
+			registered = true;
+		}
+
+		if (!context.isModelCacheEnabled()) {
+			return readerWriter.load(uri);
+		}
+		if (deferredProfileResolver != null) {
+			// The placeholders of the stereotype applications cannot be cached
+			logger.log(Level.INFO,
+					"Model cache is not used with lazy profiles");
+			return readerWriter.load(uri);
+		}
+
+		// Try the binary forms from the model cache first
+		ModelCache modelCache = new ModelCache(context);
+		Map<URI, URL> binaryLocations = modelCache.lookup(uri);
+		if (binaryLocations != null) {
+			// Resources of other models, e.g. shared profiles, stay loaded
+			Set<URI> cachedUris = new HashSet<URI>(binaryLocations.keySet());
+			for (Resource resource : readerWriter.getResourceSet()
+					.getResources()) {
+				cachedUris.remove(resource.getURI());
+			}
+			readerWriter.registerBinaryResources(binaryLocations);
+			try {
+				org.eclipse.uml2.uml.Package outPackage = readerWriter
+						.load(uri);
+				if (outPackage != null) {
+					return outPackage;
+				}
+			} catch (RuntimeException e) {
+				logger.log(Level.WARNING, "Model cache error: " + e.getMessage());
+			}
+			logger.log(Level.WARNING,
+					"Model cache cannot be read, load the model from XMI: "
+							+ sourceModel);
+			readerWriter.unregisterBinaryResources(binaryLocations.keySet());
+			readerWriter.unload(cachedUris);
+		}
+
+		org.eclipse.uml2.uml.Package outPackage = readerWriter.load(uri);
+		if (outPackage != null) {
+			modelCache.store(uri, readerWriter.getResourceSet());
+		}
+		return outPackage;
+	}
+}
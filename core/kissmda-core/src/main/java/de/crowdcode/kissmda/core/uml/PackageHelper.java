@@ -24,8 +24,6 @@ import java.util.logging.Logger;
 
 import javax.inject.Inject;
 
-import org.apache.commons.lang3.StringUtils;
-import org.eclipse.emf.common.util.URI;
 import org.eclipse.uml2.uml.Classifier;
 
 import de.crowdcode.kissmda.core.Context;
@@ -39,16 +37,29 @@ import de.crowdcode.kissmda.core.Context;
  */
 public class PackageHelper {
 
-	private static final String FILE_PROTOCOL = "file:/";
-
 	private static final Logger logger = Logger.getLogger(PackageHelper.class
 			.getName());
 
 	@Inject
-	private ReaderWriter readerWriter;
+	private ModelRepository modelRepository;
+
+	private final PackageNameResolver packageNameResolver;
 
 	/**
-	 * Get root package.
+	 * Create the helper with the resolver of the package names, which is
+	 * shared by all helpers, so its caches are filled only once.
+	 * 
+	 * @param packageNameResolver
+	 *            resolver of the package names
+	 */
+	@Inject
+	public PackageHelper(PackageNameResolver packageNameResolver) {
+		this.packageNameResolver = packageNameResolver;
+	}
+
+	/**
+	 * Get root package. The model is loaded only once per execution by the
+	 * {@link ModelRepository}.
 	 * 
 	 * @param context
 	 *            context of the transformer
@@ -57,20 +68,37 @@ public class PackageHelper {
 	 */
 	public org.eclipse.uml2.uml.Package getRootPackage(Context context)
 			throws URISyntaxException {
-		logger.log(Level.INFO,
-				"Get from following sourceModel: " + context.getSourceModel());
-		String uriString = FILE_PROTOCOL + context.getSourceModel();
-		logger.log(Level.INFO, "Get from following URI: " + uriString);
-		URI uri = URI.createURI(uriString);
-		readerWriter.registerSchema();
-		readerWriter.registerResourceFactories();
-		readerWriter.registerPathmaps();
-
-		org.eclipse.uml2.uml.Package outPackage = readerWriter.load(uri);
+		org.eclipse.uml2.uml.Package outPackage = modelRepository
+				.getRootPackage(context);
 
 		return outPackage;
 	}
 
+	/**
+	 * Get the index of the model by stereotype and metaclass. The index is
+	 * built only once per execution by the {@link ModelRepository}.
+	 * 
+	 * @param context
+	 *            context of the transformer
+	 * @return index of the model
+	 * @throws URISyntaxException
+	 */
+	public ModelIndex getModelIndex(Context context) throws URISyntaxException {
+		return modelRepository.getModelIndex(context);
+	}
+
+	/**
+	 * Resolve the profiles of the given stereotypes. If the profiles are
+	 * loaded lazily, a transformer has to call this method before it asks the
+	 * elements for these stereotypes.
+	 * 
+	 * @param stereotypeNames
+	 *            names of the stereotypes used by the transformer
+	 */
+	public void resolveStereotypes(String... stereotypeNames) {
+		modelRepository.resolveStereotypes(stereotypeNames);
+	}
+
 	/**
 	 * Get full package name.
 	 * 
@@ -84,15 +112,11 @@ public class PackageHelper {
 			String sourceDirectoryPackageName) {
 		// Get package until the beginning of SourceDirectory
 		logger.log(Level.FINE, "Qualified name: " + clazz.getQualifiedName());
-		// Remove the sourceDirectoryPackageName
-		String toBeDeleted = sourceDirectoryPackageName + "::";
-		String fullPackageName = clazz.getQualifiedName().replaceFirst(
-				toBeDeleted, "");
-		// Remove class name
-		toBeDeleted = "::" + clazz.getName();
-		fullPackageName = fullPackageName.replaceFirst(toBeDeleted, "");
-		// Change :: to .
-		fullPackageName = fullPackageName.replaceAll("::", ".");
+		// Remove the sourceDirectoryPackageName and the class name, change ::
+		// to .
+		String fullPackageName = packageNameResolver.getFullPackageName(
+				clazz.getQualifiedName(), clazz.getName(),
+				sourceDirectoryPackageName);
 		logger.log(Level.FINE, "Real package name: " + fullPackageName);
 		return fullPackageName;
 	}
@@ -111,13 +135,10 @@ public class PackageHelper {
 			String sourceDirectoryPackageName) {
 		// Get package until the beginning of SourceDirectory
 		logger.log(Level.FINE, "Qualified name: " + umlPackageNameWithClass);
-		// Remove UML prefixes
-		String packageName = removeUmlPrefixes(umlPackageNameWithClass);
-		// Remove the sourceDirectoryPackageName
-		String toBeDeleted = sourceDirectoryPackageName + "::";
-		String fullPackageName = packageName.replace(toBeDeleted, "");
-		// Change :: to .
-		fullPackageName = fullPackageName.replaceAll("::", ".");
+		// Remove UML prefixes and the sourceDirectoryPackageName, change :: to
+		// .
+		String fullPackageName = packageNameResolver.getFullPackageName(
+				umlPackageNameWithClass, sourceDirectoryPackageName);
 		logger.log(Level.FINE, "Real package name: " + fullPackageName);
 		return fullPackageName;
 	}
@@ -130,27 +151,6 @@ public class PackageHelper {
 	 * @return clean type name
 	 */
 	public String removeUmlPrefixes(final String fullQualifiedName) {
-		// MagicDraw specific prefixes...
-		String result = fullQualifiedName.replace(
-				UmlTypePrefix.MAGIC_DRAW_PROFILE_DATATYPES.getValue(), "");
-		result = result.replace(UmlTypePrefix.UML_PRIMITIVE_TYPES.getValue(),
-				"");
-		result = result.replace(UmlTypePrefix.JAVA_PRIMITIVE_TYPES.getValue(),
-				"");
-		result = result.replace(
-				UmlTypePrefix.VALIDATION_PROFILE_OCL_LIBRARY.getValue(), "");
-
-		// Name dataype and dataype-bindings
-		if (StringUtils
-				.contains(result, UmlTypePrefix.DATA_DATATYPE.getValue())) {
-			result = result.replace(UmlTypePrefix.DATA_DATATYPE.getValue(), "");
-		}
-		if (StringUtils.contains(result,
-				UmlTypePrefix.DATA_DATATYPE_BINDINGS.getValue())) {
-			result = result.replace(
-					UmlTypePrefix.DATA_DATATYPE_BINDINGS.getValue(), "");
-		}
-
-		return result;
+		return packageNameResolver.removeUmlPrefixes(fullQualifiedName);
 	}
 }
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Resolve Java package names from UML qualified names without regular
+ * expressions. The {@link UmlTypePrefix} values are removed in one pass over
+ * the name and "::" is changed to a dot in a second pass. The results are
+ * cached by qualified name, the resolver is thread safe.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class PackageNameResolver {
+
+	private static final String SEPARATOR = "::";
+
+	private static final String[] PREFIXES;
+
+	private static final String PREFIX_FIRST_CHARACTERS;
+
+	static {
+		UmlTypePrefix[] umlTypePrefixes = UmlTypePrefix.values();
+		PREFIXES = new String[umlTypePrefixes.length];
+		StringBuilder firstCharacters = new StringBuilder();
+		for (int index = 0; index < umlTypePrefixes.length; index++) {
+			PREFIXES[index] = umlTypePrefixes[index].getValue();
+			firstCharacters.append(PREFIXES[index].charAt(0));
+		}
+		PREFIX_FIRST_CHARACTERS = firstCharacters.toString();
+	}
+
+	private final ConcurrentMap<String, String> namesWithoutPrefixes = new ConcurrentHashMap<String, String>();
+
+	private final ConcurrentMap<String, ConcurrentMap<String, String>> packageNames = new ConcurrentHashMap<String, ConcurrentMap<String, String>>();
+
+	private final ConcurrentMap<String, ConcurrentMap<String, String>> classifierPackageNames = new ConcurrentHashMap<String, ConcurrentMap<String, String>>();
+
+	/**
+	 * Remove all UML type prefixes from the name.
+	 * 
+	 * @param qualifiedName
+	 *            UML qualified name, also with template parameters
+	 * @return name without the prefixes
+	 */
+	public String removeUmlPrefixes(String qualifiedName) {
+		String result = namesWithoutPrefixes.get(qualifiedName);
+		if (result == null) {
+			result = stripPrefixes(qualifiedName);
+			namesWithoutPrefixes.putIfAbsent(qualifiedName, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Get the full package name of a UML type name. The UML prefixes and all
+	 * occurrences of the sourceDirectoryPackageName are removed, "::" is
+	 * changed to a dot.
+	 * 
+	 * @param umlPackageNameWithClass
+	 *            UML2 package name with classifier as String
+	 * @param sourceDirectoryPackageName
+	 *            from the stereotype
+	 * @return full package name
+	 */
+	public String getFullPackageName(String umlPackageNameWithClass,
+			String sourceDirectoryPackageName) {
+		ConcurrentMap<String, String> cache = getCache(packageNames,
+				sourceDirectoryPackageName);
+		String result = cache.get(umlPackageNameWithClass);
+		if (result == null) {
+			result = toPackageName(removeUmlPrefixes(umlPackageNameWithClass),
+					sourceDirectoryPackageName + SEPARATOR);
+			cache.putIfAbsent(umlPackageNameWithClass, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Get the full package name of a classifier. The first occurrence of the
+	 * sourceDirectoryPackageName and of the classifier name are removed, "::"
+	 * is changed to a dot. The qualified name of a classifier always ends with
+	 * its name, so the result is cached by the qualified name.
+	 * 
+	 * @param qualifiedName
+	 *            qualified name of the classifier
+	 * @param name
+	 *            name of the classifier
+	 * @param sourceDirectoryPackageName
+	 *            from the stereotype
+	 * @return full package name
+	 */
+	public String getFullPackageName(String qualifiedName, String name,
+			String sourceDirectoryPackageName) {
+		ConcurrentMap<String, String> cache = getCache(classifierPackageNames,
+				sourceDirectoryPackageName);
+		String result = cache.get(qualifiedName);
+		if (result == null) {
+			result = StringUtils.replaceOnce(qualifiedName,
+					sourceDirectoryPackageName + SEPARATOR, "");
+			result = StringUtils.replaceOnce(result, SEPARATOR + name, "");
+			result = StringUtils.replace(result, SEPARATOR, ".");
+			cache.putIfAbsent(qualifiedName, result);
+		}
+		return result;
+	}
+
+	private ConcurrentMap<String, String> getCache(
+			ConcurrentMap<String, ConcurrentMap<String, String>> caches,
+			String sourceDirectoryPackageName) {
+		// No null keys in a ConcurrentHashMap. A missing SourceDirectory is
+		// resolved with the prefix "null::", like the name "null".
+		String key = String.valueOf(sourceDirectoryPackageName);
+		ConcurrentMap<String, String> cache = caches.get(key);
+		if (cache == null) {
+			cache = new ConcurrentHashMap<String, String>();
+			ConcurrentMap<String, String> existingCache = caches.putIfAbsent(
+					key, cache);
+			if (existingCache != null) {
+				cache = existingCache;
+			}
+		}
+		return cache;
+	}
+
+	private String stripPrefixes(String name) {
+		StringBuilder result = null;
+		int start = 0;
+		int index = 0;
+		while (index < name.length()) {
+			String prefix = null;
+			if (PREFIX_FIRST_CHARACTERS.indexOf(name.charAt(index)) >= 0) {
+				prefix = findPrefix(name, index);
+			}
+			if (prefix == null) {
+				index++;
+				continue;
+			}
+			if (result == null) {
+				result = new StringBuilder(name.length());
+			}
+			result.append(name, start, index);
+			index += prefix.length();
+			start = index;
+		}
+		if (result == null) {
+			// Most names have no prefix at all
+			return name;
+		}
+		return result.append(name, start, name.length()).toString();
+	}
+
+	private String findPrefix(String name, int index) {
+		for (String prefix : PREFIXES) {
+			if (name.startsWith(prefix, index)) {
+				return prefix;
+			}
+		}
+		return null;
+	}
+
+	private String toPackageName(String name, String sourceDirectoryPrefix) {
+		if (name.indexOf(':') < 0) {
+			return name;
+		}
+		StringBuilder result = new StringBuilder(name.length());
+		int index = 0;
+		while (index < name.length()) {
+			if (name.startsWith(sourceDirectoryPrefix, index)) {
+				index += sourceDirectoryPrefix.length();
+			} else if (name.startsWith(SEPARATOR, index)) {
+				result.append('.');
+				index += SEPARATOR.length();
+			} else {
+				result.append(name.charAt(index));
+				index++;
+			}
+		}
+		return result.toString();
+	}
+}
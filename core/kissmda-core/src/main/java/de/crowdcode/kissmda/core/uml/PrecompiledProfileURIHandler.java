@@ -0,0 +1,331 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.impl.URIHandlerImpl;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+/**
+ * URI handler which serves profiles from their precompiled binary form on the
+ * classpath. The profile modules ship the binary profiles together with an
+ * index, see {@link ProfilePrecompiler}.
+ * 
+ * A profile location is resolved to a precompiled profile in this order:
+ * <ul>
+ * <li>pathmap://KISSMDA_PROFILES/&lt;file name&gt; is served directly.</li>
+ * <li>An XMI copy of the profile is only replaced if it has the same content
+ * as the precompiled profile. A differing copy is parsed as before, because
+ * models reference profile elements by XMI id.</li>
+ * <li>Without a copy the namespace URI which the model declares for the
+ * location is used, see {@link #expectProfile(String, URI)}. The profiles
+ * shipped together with a served profile are expected next to it.</li>
+ * <li>Otherwise, e.g. for a model from the model cache, a location with no
+ * declared namespace URI is served if exactly one precompiled profile has its
+ * file name.</li>
+ * </ul>
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class PrecompiledProfileURIHandler extends URIHandlerImpl {
+
+	private static final Logger logger = Logger
+			.getLogger(PrecompiledProfileURIHandler.class.getName());
+
+	/**
+	 * Pathmap of the precompiled profiles, followed by the file name of the
+	 * profile.
+	 */
+	public static final String PROFILES_PATHMAP = "pathmap://KISSMDA_PROFILES/";
+
+	private static final String FILE_SCHEME = "file";
+
+	private final ClassLoader classLoader;
+
+	private final Map<String, PrecompiledProfile> profilesByHash = new HashMap<String, PrecompiledProfile>();
+
+	/**
+	 * Namespace URI to the first precompiled profile on the classpath.
+	 */
+	private final Map<String, PrecompiledProfile> profilesByNsUri = new HashMap<String, PrecompiledProfile>();
+
+	private final Map<String, List<PrecompiledProfile>> profilesByFileName = new HashMap<String, List<PrecompiledProfile>>();
+
+	/**
+	 * Sizes of the XMI sources, only copies with one of these sizes are
+	 * hashed.
+	 */
+	private final Set<Long> profileSizes = new HashSet<Long>();
+
+	/**
+	 * Location of a profile to the namespace URI declared for it.
+	 */
+	private final Map<URI, String> expectedNsUris = new HashMap<URI, String>();
+
+	/**
+	 * URI of an XMI copy to the precompiled profile with the same content,
+	 * null if the copy is not handled.
+	 */
+	private final Map<URI, PrecompiledProfile> copies = new HashMap<URI, PrecompiledProfile>();
+
+	/**
+	 * Create the handler with all precompiled profiles of the class loader.
+	 * 
+	 * @param classLoader
+	 *            class loader with the profile modules
+	 */
+	public PrecompiledProfileURIHandler(ClassLoader classLoader) {
+		this.classLoader = classLoader;
+		try {
+			Enumeration<URL> indexes = classLoader
+					.getResources(ProfilePrecompiler.INDEX_LOCATION);
+			while (indexes.hasMoreElements()) {
+				readIndex(indexes.nextElement());
+			}
+		} catch (IOException e) {
+			logger.log(Level.WARNING, "Cannot read the precompiled profiles: "
+					+ e.getMessage());
+		}
+	}
+
+	/**
+	 * Are there any precompiled profiles on the classpath?
+	 * 
+	 * @return true if precompiled profiles are available
+	 */
+	public boolean hasProfiles() {
+		return !profilesByHash.isEmpty();
+	}
+
+	/**
+	 * Record the namespace URI which a model declares for a profile location,
+	 * e.g. in its xsi:schemaLocation. If a precompiled profile has this
+	 * namespace URI, the profiles shipped together with it are expected in
+	 * the same directory.
+	 * 
+	 * @param nsUri
+	 *            namespace URI of the profile definition
+	 * @param location
+	 *            absolute location of the profile
+	 */
+	synchronized void expectProfile(String nsUri, URI location) {
+		URI uri = location.trimFragment();
+		if (!FILE_SCHEME.equals(uri.scheme())) {
+			return;
+		}
+		expectedNsUris.put(uri, nsUri);
+		PrecompiledProfile profile = profilesByNsUri.get(nsUri);
+		if (profile != null) {
+			expectSiblings(uri, profile);
+		}
+	}
+
+	@Override
+	public synchronized boolean canHandle(URI uri) {
+		return getProfile(uri) != null;
+	}
+
+	@Override
+	public InputStream createInputStream(URI uri, Map<?, ?> options)
+			throws IOException {
+		PrecompiledProfile profile;
+		synchronized (this) {
+			profile = getProfile(uri);
+			if (profile == null) {
+				throw new IOException("No precompiled profile for: " + uri);
+			}
+			if (FILE_SCHEME.equals(uri.scheme())) {
+				expectSiblings(uri, profile);
+			}
+		}
+		logger.log(Level.FINE, "Load precompiled profile: " + uri + " as "
+				+ profile.nsUri);
+		URL binaryUrl = classLoader.getResource(getBinaryLocation(profile.hash));
+		return new BufferedInputStream(binaryUrl.openStream());
+	}
+
+	@Override
+	public boolean exists(URI uri, Map<?, ?> options) {
+		return canHandle(uri);
+	}
+
+	/**
+	 * Get the precompiled profile for a profile location.
+	 * 
+	 * @param uri
+	 *            location of the profile
+	 * @return precompiled profile or null if the location is not handled
+	 */
+	private PrecompiledProfile getProfile(URI uri) {
+		String fileName = uri.lastSegment();
+		if (fileName == null
+				|| !fileName.endsWith(ProfilePrecompiler.PROFILE_FILE_SUFFIX)) {
+			return null;
+		}
+		if (uri.toString().startsWith(PROFILES_PATHMAP)) {
+			return getProfile(fileName);
+		}
+		if (!FILE_SCHEME.equals(uri.scheme())) {
+			return null;
+		}
+
+		File file = new File(uri.toFileString());
+		if (file.isFile()) {
+			if (!copies.containsKey(uri)) {
+				copies.put(uri, getProfile(file));
+			}
+			return copies.get(uri);
+		}
+		if (expectedNsUris.containsKey(uri)) {
+			return profilesByNsUri.get(expectedNsUris.get(uri));
+		}
+		return getProfile(fileName);
+	}
+
+	/**
+	 * Get the precompiled profile which has the same content as the XMI copy.
+	 * 
+	 * @param file
+	 *            XMI copy of the profile
+	 * @return precompiled profile or null if no precompiled profile has the
+	 *         same content
+	 */
+	private PrecompiledProfile getProfile(File file) {
+		if (!profileSizes.contains(file.length())) {
+			return null;
+		}
+		try {
+			return profilesByHash.get(Files.hash(file, Hashing.sha1())
+					.toString());
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Get the only precompiled profile with the file name.
+	 * 
+	 * @param fileName
+	 *            file name of the XMI source
+	 * @return precompiled profile or null if no or several precompiled
+	 *         profiles have the file name
+	 */
+	private PrecompiledProfile getProfile(String fileName) {
+		List<PrecompiledProfile> profiles = profilesByFileName.get(fileName);
+		return profiles != null && profiles.size() == 1 ? profiles.get(0)
+				: null;
+	}
+
+	private void expectSiblings(URI uri, PrecompiledProfile profile) {
+		URI directory = uri.trimSegments(1);
+		for (PrecompiledProfile sibling : profile.siblings) {
+			URI siblingUri = directory.appendSegment(sibling.fileName);
+			if (!expectedNsUris.containsKey(siblingUri)) {
+				expectedNsUris.put(siblingUri, sibling.nsUri);
+			}
+		}
+	}
+
+	private void readIndex(URL indexUrl) throws IOException {
+		Properties index = new Properties();
+		InputStream inputStream = indexUrl.openStream();
+		try {
+			index.load(inputStream);
+		} finally {
+			inputStream.close();
+		}
+
+		List<PrecompiledProfile> siblings = new ArrayList<PrecompiledProfile>();
+		for (String key : index.stringPropertyNames()) {
+			if (!key.endsWith(ProfilePrecompiler.INDEX_NS_URI_SUFFIX)) {
+				continue;
+			}
+			String hash = key.substring(0, key.length()
+					- ProfilePrecompiler.INDEX_NS_URI_SUFFIX.length());
+			if (profilesByHash.containsKey(hash)
+					|| classLoader.getResource(getBinaryLocation(hash)) == null) {
+				continue;
+			}
+			PrecompiledProfile profile = new PrecompiledProfile(hash,
+					index.getProperty(key), index.getProperty(hash
+							+ ProfilePrecompiler.INDEX_FILE_NAME_SUFFIX),
+					siblings);
+			profilesByHash.put(hash, profile);
+			if (!profilesByNsUri.containsKey(profile.nsUri)) {
+				profilesByNsUri.put(profile.nsUri, profile);
+			}
+			if (!profilesByFileName.containsKey(profile.fileName)) {
+				profilesByFileName.put(profile.fileName,
+						new ArrayList<PrecompiledProfile>());
+			}
+			profilesByFileName.get(profile.fileName).add(profile);
+			profileSizes.add(Long.valueOf(index.getProperty(hash
+					+ ProfilePrecompiler.INDEX_SIZE_SUFFIX)));
+			siblings.add(profile);
+		}
+	}
+
+	private String getBinaryLocation(String hash) {
+		return ProfilePrecompiler.BINARY_DIRECTORY + hash
+				+ ProfilePrecompiler.BINARY_FILE_SUFFIX;
+	}
+
+	/**
+	 * Precompiled profile from an index. The siblings are all profiles of the
+	 * same index, they reference each other by file name.
+	 */
+	private static class PrecompiledProfile {
+
+		final String hash;
+
+		final String nsUri;
+
+		final String fileName;
+
+		final List<PrecompiledProfile> siblings;
+
+		PrecompiledProfile(String hash, String nsUri, String fileName,
+				List<PrecompiledProfile> siblings) {
+			this.hash = hash;
+			this.nsUri = nsUri;
+			this.fileName = fileName;
+			this.siblings = siblings;
+		}
+	}
+}
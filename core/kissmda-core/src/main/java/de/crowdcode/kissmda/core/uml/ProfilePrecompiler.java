@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.uml2.uml.Profile;
+import org.eclipse.uml2.uml.UMLPackage;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+/**
+ * Precompiler for UML profiles. All profiles of a source directory are loaded
+ * from XMI and stored in the EMF binary format. The profile modules run this
+ * class at build time, so the binary profiles are shipped in their jar files
+ * and can be found by the {@link PrecompiledProfileURIHandler}.
+ * 
+ * Each binary profile is stored under the SHA-1 of its XMI source. The index
+ * is keyed by this hash and lists the namespace URI of the profile definition,
+ * the file name and the size of the XMI source, so several exports of a
+ * profile with the same file name or namespace URI can be shipped together.
+ * References between the profiles are stored relative to the profile, so the
+ * binary profiles can be used from every directory.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class ProfilePrecompiler {
+
+	private static final Logger logger = Logger
+			.getLogger(ProfilePrecompiler.class.getName());
+
+	static final String PROFILE_FILE_SUFFIX = ".profile.uml";
+
+	/**
+	 * Index of the precompiled profiles. The keys are the SHA-1 of the XMI
+	 * source followed by one of the index suffixes.
+	 */
+	static final String INDEX_LOCATION = "META-INF/kissmda/profiles.properties";
+
+	static final String INDEX_NS_URI_SUFFIX = ".nsUri";
+
+	static final String INDEX_FILE_NAME_SUFFIX = ".fileName";
+
+	static final String INDEX_SIZE_SUFFIX = ".size";
+
+	static final String BINARY_DIRECTORY = "META-INF/kissmda/profiles/";
+
+	static final String BINARY_FILE_SUFFIX = ".bin";
+
+	/**
+	 * Precompile the profiles.
+	 * 
+	 * @param args
+	 *            source directory with the XMI profiles and output directory,
+	 *            e.g. target/classes
+	 * @throws IOException
+	 *             error reading or writing the profiles
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			throw new IllegalArgumentException(
+					"Usage: ProfilePrecompiler <sourceDirectory> <outputDirectory>");
+		}
+		new ProfilePrecompiler().precompile(new File(args[0]),
+				new File(args[1]));
+	}
+
+	/**
+	 * Load all profiles from the source directory and write their binary form
+	 * into the output directory.
+	 * 
+	 * @param sourceDirectory
+	 *            directory with the XMI profiles
+	 * @param outputDirectory
+	 *            output directory, e.g. target/classes
+	 * @throws IOException
+	 *             error reading or writing the profiles
+	 */
+	public void precompile(File sourceDirectory, File outputDirectory)
+			throws IOException {
+		File[] profileFiles = sourceDirectory.listFiles(new FilenameFilter() {
+			@Override
+			public boolean accept(File dir, String name) {
+				return name.endsWith(PROFILE_FILE_SUFFIX);
+			}
+		});
+		if (profileFiles == null || profileFiles.length == 0) {
+			logger.log(Level.INFO, "No profiles to precompile in: "
+					+ sourceDirectory);
+			return;
+		}
+		Arrays.sort(profileFiles);
+
+		ReaderWriter readerWriter = new ReaderWriter();
+		readerWriter.registerSchema();
+		readerWriter.registerResourceFactories();
+		readerWriter.registerBinaryResourceFactory();
+		readerWriter.registerPathmaps();
+
+		File binaryDirectory = new File(outputDirectory, BINARY_DIRECTORY);
+		binaryDirectory.mkdirs();
+		Properties index = new Properties();
+		for (File profileFile : profileFiles) {
+			logger.log(Level.INFO, "Precompile profile: " + profileFile);
+			URI uri = URI.createFileURI(profileFile.getAbsolutePath());
+			Resource resource = readerWriter.getResourceSet().getResource(uri,
+					true);
+			String nsUri = getNsUri(resource);
+			if (nsUri == null) {
+				logger.log(Level.WARNING, "Profile is not defined, skipped: "
+						+ profileFile);
+				continue;
+			}
+
+			String hash = Files.hash(profileFile, Hashing.sha1()).toString();
+			File binaryFile = new File(binaryDirectory, hash
+					+ BINARY_FILE_SUFFIX);
+			OutputStream outputStream = new BufferedOutputStream(
+					new FileOutputStream(binaryFile));
+			try {
+				((BinaryUmlResource) resource).saveBinary(outputStream);
+			} finally {
+				outputStream.close();
+			}
+			index.setProperty(hash + INDEX_NS_URI_SUFFIX, nsUri);
+			index.setProperty(hash + INDEX_FILE_NAME_SUFFIX,
+					profileFile.getName());
+			index.setProperty(hash + INDEX_SIZE_SUFFIX,
+					String.valueOf(profileFile.length()));
+		}
+
+		OutputStream outputStream = new FileOutputStream(new File(
+				outputDirectory, INDEX_LOCATION));
+		try {
+			index.store(outputStream, "KissMDA precompiled profiles");
+		} finally {
+			outputStream.close();
+		}
+	}
+
+	/**
+	 * Get the namespace URI of the profile definition in the resource.
+	 * 
+	 * @param resource
+	 *            loaded profile resource
+	 * @return namespace URI or null if the resource has no defined profile
+	 */
+	String getNsUri(Resource resource) {
+		Profile profile = (Profile) EcoreUtil.getObjectByType(
+				resource.getContents(), UMLPackage.Literals.PROFILE);
+		if (profile == null) {
+			return null;
+		}
+		EPackage definition = profile.getDefinition();
+		return definition == null ? null : definition.getNsURI();
+	}
+}
@@ -20,7 +20,11 @@ package de.crowdcode.kissmda.core.uml;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -31,8 +35,12 @@ import org.eclipse.emf.common.util.WrappedException;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIHandler;
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMLParserPool;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.XMLParserPoolImpl;
 import org.eclipse.uml2.uml.Element;
 import org.eclipse.uml2.uml.UMLPackage;
 import org.eclipse.uml2.uml.resource.UMLResource;
@@ -58,6 +66,13 @@ public class ReaderWriter {
 
 	protected final ResourceSet resourceSet = new ResourceSetImpl();
 
+	protected final BinaryResourceURIHandler binaryResourceURIHandler = new BinaryResourceURIHandler();
+
+	/**
+	 * Parser pool shared by all fast loads.
+	 */
+	private static final XMLParserPool PARSER_POOL = new XMLParserPoolImpl();
+
 	protected void out(String output) {
 		logger.log(Level.FINE, output);
 	}
@@ -76,6 +91,116 @@ public class ReaderWriter {
 				.put(UMLResource.FILE_EXTENSION, UMLResource.Factory.INSTANCE);
 	}
 
+	/**
+	 * Register the resource factory for UML resources which can also be loaded
+	 * from and saved in the EMF binary format. The model cache, the
+	 * precompiled profiles and the deferred profiles need these resources. A
+	 * binary resource factory which is already registered, e.g. by the fast
+	 * load options, is kept.
+	 */
+	public void registerBinaryResourceFactory() {
+		Map<String, Object> extensionToFactoryMap = resourceSet
+				.getResourceFactoryRegistry().getExtensionToFactoryMap();
+		Object factory = extensionToFactoryMap.get(UMLResource.FILE_EXTENSION);
+		if (!(factory instanceof BinaryUmlResourceFactory)) {
+			extensionToFactoryMap.put(UMLResource.FILE_EXTENSION,
+					new BinaryUmlResourceFactory());
+		}
+	}
+
+	/**
+	 * Register the fast load options for all resources of the resource set:
+	 * pooled XML parsers, deferred IDREF resolution, a shared XML name to
+	 * feature map, intrinsic id to EObject maps and a URI to resource map.
+	 */
+	public void registerFastLoadOptions() {
+		Map<Object, Object> loadOptions = resourceSet.getLoadOptions();
+		loadOptions.put(XMLResource.OPTION_USE_PARSER_POOL, PARSER_POOL);
+		loadOptions.put(XMLResource.OPTION_DEFER_IDREF_RESOLUTION,
+				Boolean.TRUE);
+		loadOptions.put(XMLResource.OPTION_USE_XML_NAME_TO_FEATURE_MAP,
+				new HashMap<Object, Object>());
+		loadOptions.put(XMLResource.OPTION_USE_DEPRECATED_METHODS,
+				Boolean.FALSE);
+
+		((ResourceSetImpl) resourceSet)
+				.setURIResourceMap(new HashMap<URI, Resource>());
+		resourceSet
+				.getResourceFactoryRegistry()
+				.getExtensionToFactoryMap()
+				.put(UMLResource.FILE_EXTENSION,
+						new BinaryUmlResourceFactory(true));
+	}
+
+	/**
+	 * Register the deferred loading of profiles. Stereotype applications are
+	 * kept as placeholders until the {@link DeferredProfileResolver} resolves
+	 * their profiles.
+	 */
+	public void registerDeferredProfiles() {
+		registerBinaryResourceFactory();
+		resourceSet.getLoadOptions().put(
+				BinaryUmlResource.OPTION_DEFER_PROFILES, Boolean.TRUE);
+	}
+
+	/**
+	 * Register binary forms of resources. The resources will be loaded from
+	 * the binary form instead of parsing their XMI.
+	 * 
+	 * @param binaryLocations
+	 *            map of resource URI to the location of the binary form
+	 */
+	public void registerBinaryResources(Map<URI, URL> binaryLocations) {
+		registerBinaryResourceFactory();
+		EList<URIHandler> uriHandlers = resourceSet.getURIConverter()
+				.getURIHandlers();
+		if (!uriHandlers.contains(binaryResourceURIHandler)) {
+			uriHandlers.add(0, binaryResourceURIHandler);
+		}
+		binaryResourceURIHandler.putAll(binaryLocations);
+	}
+
+	/**
+	 * Unregister binary forms of resources, so the resources will be loaded
+	 * from XMI again.
+	 * 
+	 * @param resourceUris
+	 *            URIs of the resources
+	 */
+	public void unregisterBinaryResources(Collection<URI> resourceUris) {
+		binaryResourceURIHandler.removeAll(resourceUris);
+	}
+
+	/**
+	 * Unload and remove the resources with the given URIs, e.g. after a failed
+	 * load from their binary forms, so the next load starts from scratch. All
+	 * other resources of the resource set stay loaded.
+	 * 
+	 * @param resourceUris
+	 *            URIs of the resources
+	 */
+	public void unload(Collection<URI> resourceUris) {
+		List<Resource> removedResources = new ArrayList<Resource>();
+		for (Iterator<Resource> resources = resourceSet.getResources()
+				.iterator(); resources.hasNext();) {
+			Resource resource = resources.next();
+			if (resourceUris.contains(resource.getURI())) {
+				resource.unload();
+				resources.remove();
+				removedResources.add(resource);
+			}
+		}
+		Map<URI, Resource> uriResourceMap = ((ResourceSetImpl) resourceSet)
+				.getURIResourceMap();
+		if (uriResourceMap != null) {
+			uriResourceMap.values().removeAll(removedResources);
+		}
+	}
+
+	public ResourceSet getResourceSet() {
+		return resourceSet;
+	}
+
 	public void registerPathmaps() {
 		// We check one of UML library to be able to create the URI without
 		// the absolute jar file like this:
@@ -95,6 +220,29 @@ public class ReaderWriter {
 				.appendSegment("metamodels").appendSegment(""));
 		uriMap.put(URI.createURI(UMLResource.PROFILES_PATHMAP), uri
 				.appendSegment("profiles").appendSegment(""));
+
+		registerPrecompiledProfiles();
+	}
+
+	/**
+	 * Register the precompiled binary profiles of the profile modules on the
+	 * classpath, so they do not need to be parsed from XMI.
+	 */
+	protected void registerPrecompiledProfiles() {
+		EList<URIHandler> uriHandlers = resourceSet.getURIConverter()
+				.getURIHandlers();
+		for (URIHandler uriHandler : uriHandlers) {
+			if (uriHandler instanceof PrecompiledProfileURIHandler) {
+				return;
+			}
+		}
+
+		PrecompiledProfileURIHandler precompiledProfileURIHandler = new PrecompiledProfileURIHandler(
+				ReaderWriter.class.getClassLoader());
+		if (precompiledProfileURIHandler.hasProfiles()) {
+			registerBinaryResourceFactory();
+			uriHandlers.add(0, precompiledProfileURIHandler);
+		}
 	}
 
 	public void save(org.eclipse.uml2.uml.Package packageInput, URI uri) {
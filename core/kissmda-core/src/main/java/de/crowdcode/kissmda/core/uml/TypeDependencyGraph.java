@@ -0,0 +1,314 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.uml2.uml.Classifier;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.Generalization;
+import org.eclipse.uml2.uml.InterfaceRealization;
+import org.eclipse.uml2.uml.Operation;
+import org.eclipse.uml2.uml.TemplateBinding;
+import org.eclipse.uml2.uml.TemplateParameterSubstitution;
+import org.eclipse.uml2.uml.Type;
+import org.eclipse.uml2.uml.TypedElement;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Function;
+import com.google.common.hash.Hashing;
+
+/**
+ * Dependencies between the classifiers of a model. A classifier depends on
+ * the types of its attributes and operation parameters, the raised exceptions
+ * of its operations, its generalizations and interface realizations and the
+ * templates and actual parameters of its template bindings.
+ * 
+ * The graph is built in one walk over the model and holds both directions.
+ * Cycles, e.g. Person and Address referencing each other, are allowed.
+ * 
+ * The closure fingerprints are computed once for each strongly connected
+ * component of the graph, i.e. each cycle, in reverse topological order, so
+ * all fingerprints of the model take linear time.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class TypeDependencyGraph {
+
+	private final Map<Classifier, Set<Classifier>> dependencies = new HashMap<Classifier, Set<Classifier>>();
+
+	private final Map<Classifier, Set<Classifier>> dependents = new HashMap<Classifier, Set<Classifier>>();
+
+	private final Map<Classifier, String> closureFingerprints = new HashMap<Classifier, String>();
+
+	/**
+	 * Build the graph of all classifiers of the model index.
+	 * 
+	 * @param modelIndex
+	 *            index of the model
+	 */
+	public TypeDependencyGraph(ModelIndex modelIndex) {
+		for (Element element : modelIndex.getAllElements()) {
+			if (element instanceof Classifier) {
+				addDependencies((Classifier) element);
+			}
+		}
+	}
+
+	/**
+	 * Get the classifiers the classifier references directly.
+	 * 
+	 * @param classifier
+	 *            UML2 classifier
+	 * @return classifiers, empty if there is none
+	 */
+	public Set<Classifier> getDependencies(Classifier classifier) {
+		return unmodifiable(dependencies.get(classifier));
+	}
+
+	/**
+	 * Get the classifiers which reference the classifier directly.
+	 * 
+	 * @param classifier
+	 *            UML2 classifier
+	 * @return classifiers, empty if there is none
+	 */
+	public Set<Classifier> getDependents(Classifier classifier) {
+		return unmodifiable(dependents.get(classifier));
+	}
+
+	/**
+	 * Get all classifiers the classifier depends on directly or indirectly.
+	 * A generated file of the classifier only needs to be generated again if
+	 * the classifier itself or one of these classifiers changed.
+	 * 
+	 * @param classifier
+	 *            UML2 classifier
+	 * @return classifiers without the classifier itself
+	 */
+	public Set<Classifier> getDependencyClosure(Classifier classifier) {
+		Set<Classifier> closure = closure(
+				Collections.singleton(classifier), dependencies);
+		closure.remove(classifier);
+		return closure;
+	}
+
+	/**
+	 * Get the combined fingerprint of the classifier and all classifiers it
+	 * depends on directly or indirectly. It changes if any of these
+	 * classifiers changes. All classifiers of a cycle share one fingerprint.
+	 * 
+	 * @param classifier
+	 *            UML2 classifier
+	 * @param fingerprint
+	 *            fingerprint of a single classifier, called once for each
+	 *            classifier of the graph
+	 * @return closure fingerprint as hex String
+	 */
+	public String getClosureFingerprint(Classifier classifier,
+			Function<Classifier, String> fingerprint) {
+		if (!closureFingerprints.containsKey(classifier)) {
+			computeClosureFingerprints(classifier, fingerprint);
+		}
+		return closureFingerprints.get(classifier);
+	}
+
+	private void addDependencies(Classifier classifier) {
+		for (TreeIterator<EObject> iterator = classifier.eAllContents(); iterator
+				.hasNext();) {
+			EObject eObject = iterator.next();
+			if (eObject instanceof TypedElement) {
+				addDependency(classifier, ((TypedElement) eObject).getType());
+			} else if (eObject instanceof Operation) {
+				addDependency(classifier,
+						((Operation) eObject).getRaisedExceptions());
+			} else if (eObject instanceof Generalization) {
+				addDependency(classifier,
+						((Generalization) eObject).getGeneral());
+			} else if (eObject instanceof InterfaceRealization) {
+				addDependency(classifier,
+						((InterfaceRealization) eObject).getContract());
+			} else if (eObject instanceof TemplateBinding) {
+				TemplateBinding templateBinding = (TemplateBinding) eObject;
+				if (templateBinding.getSignature() != null) {
+					addDependency(classifier, templateBinding.getSignature()
+							.getTemplate());
+				}
+			} else if (eObject instanceof TemplateParameterSubstitution) {
+				addDependency(classifier,
+						((TemplateParameterSubstitution) eObject).getActual());
+			}
+		}
+	}
+
+	private void addDependency(Classifier classifier,
+			Collection<? extends Type> types) {
+		for (Type type : types) {
+			addDependency(classifier, type);
+		}
+	}
+
+	private void addDependency(Classifier classifier, Object dependency) {
+		if (!(dependency instanceof Classifier) || dependency == classifier) {
+			return;
+		}
+		Classifier dependencyClassifier = (Classifier) dependency;
+		put(dependencies, classifier, dependencyClassifier);
+		put(dependents, dependencyClassifier, classifier);
+	}
+
+	private void put(Map<Classifier, Set<Classifier>> map, Classifier key,
+			Classifier value) {
+		Set<Classifier> values = map.get(key);
+		if (values == null) {
+			values = new LinkedHashSet<Classifier>();
+			map.put(key, values);
+		}
+		values.add(value);
+	}
+
+	private Set<Classifier> closure(Collection<? extends Classifier> start,
+			Map<Classifier, Set<Classifier>> edges) {
+		// Each classifier is visited once, so cycles end the walk
+		Set<Classifier> closure = new LinkedHashSet<Classifier>(start);
+		Deque<Classifier> queue = new ArrayDeque<Classifier>(start);
+		while (!queue.isEmpty()) {
+			Set<Classifier> next = edges.get(queue.poll());
+			if (next == null) {
+				continue;
+			}
+			for (Classifier classifier : next) {
+				if (closure.add(classifier)) {
+					queue.add(classifier);
+				}
+			}
+		}
+		return closure;
+	}
+
+	/**
+	 * Find the strongly connected components reachable from the classifier
+	 * with the algorithm of Tarjan. A component is complete after all
+	 * components it depends on, so their fingerprints can be combined. The
+	 * walk is iterative, so long dependency chains do not overflow the stack.
+	 */
+	private void computeClosureFingerprints(Classifier start,
+			Function<Classifier, String> fingerprint) {
+		Map<Classifier, Integer> indexes = new HashMap<Classifier, Integer>();
+		Map<Classifier, Integer> lowLinks = new HashMap<Classifier, Integer>();
+		Deque<Classifier> componentStack = new ArrayDeque<Classifier>();
+		Set<Classifier> onComponentStack = new HashSet<Classifier>();
+		Deque<Classifier> path = new ArrayDeque<Classifier>();
+		Deque<Iterator<Classifier>> pathIterators = new ArrayDeque<Iterator<Classifier>>();
+
+		Classifier next = start;
+		while (next != null || !path.isEmpty()) {
+			if (next != null) {
+				indexes.put(next, indexes.size());
+				lowLinks.put(next, indexes.get(next));
+				componentStack.push(next);
+				onComponentStack.add(next);
+				path.push(next);
+				pathIterators.push(getDependencies(next).iterator());
+				next = null;
+				continue;
+			}
+
+			Classifier classifier = path.peek();
+			Iterator<Classifier> iterator = pathIterators.peek();
+			if (iterator.hasNext()) {
+				Classifier dependency = iterator.next();
+				if (closureFingerprints.containsKey(dependency)) {
+					continue;
+				}
+				if (!indexes.containsKey(dependency)) {
+					next = dependency;
+				} else if (onComponentStack.contains(dependency)) {
+					lowLinks.put(classifier, Math.min(
+							lowLinks.get(classifier), indexes.get(dependency)));
+				}
+				continue;
+			}
+
+			path.pop();
+			pathIterators.pop();
+			if (!path.isEmpty()) {
+				lowLinks.put(path.peek(), Math.min(lowLinks.get(path.peek()),
+						lowLinks.get(classifier)));
+			}
+			if (lowLinks.get(classifier).equals(indexes.get(classifier))) {
+				Set<Classifier> component = new LinkedHashSet<Classifier>();
+				Classifier member;
+				do {
+					member = componentStack.pop();
+					onComponentStack.remove(member);
+					component.add(member);
+				} while (member != classifier);
+				String componentFingerprint = getComponentFingerprint(
+						component, fingerprint);
+				for (Classifier componentMember : component) {
+					closureFingerprints.put(componentMember,
+							componentFingerprint);
+				}
+			}
+		}
+	}
+
+	private String getComponentFingerprint(Set<Classifier> component,
+			Function<Classifier, String> fingerprint) {
+		List<String> fingerprints = new ArrayList<String>();
+		Set<String> dependencyFingerprints = new TreeSet<String>();
+		for (Classifier member : component) {
+			fingerprints.add(fingerprint.apply(member));
+			for (Classifier dependency : getDependencies(member)) {
+				if (!component.contains(dependency)) {
+					dependencyFingerprints.add(closureFingerprints
+							.get(dependency));
+				}
+			}
+		}
+		Collections.sort(fingerprints);
+		return Hashing.sha1()
+				.hashString(fingerprints + " " + dependencyFingerprints,
+						Charsets.UTF_8).toString();
+	}
+
+	private Set<Classifier> unmodifiable(Set<Classifier> set) {
+		if (set == null) {
+			return Collections.emptySet();
+		}
+		return Collections.unmodifiableSet(set);
+	}
+}
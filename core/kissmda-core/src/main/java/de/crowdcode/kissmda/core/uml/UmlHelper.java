@@ -20,12 +20,14 @@ package de.crowdcode.kissmda.core.uml;
 
 import de.crowdcode.kissmda.core.jdt.DataTypeUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
 import org.eclipse.emf.common.util.BasicEList;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.EMap;
 import org.eclipse.emf.common.util.UniqueEList;
 import org.eclipse.emf.ecore.EAnnotation;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.emf.ecore.xmi.XMLResource;
 import org.eclipse.uml2.uml.*;
 import org.eclipse.uml2.uml.Class;
@@ -43,6 +45,13 @@ import java.util.logging.Logger;
  * Helper class for the helper extension of the JavaBasic-Generator. See:
  * http://goo.gl/W13i8
  * 
+ * The flattened attributes, operations and associations of an interface
+ * hierarchy are computed once and kept in an adapter of the interface. The
+ * full qualified names of all types are computed in one pass over the model
+ * and kept in an adapter of the root element. So the caches live as long as
+ * the model. The model must not be changed after the features and names are
+ * collected.
+ * 
  * @author Thorsten Kamann <thorsten.kamann@googlemail.com>
  * @author Andre Neumann <andre.v.neumann@gmx.de>
  * @author Lofi Dewanto
@@ -77,6 +86,14 @@ public class UmlHelper {
 	 * @return The full qualified name as <code>java.lang.String</code>
 	 */
 	public String getFQNPackageName(Type type) {
+		String packageName = getQualifiedNames(type).packageNames.get(type);
+		if (packageName == null) {
+			packageName = computeFQNPackageName(type);
+		}
+		return packageName;
+	}
+
+	private String computeFQNPackageName(Type type) {
 		String pn = "";
 		Package p = findNearestPackage(type);
 		while (p != null) {
@@ -122,8 +139,12 @@ public class UmlHelper {
 	 * @return The full qualified path as <code>java.lang.String</code>
 	 */
 	public String getFQNPackagePath(Type type) {
-		String path = getFQNPackageName(type);
-		path = path.replaceAll("\\.", "/");
+		Map<Type, String> packagePaths = getQualifiedNames(type).packagePaths;
+		String path = packagePaths.get(type);
+		if (path == null) {
+			path = getFQNPackageName(type).replace('.', '/');
+			packagePaths.put(type, path);
+		}
 		return path;
 	}
 
@@ -136,6 +157,15 @@ public class UmlHelper {
 	 * @return The full qualified name as <code>java.lang.String</code>
 	 */
 	public String getFQNComponentName(Type type) {
+		String componentName = getQualifiedNames(type).componentNames
+				.get(type);
+		if (componentName == null) {
+			componentName = computeFQNComponentName(type);
+		}
+		return componentName;
+	}
+
+	private String computeFQNComponentName(Type type) {
 		String pn = "";
 		Component cp = null;
 		// looking for start component
@@ -165,8 +195,12 @@ public class UmlHelper {
 	 * @return The full qualified path as <code>java.lang.String</code>
 	 */
 	public String getFQNComponentPath(Type type) {
-		String path = getFQNComponentName(type);
-		path = path.replaceAll("\\.", "/");
+		Map<Type, String> componentPaths = getQualifiedNames(type).componentPaths;
+		String path = componentPaths.get(type);
+		if (path == null) {
+			path = getFQNComponentName(type).replace('.', '/');
+			componentPaths.put(type, path);
+		}
 		return path;
 	}
 
@@ -190,6 +224,59 @@ public class UmlHelper {
 		}
 	}
 
+	/**
+	 * Get the full qualified names of the model of the element. The names of
+	 * all types are computed in one pass from the root element down, so the
+	 * name of the owner is always known before the name of an element.
+	 * 
+	 * @param element
+	 *            The element of the model
+	 * @return The full qualified names of the model
+	 */
+	private QualifiedNames getQualifiedNames(Element element) {
+		EObject root = EcoreUtil.getRootContainer(element);
+		QualifiedNames qualifiedNames = (QualifiedNames) EcoreUtil
+				.getExistingAdapter(root, QualifiedNames.class);
+		if (qualifiedNames != null) {
+			return qualifiedNames;
+		}
+
+		qualifiedNames = new QualifiedNames();
+		Map<Package, String> packageNames = new IdentityHashMap<Package, String>();
+		Map<Component, String> componentNames = new IdentityHashMap<Component, String>();
+		for (Iterator<EObject> iter = EcoreUtil.getAllContents(
+				Collections.singleton(root), false); iter.hasNext();) {
+			EObject eObject = iter.next();
+			if (eObject instanceof Package && !(eObject instanceof Model)
+					&& !(eObject instanceof Profile)) {
+				Package p = (Package) eObject;
+				Package parent = findNearestPackage(p);
+				packageNames.put(p, parent == null ? String.valueOf(p
+						.getName()) : packageNames.get(parent) + "."
+						+ p.getName());
+			}
+			if (eObject instanceof Component) {
+				Component cp = (Component) eObject;
+				Component parent = findNearestComponent(cp);
+				componentNames.put(cp, parent == null ? String.valueOf(cp
+						.getName()) : componentNames.get(parent) + "."
+						+ cp.getName());
+			}
+			if (eObject instanceof Type) {
+				Type type = (Type) eObject;
+				Package p = findNearestPackage(type);
+				qualifiedNames.packageNames.put(type,
+						p == null ? "" : packageNames.get(p));
+				Component cp = type instanceof Component ? (Component) type
+						: findNearestComponent(type);
+				qualifiedNames.componentNames.put(type,
+						cp == null ? "" : componentNames.get(cp));
+			}
+		}
+		root.eAdapters().add(qualifiedNames);
+		return qualifiedNames;
+	}
+
 	/**
 	 * Get XmiId.
 	 * 
@@ -209,17 +296,15 @@ public class UmlHelper {
 	 * @return An <code>EList</code> with all collected attributes
 	 */
 	public EList<Property> getAllAttributes(Classifier classifier) {
-		EList<Property> attributes = new UniqueEList<Property>();
-
-		attributes.addAll(classifier.getAttributes());
+		Set<Property> attributes = new LinkedHashSet<Property>(
+				classifier.getAttributes());
 		if (classifier instanceof org.eclipse.uml2.uml.Class) {
 			Class clazz = (Class) classifier;
-			for (int i = 0; i < clazz.getImplementedInterfaces().size(); i++) {
-				attributes.addAll(getAllInterfaceAttributes(clazz
-						.getImplementedInterfaces().get(i)));
+			for (Interface iFace : clazz.getImplementedInterfaces()) {
+				attributes.addAll(getFlattenedFeatures(iFace).attributes);
 			}
 		}
-		return attributes;
+		return new BasicEList<Property>(attributes);
 	}
 
 	/**
@@ -230,17 +315,15 @@ public class UmlHelper {
 	 * @return An <code>EList</code> with all collected operations
 	 */
 	public EList<Operation> getAllOperations(Classifier classifier) {
-		EList<Operation> operations = new UniqueEList<Operation>();
-
-		operations.addAll(classifier.getOperations());
+		Set<Operation> operations = new LinkedHashSet<Operation>(
+				classifier.getOperations());
 		if (classifier instanceof org.eclipse.uml2.uml.Class) {
 			Class clazz = (Class) classifier;
-			for (int i = 0; i < clazz.getImplementedInterfaces().size(); i++) {
-				operations.addAll(getAllInterfaceOperations(clazz
-						.getImplementedInterfaces().get(i)));
+			for (Interface iFace : clazz.getImplementedInterfaces()) {
+				operations.addAll(getFlattenedFeatures(iFace).operations);
 			}
 		}
-		return operations;
+		return new BasicEList<Operation>(operations);
 	}
 
 	/**
@@ -251,25 +334,20 @@ public class UmlHelper {
 	 *            The NamedElement the dependencies should be collected
 	 * @return An <code>EList</code> with all collected dependencies
 	 */
-	@SuppressWarnings("unchecked")
+	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public EList<Dependency> getAllDependencies(NamedElement element) {
-		EList<Dependency> dependencies = new UniqueEList<Dependency>();
-
-		dependencies.addAll(element.getClientDependencies());
+		Set dependencies = new LinkedHashSet(element.getClientDependencies());
 		if (element instanceof org.eclipse.uml2.uml.Class) {
 			Class clazz = (Class) element;
-			for (int i = 0; i < clazz.getImplementedInterfaces().size(); i++) {
-				dependencies.addAll(getAllInterfaceAssociations(clazz
-						.getImplementedInterfaces().get(i)));
+			for (Interface iFace : clazz.getImplementedInterfaces()) {
+				dependencies.addAll(getFlattenedFeatures(iFace).associations);
 			}
 		}
 
-		EList<Dependency> depsFiltered = new UniqueEList<Dependency>();
-		for (Iterator<Dependency> iter = dependencies.iterator(); iter
-				.hasNext();) {
-			Dependency e = iter.next();
-			if (!(e instanceof InterfaceRealization)) {
-				depsFiltered.add(e);
+		EList<Dependency> depsFiltered = new BasicEList<Dependency>();
+		for (Object dependency : dependencies) {
+			if (!(dependency instanceof InterfaceRealization)) {
+				depsFiltered.add((Dependency) dependency);
 			}
 		}
 
@@ -283,84 +361,66 @@ public class UmlHelper {
 	 *            The classifier the associations should be collected
 	 * @return An <code>EList</code> with all collected associations
 	 */
-	@SuppressWarnings("unchecked")
 	public EList<Association> getAllAssociations(Classifier classifier) {
-		EList<Association> associations = new UniqueEList<Association>();
-
-		associations.addAll(classifier.getAssociations());
+		Set<Association> associations = new LinkedHashSet<Association>(
+				classifier.getAssociations());
 		if (classifier instanceof org.eclipse.uml2.uml.Class) {
 			Class clazz = (Class) classifier;
-			for (int i = 0; i < clazz.getImplementedInterfaces().size(); i++) {
-				associations.addAll(getAllInterfaceAssociations(clazz
-						.getImplementedInterfaces().get(i)));
-			}
-		}
-		return associations;
-	}
-
-	/**
-	 * Collects all attributes of the given interface needed to implement
-	 * (creating fields and getter/setter methods) by a implementing class.
-	 * 
-	 * @param iFace
-	 *            The interface to collect the operations from
-	 * @return An <code>EList</code> with all collected attributes
-	 */
-	private EList<Property> getAllInterfaceAttributes(Interface iFace) {
-		EList<Property> attributes = new UniqueEList<Property>();
-
-		attributes.addAll(iFace.getAllAttributes());
-		if (iFace.getGeneralizations().size() > 0) {
-			for (int i = 0; i < iFace.getGeneralizations().size(); i++) {
-				attributes.addAll(getAllInterfaceAttributes((Interface) iFace
-						.getGeneralizations().get(i).getGeneral()));
+			for (Interface iFace : clazz.getImplementedInterfaces()) {
+				associations.addAll(getFlattenedFeatures(iFace).associations);
 			}
 		}
-		return attributes;
+		return new BasicEList<Association>(associations);
 	}
 
 	/**
-	 * Collects all operation of the given interface needed to implement by a
-	 * implementing class.
+	 * Collects all attributes, operations and associations of the given
+	 * interface and its generalizations needed to implement by a implementing
+	 * class. The features are collected once per interface.
 	 * 
 	 * @param iFace
-	 *            The interface to collect the operations from
-	 * @return An <code>EList</code> with all collected operations
+	 *            The interface to collect the features from
+	 * @return The collected features
 	 */
-	private EList<Operation> getAllInterfaceOperations(Interface iFace) {
-		EList<Operation> operations = new UniqueEList<Operation>();
-
-		operations.addAll(iFace.getAllOperations());
-		if (iFace.getGeneralizations().size() > 0) {
-			for (int i = 0; i < iFace.getGeneralizations().size(); i++) {
-				operations.addAll(getAllInterfaceOperations((Interface) iFace
-						.getGeneralizations().get(i).getGeneral()));
+	private FlattenedFeatures getFlattenedFeatures(Interface iFace) {
+		FlattenedFeatures flattenedFeatures = (FlattenedFeatures) EcoreUtil
+				.getExistingAdapter(iFace, FlattenedFeatures.class);
+		if (flattenedFeatures == null) {
+			flattenedFeatures = new FlattenedFeatures();
+			Set<Interface> hierarchy = new LinkedHashSet<Interface>();
+			collectInterfaceHierarchy(iFace, hierarchy);
+			for (Interface general : hierarchy) {
+				flattenedFeatures.attributes.addAll(general.getAllAttributes());
+				flattenedFeatures.operations.addAll(general.getAllOperations());
+				flattenedFeatures.associations
+						.addAll(general.getAssociations());
 			}
+			iFace.eAdapters().add(flattenedFeatures);
 		}
-		return operations;
+		return flattenedFeatures;
 	}
 
 	/**
-	 * Collects all associations of the given interface needed to implement by a
-	 * implementing class.
+	 * Collects the interface and all interfaces it generalizes in depth-first
+	 * order. Each interface is visited once, so diamonds and cycles in the
+	 * hierarchy are walked only once.
 	 * 
 	 * @param iFace
-	 *            The interface to collect the associations from
-	 * @return An <code>EList</code> with all collected associations
+	 *            The interface to start with
+	 * @param hierarchy
+	 *            The collected interfaces
 	 */
-	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private EList getAllInterfaceAssociations(Interface iFace) {
-		EList associations = new UniqueEList();
-
-		associations.addAll(iFace.getAssociations());
-		if (iFace.getGeneralizations().size() > 0) {
-			for (int i = 0; i < iFace.getGeneralizations().size(); i++) {
-				associations
-						.addAll(getAllInterfaceAssociations((Interface) iFace
-								.getGeneralizations().get(i).getGeneral()));
+	private void collectInterfaceHierarchy(Interface iFace,
+			Set<Interface> hierarchy) {
+		if (!hierarchy.add(iFace)) {
+			return;
+		}
+		for (Generalization generalization : iFace.getGeneralizations()) {
+			if (generalization.getGeneral() instanceof Interface) {
+				collectInterfaceHierarchy(
+						(Interface) generalization.getGeneral(), hierarchy);
 			}
 		}
-		return associations;
 	}
 
 	@SuppressWarnings({ "rawtypes", "unchecked" })
@@ -672,4 +732,42 @@ public class UmlHelper {
 
 		return results;
 	}
+
+	/**
+	 * Full qualified names of the types of a model, kept as adapter of the
+	 * root element.
+	 */
+	private static class QualifiedNames extends AdapterImpl {
+
+		private final Map<Type, String> packageNames = new IdentityHashMap<Type, String>();
+
+		private final Map<Type, String> packagePaths = new IdentityHashMap<Type, String>();
+
+		private final Map<Type, String> componentNames = new IdentityHashMap<Type, String>();
+
+		private final Map<Type, String> componentPaths = new IdentityHashMap<Type, String>();
+
+		@Override
+		public boolean isAdapterForType(Object type) {
+			return type == QualifiedNames.class;
+		}
+	}
+
+	/**
+	 * Flattened features of an interface hierarchy, kept as adapter of the
+	 * interface.
+	 */
+	private static class FlattenedFeatures extends AdapterImpl {
+
+		private final Set<Property> attributes = new LinkedHashSet<Property>();
+
+		private final Set<Operation> operations = new LinkedHashSet<Operation>();
+
+		private final Set<Association> associations = new LinkedHashSet<Association>();
+
+		@Override
+		public boolean isAdapterForType(Object type) {
+			return type == FlattenedFeatures.class;
+		}
+	}
 }
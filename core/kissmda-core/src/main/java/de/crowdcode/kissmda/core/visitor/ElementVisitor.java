@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.visitor;
+
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.Stereotype;
+
+import de.crowdcode.kissmda.core.Context;
+import de.crowdcode.kissmda.core.TransformerException;
+import de.crowdcode.kissmda.core.uml.ModelIndex;
+
+/**
+ * Visitor for the elements of a model. A visitor registers its interest in
+ * stereotypes and UML metaclasses, the {@link ModelTraversal} walks the model
+ * once and gives every element to all interested visitors.
+ * 
+ * A transformer which implements this interface does not need to walk the
+ * model itself. The Maven plugin collects all visitors and lets them share one
+ * traversal in the configured order of the transformers.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public interface ElementVisitor {
+
+	/**
+	 * Get the names of the stereotypes the visitor is interested in.
+	 * 
+	 * @return names of the stereotypes, empty for none
+	 */
+	Set<String> getStereotypeNames();
+
+	/**
+	 * Get the UML metaclasses the visitor is interested in. Elements of
+	 * subclasses of the metaclasses are visited as well.
+	 * 
+	 * @return metaclasses, e.g. UMLPackage.Literals.ENUMERATION, empty for none
+	 */
+	Set<EClass> getMetaclasses();
+
+	/**
+	 * Start the visit before the first element.
+	 * 
+	 * @param context
+	 *            context of the transformer
+	 * @param modelIndex
+	 *            index of the model
+	 */
+	void startVisit(Context context, ModelIndex modelIndex)
+			throws TransformerException;
+
+	/**
+	 * Visit an element the visitor is interested in.
+	 * 
+	 * @param element
+	 *            UML element
+	 * @param stereotypes
+	 *            applied stereotypes of the element the visitor is interested
+	 *            in, empty if the element is visited because of its metaclass
+	 */
+	void visit(Element element, List<Stereotype> stereotypes)
+			throws TransformerException;
+
+	/**
+	 * End the visit after the last element.
+	 * 
+	 * @param context
+	 *            context of the transformer
+	 */
+	void endVisit(Context context) throws TransformerException;
+}
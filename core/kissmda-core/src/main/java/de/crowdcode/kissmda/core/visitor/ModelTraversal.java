@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.visitor;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.inject.Inject;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.Stereotype;
+
+import de.crowdcode.kissmda.core.Context;
+import de.crowdcode.kissmda.core.Transformer;
+import de.crowdcode.kissmda.core.TransformerException;
+import de.crowdcode.kissmda.core.file.FileWriter;
+import de.crowdcode.kissmda.core.uml.ModelIndex;
+import de.crowdcode.kissmda.core.uml.ModelRepository;
+
+/**
+ * Walk the model once and dispatch every element to all interested
+ * {@link ElementVisitor}s in the configured order.
+ * 
+ * Transformers are given to {@link #schedule(Transformer, Context)} in the
+ * configured order. Visitors are collected until a transformer which is no
+ * visitor comes or {@link #flush(Context)} is called, so the order of all
+ * transformers is kept.
+ * 
+ * Each run of transformers is a generation of the {@link FileWriter}, so the
+ * files of the last run which are not generated again are deleted with the
+ * incremental generation.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class ModelTraversal {
+
+	private static final Logger logger = Logger.getLogger(ModelTraversal.class
+			.getName());
+
+	@Inject
+	private ModelRepository modelRepository;
+
+	@Inject
+	private FileWriter fileWriter;
+
+	private final List<ElementVisitor> pendingVisitors = new ArrayList<ElementVisitor>();
+
+	/**
+	 * Schedule the transformer. A visitor waits for the next traversal, any
+	 * other transformer runs after the traversal of the waiting visitors.
+	 * 
+	 * @param transformer
+	 *            transformer to run
+	 * @param context
+	 *            context of the transformer
+	 */
+	public void schedule(Transformer transformer, Context context)
+			throws TransformerException {
+		if (transformer instanceof ElementVisitor) {
+			pendingVisitors.add((ElementVisitor) transformer);
+		} else {
+			flush(context);
+			fileWriter.startGeneration(context, transformer.getClass()
+					.getName());
+			transformer.transform(context);
+			fileWriter.finishGeneration(context);
+			logStop(transformer);
+		}
+	}
+
+	/**
+	 * Run one traversal for all waiting visitors.
+	 * 
+	 * @param context
+	 *            context of the transformers
+	 */
+	public void flush(Context context) throws TransformerException {
+		if (pendingVisitors.isEmpty()) {
+			return;
+		}
+		List<ElementVisitor> visitors = new ArrayList<ElementVisitor>(
+				pendingVisitors);
+		pendingVisitors.clear();
+		traverse(context, visitors);
+	}
+
+	/**
+	 * Walk the model once and give every element to the interested visitors.
+	 * The visitors get an element in the order of the list.
+	 * 
+	 * @param context
+	 *            context of the transformers
+	 * @param visitors
+	 *            visitors in the configured order
+	 */
+	public void traverse(Context context,
+			List<? extends ElementVisitor> visitors)
+			throws TransformerException {
+		ModelIndex modelIndex = getModelIndex(context, visitors);
+		logger.info("Traverse the model for " + visitors.size()
+				+ " visitor(s)");
+
+		String[] transformerNames = new String[visitors.size()];
+		for (int index = 0; index < visitors.size(); index++) {
+			transformerNames[index] = visitors.get(index).getClass().getName();
+		}
+		fileWriter.startGeneration(context, transformerNames);
+
+		// Started visitors are always ended, so they can release their
+		// resources, e.g. the threads of the generation
+		int startedVisitors = 0;
+		boolean visited = false;
+		try {
+			for (ElementVisitor visitor : visitors) {
+				visitor.startVisit(context, modelIndex);
+				startedVisitors++;
+			}
+			visit(modelIndex, visitors);
+			visited = true;
+		} finally {
+			endVisit(context, visitors.subList(0, startedVisitors), visited);
+		}
+		// The generation is only finished if it is complete, otherwise the
+		// files of the last generation would be deleted as orphans
+		fileWriter.finishGeneration(context);
+
+		for (ElementVisitor visitor : visitors) {
+			logStop(visitor);
+		}
+	}
+
+	private void visit(ModelIndex modelIndex,
+			List<? extends ElementVisitor> visitors) {
+		List<Set<String>> stereotypeNames = new ArrayList<Set<String>>();
+		for (ElementVisitor visitor : visitors) {
+			stereotypeNames.add(visitor.getStereotypeNames());
+		}
+		Map<EClass, boolean[]> metaclassInterests = new HashMap<EClass, boolean[]>();
+		for (Element element : modelIndex.getAllElements()) {
+			List<Stereotype> appliedStereotypes = modelIndex
+					.getAppliedStereotypes(element);
+			boolean[] interests = metaclassInterests.get(element.eClass());
+			if (interests == null) {
+				interests = getMetaclassInterests(element.eClass(), visitors);
+				metaclassInterests.put(element.eClass(), interests);
+			}
+
+			for (int index = 0; index < visitors.size(); index++) {
+				List<Stereotype> stereotypes = getMatchingStereotypes(
+						appliedStereotypes, stereotypeNames.get(index));
+				if (!stereotypes.isEmpty() || interests[index]) {
+					visitors.get(index).visit(element, stereotypes);
+				}
+			}
+		}
+	}
+
+	/**
+	 * End the visit of all given visitors. If the traversal failed, errors of
+	 * the visitors are only logged, so the error of the traversal is thrown.
+	 * 
+	 * @param context
+	 *            context of the transformers
+	 * @param visitors
+	 *            started visitors
+	 * @param visited
+	 *            true if all elements were visited
+	 */
+	private void endVisit(Context context,
+			List<? extends ElementVisitor> visitors, boolean visited) {
+		RuntimeException endVisitException = null;
+		for (ElementVisitor visitor : visitors) {
+			try {
+				visitor.endVisit(context);
+			} catch (RuntimeException e) {
+				if (!visited) {
+					logger.log(Level.WARNING, "Cannot end the visit of: "
+							+ visitor.getClass().getName(), e);
+				} else if (endVisitException == null) {
+					endVisitException = e;
+				}
+			}
+		}
+		if (endVisitException != null) {
+			throw endVisitException;
+		}
+	}
+
+	private void logStop(Object transformer) {
+		logger.info("Stop the transformation with following Transformer: "
+				+ transformer.getClass().getName());
+	}
+
+	private ModelIndex getModelIndex(Context context,
+			List<? extends ElementVisitor> visitors) {
+		Set<String> stereotypeNames = new LinkedHashSet<String>();
+		for (ElementVisitor visitor : visitors) {
+			stereotypeNames.addAll(visitor.getStereotypeNames());
+		}
+		try {
+			modelRepository.getRootPackage(context);
+			modelRepository.resolveStereotypes(stereotypeNames
+					.toArray(new String[stereotypeNames.size()]));
+			ModelIndex modelIndex = modelRepository.getModelIndex(context);
+			if (modelIndex == null) {
+				throw new TransformerException("Model could not be loaded: "
+						+ context.getSourceModel());
+			}
+			return modelIndex;
+		} catch (URISyntaxException e) {
+			throw new TransformerException(e);
+		}
+	}
+
+	private boolean[] getMetaclassInterests(EClass eClass,
+			List<? extends ElementVisitor> visitors) {
+		boolean[] interests = new boolean[visitors.size()];
+		for (int index = 0; index < visitors.size(); index++) {
+			for (EClass metaclass : visitors.get(index).getMetaclasses()) {
+				if (metaclass.isSuperTypeOf(eClass)) {
+					interests[index] = true;
+					break;
+				}
+			}
+		}
+		return interests;
+	}
+
+	private List<Stereotype> getMatchingStereotypes(
+			List<Stereotype> appliedStereotypes, Set<String> stereotypeNames) {
+		if (appliedStereotypes.isEmpty() || stereotypeNames.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<Stereotype> stereotypes = new ArrayList<Stereotype>(1);
+		for (Stereotype stereotype : appliedStereotypes) {
+			if (stereotypeNames.contains(stereotype.getName())) {
+				stereotypes.add(stereotype);
+			}
+		}
+		return stereotypes;
+	}
+}
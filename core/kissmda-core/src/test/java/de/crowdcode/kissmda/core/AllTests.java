@@ -23,13 +23,26 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 import de.crowdcode.kissmda.core.file.FileWriterTest;
+import de.crowdcode.kissmda.core.file.GenerationManifestTest;
 import de.crowdcode.kissmda.core.file.JavaFileWriterTest;
 import de.crowdcode.kissmda.core.jdt.DataTypeUtilsTest;
+import de.crowdcode.kissmda.core.jdt.InflectorTest;
 import de.crowdcode.kissmda.core.jdt.JdtHelperTest;
 import de.crowdcode.kissmda.core.jdt.MethodHelperTest;
+import de.crowdcode.kissmda.core.jdt.TypeExpressionParserTest;
+import de.crowdcode.kissmda.core.jdt.TypeExpressionParsersTest;
+import de.crowdcode.kissmda.core.uml.DeferredProfileResolverTest;
+import de.crowdcode.kissmda.core.uml.ElementFingerprintTest;
+import de.crowdcode.kissmda.core.uml.ModelCacheTest;
+import de.crowdcode.kissmda.core.uml.ModelIndexTest;
+import de.crowdcode.kissmda.core.uml.ModelRepositoryTest;
 import de.crowdcode.kissmda.core.uml.PackageHelperTest;
+import de.crowdcode.kissmda.core.uml.PackageNameResolverTest;
+import de.crowdcode.kissmda.core.uml.ProfilePrecompilerTest;
 import de.crowdcode.kissmda.core.uml.ReaderWriterTest;
+import de.crowdcode.kissmda.core.uml.TypeDependencyGraphTest;
 import de.crowdcode.kissmda.core.uml.UmlHelperTest;
+import de.crowdcode.kissmda.core.visitor.ModelTraversalTest;
 
 /**
  * Test suite.
@@ -41,6 +54,13 @@ import de.crowdcode.kissmda.core.uml.UmlHelperTest;
 @RunWith(Suite.class)
 @SuiteClasses({ FileWriterTest.class, JavaFileWriterTest.class,
 		MethodHelperTest.class, JdtHelperTest.class, DataTypeUtilsTest.class,
-		PackageHelperTest.class, ReaderWriterTest.class, UmlHelperTest.class })
+		PackageHelperTest.class, ReaderWriterTest.class, UmlHelperTest.class,
+		ModelRepositoryTest.class, ModelCacheTest.class,
+		ProfilePrecompilerTest.class, DeferredProfileResolverTest.class,
+		ModelIndexTest.class, ModelTraversalTest.class,
+		ElementFingerprintTest.class, GenerationManifestTest.class,
+		TypeDependencyGraphTest.class, PackageNameResolverTest.class,
+		TypeExpressionParserTest.class, TypeExpressionParsersTest.class,
+		InflectorTest.class })
 public class AllTests {
 }
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.io.Files;
+
+import de.crowdcode.kissmda.core.StandardContext;
+import de.crowdcode.kissmda.core.file.FileWriter;
+
+/**
+ * Benchmark for writing thousands of small generated files with the former
+ * FileWriter, which created the directories and encoded the content for
+ * every file, and the FileWriter based on java.nio.file. With changed
+ * content every file is written again, without it every file is unchanged.
+ * Run it with the main method from the test classpath.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FileWriterBenchmark {
+
+	static final String TARGET_DIRECTORY = "target/benchmark/file-writer";
+
+	private static final int PACKAGES = 50;
+
+	private static final String CONTENT = "package de.test;\n\n"
+			+ "public interface Company {\n\n"
+			+ "\tjava.util.List<de.test.Person> getPersons();\n\n"
+			+ "\tvoid addPerson(de.test.Person person);\n" + "}\n";
+
+	@Param({ "1000", "5000" })
+	public int files;
+
+	@Param({ "true", "false" })
+	public boolean changedContent;
+
+	private StandardContext formerContext;
+
+	private StandardContext context;
+
+	private FileWriter fileWriter;
+
+	private String[] directories;
+
+	private int invocation;
+
+	@Setup(Level.Trial)
+	public void setUpFiles() {
+		formerContext = new StandardContext();
+		formerContext.setTargetModel(TARGET_DIRECTORY + "/former");
+		formerContext.setTargetEncoding("UTF-8");
+		context = new StandardContext();
+		context.setTargetModel(TARGET_DIRECTORY + "/nio");
+		context.setTargetEncoding("UTF-8");
+		fileWriter = new FileWriter();
+		directories = new String[PACKAGES];
+		for (int index = 0; index < PACKAGES; index++) {
+			directories[index] = "de" + File.separator + "test"
+					+ File.separator + "package" + index;
+		}
+	}
+
+	@Benchmark
+	public void formerFileWriter() throws IOException {
+		String content = nextContent();
+		for (int index = 0; index < files; index++) {
+			createFileLikeFormerFileWriter(formerContext, directories[index
+					% PACKAGES], "Class" + index + ".java", content);
+		}
+	}
+
+	@Benchmark
+	public void nioFileWriter() throws IOException {
+		String content = nextContent();
+		for (int index = 0; index < files; index++) {
+			fileWriter.createFile(context, directories[index % PACKAGES],
+					"Class" + index + ".java", content);
+		}
+	}
+
+	private String nextContent() {
+		if (changedContent) {
+			invocation++;
+		}
+		return CONTENT + "// " + invocation + "\n";
+	}
+
+	/**
+	 * The former FileWriter.createFile.
+	 */
+	static void createFileLikeFormerFileWriter(StandardContext context,
+			String directory, String fileName, String fileContent)
+			throws IOException {
+		String directoryToBeCreated = context.getTargetModel()
+				+ File.separator + directory;
+		File file = new File(directoryToBeCreated + File.separator + fileName);
+
+		byte[] content = fileContent.getBytes(Charset.forName(context
+				.getTargetEncoding()));
+		if (file.isFile() && file.length() == content.length
+				&& Arrays.equals(Files.toByteArray(file), content)) {
+			return;
+		}
+
+		new File(directoryToBeCreated).mkdirs();
+
+		OutputStream outputStream = new FileOutputStream(file);
+		try {
+			outputStream.write(content);
+		} finally {
+			outputStream.close();
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder().include(
+				FileWriterBenchmark.class.getSimpleName()).build();
+		new Runner(options).run();
+	}
+}
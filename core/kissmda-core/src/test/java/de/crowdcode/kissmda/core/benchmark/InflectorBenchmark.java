@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import de.crowdcode.kissmda.core.jdt.Inflector;
+
+/**
+ * Benchmark for pluralize and singularize of property names with the former
+ * Inflector, which compiled the rules on every call, and the Inflector with
+ * compiled rules, with and without the cache. Run it with the main method
+ * from the test classpath.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InflectorBenchmark {
+
+	private static final String[] PROPERTY_NAMES = { "persons", "addresses",
+			"companies", "employees", "orders", "orderLines", "categories",
+			"children", "statuses", "analyses", "invoices", "customers",
+			"accounts", "entries", "histories", "matrices", "wives", "boxes",
+			"branches", "properties", "quizzes", "buses", "series", "items" };
+
+	/**
+	 * The plural rules of the former Inflector in the order they are tried.
+	 */
+	private static final String[][] PLURALS = { { "(quiz)$", "$1zes" },
+			{ "^(ox)$", "$1en" }, { "([m|l])ouse$", "$1ice" },
+			{ "(matr|vert|ind)(?:ix|ex)$", "$1ices" },
+			{ "(x|ch|ss|sh)$", "$1es" }, { "([^aeiouy]|qu)y$", "$1ies" },
+			{ "(hive)$", "$1s" }, { "(?:([^f])fe|([lr])f)$", "$1$2ves" },
+			{ "sis$", "ses" }, { "([ti])um$", "$1a" },
+			{ "(buffal|tomat)o$", "$1oes" }, { "(bu)s$", "$1ses" },
+			{ "(alias|status)$", "$1es" }, { "(octop|vir)us$", "$1i" },
+			{ "(ax|test)is$", "$1es" }, { "s$", "s" }, { "$", "s" } };
+
+	/**
+	 * The singular rules of the former Inflector in the order they are tried.
+	 */
+	private static final String[][] SINGULARS = {
+			{ "(database)s$", "$1" }, { "(quiz)zes$", "$1" },
+			{ "(matr)ices$", "$1ix" }, { "(vert|ind)ices$", "$1ex" },
+			{ "^(ox)en", "$1" }, { "(alias|status)es$", "$1" },
+			{ "(octop|vir)i$", "$1us" }, { "(cris|ax|test)es$", "$1is" },
+			{ "(shoe)s$", "$1" }, { "(o)es$", "$1" }, { "(bus)es$", "$1" },
+			{ "([m|l])ice$", "$1ouse" }, { "(x|ch|ss|sh)es$", "$1" },
+			{ "(m)ovies$", "$1ovie" }, { "(s)eries$", "$1eries" },
+			{ "([^aeiouy]|qu)ies$", "$1y" }, { "([lr])ves$", "$1f" },
+			{ "(tive)s$", "$1" }, { "(hive)s$", "$1" },
+			{ "([^f])ves$", "$1fe" }, { "(^analy)ses$", "$1sis" },
+			{ "((a)naly|(b)a|(d)iagno|(p)arenthe|(p)rogno|(s)ynop|(t)he)ses$",
+					"$1sis" }, { "([ti])a$", "$1um" },
+			{ "(n)ews$", "$1ews" }, { "s$", "" } };
+
+	private String[] singularNames;
+
+	private Inflector inflector;
+
+	private Inflector uncachedInflector;
+
+	@Setup(Level.Trial)
+	public void setUpInflectors() {
+		inflector = new Inflector();
+		uncachedInflector = new Inflector(0);
+		singularNames = new String[PROPERTY_NAMES.length];
+		for (int index = 0; index < PROPERTY_NAMES.length; index++) {
+			singularNames[index] = inflector.singularize(PROPERTY_NAMES[index]);
+		}
+	}
+
+	@Benchmark
+	public void regexPerCall(Blackhole blackhole) {
+		for (int index = 0; index < PROPERTY_NAMES.length; index++) {
+			blackhole.consume(inflectWithRegex(PROPERTY_NAMES[index],
+					SINGULARS));
+			blackhole.consume(inflectWithRegex(singularNames[index], PLURALS));
+		}
+	}
+
+	@Benchmark
+	public void compiledRules(Blackhole blackhole) {
+		for (int index = 0; index < PROPERTY_NAMES.length; index++) {
+			blackhole.consume(uncachedInflector
+					.singularize(PROPERTY_NAMES[index]));
+			blackhole.consume(uncachedInflector
+					.pluralize(singularNames[index]));
+		}
+	}
+
+	@Benchmark
+	public void compiledRulesWithCache(Blackhole blackhole) {
+		for (int index = 0; index < PROPERTY_NAMES.length; index++) {
+			blackhole.consume(inflector.singularize(PROPERTY_NAMES[index]));
+			blackhole.consume(inflector.pluralize(singularNames[index]));
+		}
+	}
+
+	/**
+	 * The rule loop of the former Inflector.pluralize and
+	 * Inflector.singularize, without the uncountable and irregular words.
+	 */
+	static String inflectWithRegex(String word, String[][] rules) {
+		for (String[] rule : rules) {
+			Pattern pattern = Pattern.compile(rule[0],
+					Pattern.CASE_INSENSITIVE);
+			Matcher matcher = pattern.matcher(word);
+			if (matcher.find()) {
+				return matcher.replaceFirst(rule[1]);
+			}
+		}
+		return word;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder().include(
+				InflectorBenchmark.class.getSimpleName()).build();
+		new Runner(options).run();
+	}
+}
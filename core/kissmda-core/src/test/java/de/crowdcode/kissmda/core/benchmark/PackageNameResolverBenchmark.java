@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import de.crowdcode.kissmda.core.uml.PackageNameResolver;
+import de.crowdcode.kissmda.core.uml.UmlTypePrefix;
+
+/**
+ * Benchmark for the package name resolution of type names with the former
+ * regular expression based implementation of the PackageHelper and the
+ * PackageNameResolver. Run it with the main method from the test classpath.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PackageNameResolverBenchmark {
+
+	private static final String SOURCE_DIRECTORY_PACKAGE_NAME = "Data";
+
+	private static final int TYPE_NAMES = 1000;
+
+	private static final String[] TYPE_NAME_PATTERNS = {
+			"Data::de::crowdcode::package%d::Company%d",
+			"UMLPrimitiveTypes::String",
+			"JavaPrimitiveTypes::int",
+			"Data::datatype::Collection<Data::de::package%d::Person%d>",
+			"Data::datatype-bindings::Map<MagicDraw Profile::datatypes::String, Data::de::package%d::Address%d>" };
+
+	private String[] typeNames;
+
+	private PackageNameResolver packageNameResolver;
+
+	@Setup(Level.Trial)
+	public void setUpTypeNames() {
+		typeNames = new String[TYPE_NAMES];
+		for (int index = 0; index < TYPE_NAMES; index++) {
+			String pattern = TYPE_NAME_PATTERNS[index
+					% TYPE_NAME_PATTERNS.length];
+			typeNames[index] = String.format(pattern, index % 50, index);
+		}
+		packageNameResolver = new PackageNameResolver();
+	}
+
+	@Benchmark
+	public void regex(Blackhole blackhole) {
+		for (String typeName : typeNames) {
+			blackhole.consume(getFullPackageNameWithRegex(typeName,
+					SOURCE_DIRECTORY_PACKAGE_NAME));
+		}
+	}
+
+	@Benchmark
+	public void resolver(Blackhole blackhole) {
+		for (String typeName : typeNames) {
+			blackhole.consume(packageNameResolver.getFullPackageName(
+					typeName, SOURCE_DIRECTORY_PACKAGE_NAME));
+		}
+	}
+
+	@Benchmark
+	public void resolverWithoutCache(Blackhole blackhole) {
+		PackageNameResolver uncachedResolver = new PackageNameResolver();
+		for (String typeName : typeNames) {
+			blackhole.consume(uncachedResolver.getFullPackageName(typeName,
+					SOURCE_DIRECTORY_PACKAGE_NAME));
+		}
+	}
+
+	/**
+	 * The former implementation of PackageHelper.getFullPackageName(String,
+	 * String).
+	 */
+	static String getFullPackageNameWithRegex(String umlPackageNameWithClass,
+			String sourceDirectoryPackageName) {
+		String packageName = removeUmlPrefixesWithReplace(umlPackageNameWithClass);
+		String toBeDeleted = sourceDirectoryPackageName + "::";
+		String fullPackageName = packageName.replace(toBeDeleted, "");
+		fullPackageName = fullPackageName.replaceAll("::", ".");
+		return fullPackageName;
+	}
+
+	/**
+	 * The former implementation of PackageHelper.removeUmlPrefixes(String).
+	 */
+	static String removeUmlPrefixesWithReplace(String fullQualifiedName) {
+		String result = fullQualifiedName.replace(
+				UmlTypePrefix.MAGIC_DRAW_PROFILE_DATATYPES.getValue(), "");
+		result = result.replace(UmlTypePrefix.UML_PRIMITIVE_TYPES.getValue(),
+				"");
+		result = result.replace(UmlTypePrefix.JAVA_PRIMITIVE_TYPES.getValue(),
+				"");
+		result = result.replace(
+				UmlTypePrefix.VALIDATION_PROFILE_OCL_LIBRARY.getValue(), "");
+		if (StringUtils
+				.contains(result, UmlTypePrefix.DATA_DATATYPE.getValue())) {
+			result = result.replace(UmlTypePrefix.DATA_DATATYPE.getValue(), "");
+		}
+		if (StringUtils.contains(result,
+				UmlTypePrefix.DATA_DATATYPE_BINDINGS.getValue())) {
+			result = result.replace(
+					UmlTypePrefix.DATA_DATATYPE_BINDINGS.getValue(), "");
+		}
+		return result;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder().include(
+				PackageNameResolverBenchmark.class.getSimpleName()).build();
+		new Runner(options).run();
+	}
+}
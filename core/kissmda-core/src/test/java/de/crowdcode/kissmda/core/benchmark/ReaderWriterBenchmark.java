@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.benchmark;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.uml2.uml.Class;
+import org.eclipse.uml2.uml.Model;
+import org.eclipse.uml2.uml.Operation;
+import org.eclipse.uml2.uml.PrimitiveType;
+import org.eclipse.uml2.uml.Profile;
+import org.eclipse.uml2.uml.Property;
+import org.eclipse.uml2.uml.Stereotype;
+import org.eclipse.uml2.uml.UMLFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import de.crowdcode.kissmda.core.uml.ReaderWriter;
+
+/**
+ * Benchmark for loading UML models with the default and the fast load options
+ * of the ReaderWriter. Run it with the main method from the test classpath.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReaderWriterBenchmark {
+
+	static final String APP_TEST_MODEL = "../../app-examples/kissmda-app-test/src/main/resources/model/emf/test-uml.uml";
+
+	static final String TEST_MODEL = "src/test/resources/model/emf/test-uml.uml";
+
+	static final String SYNTHETIC_MODEL = "target/benchmark/synthetic-uml.uml";
+
+	static final String PROFILE_MODEL = "target/test-classes/model/emf/kissmda-profile-core.profile.uml";
+
+	private static final int SYNTHETIC_PACKAGES = 50;
+
+	private static final int SYNTHETIC_CLASSES = 40;
+
+	private static final int SYNTHETIC_FEATURES = 10;
+
+	@Param({ "false", "true" })
+	public boolean fastLoad;
+
+	@Param({ "app-test", "synthetic" })
+	public String model;
+
+	private URI modelUri;
+
+	@Setup(Level.Trial)
+	public void setUpModel() {
+		File modelFile;
+		if ("synthetic".equals(model)) {
+			modelFile = new File(SYNTHETIC_MODEL);
+			if (!modelFile.exists()) {
+				createSyntheticModel(modelFile);
+			}
+		} else {
+			modelFile = new File(APP_TEST_MODEL);
+			if (!modelFile.exists()) {
+				modelFile = new File(TEST_MODEL);
+			}
+		}
+		modelUri = URI.createFileURI(modelFile.getAbsolutePath());
+	}
+
+	@Benchmark
+	public org.eclipse.uml2.uml.Package load() {
+		ReaderWriter readerWriter = new ReaderWriter();
+		readerWriter.registerSchema();
+		readerWriter.registerResourceFactories();
+		readerWriter.registerPathmaps();
+		if (fastLoad) {
+			readerWriter.registerFastLoadOptions();
+		}
+		org.eclipse.uml2.uml.Package rootPackage = readerWriter.load(modelUri);
+		// Resolve all cross references like the transformers do
+		EcoreUtil.resolveAll(rootPackage);
+		return rootPackage;
+	}
+
+	/**
+	 * Create a large model with packages, entity classes, attributes and
+	 * operations.
+	 * 
+	 * @param modelFile
+	 *            the file to save the model to
+	 */
+	static void createSyntheticModel(File modelFile) {
+		ReaderWriter readerWriter = new ReaderWriter();
+		readerWriter.registerSchema();
+		readerWriter.registerResourceFactories();
+		readerWriter.registerPathmaps();
+
+		Profile profile = (Profile) readerWriter.load(URI
+				.createFileURI(new File(PROFILE_MODEL).getAbsolutePath()));
+		Stereotype entity = profile.getOwnedStereotype("Entity");
+
+		Model syntheticModel = UMLFactory.eINSTANCE.createModel();
+		syntheticModel.setName("Data");
+		syntheticModel.applyProfile(profile);
+		PrimitiveType stringType = syntheticModel.createOwnedPrimitiveType("String");
+
+		for (int packageIndex = 0; packageIndex < SYNTHETIC_PACKAGES; packageIndex++) {
+			org.eclipse.uml2.uml.Package syntheticPackage = syntheticModel
+					.createNestedPackage("package" + packageIndex);
+			for (int classIndex = 0; classIndex < SYNTHETIC_CLASSES; classIndex++) {
+				Class clazz = syntheticPackage.createOwnedClass("Class"
+						+ classIndex, false);
+				if (entity != null) {
+					clazz.applyStereotype(entity);
+				}
+				for (int featureIndex = 0; featureIndex < SYNTHETIC_FEATURES; featureIndex++) {
+					Property property = clazz.createOwnedAttribute("attribute"
+							+ featureIndex, stringType);
+					property.setLower(0);
+					Operation operation = clazz.createOwnedOperation(
+							"operation" + featureIndex, null, null);
+					operation.createOwnedParameter("parameter", stringType);
+				}
+			}
+		}
+
+		modelFile.getParentFile().mkdirs();
+		readerWriter.save(syntheticModel,
+				URI.createFileURI(modelFile.getAbsolutePath()));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder().include(
+				ReaderWriterBenchmark.class.getSimpleName()).build();
+		new Runner(options).run();
+	}
+}
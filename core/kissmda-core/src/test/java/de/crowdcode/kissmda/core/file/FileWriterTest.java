@@ -1,13 +1,21 @@
 package de.crowdcode.kissmda.core.file;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import de.crowdcode.kissmda.core.Context;
 
@@ -17,6 +25,9 @@ import de.crowdcode.kissmda.core.Context;
  */
 public class FileWriterTest {
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	private FileWriter fileWriter;
 
 	@Before
@@ -38,4 +49,196 @@ public class FileWriterTest {
 
 		verify(context).getTargetModel();
 	}
+
+	@Test
+	public void testCreateFileUnchanged() throws IOException {
+		Context context = mock(Context.class);
+		when(context.getTargetModel()).thenReturn(
+				temporaryFolder.getRoot().getPath());
+		File file = new File(temporaryFolder.getRoot(), "de/kissmda/test/readme.txt");
+
+		fileWriter.createFile(context, "de/kissmda/test", "readme.txt", "Hello");
+		file.setLastModified(1000L);
+		fileWriter.createFile(context, "de/kissmda/test", "readme.txt", "Hello");
+
+		assertEquals(1000L, file.lastModified());
+		assertEquals(1, fileWriter.getWrittenFiles());
+		assertEquals(1, fileWriter.getUnchangedFiles());
+
+		fileWriter.createFile(context, "de/kissmda/test", "readme.txt", "Hallo");
+
+		assertTrue(file.lastModified() != 1000L);
+		assertEquals(2, fileWriter.getWrittenFiles());
+		assertEquals(1, fileWriter.getUnchangedFiles());
+	}
+
+	@Test
+	public void testCreateFileWithTargetEncoding() throws IOException {
+		Context context = mock(Context.class);
+		when(context.getTargetModel()).thenReturn(
+				temporaryFolder.getRoot().getPath());
+		when(context.getTargetEncoding()).thenReturn("ISO-8859-1");
+		File file = new File(temporaryFolder.getRoot(), "de/kissmda/test/readme.txt");
+
+		fileWriter.createFile(context, "de/kissmda/test", "readme.txt", "Gr\u00fc\u00dfe");
+
+		assertArrayEquals("Gr\u00fc\u00dfe".getBytes("ISO-8859-1"), Files.readAllBytes(file.toPath()));
+		assertArrayEquals(new String[] { "readme.txt" }, file.getParentFile().list());
+	}
+
+	@Test
+	public void testCreateFileWithoutTargetEncoding() throws IOException {
+		Context context = mock(Context.class);
+		when(context.getTargetModel()).thenReturn(
+				temporaryFolder.getRoot().getPath());
+		File file = new File(temporaryFolder.getRoot(), "de/kissmda/test/readme.txt");
+
+		fileWriter.createFile(context, "de/kissmda/test", "readme.txt", "Gr\u00fc\u00dfe");
+
+		assertArrayEquals("Gr\u00fc\u00dfe".getBytes("UTF-8"), Files.readAllBytes(file.toPath()));
+	}
+
+	@Test
+	public void testCreateFileWithStatefulTargetEncoding() throws IOException {
+		Context context = mock(Context.class);
+		when(context.getTargetModel()).thenReturn(
+				temporaryFolder.getRoot().getPath());
+		when(context.getTargetEncoding()).thenReturn("ISO-2022-JP");
+		File file = new File(temporaryFolder.getRoot(), "de/kissmda/test/readme.txt");
+
+		// The escape sequence back to ASCII is written by the flush of the
+		// encoder, one of these contents ends exactly at the buffer size
+		for (int length = 16 * 1024 - 220; length < 16 * 1024 - 190; length++) {
+			StringBuilder content = new StringBuilder();
+			for (int index = 0; index < length; index++) {
+				content.append('a');
+			}
+			for (int index = 0; index < 100; index++) {
+				content.append('\u3042');
+			}
+
+			fileWriter.createFile(context, "de/kissmda/test", "readme.txt", content.toString());
+
+			assertEquals(content.toString(), new String(Files.readAllBytes(file.toPath()), "ISO-2022-JP"));
+		}
+	}
+
+	@Test
+	public void testCreateFileAfterDirectoryRemoved() throws IOException {
+		Context context = mock(Context.class);
+		when(context.getTargetModel()).thenReturn(
+				temporaryFolder.getRoot().getPath());
+		File file = new File(temporaryFolder.getRoot(), "de/kissmda/test/readme.txt");
+		fileWriter.createFile(context, "de/kissmda/test", "readme.txt", "Hello");
+
+		assertTrue(file.delete());
+		assertTrue(file.getParentFile().delete());
+		fileWriter.createFile(context, "de/kissmda/test", "readme.txt", "Hello");
+
+		assertTrue(file.isFile());
+		assertEquals(2, fileWriter.getWrittenFiles());
+	}
+
+	@Test
+	public void testDeleteFile() throws IOException {
+		Context context = mock(Context.class);
+		when(context.getTargetModel()).thenReturn(
+				temporaryFolder.getRoot().getPath());
+		File file = new File(temporaryFolder.getRoot(), "de/kissmda/test/readme.txt");
+		fileWriter.createFile(context, "de/kissmda/test", "readme.txt", "Hello");
+
+		assertTrue(fileWriter.deleteFile(context, "de/kissmda/test", "readme.txt"));
+		assertFalse(fileWriter.deleteFile(context, "de/kissmda/test", "readme.txt"));
+
+		assertFalse(file.exists());
+		assertEquals(1, fileWriter.getDeletedFiles());
+	}
+
+	@Test
+	public void testIncrementalGenerationDeletesOrphanFiles() throws IOException {
+		Context context = createIncrementalContext("model.uml", true);
+		File person = new File(temporaryFolder.getRoot(), "target/de/test/Person.java");
+
+		fileWriter.startGeneration(context, "de.test.FirstTransformer");
+		assertFalse(fileWriter.isUnchanged(context, "de/test", "Company.java", "1"));
+		fileWriter.createFile(context, "de/test", "Company.java", "Company");
+		fileWriter.createFile(context, "de/test", "Person.java", "Person");
+		fileWriter.finishGeneration(context);
+
+		fileWriter.startGeneration(context, "de.test.FirstTransformer");
+		assertTrue(fileWriter.isUnchanged(context, "de/test", "Company.java", "1"));
+		fileWriter.finishGeneration(context);
+
+		assertFalse(person.exists());
+		assertEquals(1, fileWriter.getDeletedFiles());
+	}
+
+	@Test
+	public void testGenerationsOfOtherModelsKeepFiles() throws IOException {
+		Context context = createIncrementalContext("model.uml", true);
+		Context otherContext = createIncrementalContext("other-model.uml", true);
+		File person = new File(temporaryFolder.getRoot(), "target/de/test/Person.java");
+
+		fileWriter.startGeneration(context, "de.test.FirstTransformer");
+		fileWriter.createFile(context, "de/test", "Person.java", "Person");
+		fileWriter.finishGeneration(context);
+
+		fileWriter.startGeneration(otherContext, "de.test.FirstTransformer");
+		fileWriter.createFile(otherContext, "de/test", "Company.java", "Company");
+		fileWriter.finishGeneration(otherContext);
+
+		fileWriter.startGeneration(context, "de.test.SecondTransformer");
+		fileWriter.finishGeneration(context);
+
+		assertTrue(person.isFile());
+		assertEquals(0, fileWriter.getDeletedFiles());
+	}
+
+	@Test
+	public void testGenerationWithoutIncrementalDeletesOrphanFiles() throws IOException {
+		Context context = createIncrementalContext("model.uml", false);
+		File person = new File(temporaryFolder.getRoot(), "target/de/test/Person.java");
+
+		fileWriter.startGeneration(context, "de.test.FirstTransformer");
+		assertFalse(fileWriter.isUnchanged(context, "de/test", "Person.java", "1"));
+		fileWriter.createFile(context, "de/test", "Person.java", "Person");
+		fileWriter.finishGeneration(context);
+
+		fileWriter.startGeneration(context, "de.test.FirstTransformer");
+		assertFalse(fileWriter.isUnchanged(context, "de/test", "Person.java", "1"));
+		fileWriter.finishGeneration(context);
+
+		assertFalse(person.exists());
+		assertEquals(1, fileWriter.getDeletedFiles());
+	}
+
+	@Test
+	public void testGenerationWithoutOrphanDeletionKeepsFiles() throws IOException {
+		Context context = createIncrementalContext("model.uml", false);
+		when(context.isOrphanDeletionEnabled()).thenReturn(false);
+		File person = new File(temporaryFolder.getRoot(), "target/de/test/Person.java");
+
+		fileWriter.startGeneration(context, "de.test.FirstTransformer");
+		fileWriter.createFile(context, "de/test", "Person.java", "Person");
+		fileWriter.finishGeneration(context);
+
+		fileWriter.startGeneration(context, "de.test.FirstTransformer");
+		assertFalse(fileWriter.isUnchanged(context, "de/test", "Person.java", "1"));
+		fileWriter.finishGeneration(context);
+
+		assertTrue(person.isFile());
+		assertFalse(new File(temporaryFolder.getRoot(), "incremental").exists());
+	}
+
+	private Context createIncrementalContext(String sourceModel, boolean incrementalEnabled) {
+		Context context = mock(Context.class);
+		when(context.getSourceModel()).thenReturn(sourceModel);
+		when(context.getTargetModel()).thenReturn(
+				new File(temporaryFolder.getRoot(), "target").getPath());
+		when(context.isIncrementalEnabled()).thenReturn(incrementalEnabled);
+		when(context.isOrphanDeletionEnabled()).thenReturn(true);
+		when(context.getIncrementalDirectory()).thenReturn(
+				new File(temporaryFolder.getRoot(), "incremental").getPath());
+		return context;
+	}
 }
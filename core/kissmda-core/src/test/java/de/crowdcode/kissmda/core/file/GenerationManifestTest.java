@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit test for Generation Manifest.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class GenerationManifestTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File manifestDirectory;
+
+	private File targetDirectory;
+
+	@Before
+	public void setUp() throws Exception {
+		manifestDirectory = new File(temporaryFolder.getRoot(), "manifest");
+		targetDirectory = temporaryFolder.newFolder("target");
+	}
+
+	@Test
+	public void testIsUnchangedAfterStore() throws IOException {
+		createTargetFile("de/test/Company.java");
+
+		GenerationManifest firstManifest = createManifest();
+		assertFalse(firstManifest.isUnchanged("de/test/Company.java", "1"));
+		firstManifest.store();
+
+		GenerationManifest secondManifest = createManifest();
+		assertTrue(secondManifest.isUnchanged("de/test/Company.java", "1"));
+		assertFalse(secondManifest.isUnchanged("de/test/Person.java", "2"));
+	}
+
+	@Test
+	public void testIsChangedWithOtherFingerprintOrMissingFile()
+			throws IOException {
+		createTargetFile("de/test/Company.java");
+
+		GenerationManifest firstManifest = createManifest();
+		firstManifest.isUnchanged("de/test/Company.java", "1");
+		firstManifest.isUnchanged("de/test/Person.java", "2");
+		firstManifest.store();
+
+		GenerationManifest secondManifest = createManifest();
+		assertFalse(secondManifest.isUnchanged("de/test/Company.java", "3"));
+		// The file of Person was never written
+		assertFalse(secondManifest.isUnchanged("de/test/Person.java", "2"));
+	}
+
+	@Test
+	public void testGetOrphanFiles() throws IOException {
+		GenerationManifest firstManifest = createManifest();
+		firstManifest.isUnchanged("de/test/Company.java", "1");
+		firstManifest.addFile("de/test/Person.java");
+		firstManifest.addFile("de/test/Address.java");
+		firstManifest.store();
+
+		GenerationManifest secondManifest = createManifest();
+		secondManifest.isUnchanged("de/test/Company.java", "1");
+		secondManifest.addFile("de/test/Address.java");
+		assertEquals(Arrays.asList("de/test/Person.java"),
+				secondManifest.getOrphanFiles());
+		secondManifest.store();
+
+		// Person is not in the manifest any more
+		GenerationManifest thirdManifest = createManifest();
+		thirdManifest.addFile("de/test/Company.java");
+		thirdManifest.addFile("de/test/Address.java");
+		assertEquals(Collections.emptyList(), thirdManifest.getOrphanFiles());
+	}
+
+	@Test
+	public void testAddFileIsNeverUnchanged() throws IOException {
+		createTargetFile("de/test/Company.java");
+
+		GenerationManifest firstManifest = createManifest();
+		firstManifest.addFile("de/test/Company.java");
+		firstManifest.store();
+
+		GenerationManifest secondManifest = createManifest();
+		assertFalse(secondManifest.isUnchanged("de/test/Company.java", ""));
+	}
+
+	private GenerationManifest createManifest() {
+		return new GenerationManifest(manifestDirectory,
+				"SimpleJavaTransformer", targetDirectory);
+	}
+
+	private void createTargetFile(String fileName) throws IOException {
+		File file = new File(targetDirectory, fileName);
+		file.getParentFile().mkdirs();
+		file.createNewFile();
+	}
+}
@@ -18,6 +18,7 @@
  */
 package de.crowdcode.kissmda.core.file;
 
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -71,4 +72,14 @@ public class JavaFileWriterTest {
 						+ "kissmda" + File.separator + "test", "Company.java",
 				classContent);
 	}
+
+	@Test
+	public void testIsUnchanged() {
+		when(
+				fileWriter.isUnchanged(context, "de" + File.separator
+						+ "crowdcode", "Company.java", "1")).thenReturn(true);
+
+		assertTrue(fileJavaWriter.isUnchanged(context, "de.crowdcode",
+				"Company", "1"));
+	}
 }
@@ -20,19 +20,26 @@ package de.crowdcode.kissmda.core.jdt;
 
 import com.google.common.eventbus.EventBus;
 import de.crowdcode.kissmda.core.StandardContext;
+import de.crowdcode.kissmda.core.jdt.event.JavaTypeCodesCreatedEvent;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
 /**
@@ -84,6 +91,38 @@ public class DataTypeUtilsTest {
 		assertFalse(isJavaType);
 	}
 
+	@Test(expected = UnsupportedOperationException.class)
+	public void testJavaTypesAreFrozen() {
+		dataTypeUtils.getJavaTypes().put("test", "de.test.Test");
+	}
+
+	@Test
+	public void testTypesAreBuiltOnce() {
+		Map<String, String> javaTypes = dataTypeUtils.getJavaTypes();
+
+		assertSame(javaTypes, dataTypeUtils.getJavaTypes());
+		assertSame(dataTypeUtils.getPrimitiveTypeCodes(),
+				dataTypeUtils.getPrimitiveTypeCodes());
+	}
+
+	@Test
+	public void testJavaTypesExtendedByEvent() {
+		doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				Object event = invocation.getArguments()[0];
+				if (event instanceof JavaTypeCodesCreatedEvent) {
+					((JavaTypeCodesCreatedEvent) event).getJavaTypeCodes().put(
+							"test", "de.test.Test");
+				}
+				return null;
+			}
+		}).when(eventBus).post(Mockito.any());
+
+		assertEquals("de.test.Test", dataTypeUtils.getJavaTypes().get("test"));
+		assertTrue(dataTypeUtils.isJavaType("test"));
+	}
+
 	@Test
 	public void testIsArrayType1() {
 		boolean isArrayType = dataTypeUtils.isArrayType("datatype.byte[]");
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.jdt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for Inflector.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class InflectorTest {
+
+	private Inflector inflector;
+
+	@Before
+	public void setUp() throws Exception {
+		inflector = new Inflector();
+	}
+
+	@Test
+	public void testPluralize() {
+		assertEquals("persons", inflector.pluralize("person"));
+		assertEquals("addresses", inflector.pluralize("address"));
+		assertEquals("companies", inflector.pluralize("company"));
+		assertEquals("children", inflector.pluralize("child"));
+		assertEquals("information", inflector.pluralize("information"));
+	}
+
+	@Test
+	public void testSingularize() {
+		assertEquals("person", inflector.singularize("persons"));
+		assertEquals("address", inflector.singularize("addresses"));
+		assertEquals("company", inflector.singularize("companies"));
+		assertEquals("child", inflector.singularize("children"));
+		assertEquals("matrix", inflector.singularize("matrices"));
+	}
+
+	@Test
+	public void testPluralizeCached() {
+		String plural = inflector.pluralize("company");
+
+		// A computed plural is a new String, the cached one is the same
+		assertSame(plural, inflector.pluralize("company"));
+	}
+
+	@Test
+	public void testPluralizeWithoutCache() {
+		Inflector uncachedInflector = new Inflector(0);
+		String plural = uncachedInflector.pluralize("company");
+
+		assertEquals("companies", plural);
+		assertEquals(plural, uncachedInflector.pluralize("company"));
+		assertNotSame(plural, uncachedInflector.pluralize("company"));
+	}
+
+	@Test
+	public void testAddPluralInvalidatesCache() {
+		String plural = inflector.pluralize("company");
+
+		inflector.addPlural("(cact)us$", "$1i");
+
+		assertEquals(plural, inflector.pluralize("company"));
+		assertNotSame(plural, inflector.pluralize("company"));
+	}
+
+	@Test
+	public void testAddPluralAfterCaching() {
+		assertEquals("cactus", inflector.pluralize("cactus"));
+
+		inflector.addPlural("(cact)us$", "$1i");
+
+		assertEquals("cacti", inflector.pluralize("cactus"));
+	}
+}
@@ -33,6 +33,7 @@ import org.eclipse.jdt.core.dom.PrimitiveType;
 import org.eclipse.jdt.core.dom.PrimitiveType.Code;
 import org.eclipse.jdt.core.dom.SimpleType;
 import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.Type;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.junit.Before;
 import org.junit.Test;
@@ -45,6 +46,7 @@ import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import de.crowdcode.kissmda.core.uml.PackageHelper;
+import de.crowdcode.kissmda.core.uml.PackageNameResolver;
 
 /**
  * Unit test for Java Helper.
@@ -59,11 +61,15 @@ public class JdtHelperTest {
 	private JdtHelper jdtHelper;
 
 	@Spy
-	private PackageHelper packageHelper;
+	private PackageHelper packageHelper = new PackageHelper(
+			new PackageNameResolver());
 
 	@Mock(answer = Answers.RETURNS_DEEP_STUBS)
 	private DataTypeUtils dataTypeUtils;
 
+	@Spy
+	private TypeExpressionParsers typeExpressionParsers = new TypeExpressionParsers();
+
 	private final AST ast = AST.newAST(AST.JLS3);;
 
 	@Before
@@ -243,6 +249,36 @@ public class JdtHelperTest {
 				tp.toString());
 	}
 
+	@Test
+	public void testGetAstParameterizedTypesNested() {
+		Map<String, String> javaTypes = createJavaTypes();
+		when(dataTypeUtils.getJavaTypes()).thenReturn(javaTypes);
+
+		String typeName = "Map<String, Map<String, List<de.test.Company>>>";
+		ParameterizedType tp = jdtHelper.getAstParameterizedType(ast, typeName);
+
+		assertEquals(
+				"java.util.Map<String,java.util.Map<String,java.util.List<de.test.Company>>>",
+				tp.toString());
+	}
+
+	@Test
+	public void testGetChosenTypeNestedGenerics() {
+		Map<String, String> javaTypes = createJavaTypes();
+		when(dataTypeUtils.getJavaTypes()).thenReturn(javaTypes);
+
+		String umlQualifiedTypeName = "Data::de::test::Attribute<Map<String, List<String>>, Integer>";
+		Type firstType = jdtHelper.getChosenType(ast, "Attribute",
+				umlQualifiedTypeName, "Data");
+		Type secondType = jdtHelper.getChosenType(ast, "Attribute",
+				umlQualifiedTypeName, "Data");
+
+		assertEquals(
+				"de.test.Attribute<java.util.Map<String,java.util.List<String>>,Integer>",
+				firstType.toString());
+		assertEquals(firstType.toString(), secondType.toString());
+	}
+
 	@Test
 	public void testCreateFullQualifiedTypeAsName() {
 		String sourceDirectoryPackageName = "Data";
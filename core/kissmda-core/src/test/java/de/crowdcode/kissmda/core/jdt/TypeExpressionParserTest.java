@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.jdt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.PrimitiveType;
+import org.eclipse.jdt.core.dom.PrimitiveType.Code;
+import org.eclipse.jdt.core.dom.Type;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * Unit test for Type Expression Parser.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TypeExpressionParserTest {
+
+	@Mock
+	private DataTypeUtils dataTypeUtils;
+
+	private TypeExpressionParser typeExpressionParser;
+
+	private final AST ast = AST.newAST(AST.JLS3);
+
+	@Before
+	public void setUp() throws Exception {
+		Map<String, String> javaTypes = new HashMap<String, String>();
+		javaTypes.put("List", "java.util.List");
+		javaTypes.put("Map", "java.util.Map");
+		Map<String, Code> primitiveTypeCodes = new HashMap<String, Code>();
+		primitiveTypeCodes.put("int", PrimitiveType.INT);
+		primitiveTypeCodes.put("byte", PrimitiveType.BYTE);
+
+		when(dataTypeUtils.getJavaTypes()).thenReturn(javaTypes);
+		when(dataTypeUtils.getPrimitiveTypeCodes()).thenReturn(
+				primitiveTypeCodes);
+		when(dataTypeUtils.isPrimitiveType("int")).thenReturn(true);
+		when(dataTypeUtils.isPrimitiveType("byte")).thenReturn(true);
+
+		typeExpressionParser = new TypeExpressionParser(dataTypeUtils);
+	}
+
+	@Test
+	public void testParsePrimitiveType() {
+		TypeDescriptor typeDescriptor = typeExpressionParser.parse("int");
+
+		assertEquals(TypeDescriptor.Kind.PRIMITIVE, typeDescriptor.getKind());
+		assertEquals("int", typeDescriptor.toType(ast).toString());
+	}
+
+	@Test
+	public void testParseSimpleType() {
+		TypeDescriptor typeDescriptor = typeExpressionParser
+				.parse("de.test.Company");
+
+		assertEquals(TypeDescriptor.Kind.SIMPLE, typeDescriptor.getKind());
+		assertEquals("de.test.Company", typeDescriptor.toType(ast).toString());
+	}
+
+	@Test
+	public void testParseArrayType() {
+		TypeDescriptor typeDescriptor = typeExpressionParser.parse("byte[][]");
+
+		assertEquals(TypeDescriptor.Kind.ARRAY, typeDescriptor.getKind());
+		assertEquals(2, typeDescriptor.getDimensions());
+		assertEquals("byte[][]", typeDescriptor.toType(ast).toString());
+	}
+
+	@Test
+	public void testParseNestedParameterizedType() {
+		TypeDescriptor typeDescriptor = typeExpressionParser
+				.parse("Map<String, Map<String, List<de.test.Company>>>");
+
+		assertEquals(TypeDescriptor.Kind.PARAMETERIZED,
+				typeDescriptor.getKind());
+		assertEquals(2, typeDescriptor.getTypeArguments().size());
+		assertEquals(
+				"java.util.Map<String,java.util.Map<String,java.util.List<de.test.Company>>>",
+				typeDescriptor.toType(ast).toString());
+	}
+
+	@Test
+	public void testParseParameterizedTypeWithArrays() {
+		TypeDescriptor typeDescriptor = typeExpressionParser
+				.parse("Map<String[], List<int[]>>[]");
+
+		assertEquals("java.util.Map<String[],java.util.List<int[]>>[]",
+				typeDescriptor.toType(ast).toString());
+	}
+
+	@Test
+	public void testAppendSource() {
+		TypeDescriptor typeDescriptor = typeExpressionParser
+				.parse("Map<String[], List<int[]>>[]");
+
+		assertEquals("java.util.Map<String[], java.util.List<int[]>>[]",
+				typeDescriptor.appendTo(new StringBuilder()).toString());
+	}
+
+	@Test
+	public void testParseCachedAndInterned() {
+		TypeDescriptor list = typeExpressionParser.parse("List<String>");
+		TypeDescriptor map = typeExpressionParser
+				.parse("Map<String, List<String>>");
+
+		assertSame(list, typeExpressionParser.parse("List<String>"));
+		assertSame(list, map.getTypeArguments().get(1));
+		assertSame(list.getTypeArguments().get(0), map.getTypeArguments()
+				.get(0));
+	}
+
+	@Test
+	public void testParseCreatesNewTypes() {
+		TypeDescriptor typeDescriptor = typeExpressionParser
+				.parse("List<String>");
+
+		Type firstType = typeDescriptor.toType(ast);
+		Type secondType = typeDescriptor.toType(ast);
+
+		assertEquals(firstType.toString(), secondType.toString());
+		assertNotSame(firstType, secondType);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseMissingClosingBracket() {
+		typeExpressionParser.parse("Map<String, List<String>");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseTooManyClosingBrackets() {
+		typeExpressionParser.parse("List<String>>");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseEmptyTypeArgument() {
+		typeExpressionParser.parse("Map<String, >");
+	}
+}
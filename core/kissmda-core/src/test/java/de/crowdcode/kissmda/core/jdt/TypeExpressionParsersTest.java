@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.jdt;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.core.dom.PrimitiveType;
+import org.eclipse.jdt.core.dom.PrimitiveType.Code;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for Type Expression Parsers.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class TypeExpressionParsersTest {
+
+	private TypeExpressionParsers typeExpressionParsers;
+
+	@Before
+	public void setUp() throws Exception {
+		typeExpressionParsers = new TypeExpressionParsers();
+	}
+
+	@Test
+	public void testGetParserForSameMapping() {
+		TypeExpressionParser parser = typeExpressionParsers
+				.getParser(createDataTypeUtils("java.util.List"));
+
+		assertSame(parser, typeExpressionParsers
+				.getParser(createDataTypeUtils("java.util.List")));
+		assertSame(parser.parse("List"),
+				typeExpressionParsers.getParser(
+						createDataTypeUtils("java.util.List")).parse("List"));
+	}
+
+	@Test
+	public void testGetParserForOtherMapping() {
+		TypeExpressionParser parser = typeExpressionParsers
+				.getParser(createDataTypeUtils("java.util.List"));
+
+		assertNotSame(parser, typeExpressionParsers
+				.getParser(createDataTypeUtils("java.util.ArrayList")));
+	}
+
+	private DataTypeUtils createDataTypeUtils(String listType) {
+		Map<String, String> javaTypes = new HashMap<String, String>();
+		javaTypes.put("List", listType);
+		Map<String, Code> primitiveTypeCodes = Collections.singletonMap("int",
+				PrimitiveType.INT);
+		DataTypeUtils dataTypeUtils = mock(DataTypeUtils.class);
+		when(dataTypeUtils.getJavaTypes()).thenReturn(javaTypes);
+		when(dataTypeUtils.getPrimitiveTypeCodes()).thenReturn(
+				primitiveTypeCodes);
+		return dataTypeUtils;
+	}
+}
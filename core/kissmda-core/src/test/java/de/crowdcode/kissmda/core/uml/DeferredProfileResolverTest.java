@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.Stereotype;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.inject.Guice;
+
+import de.crowdcode.kissmda.core.CoreModule;
+import de.crowdcode.kissmda.core.StandardContext;
+
+/**
+ * Unit test for Deferred Profile Resolver.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class DeferredProfileResolverTest {
+
+	private static final String COMPANY_ID = "_17_0_1_2_7e40267_1343729251108_825780_1838";
+
+	private static final String KISSMDA_PROFILE = "kissmda-profile-core.profile.uml";
+
+	private static final String MAGIC_DRAW_PROFILE = "UML_Standard_Profile.MagicDraw_Profile.profile.uml";
+
+	private StandardContext context;
+
+	private ModelRepository modelRepository;
+
+	@Before
+	public void setUp() throws Exception {
+		context = new StandardContext();
+		String thisPath = this.getClass().getProtectionDomain()
+				.getCodeSource().getLocation().getPath();
+		context.setSourceModel(thisPath + "model/emf/test-uml.uml");
+		context.setLazyProfilesEnabled(true);
+		modelRepository = Guice.createInjector(new CoreModule(context))
+				.getInstance(ModelRepository.class);
+	}
+
+	@Test
+	public void testProfilesAreNotLoaded() throws Exception {
+		org.eclipse.uml2.uml.Package rootPackage = modelRepository
+				.getRootPackage(context);
+
+		assertEquals(1, rootPackage.eResource().getResourceSet()
+				.getResources().size());
+		assertTrue(getCompany(rootPackage).getAppliedStereotypes().isEmpty());
+
+		Set<String> untouchedProfiles = modelRepository.getUntouchedProfiles();
+		assertTrue(untouchedProfiles.contains(KISSMDA_PROFILE));
+		assertTrue(untouchedProfiles.contains(MAGIC_DRAW_PROFILE));
+	}
+
+	@Test
+	public void testResolveStereotypes() throws Exception {
+		org.eclipse.uml2.uml.Package rootPackage = modelRepository
+				.getRootPackage(context);
+
+		modelRepository.resolveStereotypes("Entity");
+
+		Element company = getCompany(rootPackage);
+		assertEquals(1, company.getAppliedStereotypes().size());
+		Stereotype entity = company.getAppliedStereotypes().get(0);
+		assertEquals("Entity", entity.getName());
+		assertNotNull(company.getStereotypeApplication(entity));
+		// All applications of the profile are resolved
+		assertEquals("SourceDirectory", rootPackage.getAppliedStereotypes()
+				.get(0).getName());
+		// The XMI ids of the stereotype applications are kept
+		Resource resource = rootPackage.eResource();
+		assertEquals(company.getStereotypeApplication(entity),
+				resource.getEObject("_MZ9ByOYjEeGEZqszJ1tuJA"));
+
+		Set<String> untouchedProfiles = modelRepository.getUntouchedProfiles();
+		assertFalse(untouchedProfiles.contains(KISSMDA_PROFILE));
+		assertTrue(untouchedProfiles.contains(MAGIC_DRAW_PROFILE));
+	}
+
+	@Test
+	public void testResolveUnknownStereotype() throws Exception {
+		org.eclipse.uml2.uml.Package rootPackage = modelRepository
+				.getRootPackage(context);
+
+		modelRepository.resolveStereotypes("Unknown");
+
+		assertTrue(getCompany(rootPackage).getAppliedStereotypes().isEmpty());
+		assertTrue(modelRepository.getUntouchedProfiles().contains(
+				KISSMDA_PROFILE));
+	}
+
+	private Element getCompany(org.eclipse.uml2.uml.Package rootPackage) {
+		return (Element) rootPackage.eResource().getEObject(COMPANY_ID);
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import org.eclipse.uml2.uml.Classifier;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.NamedElement;
+import org.eclipse.uml2.uml.Property;
+import org.eclipse.uml2.uml.UMLPackage;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.inject.Guice;
+
+import de.crowdcode.kissmda.core.CoreModule;
+import de.crowdcode.kissmda.core.StandardContext;
+
+/**
+ * Unit test for Element Fingerprint.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class ElementFingerprintTest {
+
+	private StandardContext context;
+
+	private ElementFingerprint elementFingerprint;
+
+	@Before
+	public void setUp() throws Exception {
+		context = new StandardContext();
+		String thisPath = this.getClass().getProtectionDomain()
+				.getCodeSource().getLocation().getPath();
+		context.setSourceModel(thisPath + "model/emf/test-uml.uml");
+		elementFingerprint = new ElementFingerprint();
+	}
+
+	@Test
+	public void testFingerprintIsStableBetweenLoads() throws Exception {
+		Classifier firstCompany = findClass(loadModelIndex(), "Company");
+		Classifier secondCompany = findClass(loadModelIndex(), "Company");
+
+		assertEquals(elementFingerprint.compute(firstCompany, "1.0.0"),
+				elementFingerprint.compute(secondCompany, "1.0.0"));
+	}
+
+	@Test
+	public void testFingerprintChangesWithContent() throws Exception {
+		ModelIndex modelIndex = loadModelIndex();
+		Classifier company = findClass(modelIndex, "Company");
+		Classifier person = findClass(modelIndex, "Person");
+		String fingerprint = elementFingerprint.compute(company, "1.0.0");
+
+		assertFalse(fingerprint.equals(elementFingerprint.compute(person,
+				"1.0.0")));
+		assertFalse(fingerprint.equals(elementFingerprint.compute(company,
+				"1.0.1")));
+
+		Property property = company.getAttributes().get(0);
+		property.setName(property.getName() + "Changed");
+
+		assertFalse(fingerprint.equals(elementFingerprint.compute(company,
+				"1.0.0")));
+	}
+
+	private ModelIndex loadModelIndex() throws Exception {
+		return Guice.createInjector(new CoreModule(context))
+				.getInstance(ModelRepository.class).getModelIndex(context);
+	}
+
+	private Classifier findClass(ModelIndex modelIndex, String name) {
+		for (Element element : modelIndex.getElements(UMLPackage.Literals.CLASS)) {
+			if (name.equals(((NamedElement) element).getName())) {
+				return (Classifier) element;
+			}
+		}
+		fail("Class " + name + " not found");
+		return null;
+	}
+}
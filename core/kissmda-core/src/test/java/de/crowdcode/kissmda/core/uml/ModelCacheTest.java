@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.Stereotype;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.Files;
+import com.google.inject.Guice;
+
+import de.crowdcode.kissmda.core.CoreModule;
+import de.crowdcode.kissmda.core.StandardContext;
+
+/**
+ * Unit test for Model Cache.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class ModelCacheTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private StandardContext context;
+
+	@Before
+	public void setUp() throws Exception {
+		context = new StandardContext();
+		String thisPath = this.getClass().getProtectionDomain()
+				.getCodeSource().getLocation().getPath();
+		context.setSourceModel(thisPath + "model/emf/test-uml.uml");
+		context.setModelCacheEnabled(true);
+		context.setModelCacheDirectory(temporaryFolder.getRoot()
+				.getAbsolutePath());
+		context.setGeneratorVersion("1.0.0");
+	}
+
+	@Test
+	public void testLoadFromCache() throws Exception {
+		ModelRepository coldModelRepository = createModelRepository();
+		org.eclipse.uml2.uml.Package coldPackage = coldModelRepository
+				.getRootPackage(context);
+
+		URI modelUri = URI.createURI("file:/" + context.getSourceModel());
+		Map<URI, URL> binaryLocations = new ModelCache(context)
+				.lookup(modelUri);
+		assertNotNull(binaryLocations);
+		assertTrue(binaryLocations.containsKey(modelUri));
+
+		ModelRepository warmModelRepository = createModelRepository();
+		org.eclipse.uml2.uml.Package warmPackage = warmModelRepository
+				.getRootPackage(context);
+
+		assertEquals(coldPackage.getName(), warmPackage.getName());
+		assertEquals(describe(coldPackage), describe(warmPackage));
+		Resource warmResource = warmPackage.eResource();
+		assertEquals(
+				((BinaryUmlResource) coldPackage.eResource())
+						.getID(coldPackage),
+				((BinaryUmlResource) warmResource).getID(warmPackage));
+	}
+
+	@Test
+	public void testFailedLoadFromCacheKeepsOtherModels() throws Exception {
+		File cacheDirectory = temporaryFolder.newFolder("cache");
+		context.setModelCacheDirectory(cacheDirectory.getAbsolutePath());
+		String sourceModel = context.getSourceModel();
+		createModelRepository().getRootPackage(context);
+
+		// A copy of the model with its profiles in another directory
+		File modelDirectory = new File(sourceModel).getParentFile();
+		File otherDirectory = temporaryFolder.newFolder("other");
+		for (File file : modelDirectory.listFiles()) {
+			Files.copy(file, new File(otherDirectory, file.getName()));
+		}
+		ModelRepository modelRepository = createModelRepository();
+		context.setSourceModel(new File(otherDirectory, "test-uml.uml")
+				.getAbsolutePath());
+		org.eclipse.uml2.uml.Package otherPackage = modelRepository
+				.getRootPackage(context);
+
+		// Break the binary forms, the index files stay valid
+		for (File entryDirectory : cacheDirectory.listFiles()) {
+			if (entryDirectory.isDirectory()) {
+				for (File binaryFile : entryDirectory.listFiles()) {
+					Files.write(new byte[] { 0 }, binaryFile);
+				}
+			}
+		}
+		context.setSourceModel(sourceModel);
+		org.eclipse.uml2.uml.Package outPackage = modelRepository
+				.getRootPackage(context);
+
+		assertNotNull(outPackage);
+		assertTrue(otherPackage.eResource().isLoaded());
+		assertEquals(describe(outPackage), describe(otherPackage));
+	}
+
+	@Test
+	public void testLookupWithOtherVersion() throws Exception {
+		createModelRepository().getRootPackage(context);
+
+		URI modelUri = URI.createURI("file:/" + context.getSourceModel());
+		ModelCache modelCache = new ModelCache(temporaryFolder.getRoot(),
+				"2.0.0", 0, 0);
+
+		assertNull(modelCache.lookup(modelUri));
+	}
+
+	@Test
+	public void testLookupWithoutIndex() {
+		URI modelUri = URI.createURI("file:/" + context.getSourceModel());
+
+		assertNull(new ModelCache(context).lookup(modelUri));
+	}
+
+	@Test
+	public void testEvictByAge() throws Exception {
+		File oldEntry = createEntry("old", 10);
+		File currentEntry = createEntry("current", 10);
+		oldEntry.setLastModified(System.currentTimeMillis() - 10000);
+
+		ModelCache modelCache = new ModelCache(temporaryFolder.getRoot(),
+				"1.0.0", 0, 5000);
+		modelCache.evict(currentEntry);
+
+		assertFalse(oldEntry.exists());
+		assertTrue(currentEntry.exists());
+	}
+
+	@Test
+	public void testEvictBySize() throws Exception {
+		File oldestEntry = createEntry("oldest", 100);
+		File olderEntry = createEntry("older", 100);
+		File currentEntry = createEntry("current", 100);
+		long now = System.currentTimeMillis();
+		oldestEntry.setLastModified(now - 2000);
+		olderEntry.setLastModified(now - 1000);
+
+		ModelCache modelCache = new ModelCache(temporaryFolder.getRoot(),
+				"1.0.0", 250, 0);
+		modelCache.evict(currentEntry);
+
+		assertFalse(oldestEntry.exists());
+		assertTrue(olderEntry.exists());
+		assertTrue(currentEntry.exists());
+	}
+
+	private ModelRepository createModelRepository() {
+		return Guice.createInjector(new CoreModule(context)).getInstance(
+				ModelRepository.class);
+	}
+
+	private File createEntry(String name, int size) throws IOException {
+		File entryDirectory = temporaryFolder.newFolder(name);
+		Files.write(new byte[size], new File(entryDirectory, "0"
+				+ ModelCache.BINARY_FILE_SUFFIX));
+		return entryDirectory;
+	}
+
+	private List<String> describe(org.eclipse.uml2.uml.Package rootPackage) {
+		List<String> descriptions = new ArrayList<String>();
+		for (Element element : rootPackage.allOwnedElements()) {
+			StringBuilder description = new StringBuilder(element.eClass()
+					.getName());
+			for (Stereotype stereotype : element.getAppliedStereotypes()) {
+				description.append(" ").append(stereotype.getQualifiedName());
+			}
+			descriptions.add(description.toString());
+		}
+		return descriptions;
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.NamedElement;
+import org.eclipse.uml2.uml.Stereotype;
+import org.eclipse.uml2.uml.UMLPackage;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.inject.Guice;
+
+import de.crowdcode.kissmda.core.CoreModule;
+import de.crowdcode.kissmda.core.StandardContext;
+
+/**
+ * Unit test for Model Index.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class ModelIndexTest {
+
+	private StandardContext context;
+
+	private ModelRepository modelRepository;
+
+	private ModelIndex modelIndex;
+
+	@Before
+	public void setUp() throws Exception {
+		context = new StandardContext();
+		String thisPath = this.getClass().getProtectionDomain()
+				.getCodeSource().getLocation().getPath();
+		context.setSourceModel(thisPath + "model/emf/test-uml.uml");
+		modelRepository = Guice.createInjector(new CoreModule(context))
+				.getInstance(ModelRepository.class);
+		modelIndex = modelRepository.getModelIndex(context);
+	}
+
+	@Test
+	public void testGetElementsByStereotype() {
+		List<String> names = new ArrayList<String>();
+		for (Element element : modelIndex.getElements("Entity")) {
+			names.add(((NamedElement) element).getName());
+		}
+
+		assertEquals(3, names.size());
+		assertTrue(names.contains("Company"));
+		assertTrue(names.contains("Person"));
+		assertEquals(1, modelIndex.getElements("SourceDirectory").size());
+		assertSame(modelIndex.getRootPackage(),
+				modelIndex.getElements("SourceDirectory").get(0));
+		assertTrue(modelIndex.getElements("Unknown").isEmpty());
+	}
+
+	@Test
+	public void testIndexMatchesModelWalk() {
+		org.eclipse.uml2.uml.Package rootPackage = modelIndex.getRootPackage();
+		List<Element> elements = new ArrayList<Element>();
+		elements.add(rootPackage);
+		elements.addAll(rootPackage.allOwnedElements());
+
+		List<Element> classes = new ArrayList<Element>();
+		for (Element element : elements) {
+			List<Stereotype> stereotypes = element.getAppliedStereotypes();
+			assertEquals(stereotypes.size(), modelIndex
+					.getAppliedStereotypes(element).size());
+			assertTrue(modelIndex.getAppliedStereotypes(element).containsAll(
+					stereotypes));
+			for (Stereotype stereotype : stereotypes) {
+				assertTrue(modelIndex.hasStereotype(element,
+						stereotype.getName()));
+			}
+			if (element.eClass() == UMLPackage.Literals.CLASS) {
+				classes.add(element);
+			}
+		}
+
+		assertFalse(classes.isEmpty());
+		assertEquals(classes,
+				modelIndex.getElements(UMLPackage.Literals.CLASS));
+	}
+
+	@Test
+	public void testGetModelIndexOncePerExecution() throws Exception {
+		assertSame(modelIndex, modelRepository.getModelIndex(context));
+	}
+}
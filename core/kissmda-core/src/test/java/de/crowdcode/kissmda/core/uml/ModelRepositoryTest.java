@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Iterator;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.uml2.uml.Profile;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.Files;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import de.crowdcode.kissmda.core.CoreModule;
+import de.crowdcode.kissmda.core.StandardContext;
+
+/**
+ * Unit test for Model Repository.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class ModelRepositoryTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private StandardContext context;
+
+	private Injector parentInjector;
+
+	@Before
+	public void setUp() throws Exception {
+		context = new StandardContext();
+		String thisPath = this.getClass().getProtectionDomain()
+				.getCodeSource().getLocation().getPath();
+		context.setSourceModel(thisPath + "model/emf/test-uml.uml");
+		parentInjector = Guice.createInjector(new CoreModule(context));
+	}
+
+	@Test
+	public void testGetRootPackageOncePerExecution() throws Exception {
+		// Every transformer gets its own child injector
+		Injector firstInjector = parentInjector
+				.createChildInjector(new EmptyModule());
+		Injector secondInjector = parentInjector
+				.createChildInjector(new EmptyModule());
+		PackageHelper firstPackageHelper = firstInjector
+				.getInstance(PackageHelper.class);
+		PackageHelper secondPackageHelper = secondInjector
+				.getInstance(PackageHelper.class);
+		ModelRepository modelRepository = parentInjector
+				.getInstance(ModelRepository.class);
+
+		assertFalse(modelRepository.isLoaded(context.getSourceModel()));
+
+		org.eclipse.uml2.uml.Package firstPackage = firstPackageHelper
+				.getRootPackage(context);
+		org.eclipse.uml2.uml.Package secondPackage = secondPackageHelper
+				.getRootPackage(context);
+
+		assertNotNull(firstPackage);
+		assertEquals("Data", firstPackage.getName());
+		assertSame(firstPackage, secondPackage);
+		assertTrue(modelRepository.isLoaded(context.getSourceModel()));
+	}
+
+	@Test
+	public void testGetRootPackageWithFastLoad() throws Exception {
+		org.eclipse.uml2.uml.Package defaultPackage = parentInjector
+				.getInstance(ModelRepository.class).getRootPackage(context);
+
+		StandardContext fastLoadContext = new StandardContext();
+		fastLoadContext.setSourceModel(context.getSourceModel());
+		fastLoadContext.setFastLoadEnabled(true);
+		Injector fastLoadInjector = Guice.createInjector(new CoreModule(
+				fastLoadContext));
+		org.eclipse.uml2.uml.Package fastLoadPackage = fastLoadInjector
+				.getInstance(ModelRepository.class).getRootPackage(
+						fastLoadContext);
+
+		assertNotNull(fastLoadPackage);
+		assertEquals(defaultPackage.getName(), fastLoadPackage.getName());
+		assertEquals(countElements(defaultPackage),
+				countElements(fastLoadPackage));
+		assertEquals(defaultPackage.getAppliedProfiles().size(),
+				fastLoadPackage.getAppliedProfiles().size());
+	}
+
+	@Test
+	public void testGetRootPackageFromArchive() throws Exception {
+		File archiveFile = createArchive("test-uml.mdzip", true);
+		context.setSourceModel(archiveFile.getAbsolutePath());
+
+		org.eclipse.uml2.uml.Package rootPackage = parentInjector
+				.getInstance(ModelRepository.class).getRootPackage(context);
+
+		assertNotNull(rootPackage);
+		assertEquals("Data", rootPackage.getName());
+		assertEquals("archive", rootPackage.eResource().getURI().scheme());
+		assertFalse(rootPackage.getAppliedProfiles().isEmpty());
+		for (Profile profile : rootPackage.getAppliedProfiles()) {
+			// Profiles are resolved inside the same archive
+			assertFalse(profile.eIsProxy());
+			assertEquals("archive", profile.eResource().getURI().scheme());
+		}
+	}
+
+	@Test
+	public void testCreateUriWithArchiveEntry() throws Exception {
+		File archiveFile = createArchive("model.zip", true);
+		ModelRepository modelRepository = parentInjector
+				.getInstance(ModelRepository.class);
+
+		URI uri = modelRepository.createUri(archiveFile.getAbsolutePath()
+				+ "!/kissmda-profile-core.profile.uml");
+
+		assertEquals("archive", uri.scheme());
+		assertEquals("kissmda-profile-core.profile.uml", uri.lastSegment());
+		// Without a model entry named like the archive take the first one
+		assertEquals("test-uml.uml",
+				modelRepository.createUri(archiveFile.getAbsolutePath())
+						.lastSegment());
+	}
+
+	@Test(expected = URISyntaxException.class)
+	public void testCreateUriWithoutModelEntry() throws Exception {
+		// Like a native MagicDraw project without UML XMI entries
+		File archiveFile = createArchive("native.mdzip", false);
+
+		parentInjector.getInstance(ModelRepository.class).createUri(
+				archiveFile.getAbsolutePath());
+	}
+
+	private File createArchive(String name, boolean withModel)
+			throws IOException {
+		File modelDirectory = new File(context.getSourceModel())
+				.getParentFile();
+		File archiveFile = temporaryFolder.newFile(name);
+		ZipOutputStream zipOutputStream = new ZipOutputStream(
+				new FileOutputStream(archiveFile));
+		try {
+			for (File file : modelDirectory.listFiles()) {
+				if (withModel
+						&& (file.getName().endsWith(".profile.uml") || file
+								.getName().equals("test-uml.uml"))) {
+					zipOutputStream.putNextEntry(new ZipEntry(file.getName()));
+					Files.copy(file, zipOutputStream);
+					zipOutputStream.closeEntry();
+				}
+			}
+			zipOutputStream.putNextEntry(new ZipEntry("Binaries.properties"));
+			zipOutputStream.closeEntry();
+		} finally {
+			zipOutputStream.close();
+		}
+		return archiveFile;
+	}
+
+	private int countElements(org.eclipse.uml2.uml.Package rootPackage) {
+		int count = 0;
+		for (Iterator<EObject> iterator = rootPackage.eAllContents(); iterator
+				.hasNext(); iterator.next()) {
+			count++;
+		}
+		return count;
+	}
+
+	private static class EmptyModule extends AbstractModule {
+		@Override
+		protected void configure() {
+			// Nothing to bind
+		}
+	}
+}
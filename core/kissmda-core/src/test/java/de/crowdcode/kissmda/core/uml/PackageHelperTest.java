@@ -40,7 +40,7 @@ public class PackageHelperTest {
 
 	@Before
 	public void setUp() throws Exception {
-		packageHelper = new PackageHelper();
+		packageHelper = new PackageHelper(new PackageNameResolver());
 	}
 
 	@Test
@@ -57,6 +57,18 @@ public class PackageHelperTest {
 		assertEquals("de.crowdcode.test.Company", result);
 	}
 
+	@Test
+	public void testGetFullPackageNameWithClassAndRegexCharacters() {
+		Class clazz = mock(Class.class);
+		when(clazz.getQualifiedName()).thenReturn(
+				"Model(1)::de::crowdcode::test::Company$1");
+		when(clazz.getName()).thenReturn("Company$1");
+
+		String result = packageHelper.getFullPackageName(clazz, "Model(1)");
+
+		assertEquals("de.crowdcode.test", result);
+	}
+
 	@Test
 	public void testGetFullPackageNameWithString() {
 		String sourceDirectoryPackageName = "Data";
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for Package Name Resolver.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class PackageNameResolverTest {
+
+	private PackageNameResolver packageNameResolver;
+
+	@Before
+	public void setUp() throws Exception {
+		packageNameResolver = new PackageNameResolver();
+	}
+
+	@Test
+	public void testRemoveAllPrefixesInOnePass() {
+		String result = packageNameResolver
+				.removeUmlPrefixes("Map<JavaPrimitiveTypes::int, Data::datatype-bindings::List<MagicDraw Profile::datatypes::String>>");
+
+		assertEquals("Map<int, Data::List<String>>", result);
+	}
+
+	@Test
+	public void testNameWithoutPrefixIsNotCopied() {
+		String name = "Data::de::test::Company";
+
+		assertSame(name, packageNameResolver.removeUmlPrefixes(name));
+	}
+
+	@Test
+	public void testGetFullPackageNameWithRegexCharacters() {
+		String result = packageNameResolver.getFullPackageName(
+				"Model.*::datatype::de::test::Company", "Model.*");
+
+		assertEquals("de.test.Company", result);
+		assertSame(result, packageNameResolver.getFullPackageName(
+				"Model.*::datatype::de::test::Company", "Model.*"));
+		assertEquals("Model.*.de.test.Company",
+				packageNameResolver.getFullPackageName(
+						"Model.*::datatype::de::test::Company", "Data"));
+	}
+
+	@Test
+	public void testGetFullPackageNameWithoutSourceDirectory() {
+		assertEquals("de.test.Company", packageNameResolver.getFullPackageName(
+				"de::test::Company", null));
+		assertEquals("de.test", packageNameResolver.getFullPackageName(
+				"de::test::Company", "Company", null));
+	}
+}
@@ -0,0 +1,328 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilenameFilter;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.Stereotype;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+/**
+ * Unit test for Profile Precompiler.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class ProfilePrecompilerTest {
+
+	static final String SHIPPED_PROFILES = "../../profiles/kissmda-profile-core/src/main/profiles";
+
+	static final String APP_TEST_MODEL = "../../app-examples/kissmda-app-test/src/main/resources/model/emf/test-uml.uml";
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File modelDirectory;
+
+	private File outputDirectory;
+
+	@Before
+	public void setUp() throws Exception {
+		modelDirectory = new File(this.getClass()
+				.getResource("/model/emf/test-uml.uml").toURI())
+				.getParentFile();
+		outputDirectory = temporaryFolder.newFolder("classes");
+	}
+
+	@Test
+	public void testPrecompile() throws Exception {
+		new ProfilePrecompiler().precompile(modelDirectory, outputDirectory);
+
+		Properties index = new Properties();
+		InputStream inputStream = new FileInputStream(new File(
+				outputDirectory, ProfilePrecompiler.INDEX_LOCATION));
+		try {
+			index.load(inputStream);
+		} finally {
+			inputStream.close();
+		}
+		File profileFile = new File(modelDirectory,
+				"kissmda-profile-core.profile.uml");
+		String hash = hash(profileFile);
+		assertEquals(
+				"http:///schemas/kissmdaprofilecore/_LxbpIeYjEeGEZqszJ1tuJA/0",
+				index.getProperty(hash + ProfilePrecompiler.INDEX_NS_URI_SUFFIX));
+		assertEquals("kissmda-profile-core.profile.uml",
+				index.getProperty(hash
+						+ ProfilePrecompiler.INDEX_FILE_NAME_SUFFIX));
+		assertEquals(String.valueOf(profileFile.length()),
+				index.getProperty(hash + ProfilePrecompiler.INDEX_SIZE_SUFFIX));
+		assertTrue(new File(outputDirectory,
+				ProfilePrecompiler.BINARY_DIRECTORY + hash
+						+ ProfilePrecompiler.BINARY_FILE_SUFFIX).isFile());
+		assertFalse(new File(outputDirectory,
+				ProfilePrecompiler.BINARY_DIRECTORY
+						+ hash(new File(modelDirectory, "test-uml.uml"))
+						+ ProfilePrecompiler.BINARY_FILE_SUFFIX).exists());
+	}
+
+	@Test
+	public void testPrecompileExportsWithSameNsUri() throws Exception {
+		File sourceDirectory = temporaryFolder.newFolder("profiles");
+		File profileFile = new File(sourceDirectory,
+				"kissmda-profile-core.profile.uml");
+		Files.copy(new File(modelDirectory, profileFile.getName()),
+				profileFile);
+		File otherProfileFile = new File(sourceDirectory,
+				"kissmda-profile-core-other.profile.uml");
+		Files.write(Files.toString(profileFile, Charsets.UTF_8) + "\n",
+				otherProfileFile, Charsets.UTF_8);
+
+		new ProfilePrecompiler().precompile(sourceDirectory, outputDirectory);
+
+		Properties index = new Properties();
+		InputStream inputStream = new FileInputStream(new File(
+				outputDirectory, ProfilePrecompiler.INDEX_LOCATION));
+		try {
+			index.load(inputStream);
+		} finally {
+			inputStream.close();
+		}
+		String nsUri = "http:///schemas/kissmdaprofilecore/_LxbpIeYjEeGEZqszJ1tuJA/0";
+		assertEquals(nsUri, index.getProperty(hash(profileFile)
+				+ ProfilePrecompiler.INDEX_NS_URI_SUFFIX));
+		assertEquals(nsUri, index.getProperty(hash(otherProfileFile)
+				+ ProfilePrecompiler.INDEX_NS_URI_SUFFIX));
+	}
+
+	@Test
+	public void testPrecompileWithoutProfiles() throws Exception {
+		new ProfilePrecompiler().precompile(temporaryFolder.newFolder("empty"),
+				outputDirectory);
+
+		assertFalse(new File(outputDirectory,
+				ProfilePrecompiler.INDEX_LOCATION).exists());
+	}
+
+	@Test
+	public void testLoadModelWithPrecompiledProfiles() throws Exception {
+		new ProfilePrecompiler().precompile(modelDirectory, outputDirectory);
+
+		// The model together with the XMI copies of the profiles
+		File applicationDirectory = temporaryFolder.newFolder("application");
+		File modelFile = new File(applicationDirectory, "test-uml.uml");
+		Files.copy(new File(modelDirectory, "test-uml.uml"), modelFile);
+		for (File profileFile : getProfileFiles(modelDirectory)) {
+			Files.copy(profileFile, new File(applicationDirectory,
+					profileFile.getName()));
+		}
+
+		assertSameAsXmi(modelFile, new File(modelDirectory, "test-uml.uml"),
+				getProfileClassLoader(outputDirectory));
+	}
+
+	@Test
+	public void testLoadModelWithoutProfileCopies() throws Exception {
+		new ProfilePrecompiler().precompile(modelDirectory, outputDirectory);
+		File shippedOutputDirectory = temporaryFolder.newFolder("shipped");
+		new ProfilePrecompiler().precompile(new File(SHIPPED_PROFILES),
+				shippedOutputDirectory);
+
+		// Only the model, the profiles are resolved by their namespace URIs
+		// although two exports of each profile are on the classpath
+		File applicationDirectory = temporaryFolder.newFolder("application");
+		File modelFile = new File(applicationDirectory, "test-uml.uml");
+		Files.copy(new File(APP_TEST_MODEL), modelFile);
+
+		assertSameAsXmi(modelFile, new File(APP_TEST_MODEL),
+				getProfileClassLoader(outputDirectory, shippedOutputDirectory));
+	}
+
+	@Test
+	public void testLoadAppTestModelWithShippedProfiles() throws Exception {
+		new ProfilePrecompiler().precompile(new File(SHIPPED_PROFILES),
+				outputDirectory);
+
+		// The shipped profiles must match the copies of the application
+		File appTestModel = new File(APP_TEST_MODEL);
+		PrecompiledProfileURIHandler uriHandler = new PrecompiledProfileURIHandler(
+				getProfileClassLoader(outputDirectory));
+		for (File profileFile : getProfileFiles(appTestModel.getParentFile())) {
+			assertTrue(profileFile.getName(), uriHandler.canHandle(URI
+					.createFileURI(profileFile.getAbsolutePath())));
+		}
+
+		assertSameAsXmi(appTestModel, appTestModel,
+				getProfileClassLoader(outputDirectory));
+	}
+
+	@Test
+	public void testChangedProfileCopyIsNotHandled() throws Exception {
+		new ProfilePrecompiler().precompile(modelDirectory, outputDirectory);
+
+		File applicationDirectory = temporaryFolder.newFolder("application");
+		File profileFile = new File(applicationDirectory,
+				"kissmda-profile-core.profile.uml");
+		Files.write("<changed/>".getBytes("UTF-8"), profileFile);
+		File sameProfileFile = new File(applicationDirectory,
+				"UML_Standard_Profile.Validation_Profile.profile.uml");
+		Files.copy(new File(modelDirectory, sameProfileFile.getName()),
+				sameProfileFile);
+
+		PrecompiledProfileURIHandler uriHandler = new PrecompiledProfileURIHandler(
+				getProfileClassLoader(outputDirectory));
+
+		assertTrue(uriHandler.hasProfiles());
+		assertFalse(uriHandler.canHandle(URI.createFileURI(profileFile
+				.getAbsolutePath())));
+		assertTrue(uriHandler.canHandle(URI.createFileURI(sameProfileFile
+				.getAbsolutePath())));
+		// Matched by content, not by file name
+		File renamedProfileFile = new File(applicationDirectory,
+				"renamed.profile.uml");
+		Files.copy(sameProfileFile, renamedProfileFile);
+		assertTrue(uriHandler.canHandle(URI.createFileURI(renamedProfileFile
+				.getAbsolutePath())));
+		assertFalse(uriHandler.canHandle(URI.createFileURI(new File(
+				applicationDirectory, "test-uml.uml").getAbsolutePath())));
+	}
+
+	@Test
+	public void testMissingProfileCopyIsHandled() throws Exception {
+		new ProfilePrecompiler().precompile(modelDirectory, outputDirectory);
+		File shippedOutputDirectory = temporaryFolder.newFolder("shipped");
+		new ProfilePrecompiler().precompile(new File(SHIPPED_PROFILES),
+				shippedOutputDirectory);
+		File applicationDirectory = temporaryFolder.newFolder("application");
+		URI profileUri = URI.createFileURI(new File(applicationDirectory,
+				"kissmda-profile-core.profile.uml").getAbsolutePath());
+		URI otherProfileUri = URI.createFileURI(new File(applicationDirectory,
+				"UML_Standard_Profile.MagicDraw_Profile.profile.uml")
+				.getAbsolutePath());
+
+		PrecompiledProfileURIHandler uriHandler = new PrecompiledProfileURIHandler(
+				getProfileClassLoader(outputDirectory));
+		// Only one profile with this file name
+		assertTrue(uriHandler.canHandle(profileUri));
+		assertTrue(uriHandler.canHandle(URI
+				.createURI(PrecompiledProfileURIHandler.PROFILES_PATHMAP
+						+ "kissmda-profile-core.profile.uml")));
+		// A namespace URI which is not precompiled
+		uriHandler.expectProfile("http:///schemas/unknown/0",
+				otherProfileUri.appendFragment("_0"));
+		assertFalse(uriHandler.canHandle(otherProfileUri));
+
+		uriHandler = new PrecompiledProfileURIHandler(getProfileClassLoader(
+				outputDirectory, shippedOutputDirectory));
+		// Two profiles with this file name
+		assertFalse(uriHandler.canHandle(profileUri));
+		uriHandler.expectProfile(
+				"http:///schemas/kissmdaprofilecore/_15HYYIt6Eeed8uRPeNILkw/0",
+				profileUri);
+		assertTrue(uriHandler.canHandle(profileUri));
+		// Shipped together with the expected profile
+		assertTrue(uriHandler.canHandle(otherProfileUri));
+	}
+
+	private void assertSameAsXmi(File modelFile, File xmiModelFile,
+			ClassLoader profileClassLoader) throws Exception {
+		ReaderWriter readerWriter = new ReaderWriter();
+		readerWriter.registerSchema();
+		readerWriter.registerResourceFactories();
+		readerWriter.registerBinaryResourceFactory();
+		readerWriter.registerPathmaps();
+		readerWriter
+				.getResourceSet()
+				.getURIConverter()
+				.getURIHandlers()
+				.add(0, new PrecompiledProfileURIHandler(profileClassLoader));
+		org.eclipse.uml2.uml.Package precompiledPackage = readerWriter
+				.load(URI.createFileURI(modelFile.getAbsolutePath()));
+
+		ReaderWriter xmiReaderWriter = new ReaderWriter();
+		xmiReaderWriter.registerSchema();
+		xmiReaderWriter.registerResourceFactories();
+		xmiReaderWriter.registerPathmaps();
+		org.eclipse.uml2.uml.Package xmiPackage = xmiReaderWriter.load(URI
+				.createFileURI(xmiModelFile.getAbsolutePath()));
+
+		assertEquals(describe(xmiPackage), describe(precompiledPackage));
+		for (Resource resource : readerWriter.getResourceSet().getResources()) {
+			assertTrue(resource.getErrors().isEmpty());
+		}
+	}
+
+	private ClassLoader getProfileClassLoader(File... directories)
+			throws Exception {
+		URL[] urls = new URL[directories.length];
+		for (int index = 0; index < directories.length; index++) {
+			urls[index] = directories[index].toURI().toURL();
+		}
+		return new URLClassLoader(urls, null);
+	}
+
+	private File[] getProfileFiles(File directory) {
+		return directory.listFiles(new FilenameFilter() {
+			@Override
+			public boolean accept(File dir, String name) {
+				return name.endsWith(ProfilePrecompiler.PROFILE_FILE_SUFFIX);
+			}
+		});
+	}
+
+	private String hash(File file) throws Exception {
+		return Files.hash(file, Hashing.sha1()).toString();
+	}
+
+	private List<String> describe(org.eclipse.uml2.uml.Package rootPackage) {
+		List<String> descriptions = new ArrayList<String>();
+		for (Element element : rootPackage.allOwnedElements()) {
+			StringBuilder description = new StringBuilder(element.eClass()
+					.getName());
+			for (Stereotype stereotype : element.getAppliedStereotypes()) {
+				description.append(" ").append(stereotype.getQualifiedName());
+			}
+			descriptions.add(description.toString());
+		}
+		return descriptions;
+	}
+}
@@ -18,6 +18,7 @@
  */
 package de.crowdcode.kissmda.core.uml;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.net.URISyntaxException;
@@ -50,4 +51,18 @@ public class ReaderWriterTest {
 
 		assertTrue(true);
 	}
+
+	@Test
+	public void testLoadWithoutBinaryResources() throws URISyntaxException {
+		ReaderWriter app = new ReaderWriter();
+		URI uri = URI.createURI(this.getClass()
+				.getResource("/model/emf/test-uml.uml").toURI().toString());
+		app.registerSchema();
+		app.registerResourceFactories();
+		app.registerPathmaps();
+
+		org.eclipse.uml2.uml.Package outPackage = app.load(uri);
+
+		assertFalse(outPackage.eResource() instanceof BinaryUmlResource);
+	}
 }
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.uml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.uml2.uml.Classifier;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.NamedElement;
+import org.eclipse.uml2.uml.UMLPackage;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Function;
+import com.google.inject.Guice;
+
+import de.crowdcode.kissmda.core.CoreModule;
+import de.crowdcode.kissmda.core.StandardContext;
+
+/**
+ * Unit test for Type Dependency Graph.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class TypeDependencyGraphTest {
+
+	private ModelIndex modelIndex;
+
+	private TypeDependencyGraph typeDependencyGraph;
+
+	private Classifier address;
+
+	private Classifier person;
+
+	private Classifier company;
+
+	@Before
+	public void setUp() throws Exception {
+		StandardContext context = new StandardContext();
+		String thisPath = this.getClass().getProtectionDomain()
+				.getCodeSource().getLocation().getPath();
+		context.setSourceModel(thisPath + "model/emf/test-uml.uml");
+		modelIndex = Guice.createInjector(new CoreModule(context))
+				.getInstance(ModelRepository.class).getModelIndex(context);
+		typeDependencyGraph = new TypeDependencyGraph(modelIndex);
+
+		address = findClass("Address");
+		person = findClass("Person");
+		company = findClass("Company");
+	}
+
+	@Test
+	public void testDependenciesAndDependents() {
+		assertTrue(typeDependencyGraph.getDependencies(person).contains(
+				address));
+		assertTrue(typeDependencyGraph.getDependencies(person).contains(
+				company));
+		assertFalse(typeDependencyGraph.getDependencies(company).contains(
+				person));
+
+		assertTrue(typeDependencyGraph.getDependents(company).contains(person));
+		assertFalse(typeDependencyGraph.getDependents(company).contains(
+				address));
+	}
+
+	@Test
+	public void testClosureFingerprintWithCycle() {
+		final List<Classifier> fingerprinted = new ArrayList<Classifier>();
+		Function<Classifier, String> names = new Function<Classifier, String>() {
+			@Override
+			public String apply(Classifier classifier) {
+				fingerprinted.add(classifier);
+				return classifier.getName();
+			}
+		};
+		String addressFingerprint = typeDependencyGraph.getClosureFingerprint(
+				address, names);
+		String companyFingerprint = typeDependencyGraph.getClosureFingerprint(
+				company, names);
+
+		// Address and Person reference each other
+		assertEquals(addressFingerprint,
+				typeDependencyGraph.getClosureFingerprint(person, names));
+		assertFalse(addressFingerprint.equals(companyFingerprint));
+		// Each classifier is fingerprinted once
+		assertEquals(new HashSet<Classifier>(fingerprinted).size(),
+				fingerprinted.size());
+		assertTrue(fingerprinted.contains(company));
+
+		// A change of Company changes Address, a change of Address does not
+		// change Company
+		Function<Classifier, String> changedCompany = changed(names, company);
+		assertFalse(addressFingerprint.equals(new TypeDependencyGraph(
+				modelIndex).getClosureFingerprint(address, changedCompany)));
+		Function<Classifier, String> changedAddress = changed(names, address);
+		assertEquals(companyFingerprint, new TypeDependencyGraph(modelIndex)
+				.getClosureFingerprint(company, changedAddress));
+	}
+
+	@Test
+	public void testDependencyClosure() {
+		Set<Classifier> closure = typeDependencyGraph
+				.getDependencyClosure(address);
+		assertTrue(closure.contains(person));
+		assertTrue(closure.contains(company));
+		assertFalse(closure.contains(address));
+
+		assertFalse(typeDependencyGraph.getDependencyClosure(company)
+				.contains(person));
+	}
+
+	private Function<Classifier, String> changed(
+			final Function<Classifier, String> fingerprint,
+			final Classifier changedClassifier) {
+		return new Function<Classifier, String>() {
+			@Override
+			public String apply(Classifier classifier) {
+				String result = fingerprint.apply(classifier);
+				return classifier == changedClassifier ? result + " changed"
+						: result;
+			}
+		};
+	}
+
+	private Classifier findClass(String name) {
+		for (Element element : modelIndex.getElements(UMLPackage.Literals.CLASS)) {
+			if (name.equals(((NamedElement) element).getName())) {
+				return (Classifier) element;
+			}
+		}
+		fail("Class " + name + " not found");
+		return null;
+	}
+}
@@ -19,19 +19,29 @@
 package de.crowdcode.kissmda.core.uml;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.uml2.uml.Classifier;
+import org.eclipse.uml2.uml.Component;
 import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.Interface;
+import org.eclipse.uml2.uml.Model;
+import org.eclipse.uml2.uml.Operation;
+import org.eclipse.uml2.uml.Property;
 import org.eclipse.uml2.uml.TemplateBinding;
 import org.eclipse.uml2.uml.TemplateParameterSubstitution;
 import org.eclipse.uml2.uml.Type;
+import org.eclipse.uml2.uml.UMLFactory;
+import org.eclipse.uml2.uml.UMLPackage;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -65,6 +75,66 @@ public class UmlHelperTest {
 	public void setUp() throws Exception {
 	}
 
+	@Test
+	public void testGetFQNPackageAndComponentName() {
+		Model model = UMLFactory.eINSTANCE.createModel();
+		model.setName("Data");
+		org.eclipse.uml2.uml.Package testPackage = model.createNestedPackage(
+				"de").createNestedPackage("test");
+		org.eclipse.uml2.uml.Class company = testPackage.createOwnedClass(
+				"Company", false);
+		Interface service = model.createOwnedInterface("Service");
+		Component outer = (Component) testPackage.createPackagedElement(
+				"Outer", UMLPackage.Literals.COMPONENT);
+		Component inner = (Component) outer.createPackagedElement("Inner",
+				UMLPackage.Literals.COMPONENT);
+
+		assertEquals("de.test", umlHelper.getFQNPackageName(company));
+		assertEquals("de/test", umlHelper.getFQNPackagePath(company));
+		assertEquals("", umlHelper.getFQNPackageName(service));
+		assertEquals("", umlHelper.getFQNComponentName(company));
+		assertEquals("Outer.Inner", umlHelper.getFQNComponentName(inner));
+		assertEquals("Outer/Inner", umlHelper.getFQNComponentPath(inner));
+		assertEquals("de.test", umlHelper.getFQNPackageName(inner));
+	}
+
+	@Test
+	public void testGetAllAttributesAndOperationsWithDiamondAndCycle() {
+		org.eclipse.uml2.uml.Package umlPackage = UMLFactory.eINSTANCE
+				.createPackage();
+		Interface base = umlPackage.createOwnedInterface("Base");
+		Interface left = umlPackage.createOwnedInterface("Left");
+		Interface right = umlPackage.createOwnedInterface("Right");
+		Property id = base.createOwnedAttribute("id", null);
+		Property name = left.createOwnedAttribute("name", null);
+		Property value = right.createOwnedAttribute("value", null);
+		Operation save = UMLFactory.eINSTANCE.createOperation();
+		save.setName("save");
+		base.getOwnedOperations().add(save);
+		left.createGeneralization(base);
+		right.createGeneralization(base);
+		// Cycle back to the bottom of the diamond
+		base.createGeneralization(left);
+
+		org.eclipse.uml2.uml.Class company = umlPackage.createOwnedClass(
+				"Company", false);
+		Property created = company.createOwnedAttribute("created", null);
+		company.createInterfaceRealization("left", left);
+		company.createInterfaceRealization("right", right);
+
+		EList<Property> attributes = umlHelper.getAllAttributes(company);
+		assertEquals(4, attributes.size());
+		assertSame(created, attributes.get(0));
+		assertTrue(attributes.containsAll(Arrays.asList(id, name, value,
+				created)));
+
+		EList<Operation> operations = umlHelper.getAllOperations(company);
+		assertEquals(Arrays.asList(save), operations);
+
+		// The second call uses the collected features of the interfaces
+		assertEquals(attributes, umlHelper.getAllAttributes(company));
+	}
+
 	@Test
 	public void testGetTemplateParameterSubstitutionNotPrimitiveType() {
 		Classifier clazzifier = prepareMocks();
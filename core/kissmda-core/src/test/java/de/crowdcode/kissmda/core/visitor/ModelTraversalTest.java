@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package de.crowdcode.kissmda.core.visitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.Stereotype;
+import org.eclipse.uml2.uml.UMLPackage;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.util.Modules;
+
+import de.crowdcode.kissmda.core.Context;
+import de.crowdcode.kissmda.core.CoreModule;
+import de.crowdcode.kissmda.core.StandardContext;
+import de.crowdcode.kissmda.core.Transformer;
+import de.crowdcode.kissmda.core.TransformerException;
+import de.crowdcode.kissmda.core.file.FileWriter;
+import de.crowdcode.kissmda.core.uml.ModelIndex;
+
+/**
+ * Unit test for Model Traversal.
+ * 
+ * @author Lofi Dewanto
+ * @version 2.2.0
+ * @since 2.2.0
+ */
+public class ModelTraversalTest {
+
+	private StandardContext context;
+
+	private ModelTraversal modelTraversal;
+
+	private List<String> calls;
+
+	@Before
+	public void setUp() throws Exception {
+		context = new StandardContext();
+		String thisPath = this.getClass().getProtectionDomain()
+				.getCodeSource().getLocation().getPath();
+		context.setSourceModel(thisPath + "model/emf/test-uml.uml");
+		modelTraversal = Guice.createInjector(new CoreModule(context))
+				.getInstance(ModelTraversal.class);
+		calls = new ArrayList<String>();
+	}
+
+	@Test
+	public void testTraverseDispatchesToInterestedVisitors() {
+		RecordingVisitor entityVisitor = new RecordingVisitor("entity",
+				Collections.singleton("Entity"),
+				Collections.<EClass> emptySet());
+		RecordingVisitor classVisitor = new RecordingVisitor("class",
+				Collections.<String> emptySet(),
+				Collections.singleton(UMLPackage.Literals.CLASS));
+
+		modelTraversal.traverse(context,
+				Arrays.asList(entityVisitor, classVisitor));
+
+		assertEquals(3, entityVisitor.elements.size());
+		for (List<Stereotype> stereotypes : entityVisitor.stereotypes) {
+			assertEquals(1, stereotypes.size());
+			assertEquals("Entity", stereotypes.get(0).getName());
+		}
+		assertEquals(3, classVisitor.elements.size());
+		for (Element element : classVisitor.elements) {
+			assertTrue(element instanceof org.eclipse.uml2.uml.Class);
+		}
+		assertEquals("entity:start", calls.get(0));
+		assertEquals("class:start", calls.get(1));
+		assertEquals("entity:end", calls.get(calls.size() - 2));
+		assertEquals("class:end", calls.get(calls.size() - 1));
+	}
+
+	@Test
+	public void testTraverseVisitsSubclassesOfMetaclass() {
+		RecordingVisitor classifierVisitor = new RecordingVisitor(
+				"classifier", Collections.<String> emptySet(),
+				Collections.singleton(UMLPackage.Literals.CLASSIFIER));
+		RecordingVisitor classVisitor = new RecordingVisitor("class",
+				Collections.<String> emptySet(),
+				Collections.singleton(UMLPackage.Literals.CLASS));
+
+		modelTraversal.traverse(context,
+				Arrays.asList(classifierVisitor, classVisitor));
+
+		assertTrue(classifierVisitor.elements
+				.containsAll(classVisitor.elements));
+		assertTrue(classifierVisitor.elements.size() > classVisitor.elements
+				.size());
+		for (List<Stereotype> stereotypes : classifierVisitor.stereotypes) {
+			assertTrue(stereotypes.isEmpty());
+		}
+	}
+
+	@Test
+	public void testTraverseEndsVisitorsAfterError() {
+		final FileWriter fileWriter = mock(FileWriter.class);
+		modelTraversal = Guice.createInjector(
+				Modules.override(new CoreModule(context)).with(
+						new AbstractModule() {
+							@Override
+							protected void configure() {
+								bind(FileWriter.class).toInstance(fileWriter);
+							}
+						})).getInstance(ModelTraversal.class);
+		Set<String> entity = Collections.singleton("Entity");
+		Set<EClass> none = Collections.emptySet();
+		RecordingVisitor failingVisitor = new RecordingVisitor("failing",
+				entity, none) {
+			@Override
+			public void visit(Element element, List<Stereotype> stereotypes) {
+				throw new TransformerException("Visit failed");
+			}
+		};
+
+		try {
+			modelTraversal.traverse(context, Arrays.asList(
+					new RecordingVisitor("first", entity, none),
+					failingVisitor));
+			fail("TransformerException expected");
+		} catch (TransformerException e) {
+			assertEquals("Visit failed", e.getMessage());
+		}
+
+		assertEquals("first:end", calls.get(calls.size() - 2));
+		assertEquals("failing:end", calls.get(calls.size() - 1));
+		verify(fileWriter, never()).finishGeneration(context);
+	}
+
+	@Test
+	public void testScheduleKeepsConfiguredOrder() {
+		Set<String> entity = Collections.singleton("Entity");
+		Set<EClass> none = Collections.emptySet();
+		modelTraversal.schedule(new RecordingVisitor("first", entity, none),
+				context);
+		modelTraversal.schedule(new RecordingVisitor("second", entity, none),
+				context);
+		modelTraversal.schedule(new RecordingTransformer("plain"), context);
+		modelTraversal.schedule(new RecordingVisitor("third", entity, none),
+				context);
+		modelTraversal.flush(context);
+		modelTraversal.flush(context);
+
+		List<String> order = new ArrayList<String>();
+		for (String call : calls) {
+			if (!call.endsWith(":visit")) {
+				order.add(call);
+			}
+		}
+		assertEquals(Arrays.asList("first:start", "second:start",
+				"first:end", "second:end", "plain:transform", "third:start",
+				"third:end"), order);
+		// Both visitors of one traversal get an element one after the other
+		assertEquals("first:visit", calls.get(2));
+		assertEquals("second:visit", calls.get(3));
+	}
+
+	private class RecordingVisitor implements Transformer, ElementVisitor {
+
+		private final String name;
+
+		private final Set<String> stereotypeNames;
+
+		private final Set<EClass> metaclasses;
+
+		private final List<Element> elements = new ArrayList<Element>();
+
+		private final List<List<Stereotype>> stereotypes = new ArrayList<List<Stereotype>>();
+
+		RecordingVisitor(String name, Set<String> stereotypeNames,
+				Set<EClass> metaclasses) {
+			this.name = name;
+			this.stereotypeNames = new HashSet<String>(stereotypeNames);
+			this.metaclasses = new HashSet<EClass>(metaclasses);
+		}
+
+		@Override
+		public void transform(Context context) throws TransformerException {
+			modelTraversal.traverse(context, Collections.singletonList(this));
+		}
+
+		@Override
+		public Set<String> getStereotypeNames() {
+			return stereotypeNames;
+		}
+
+		@Override
+		public Set<EClass> getMetaclasses() {
+			return metaclasses;
+		}
+
+		@Override
+		public void startVisit(Context context, ModelIndex modelIndex) {
+			calls.add(name + ":start");
+		}
+
+		@Override
+		public void visit(Element element, List<Stereotype> stereotypes) {
+			calls.add(name + ":visit");
+			this.elements.add(element);
+			this.stereotypes.add(stereotypes);
+		}
+
+		@Override
+		public void endVisit(Context context) {
+			calls.add(name + ":end");
+		}
+	}
+
+	private class RecordingTransformer implements Transformer {
+
+		private final String name;
+
+		RecordingTransformer(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public void transform(Context context) throws TransformerException {
+			calls.add(name + ":transform");
+		}
+	}
+}
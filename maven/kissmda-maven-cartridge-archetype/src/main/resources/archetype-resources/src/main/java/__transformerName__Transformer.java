@@ -24,15 +24,14 @@ import java.util.logging.Logger;
 
 import javax.inject.Inject;
 
-import org.eclipse.emf.common.util.EList;
 import org.eclipse.uml2.uml.Class;
 import org.eclipse.uml2.uml.Element;
-import org.eclipse.uml2.uml.Stereotype;
 
 import de.crowdcode.kissmda.core.Context;
 import de.crowdcode.kissmda.core.Transformer;
 import de.crowdcode.kissmda.core.TransformerException;
 import de.crowdcode.kissmda.core.file.FileWriter;
+import de.crowdcode.kissmda.core.uml.ModelIndex;
 import de.crowdcode.kissmda.core.uml.PackageHelper;
 
 /**
@@ -81,36 +80,25 @@ public class ${transformerName}Transformer implements Transformer {
 	public void transform(Context context) throws TransformerException {
 		this.context = context;
 		try {
-			// Get the root package
-			org.eclipse.uml2.uml.Package outPackage = getRootPackage(context);
-			sourceDirectoryPackageName = "";
-
-			// Check the stereotype of the root package
-			checkStereotypeRootPackage(outPackage);
+			// Get the index of the model, it is built only once for all
+			// transformers
+			packageHelper.getRootPackage(context);
+			packageHelper.resolveStereotypes(STEREOTYPE_SOURCEDIRECTORY,
+					STEREOTYPE_ENTITY);
+			ModelIndex modelIndex = packageHelper.getModelIndex(context);
 
 			// Get all elements with defined stereotypes
-			EList<Element> list = outPackage.allOwnedElements();
-			for (Element element : list) {
-				EList<Stereotype> stereotypes = element.getAppliedStereotypes();
-				for (Stereotype stereotype : stereotypes) {
-					if (stereotype.getName().equals(STEREOTYPE_SOURCEDIRECTORY)) {
-						// From this SourceDirectory we can work...
-						org.eclipse.uml2.uml.Package packagez = (org.eclipse.uml2.uml.Package) element;
-						sourceDirectoryPackageName = packagez.getName();
-						logger.info("SourceDirectory package name: "
-								+ sourceDirectoryPackageName);
-					}
-					if (stereotype.getName().equals(STEREOTYPE_ENTITY)) {
-						// Stereotype Interface
-						Class clazz = (Class) element;
-						logger.info("Class: " + clazz.getName() + " - "
-								+ "Stereotype: " + stereotype.getName());
-						// Generate xxx for this class
-						// ...
-						
-						generateClassFile(clazz, "TODO");
-					}
-				}
+			for (Element element : modelIndex.getElements(STEREOTYPE_ENTITY)) {
+				sourceDirectoryPackageName = getSourceDirectoryPackageName(
+						modelIndex, element);
+				// Stereotype Interface
+				Class clazz = (Class) element;
+				logger.info("Class: " + clazz.getName() + " - "
+						+ "Stereotype: " + STEREOTYPE_ENTITY);
+				// Generate xxx for this class
+				// ...
+
+				generateClassFile(clazz, "TODO");
 			}
 		} catch (URISyntaxException e) {
 			throw new TransformerException(e);
@@ -119,25 +107,16 @@ public class ${transformerName}Transformer implements Transformer {
 		}
 	}
 
-	private void checkStereotypeRootPackage(
-			org.eclipse.uml2.uml.Package outPackage) {
-		EList<Stereotype> rootStereotypes = outPackage.getAppliedStereotypes();
-		for (Stereotype stereotype : rootStereotypes) {
-			if (stereotype.getName().equals(STEREOTYPE_SOURCEDIRECTORY)) {
+	private String getSourceDirectoryPackageName(ModelIndex modelIndex,
+			Element element) {
+		for (Element owner = element.getOwner(); owner != null; owner = owner
+				.getOwner()) {
+			if (modelIndex.hasStereotype(owner, STEREOTYPE_SOURCEDIRECTORY)) {
 				// From this SourceDirectory we can work...
-				org.eclipse.uml2.uml.Package packagez = outPackage;
-				sourceDirectoryPackageName = packagez.getName();
-				logger.info("SourceDirectory package name: "
-						+ sourceDirectoryPackageName);
+				return ((org.eclipse.uml2.uml.Package) owner).getName();
 			}
 		}
-	}
-
-	private org.eclipse.uml2.uml.Package getRootPackage(Context context)
-			throws URISyntaxException {
-		org.eclipse.uml2.uml.Package outPackage = packageHelper
-				.getRootPackage(context);
-		return outPackage;
+		return "";
 	}
 
 	/**
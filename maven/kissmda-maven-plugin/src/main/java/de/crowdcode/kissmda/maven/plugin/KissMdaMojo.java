@@ -18,6 +18,10 @@
  */
 package de.crowdcode.kissmda.maven.plugin;
 
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
 import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
@@ -26,6 +30,9 @@ import de.crowdcode.kissmda.core.CoreModule;
 import de.crowdcode.kissmda.core.StandardContext;
 import de.crowdcode.kissmda.core.Transformer;
 import de.crowdcode.kissmda.core.TransformerException;
+import de.crowdcode.kissmda.core.file.FileWriter;
+import de.crowdcode.kissmda.core.uml.ModelRepository;
+import de.crowdcode.kissmda.core.visitor.ModelTraversal;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -33,6 +40,11 @@ import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
 import org.reflections.Reflections;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -60,6 +72,10 @@ public class KissMdaMojo extends AbstractMojo {
 
 	private static final String MODULE_SUFFIX = "Module";
 
+	private static final long MEGABYTE = 1024L * 1024L;
+
+	private static final long DAY = 24L * 60L * 60L * 1000L;
+
 	public static final String ERROR_GUICE_SAME_PACKAGE_NOT_FOUND = "Error Guice module for the transformer in the same package not found!";
 
 	/**
@@ -122,6 +138,130 @@ public class KissMdaMojo extends AbstractMojo {
      */
     private String propertyFile;
 
+	/**
+	 * Use the persistent model cache. The loaded model and its profiles are
+	 * stored in the EMF binary format, so an unchanged model is not parsed
+	 * again.
+	 * 
+	 * @parameter default-value="false"
+	 */
+	private boolean modelCacheEnabled;
+
+	/**
+	 * Directory of the model cache.
+	 * 
+	 * @parameter default-value="target/kissmda/model-cache"
+	 */
+	private String modelCacheDirectory;
+
+	/**
+	 * Maximum size of the model cache in megabytes, 0 for no limit.
+	 * 
+	 * @parameter default-value="256"
+	 */
+	private long modelCacheMaxSize;
+
+	/**
+	 * Maximum age of the model cache entries in days, 0 for no limit.
+	 * 
+	 * @parameter default-value="7"
+	 */
+	private long modelCacheMaxAge;
+
+	/**
+	 * Load the model with pooled parsers, shared feature maps and intrinsic
+	 * id maps.
+	 * 
+	 * @parameter default-value="false"
+	 */
+	private boolean fastLoadEnabled;
+
+	/**
+	 * Load the profiles only for the stereotypes the transformers ask for.
+	 * 
+	 * @parameter default-value="false"
+	 */
+	private boolean lazyProfilesEnabled;
+
+	/**
+	 * Number of threads to generate the files, 1 for a sequential generation
+	 * and 0 for one thread per available processor.
+	 * 
+	 * @parameter default-value="1"
+	 */
+	private int generationThreads;
+
+	/**
+	 * Number of threads to write the files. With writer threads the
+	 * generation is a pipeline: the generation threads format the code and
+	 * hand it over to the writer threads. 0 writes the files in the
+	 * generation threads.
+	 * 
+	 * @parameter default-value="0"
+	 */
+	private int writerThreads;
+
+	/**
+	 * Generate only the elements which changed since the last run. The
+	 * fingerprints of the generated elements are stored in manifests.
+	 * 
+	 * @parameter default-value="false"
+	 */
+	private boolean incrementalEnabled;
+
+	/**
+	 * Delete the generated files which are not generated again in the next
+	 * run of the same transformers, source model and target directory, e.g.
+	 * the files of removed or renamed elements. Independent of the
+	 * incremental generation.
+	 * 
+	 * @parameter default-value="true"
+	 */
+	private boolean orphanDeletionEnabled;
+
+	/**
+	 * Directory of the generation manifests, which record the generated files
+	 * for the orphan deletion and the incremental generation.
+	 * 
+	 * @parameter default-value="target/kissmda/incremental"
+	 */
+	private String incrementalDirectory;
+
+	/**
+	 * Java version of the generated code for the code formatter.
+	 * 
+	 * @parameter default-value="1.5"
+	 */
+	private String formatterJavaVersion;
+
+	/**
+	 * Line ending of the formatted code: AUTO, KEEP, LF, CRLF or CR. AUTO
+	 * uses the line separator of the platform.
+	 * 
+	 * @parameter default-value="AUTO"
+	 */
+	private String formatterLineEnding;
+
+	/**
+	 * Print the generated code directly in the formatted layout instead of
+	 * formatting it with the JDT code formatter. Long lines are not wrapped.
+	 * 
+	 * @parameter default-value="false"
+	 */
+	private boolean directFormattingEnabled;
+
+	/**
+	 * Emit the source of the generated interfaces directly instead of
+	 * creating and formatting a JDT compilation unit. The code has the layout
+	 * of the direct formatting, so the emitter is only used together with
+	 * directFormattingEnabled. Without a compilation unit no
+	 * BeforeClassFileGeneratedEvent can be published, so the emitter is not
+	 * used if the event has subscribers, e.g. the import packer extension.
+	 * 
+	 * @parameter default-value="false"
+	 */
+	private boolean directEmitterEnabled;
+
 	private final StandardContext context;
 
 	private final LoggingLevelMapper loggingLevelMapper;
@@ -168,6 +308,66 @@ public class KissMdaMojo extends AbstractMojo {
 	    this.propertyFile = propertyFile;
     }
 
+	public void setModelCacheEnabled(boolean modelCacheEnabled) {
+		this.modelCacheEnabled = modelCacheEnabled;
+	}
+
+	public void setModelCacheDirectory(String modelCacheDirectory) {
+		this.modelCacheDirectory = modelCacheDirectory;
+	}
+
+	public void setModelCacheMaxSize(long modelCacheMaxSize) {
+		this.modelCacheMaxSize = modelCacheMaxSize;
+	}
+
+	public void setModelCacheMaxAge(long modelCacheMaxAge) {
+		this.modelCacheMaxAge = modelCacheMaxAge;
+	}
+
+	public void setFastLoadEnabled(boolean fastLoadEnabled) {
+		this.fastLoadEnabled = fastLoadEnabled;
+	}
+
+	public void setLazyProfilesEnabled(boolean lazyProfilesEnabled) {
+		this.lazyProfilesEnabled = lazyProfilesEnabled;
+	}
+
+	public void setGenerationThreads(int generationThreads) {
+		this.generationThreads = generationThreads;
+	}
+
+	public void setWriterThreads(int writerThreads) {
+		this.writerThreads = writerThreads;
+	}
+
+	public void setIncrementalEnabled(boolean incrementalEnabled) {
+		this.incrementalEnabled = incrementalEnabled;
+	}
+
+	public void setOrphanDeletionEnabled(boolean orphanDeletionEnabled) {
+		this.orphanDeletionEnabled = orphanDeletionEnabled;
+	}
+
+	public void setIncrementalDirectory(String incrementalDirectory) {
+		this.incrementalDirectory = incrementalDirectory;
+	}
+
+	public void setFormatterJavaVersion(String formatterJavaVersion) {
+		this.formatterJavaVersion = formatterJavaVersion;
+	}
+
+	public void setFormatterLineEnding(String formatterLineEnding) {
+		this.formatterLineEnding = formatterLineEnding;
+	}
+
+	public void setDirectFormattingEnabled(boolean directFormattingEnabled) {
+		this.directFormattingEnabled = directFormattingEnabled;
+	}
+
+	public void setDirectEmitterEnabled(boolean directEmitterEnabled) {
+		this.directEmitterEnabled = directEmitterEnabled;
+	}
+
 	/**
 	 * Execute.
 	 * 
@@ -193,6 +393,22 @@ public class KissMdaMojo extends AbstractMojo {
 			context.setTargetModel(fullNameTargetDirectory);
 			context.setTargetEncoding(targetEncoding);
 			context.setPropertyFile(propertyFile);
+			context.setModelCacheEnabled(modelCacheEnabled);
+			context.setModelCacheDirectory(project.getBasedir() + "/" + modelCacheDirectory);
+			context.setModelCacheMaxSize(modelCacheMaxSize * MEGABYTE);
+			context.setModelCacheMaxAge(modelCacheMaxAge * DAY);
+			context.setGeneratorVersion(getGeneratorVersion());
+			context.setFastLoadEnabled(fastLoadEnabled);
+			context.setLazyProfilesEnabled(lazyProfilesEnabled);
+			context.setGenerationThreads(getGenerationThreads());
+			context.setWriterThreads(Math.max(writerThreads, 0));
+			context.setIncrementalEnabled(incrementalEnabled);
+			context.setOrphanDeletionEnabled(orphanDeletionEnabled);
+			context.setIncrementalDirectory(project.getBasedir() + "/" + incrementalDirectory);
+			context.setFormatterJavaVersion(formatterJavaVersion);
+			context.setFormatterLineEnding(formatterLineEnding);
+			context.setDirectFormattingEnabled(directFormattingEnabled);
+			context.setDirectEmitterEnabled(directEmitterEnabled);
 
 			if (transformerNameWithOrders != null && transformerNameWithOrders.size() != 0) {
 				// transformerNameWithOrders wins if both are configured
@@ -200,6 +416,18 @@ public class KissMdaMojo extends AbstractMojo {
 			} else {
 				useTransformerScanPackageNames(parentInjector);
 			}
+			// Run the visitors which are still waiting for a traversal
+			parentInjector.getInstance(ModelTraversal.class).flush(context);
+
+			FileWriter fileWriter = parentInjector.getInstance(FileWriter.class);
+			logger.info("Generated files: " + fileWriter.getWrittenFiles() + " written, "
+					+ fileWriter.getUnchangedFiles() + " unchanged, " + fileWriter.getDeletedFiles() + " deleted");
+
+			if (lazyProfilesEnabled) {
+				Set<String> untouchedProfiles = parentInjector.getInstance(ModelRepository.class)
+						.getUntouchedProfiles();
+				logger.info("Untouched profiles: " + untouchedProfiles);
+			}
 
 			logger.info("Stop KissMdaMojo without error...");
 		} catch (TransformerException e) {
@@ -229,9 +457,11 @@ public class KissMdaMojo extends AbstractMojo {
 				// injector and execute
 				Injector injector = parentInjector.createChildInjector(guiceModuleClazz.newInstance());
 				Transformer transformer = injector.getInstance(transformerClazz);
-				transformer.transform(context);
+				addExtensionNames(transformerClazz.getName(), guiceModuleClazz.getName());
+				// Visitors share one traversal of the model
+				parentInjector.getInstance(ModelTraversal.class).schedule(transformer, context);
 
-				logger.info("Stop the transformation with following Transformer:" + transformerClazz.getName());
+				logger.info("Scheduled the transformation with following Transformer: " + transformerClazz.getName());
 			}
 		}
 	}
@@ -265,10 +495,74 @@ public class KissMdaMojo extends AbstractMojo {
 			// injector and execute
 			Injector injector = parentInjector.createChildInjector(guiceModuleClazz.newInstance());
 			Transformer transformer = injector.getInstance(transformerClazz);
-			transformer.transform(context);
+			addExtensionNames(transformerClazzName, guiceModuleClazzName);
+			// Visitors share one traversal of the model
+			parentInjector.getInstance(ModelTraversal.class).schedule(transformer, context);
+
+			logger.info("Scheduled the transformation with following Transformer: " + transformerClazzName);
+		}
+	}
+
+	/**
+	 * Add the transformer and its Guice module to the extension names of the
+	 * context. The event handlers they register change the files generated by
+	 * the transformers of the following traversals.
+	 */
+	void addExtensionNames(String transformerClazzName, String guiceModuleClazzName) {
+		List<String> extensionNames = new ArrayList<String>(context.getExtensionNames());
+		extensionNames.add(transformerClazzName);
+		extensionNames.add(guiceModuleClazzName);
+		context.setExtensionNames(extensionNames);
+	}
+
+	int getGenerationThreads() {
+		if (generationThreads <= 0) {
+			return Runtime.getRuntime().availableProcessors();
+		}
+		return generationThreads;
+	}
+
+	/**
+	 * Get the version of the generator. The implementation version stays the
+	 * same across SNAPSHOT builds and is missing without a manifest, so the
+	 * version is a hash of the content of the plugin and the core jar. Class
+	 * directories, e.g. in the IDE, add their newest modification time.
+	 * 
+	 * @return generatorVersion as String
+	 */
+	String getGeneratorVersion() {
+		Hasher hasher = Hashing.sha1().newHasher();
+		hasher.putString(String.valueOf(getClass().getPackage().getImplementationVersion()), Charsets.UTF_8);
+		for (Class<?> clazz : new Class<?>[] { getClass(), CoreModule.class }) {
+			CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+			if (codeSource == null) {
+				continue;
+			}
+			try {
+				File location = new File(codeSource.getLocation().toURI());
+				if (location.isFile()) {
+					hasher.putBytes(Files.hash(location, Hashing.sha1()).asBytes());
+				} else {
+					hasher.putLong(getLastModified(location));
+				}
+			} catch (URISyntaxException e) {
+				logger.warn("Cannot read the generator location: " + e.getMessage());
+			} catch (IOException e) {
+				logger.warn("Cannot read the generator location: " + e.getMessage());
+			}
+		}
+		return hasher.hash().toString();
+	}
 
-			logger.info("Stop the transformation with following Transformer:" + transformerClazzName);
+	private long getLastModified(File location) {
+		long lastModified = location.lastModified();
+		File[] files = location.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				lastModified = Math.max(lastModified, getLastModified(file));
+			}
 		}
+		return lastModified;
 	}
 
 	String getGuiceModuleName(String transformerClazzName) {
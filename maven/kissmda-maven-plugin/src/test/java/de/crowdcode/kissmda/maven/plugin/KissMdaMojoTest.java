@@ -23,6 +23,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.maven.plugin.MojoExecutionException;
@@ -162,6 +163,149 @@ public class KissMdaMojoTest {
 				"target.tmp.target.generated-sources.kissmda");
 	}
 
+	@Test
+	public void testContextObjectWithModelCache() throws MojoExecutionException {
+		List<String> packageNames = new ArrayList<String>();
+		packageNames.add("de.crowdcode.kissmda.maven.plugin.withguice");
+		MavenProject mavenProject = new MavenProject();
+		mavenProject.setFile(new File("target/tmp/test"));
+
+		kissMdaMojo.setTransformerScanPackageNames(packageNames);
+		kissMdaMojo.setModelFile("src/main/resources/model/emf/test-uml.uml");
+		kissMdaMojo.setModelCacheEnabled(true);
+		kissMdaMojo.setModelCacheDirectory("target/kissmda/model-cache");
+		kissMdaMojo.setModelCacheMaxSize(10);
+		kissMdaMojo.setModelCacheMaxAge(2);
+		kissMdaMojo.setProject(mavenProject);
+		kissMdaMojo.execute();
+
+		Context context = kissMdaMojo.getContext();
+
+		String resultModelCacheDirectory = context.getModelCacheDirectory()
+				.replace("\\", ".");
+		resultModelCacheDirectory = resultModelCacheDirectory.replace("/", ".");
+		assertTrue(context.isModelCacheEnabled());
+		assertEquals("target.tmp.target.kissmda.model-cache",
+				resultModelCacheDirectory);
+		assertEquals(10L * 1024L * 1024L, context.getModelCacheMaxSize());
+		assertEquals(2L * 24L * 60L * 60L * 1000L,
+				context.getModelCacheMaxAge());
+	}
+
+	@Test
+	public void testContextObjectWithFastLoad() throws MojoExecutionException {
+		List<String> packageNames = new ArrayList<String>();
+		packageNames.add("de.crowdcode.kissmda.maven.plugin.withguice");
+		MavenProject mavenProject = new MavenProject();
+		mavenProject.setFile(new File("target/tmp/test"));
+
+		kissMdaMojo.setTransformerScanPackageNames(packageNames);
+		kissMdaMojo.setModelFile("src/main/resources/model/emf/test-uml.uml");
+		kissMdaMojo.setFastLoadEnabled(true);
+		kissMdaMojo.setProject(mavenProject);
+		kissMdaMojo.execute();
+
+		Context context = kissMdaMojo.getContext();
+
+		assertTrue(context.isFastLoadEnabled());
+	}
+
+	@Test
+	public void testContextObjectWithLazyProfiles() throws MojoExecutionException {
+		List<String> packageNames = new ArrayList<String>();
+		packageNames.add("de.crowdcode.kissmda.maven.plugin.withguice");
+		MavenProject mavenProject = new MavenProject();
+		mavenProject.setFile(new File("target/tmp/test"));
+
+		kissMdaMojo.setTransformerScanPackageNames(packageNames);
+		kissMdaMojo.setModelFile("src/main/resources/model/emf/test-uml.uml");
+		kissMdaMojo.setLazyProfilesEnabled(true);
+		kissMdaMojo.setProject(mavenProject);
+		kissMdaMojo.execute();
+
+		Context context = kissMdaMojo.getContext();
+
+		assertTrue(context.isLazyProfilesEnabled());
+	}
+
+	@Test
+	public void testContextObjectWithGenerationThreads() throws MojoExecutionException {
+		List<String> packageNames = new ArrayList<String>();
+		packageNames.add("de.crowdcode.kissmda.maven.plugin.withguice");
+		MavenProject mavenProject = new MavenProject();
+		mavenProject.setFile(new File("target/tmp/test"));
+
+		kissMdaMojo.setTransformerScanPackageNames(packageNames);
+		kissMdaMojo.setModelFile("src/main/resources/model/emf/test-uml.uml");
+		kissMdaMojo.setGenerationThreads(4);
+		kissMdaMojo.setProject(mavenProject);
+		kissMdaMojo.execute();
+
+		Context context = kissMdaMojo.getContext();
+
+		assertEquals(4, context.getGenerationThreads());
+	}
+
+	@Test
+	public void testContextObjectWithWriterThreads() throws MojoExecutionException {
+		List<String> packageNames = new ArrayList<String>();
+		packageNames.add("de.crowdcode.kissmda.maven.plugin.withguice");
+		MavenProject mavenProject = new MavenProject();
+		mavenProject.setFile(new File("target/tmp/test"));
+
+		kissMdaMojo.setTransformerScanPackageNames(packageNames);
+		kissMdaMojo.setModelFile("src/main/resources/model/emf/test-uml.uml");
+		kissMdaMojo.setWriterThreads(2);
+		kissMdaMojo.setProject(mavenProject);
+		kissMdaMojo.execute();
+
+		Context context = kissMdaMojo.getContext();
+
+		assertEquals(2, context.getWriterThreads());
+	}
+
+	@Test
+	public void testContextObjectWithExtensionNames() throws MojoExecutionException {
+		List<String> transformerNameWithOrders = new ArrayList<String>();
+		transformerNameWithOrders
+				.add("2:de.crowdcode.kissmda.maven.plugin.withguice.MockTransformer");
+		transformerNameWithOrders
+				.add("1:de.crowdcode.kissmda.maven.plugin.manypackages.Mock2Transformer");
+		MavenProject mavenProject = new MavenProject();
+		mavenProject.setFile(new File("target/tmp/test"));
+
+		kissMdaMojo.setTransformerNameWithOrders(transformerNameWithOrders);
+		kissMdaMojo.setModelFile("src/main/resources/model/emf/test-uml.uml");
+		kissMdaMojo.setProject(mavenProject);
+		kissMdaMojo.execute();
+
+		Context context = kissMdaMojo.getContext();
+
+		assertEquals(Arrays.asList(
+				"de.crowdcode.kissmda.maven.plugin.manypackages.Mock2Transformer",
+				"de.crowdcode.kissmda.maven.plugin.manypackages.Mock2Module",
+				"de.crowdcode.kissmda.maven.plugin.withguice.MockTransformer",
+				"de.crowdcode.kissmda.maven.plugin.withguice.MockModule"),
+				context.getExtensionNames());
+	}
+
+	@Test
+	public void testGetGenerationThreadsWithAvailableProcessors() {
+		kissMdaMojo.setGenerationThreads(0);
+
+		assertEquals(Runtime.getRuntime().availableProcessors(),
+				kissMdaMojo.getGenerationThreads());
+	}
+
+	@Test
+	public void testGetGeneratorVersion() {
+		String generatorVersion = kissMdaMojo.getGeneratorVersion();
+
+		// Without a manifest the version is still known and stable
+		assertEquals(40, generatorVersion.length());
+		assertEquals(generatorVersion, new KissMdaMojo().getGeneratorVersion());
+	}
+
 	@Test
 	public void testGetGuiceModuleName() {
 		String transformerClazzName = "de.crowdcode.kissmda.cartridges.extensions.ExtensionExamplesTransformer";